@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+
+package thredds.server.catalog;
+
+import org.openjdk.jmh.annotations.*;
+import ucar.unidata.util.StringUtil2;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finding the dataRoot of request paths with 100k dataRoots, one per station and product:
+ * the PathTrie used by DataRootPathMatcher, against the reverse sorted TreeSet scan it replaced.
+ * The "fallback" requests only match a short dataRoot above the stations, which makes the TreeSet scan long.
+ *
+ * @since 10/17/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DataRootPathBenchmark {
+  private static final int NSTATIONS = 10000;
+  private static final int NPRODUCTS = 10;
+  private static final int NREQUESTS = 1000;
+
+  private final PathTrie trie = new PathTrie();
+  private final TreeSet<String> treeSet = new TreeSet<>(Comparator.reverseOrder());
+  private String[] requests;
+  private String[] fallbacks;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    add("obs");
+    add("obs/stations");
+    for (int s = 0; s < NSTATIONS; s++)
+      for (int p = 0; p < NPRODUCTS; p++)
+        add(String.format("obs/stations/K%05d/product%d", s, p));
+
+    Random random = new Random(22);
+    requests = new String[NREQUESTS];
+    fallbacks = new String[NREQUESTS];
+    for (int i = 0; i < NREQUESTS; i++) {
+      int s = random.nextInt(NSTATIONS);
+      requests[i] = String.format("obs/stations/K%05d/product%d/2018/01/data.nc", s, random.nextInt(NPRODUCTS));
+      fallbacks[i] = String.format("obs/stations/K%05d/latest.xml", s);
+    }
+  }
+
+  private void add(String path) {
+    trie.add(path);
+    treeSet.add(path);
+  }
+
+  @Benchmark
+  public int trie() {
+    return find(requests, true);
+  }
+
+  @Benchmark
+  public int treeSet() {
+    return find(requests, false);
+  }
+
+  @Benchmark
+  public int trieFallback() {
+    return find(fallbacks, true);
+  }
+
+  @Benchmark
+  public int treeSetFallback() {
+    return find(fallbacks, false);
+  }
+
+  private int find(String[] reqs, boolean useTrie) {
+    int sum = 0;
+    for (String req : reqs) {
+      String match = useTrie ? trie.findLongestPrefix(req) : findTreeSet(req);
+      sum += match.length();
+    }
+    return sum;
+  }
+
+  // the DataRootPathMatcher algorithm before PathTrie
+  private String findTreeSet(String reqPath) {
+    SortedSet<String> tail = treeSet.tailSet(reqPath);
+    if (tail.isEmpty()) return null;
+    String after = tail.first();
+    if (reqPath.startsWith(after))
+      return after;
+
+    for (String key : tail) {
+      if (reqPath.startsWith(key))
+        return key;
+      if (StringUtil2.match(reqPath, key) == 0)
+        break;
+    }
+    return null;
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+
+package ucar.ma2;
+
+import org.openjdk.jmh.annotations.*;
+import ucar.nc2.benchmark.BenchmarkFixtures;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Traversal of a 3D float Array: the canonical-order iterator, explicit Index access,
+ * iterators over strided and permuted views, and copies to a java array.
+ *
+ * @since 10/17/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ArrayIteratorBenchmark {
+  private static final int NT = BenchmarkFixtures.NTIMES;
+  private static final int NY = BenchmarkFixtures.NY;
+  private static final int NX = BenchmarkFixtures.NX;
+
+  private Array data;
+  private Array strided;
+  private Array permuted;
+
+  @Setup(Level.Trial)
+  public void setup() throws InvalidRangeException {
+    Random random = new Random(BenchmarkFixtures.SEED);
+    float[] values = new float[NT * NY * NX];
+    for (int t = 0; t < NT; t++)
+      System.arraycopy(BenchmarkFixtures.makeField(t, NY, NX, random), 0, values, t * NY * NX, NY * NX);
+
+    data = Array.factory(DataType.FLOAT, new int[]{NT, NY, NX}, values);
+    strided = data.section(new int[]{0, 0, 0}, new int[]{NT, NY / 2, NX / 2}, new int[]{1, 2, 2});
+    permuted = data.permute(new int[]{2, 1, 0});
+  }
+
+  @Benchmark
+  public double iterate() {
+    double sum = 0;
+    IndexIterator iter = data.getIndexIterator();
+    while (iter.hasNext())
+      sum += iter.getFloatNext();
+    return sum;
+  }
+
+  @Benchmark
+  public double iterateAsDouble() {
+    double sum = 0;
+    IndexIterator iter = data.getIndexIterator();
+    while (iter.hasNext())
+      sum += iter.getDoubleNext();
+    return sum;
+  }
+
+  @Benchmark
+  public double index() {
+    double sum = 0;
+    Index ima = data.getIndex();
+    for (int t = 0; t < NT; t++)
+      for (int y = 0; y < NY; y++)
+        for (int x = 0; x < NX; x++)
+          sum += data.getFloat(ima.set(t, y, x));
+    return sum;
+  }
+
+  @Benchmark
+  public double iterateStrided() {
+    double sum = 0;
+    IndexIterator iter = strided.getIndexIterator();
+    while (iter.hasNext())
+      sum += iter.getFloatNext();
+    return sum;
+  }
+
+  @Benchmark
+  public double iteratePermuted() {
+    double sum = 0;
+    IndexIterator iter = permuted.getIndexIterator();
+    while (iter.hasNext())
+      sum += iter.getFloatNext();
+    return sum;
+  }
+
+  @Benchmark
+  public Object copyTo1DJavaArray() {
+    return permuted.copyTo1DJavaArray();
+  }
+
+  @Benchmark
+  public Object get1DJavaArrayAsDouble() {
+    return data.get1DJavaArray(DataType.DOUBLE);
+  }
+}
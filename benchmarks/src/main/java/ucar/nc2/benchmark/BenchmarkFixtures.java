@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+
+package ucar.nc2.benchmark;
+
+import ucar.ma2.Array;
+import ucar.ma2.DataType;
+import ucar.ma2.InvalidRangeException;
+import ucar.nc2.Attribute;
+import ucar.nc2.NetcdfFileWriter;
+import ucar.nc2.Variable;
+import ucar.nc2.jni.netcdf.Nc4Iosp;
+import ucar.nc2.write.Nc4Chunking;
+import ucar.nc2.write.Nc4ChunkingStrategy;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Random;
+
+/**
+ * Generates the local files read by the benchmarks.
+ * Every trial writes its own fixtures into a temporary directory, so no test data is needed,
+ * and a fixed seed keeps the bytes identical from run to run.
+ *
+ * @since 10/17/2026
+ */
+public class BenchmarkFixtures {
+  public static final int NTIMES = 24;
+  public static final int NY = 180;
+  public static final int NX = 360;
+
+  public static final long SEED = 20261017L;
+
+  public static final short PACKED_FILL = Short.MIN_VALUE;
+  public static final double PACKED_SCALE = 0.01;
+  public static final double PACKED_OFFSET = 273.15;
+
+  public static File createTempDir(String prefix) throws IOException {
+    return Files.createTempDirectory("thredds-bench-" + prefix).toFile();
+  }
+
+  public static void deleteDir(File dir) {
+    File[] files = dir.listFiles();
+    if (files != null) {
+      for (File f : files) {
+        if (f.isDirectory()) deleteDir(f);
+        else if (!f.delete()) f.deleteOnExit();
+      }
+    }
+    if (!dir.delete()) dir.deleteOnExit();
+  }
+
+  public static File writeRandomBytes(File file, int size) throws IOException {
+    Random random = new Random(SEED);
+    byte[] buff = new byte[64 * 1024];
+    try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+      for (int done = 0; done < size; done += buff.length) {
+        random.nextBytes(buff);
+        out.write(buff, 0, Math.min(buff.length, size - done));
+      }
+    }
+    return file;
+  }
+
+  /**
+   * A smooth field with a little noise, roughly like a model temperature grid.
+   * Data like this compresses and packs the way real data does, unlike random bytes.
+   *
+   * @param time   time index, shifts the pattern
+   * @param ny     number of rows
+   * @param nx     number of columns
+   * @param random noise source
+   * @return values in row-major order
+   */
+  public static float[] makeField(int time, int ny, int nx, Random random) {
+    float[] result = new float[ny * nx];
+    for (int j = 0; j < ny; j++) {
+      double lat = Math.PI * (j - ny / 2.0) / ny;
+      for (int i = 0; i < nx; i++) {
+        double lon = 2.0 * Math.PI * (i + time) / nx;
+        result[j * nx + i] = (float) (273.15 + 20.0 * Math.cos(lat) + 5.0 * Math.sin(lon) + 0.5 * random.nextGaussian());
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Write a netCDF-3 file with:
+   * <ul>
+   *   <li>temp(time, y, x): float record variable</li>
+   *   <li>packed(time, y, x): short record variable with scale_factor, add_offset and _FillValue; about 1% is missing</li>
+   *   <li>elev(y, x): float non-record variable</li>
+   * </ul>
+   */
+  public static File writeNetcdf3(File file) throws IOException {
+    try (NetcdfFileWriter writer = NetcdfFileWriter.createNew(NetcdfFileWriter.Version.netcdf3, file.getPath())) {
+      writeGrids(writer);
+    }
+    return file;
+  }
+
+  /**
+   * Write a netCDF-4 file with the same variables as {@link #writeNetcdf3}, chunked and deflated.
+   * Needs the netCDF-C library, since that is the only netCDF-4 writer we have.
+   */
+  public static File writeNetcdf4(File file, int deflateLevel, boolean shuffle) throws IOException {
+    if (!Nc4Iosp.isClibraryPresent())
+      throw new IllegalStateException("Writing the netCDF-4 fixture needs the netCDF-C library; set jna.library.path");
+
+    Nc4Chunking chunker = Nc4ChunkingStrategy.factory(Nc4Chunking.Strategy.standard, deflateLevel, shuffle);
+    try (NetcdfFileWriter writer = NetcdfFileWriter.createNew(NetcdfFileWriter.Version.netcdf4, file.getPath(), chunker)) {
+      writeGrids(writer);
+    }
+    return file;
+  }
+
+  private static void writeGrids(NetcdfFileWriter writer) throws IOException {
+    writer.addUnlimitedDimension("time");
+    writer.addDimension("y", NY);
+    writer.addDimension("x", NX);
+
+    Variable time = writer.addVariable("time", DataType.DOUBLE, "time");
+    writer.addVariableAttribute(time, new Attribute("units", "hours since 2026-01-01T00:00:00Z"));
+
+    Variable temp = writer.addVariable("temp", DataType.FLOAT, "time y x");
+    writer.addVariableAttribute(temp, new Attribute("units", "K"));
+
+    Variable packed = writer.addVariable("packed", DataType.SHORT, "time y x");
+    writer.addVariableAttribute(packed, new Attribute("units", "K"));
+    writer.addVariableAttribute(packed, new Attribute("scale_factor", PACKED_SCALE));
+    writer.addVariableAttribute(packed, new Attribute("add_offset", PACKED_OFFSET));
+    writer.addVariableAttribute(packed, new Attribute("_FillValue", PACKED_FILL));
+
+    Variable elev = writer.addVariable("elev", DataType.FLOAT, "y x");
+    writer.addVariableAttribute(elev, new Attribute("units", "m"));
+
+    writer.create();
+
+    Random random = new Random(SEED);
+    try {
+      writer.write(elev, Array.factory(DataType.FLOAT, new int[]{NY, NX}, makeField(0, NY, NX, random)));
+
+      for (int t = 0; t < NTIMES; t++) {
+        int[] origin = new int[]{t, 0, 0};
+        int[] shape = new int[]{1, NY, NX};
+        float[] field = makeField(t, NY, NX, random);
+
+        short[] packedField = new short[field.length];
+        for (int i = 0; i < field.length; i++) {
+          packedField[i] = (random.nextInt(100) == 0) ? PACKED_FILL :
+                  (short) Math.round((field[i] - PACKED_OFFSET) / PACKED_SCALE);
+        }
+
+        writer.write(time, new int[]{t}, Array.factory(DataType.DOUBLE, new int[]{1}, new double[]{t}));
+        writer.write(temp, origin, Array.factory(DataType.FLOAT, shape, field));
+        writer.write(packed, origin, Array.factory(DataType.SHORT, shape, packedField));
+      }
+    } catch (InvalidRangeException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+
+package ucar.nc2.dataset;
+
+import org.openjdk.jmh.annotations.*;
+import ucar.ma2.Array;
+import ucar.ma2.IndexIterator;
+import ucar.nc2.benchmark.BenchmarkFixtures;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EnhanceScaleMissingImpl.convertScaleOffsetMissing over packed shorts with scale_factor, add_offset and _FillValue,
+ * both the whole Array at once and one value at a time.
+ *
+ * @since 10/17/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class EnhanceScaleMissingBenchmark {
+  private File dir;
+  private NetcdfDataset ncd;
+  private EnhanceScaleMissingImpl esm;
+  private Array packed;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    dir = BenchmarkFixtures.createTempDir("esm");
+    File file = BenchmarkFixtures.writeNetcdf3(new File(dir, "grids.nc"));
+
+    ncd = NetcdfDataset.openDataset(file.getPath(), false, null);
+    VariableDS vds = (VariableDS) ncd.findVariable("packed");
+    packed = vds.read();
+    esm = new EnhanceScaleMissingImpl(vds, true, true, true, true);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    ncd.close();
+    BenchmarkFixtures.deleteDir(dir);
+  }
+
+  @Benchmark
+  public Array convertArray() {
+    return esm.convertScaleOffsetMissing(packed);
+  }
+
+  @Benchmark
+  public double convertScalar() {
+    double sum = 0;
+    IndexIterator iter = packed.getIndexIterator();
+    while (iter.hasNext()) {
+      double val = esm.convertScaleOffsetMissing(iter.getShortNext());
+      if (!Double.isNaN(val)) sum += val;
+    }
+    return sum;
+  }
+}
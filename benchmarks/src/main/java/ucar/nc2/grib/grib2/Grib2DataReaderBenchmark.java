@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+
+package ucar.nc2.grib.grib2;
+
+import org.openjdk.jmh.annotations.*;
+import ucar.nc2.benchmark.BenchmarkFixtures;
+import ucar.unidata.io.RandomAccessFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unpacking of a half degree global field by Grib2DataReader2, which Grib2Record.readData() uses,
+ * for simple (5.0), complex (5.2) and JPEG 2000 (5.40) packing.
+ *
+ * @since 10/17/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class Grib2DataReaderBenchmark {
+  private static final int NX = 720;
+  private static final int NY = 361;
+
+  @Param({"0", "2", "40"})
+  public int template;
+
+  private File dir;
+  private RandomAccessFile raf;
+  private Grib2FieldWriter.Field field;
+  private Grib2Drs drs;
+  private final Grib2SectionBitMap noBitmap = new Grib2SectionBitMap(0, 255);
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    dir = BenchmarkFixtures.createTempDir("grib2");
+    float[] values = BenchmarkFixtures.makeField(0, NY, NX, new Random(BenchmarkFixtures.SEED));
+    File file = new File(dir, "field" + template + ".grib2");
+    field = new Grib2FieldWriter(values, NX, NY).write(template, file);
+
+    raf = new RandomAccessFile(file.getPath(), "r");
+    raf.order(RandomAccessFile.BIG_ENDIAN);
+    raf.seek(field.drsPos);
+    drs = Grib2Drs.factory(template, raf);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    raf.close();
+    BenchmarkFixtures.deleteDir(dir);
+  }
+
+  @Benchmark
+  public float[] unpack() throws IOException {
+    Grib2DataReader2 reader = new Grib2DataReader2(template, field.npoints, field.npoints, 0, NX,
+            field.dataPos, field.dataLength);
+    return reader.getData(raf, noBitmap, drs);
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+
+package ucar.nc2.grib.grib2;
+
+import org.openjdk.jmh.annotations.*;
+import ucar.nc2.benchmark.BenchmarkFixtures;
+import ucar.unidata.io.RandomAccessFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of the data section of a half degree global field by the Grib2DataDecoders, compared with the
+ * older Grib2JpegDecoder:
+ * <ul>
+ * <li>legacyJpeg2000: Grib2JpegDecoder, template 5.40</li>
+ * <li>jpeg2000: Grib2Jpeg2000Decoder, template 5.40</li>
+ * <li>ccsds: Grib2CcsdsDecoder, template 5.42</li>
+ * </ul>
+ * Set the file parameter to a GRIB-2 file with 5.40 or 5.42 messages (eg from cdmUnitTest) to decode the first
+ * message of that template in it instead.
+ *
+ * @since 10/17/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class Grib2DecoderBenchmark {
+  private static final int NX = 720;
+  private static final int NY = 361;
+
+  @Param({"legacyJpeg2000", "jpeg2000", "ccsds"})
+  public String decoder;
+
+  // a real GRIB-2 file; if empty, decode a synthetic field
+  @Param({""})
+  public String file;
+
+  private File dir;
+  private int template;
+  private Grib2Drs.Type0 drs;
+  private byte[] data;
+  private int npoints;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    template = decoder.equals("ccsds") ? 42 : 40;
+    if (!file.isEmpty()) {
+      readMessage(file);
+      return;
+    }
+
+    dir = BenchmarkFixtures.createTempDir("grib2decoder");
+    float[] values = BenchmarkFixtures.makeField(0, NY, NX, new Random(BenchmarkFixtures.SEED));
+    File file = new File(dir, "field" + template + ".grib2");
+    Grib2FieldWriter.Field field = new Grib2FieldWriter(values, NX, NY).write(template, file);
+    npoints = field.npoints;
+
+    try (RandomAccessFile raf = new RandomAccessFile(file.getPath(), "r")) {
+      raf.order(RandomAccessFile.BIG_ENDIAN);
+      raf.seek(field.drsPos);
+      drs = (Grib2Drs.Type0) Grib2Drs.factory(template, raf);
+      data = new byte[field.dataLength - 5];
+      raf.seek(field.dataPos + 5);
+      raf.readFully(data);
+    }
+  }
+
+  // the data of the first message in the file that uses the template and has packed values
+  private void readMessage(String filename) throws IOException {
+    try (RandomAccessFile raf = new RandomAccessFile(filename, "r")) {
+      raf.order(RandomAccessFile.BIG_ENDIAN);
+      Grib2RecordScanner scanner = new Grib2RecordScanner(raf);
+      while (scanner.hasNext()) {
+        Grib2Record gr = scanner.next();
+        Grib2SectionDataRepresentation drss = gr.getDataRepresentationSection();
+        if (drss.getDataTemplate() != template)
+          continue;
+        Grib2Drs.Type0 gdrs = (Grib2Drs.Type0) drss.getDrs(raf);
+        if (gdrs.numberOfBits == 0)
+          continue;
+
+        drs = gdrs;
+        npoints = drss.getDataPoints();
+        Grib2SectionData dataSection = gr.getDataSection();
+        data = new byte[dataSection.getMsgLength() - 5];
+        raf.seek(dataSection.getStartingPosition() + 5);
+        raf.readFully(data);
+        return;
+      }
+    }
+    throw new IllegalArgumentException(filename + " has no GRIB-2 messages with data template 5." + template);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    if (dir != null)
+      BenchmarkFixtures.deleteDir(dir);
+  }
+
+  @Benchmark
+  public int[] decode() throws IOException {
+    if (decoder.equals("legacyJpeg2000")) {
+      Grib2JpegDecoder g2j = new Grib2JpegDecoder(drs.numberOfBits, false);
+      g2j.decode(data);
+      return g2j.getGdata();
+    }
+    return Grib2DataReader2.getDecoder(template).decode(template, drs, data, npoints);
+  }
+}
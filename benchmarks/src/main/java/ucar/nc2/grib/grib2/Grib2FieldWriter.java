@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+
+package ucar.nc2.grib.grib2;
+
+import ucar.jpeg.jj2000.j2k.encoder.Encoder;
+import ucar.jpeg.jj2000.j2k.util.ParameterList;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+
+/**
+ * Packs a float field into the bytes that Grib2DataReader2 decodes: the data representation template
+ * (section 5, from octet 12 on) and the data section (section 7).
+ * The other sections of a GRIB-2 message are not written, and no bitmap is used.
+ *
+ * Supports simple packing (5.0), complex packing (5.2), lossless JPEG 2000 (5.40) and CCSDS (5.42).
+ *
+ * @since 10/17/2026
+ */
+class Grib2FieldWriter {
+  private static final int DECIMAL_SCALE = 1;
+  private static final int GROUP_LENGTH = 32;
+  private static final int CCSDS_BLOCK_SIZE = 32;
+  private static final int CCSDS_RSI = 128;
+
+  /** Where one packed field lives in the fixture file. */
+  static class Field {
+    final int template;
+    final int npoints;
+    final long drsPos;
+    final long dataPos;
+    final int dataLength;
+
+    Field(int template, int npoints, long drsPos, long dataPos, int dataLength) {
+      this.template = template;
+      this.npoints = npoints;
+      this.drsPos = drsPos;
+      this.dataPos = dataPos;
+      this.dataLength = dataLength;
+    }
+  }
+
+  private final int nx, ny;
+  private final int ref;    // R, in scaled units
+  private final int[] x;    // X = Y * 10^D - R
+
+  Grib2FieldWriter(float[] values, int nx, int ny) {
+    this.nx = nx;
+    this.ny = ny;
+    double dd = Math.pow(10, DECIMAL_SCALE);
+
+    int[] scaled = new int[values.length];
+    int min = Integer.MAX_VALUE;
+    for (int i = 0; i < values.length; i++) {
+      scaled[i] = (int) Math.round(values[i] * dd);
+      min = Math.min(min, scaled[i]);
+    }
+    for (int i = 0; i < scaled.length; i++)
+      scaled[i] -= min;
+
+    this.ref = min;
+    this.x = scaled;
+  }
+
+  /**
+   * Write the field packed with the given template to file.
+   *
+   * @param template 0, 2, 40 or 42
+   * @param file     write to this file; overwritten
+   * @return positions of the data representation template and the data section in the file
+   */
+  Field write(int template, File file) throws IOException {
+    ByteArrayOutputStream drsBytes = new ByteArrayOutputStream();
+    byte[] payload;
+
+    DataOutputStream drs = new DataOutputStream(drsBytes);
+    switch (template) {
+      case 0: {
+        int nbits = bitsNeeded(max(x, 0, x.length));
+        writeType0(drs, nbits);
+        BitWriter bits = new BitWriter();
+        for (int v : x) bits.write(v, nbits);
+        payload = bits.toByteArray();
+        break;
+      }
+      case 2:
+        payload = writeComplex(drs);
+        break;
+      case 40: {
+        int nbits = bitsNeeded(max(x, 0, x.length));
+        writeType0(drs, nbits);
+        drs.write(0);   // compressionMethod: lossless
+        drs.write(255); // compressionRatio: missing
+        payload = encodeJpeg2000(nbits, file.getParentFile());
+        break;
+      }
+      case 42: {
+        int nbits = bitsNeeded(max(x, 0, x.length));
+        writeType0(drs, nbits);
+        drs.write(Grib2CcsdsDecoder.AEC_DATA_PREPROCESS);
+        drs.write(CCSDS_BLOCK_SIZE);
+        drs.writeShort(CCSDS_RSI);
+        payload = encodeCcsds(nbits);
+        break;
+      }
+      default:
+        throw new UnsupportedOperationException("Unsupported DRS template = " + template);
+    }
+    drs.flush();
+
+    try (OutputStream out = new FileOutputStream(file)) {
+      DataOutputStream dout = new DataOutputStream(out);
+      dout.write(drsBytes.toByteArray());
+      long dataPos = dout.size();
+      dout.writeInt(payload.length + 5);  // section length
+      dout.write(7);                      // section number
+      dout.write(payload);
+      dout.flush();
+      return new Field(template, x.length, 0, dataPos, payload.length + 5);
+    }
+  }
+
+  // template 5.0 octets 12-21; also the start of 5.2 and 5.40
+  private void writeType0(DataOutputStream drs, int nbits) throws IOException {
+    drs.writeFloat(ref);
+    writeInt2(drs, 0);              // binary scale factor
+    writeInt2(drs, DECIMAL_SCALE);  // decimal scale factor
+    drs.write(nbits);
+    drs.write(0);                   // original type: floating point
+  }
+
+  // template 5.2 and data template 7.2, groups of GROUP_LENGTH values
+  private byte[] writeComplex(DataOutputStream drs) throws IOException {
+    int ngroups = (x.length + GROUP_LENGTH - 1) / GROUP_LENGTH;
+    int[] groupRef = new int[ngroups];
+    int[] groupWidth = new int[ngroups];
+    for (int g = 0; g < ngroups; g++) {
+      int start = g * GROUP_LENGTH;
+      int end = Math.min(start + GROUP_LENGTH, x.length);
+      groupRef[g] = min(x, start, end);
+      groupWidth[g] = bitsNeeded(max(x, start, end) - groupRef[g]);
+    }
+    int lastGroupLength = x.length - (ngroups - 1) * GROUP_LENGTH;
+    int bitsRef = bitsNeeded(max(groupRef, 0, ngroups));
+    int bitsWidth = bitsNeeded(max(groupWidth, 0, ngroups));
+
+    writeType0(drs, bitsRef);
+    drs.write(1);               // splitting method: general group splitting
+    drs.write(0);               // missing value management: none
+    drs.writeFloat(0);          // primary missing value
+    drs.writeFloat(0);          // secondary missing value
+    drs.writeInt(ngroups);
+    drs.write(0);               // reference for group widths
+    drs.write(bitsWidth);
+    drs.writeInt(GROUP_LENGTH); // reference for group lengths
+    drs.write(1);               // length increment
+    drs.writeInt(lastGroupLength);
+    drs.write(0);               // bits for scaled group lengths: all groups are GROUP_LENGTH long
+
+    BitWriter bits = new BitWriter();
+    for (int g = 0; g < ngroups; g++)
+      bits.write(groupRef[g], bitsRef);
+    bits.align();
+    for (int g = 0; g < ngroups; g++)
+      bits.write(groupWidth[g], bitsWidth);
+    bits.align();
+    for (int g = 0; g < ngroups; g++) {
+      int start = g * GROUP_LENGTH;
+      int end = Math.min(start + GROUP_LENGTH, x.length);
+      for (int i = start; i < end; i++)
+        bits.write(x[i] - groupRef[g], groupWidth[g]);
+    }
+    return bits.toByteArray();
+  }
+
+  // write X as a PGX image and run the jj2000 encoder over it, producing a raw codestream
+  private byte[] encodeJpeg2000(int nbits, File dir) throws IOException {
+    File pgx = new File(dir, "field.pgx");
+    File j2k = new File(dir, "field.j2k");
+    int bytesPerSample = nbits <= 8 ? 1 : (nbits <= 16 ? 2 : 4);
+    try (DataOutputStream out = new DataOutputStream(new FileOutputStream(pgx))) {
+      out.writeBytes(String.format("PG ML + %d %d %d\n", nbits, nx, ny));
+      for (int v : x) {
+        if (bytesPerSample == 1) out.write(v);
+        else if (bytesPerSample == 2) out.writeShort(v);
+        else out.writeInt(v);
+      }
+    }
+
+    ParameterList defpl = new ParameterList();
+    String[][] param = Encoder.getAllParameters();
+    for (int i = param.length - 1; i >= 0; i--) {
+      if (param[i][3] != null)
+        defpl.put(param[i][0], param[i][3]);
+    }
+    ParameterList pl = new ParameterList(defpl);
+    pl.put("i", pgx.getPath());
+    pl.put("o", j2k.getPath());
+    pl.put("lossless", "on");
+    pl.put("rate", "-1");
+    pl.put("file_format", "off");
+    pl.put("verbose", "off");
+
+    Encoder encoder = new Encoder(pl);
+    encoder.run();
+    if (encoder.getExitCode() != 0)
+      throw new IOException("jj2000 encoder failed with exit code " + encoder.getExitCode());
+
+    byte[] result = Files.readAllBytes(j2k.toPath());
+    Files.delete(pgx.toPath());
+    Files.delete(j2k.toPath());
+    return result;
+  }
+
+  // CCSDS 121.0-B with the preprocessor, using only the split sample and uncompressed options
+  private byte[] encodeCcsds(int nbits) {
+    int idLen = nbits > 16 ? 5 : (nbits > 8 ? 4 : 3);
+    int idUncompressed = (1 << idLen) - 1;
+    long xmax = (1L << nbits) - 1;
+    int rsiSize = CCSDS_BLOCK_SIZE * CCSDS_RSI;
+
+    BitWriter bits = new BitWriter();
+    int[] block = new int[CCSDS_BLOCK_SIZE];
+    for (int rsiStart = 0; rsiStart < x.length; rsiStart += rsiSize) {
+      int rsiEnd = Math.min(rsiStart + rsiSize, x.length);
+      for (int start = rsiStart; start < rsiEnd; start += CCSDS_BLOCK_SIZE) {
+        int ref = (start == rsiStart) ? 1 : 0;
+        for (int i = 0; i < CCSDS_BLOCK_SIZE; i++) {
+          int pos = start + i;
+          if (i < ref) block[i] = x[pos];
+          else if (pos >= rsiEnd) block[i] = 0; // pad the last block
+          else block[i] = map(x[pos], x[pos - 1], xmax);
+        }
+
+        // the cheapest k, if it beats uncompressed
+        int bestK = -1;
+        long bestSize = (long) CCSDS_BLOCK_SIZE * nbits;
+        for (int k = 0; k < idUncompressed - 1; k++) {
+          long size = (long) (CCSDS_BLOCK_SIZE - ref) * (k + 1);
+          for (int i = ref; i < CCSDS_BLOCK_SIZE; i++)
+            size += block[i] >>> k;
+          if (size < bestSize) {
+            bestSize = size;
+            bestK = k;
+          }
+        }
+
+        if (bestK < 0) {
+          bits.write(idUncompressed, idLen);
+          for (int v : block) bits.write(v, nbits);
+        } else {
+          bits.write(bestK + 1, idLen);
+          if (ref == 1) bits.write(block[0], nbits);
+          for (int i = ref; i < CCSDS_BLOCK_SIZE; i++) {
+            for (int z = block[i] >>> bestK; z > 0; z--) bits.write(0, 1);
+            bits.write(1, 1);
+          }
+          if (bestK > 0) {
+            for (int i = ref; i < CCSDS_BLOCK_SIZE; i++) bits.write(block[i], bestK);
+          }
+        }
+      }
+    }
+    return bits.toByteArray();
+  }
+
+  // the CCSDS prediction error mapping of value, predicted by the previous value
+  private static int map(int value, int prev, long xmax) {
+    long delta = value - prev;
+    long theta = Math.min(prev, xmax - prev);
+    if (delta >= 0 && delta <= theta) return (int) (2 * delta);
+    if (delta < 0 && -delta <= theta) return (int) (-2 * delta - 1);
+    return (int) (theta + Math.abs(delta));
+  }
+
+  // GRIB stores negative numbers as sign and magnitude
+  private static void writeInt2(DataOutputStream out, int value) throws IOException {
+    int magnitude = Math.abs(value);
+    out.writeShort(value < 0 ? (0x8000 | magnitude) : magnitude);
+  }
+
+  private static int bitsNeeded(int maxValue) {
+    return 32 - Integer.numberOfLeadingZeros(maxValue);
+  }
+
+  private static int min(int[] values, int start, int end) {
+    int result = Integer.MAX_VALUE;
+    for (int i = start; i < end; i++) result = Math.min(result, values[i]);
+    return result;
+  }
+
+  private static int max(int[] values, int start, int end) {
+    int result = 0;
+    for (int i = start; i < end; i++) result = Math.max(result, values[i]);
+    return result;
+  }
+
+  /** Big-endian bit packer, the inverse of ucar.nc2.iosp.BitReader. */
+  private static class BitWriter {
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private int current;  // bits not yet written, right justified
+    private int nbits;    // number of bits in current
+
+    void write(int value, int width) {
+      for (int b = width - 1; b >= 0; b--) {
+        current = (current << 1) | ((value >>> b) & 1);
+        if (++nbits == 8) {
+          out.write(current);
+          current = 0;
+          nbits = 0;
+        }
+      }
+    }
+
+    // pad with zero bits to the next octet boundary
+    void align() {
+      if (nbits > 0) write(0, 8 - nbits);
+    }
+
+    byte[] toByteArray() {
+      align();
+      return out.toByteArray();
+    }
+  }
+}
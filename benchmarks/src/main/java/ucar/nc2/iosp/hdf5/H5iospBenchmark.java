@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+
+package ucar.nc2.iosp.hdf5;
+
+import org.openjdk.jmh.annotations.*;
+import ucar.ma2.Array;
+import ucar.ma2.InvalidRangeException;
+import ucar.ma2.Section;
+import ucar.nc2.NetcdfFile;
+import ucar.nc2.Variable;
+import ucar.nc2.benchmark.BenchmarkFixtures;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chunked reads through H5iosp, with and without deflate, and with parallel chunk decoding on or off.
+ * The netCDF-4 fixture is written with the netCDF-C library, so that must be on jna.library.path.
+ *
+ * @since 10/17/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class H5iospBenchmark {
+
+  @Param({"0", "5"})
+  public int deflateLevel;
+
+  @Param({"0", "4"})
+  public int parallelThreads;
+
+  private File dir;
+  private NetcdfFile ncfile;
+  private Variable temp, packed;
+  private Section oneTime;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException, InvalidRangeException {
+    dir = BenchmarkFixtures.createTempDir("h5");
+    File file = BenchmarkFixtures.writeNetcdf4(new File(dir, "grids.nc4"), deflateLevel, deflateLevel > 0);
+    H5iosp.setParallelReads(parallelThreads, 2);
+
+    ncfile = NetcdfFile.open(file.getPath());
+    temp = ncfile.findVariable("temp");
+    packed = ncfile.findVariable("packed");
+    oneTime = new Section(String.format("%d,:,:", BenchmarkFixtures.NTIMES / 2));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    ncfile.close();
+    H5iosp.setParallelReads(0, 2);
+    BenchmarkFixtures.deleteDir(dir);
+  }
+
+  @Benchmark
+  public Array readFloatVariable() throws IOException {
+    return temp.read();
+  }
+
+  @Benchmark
+  public Array readShortVariable() throws IOException {
+    return packed.read();
+  }
+
+  @Benchmark
+  public Array readOneTime() throws IOException, InvalidRangeException {
+    return temp.read(oneTime);
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+
+package ucar.nc2.iosp.netcdf3;
+
+import org.openjdk.jmh.annotations.*;
+import ucar.ma2.Array;
+import ucar.ma2.InvalidRangeException;
+import ucar.ma2.Section;
+import ucar.nc2.NetcdfFile;
+import ucar.nc2.Variable;
+import ucar.nc2.benchmark.BenchmarkFixtures;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Record and non-record variable reads through N3iosp, whole variables and subsets.
+ *
+ * @since 10/17/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class N3iospBenchmark {
+  private File dir;
+  private NetcdfFile ncfile;
+  private Variable temp, elev;
+  private Section oneRecord, strided;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException, InvalidRangeException {
+    dir = BenchmarkFixtures.createTempDir("n3");
+    File file = BenchmarkFixtures.writeNetcdf3(new File(dir, "grids.nc"));
+    ncfile = NetcdfFile.open(file.getPath());
+    temp = ncfile.findVariable("temp");
+    elev = ncfile.findVariable("elev");
+
+    oneRecord = new Section(String.format("%d,:,:", BenchmarkFixtures.NTIMES / 2));
+    strided = new Section(":,0:" + (BenchmarkFixtures.NY - 1) + ":4,0:" + (BenchmarkFixtures.NX - 1) + ":4");
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    ncfile.close();
+    BenchmarkFixtures.deleteDir(dir);
+  }
+
+  @Benchmark
+  public Array readNonRecord() throws IOException {
+    return elev.read();
+  }
+
+  @Benchmark
+  public Array readRecordVariable() throws IOException {
+    return temp.read();
+  }
+
+  @Benchmark
+  public Array readOneRecord() throws IOException, InvalidRangeException {
+    return temp.read(oneRecord);
+  }
+
+  @Benchmark
+  public Array readRecordStrided() throws IOException, InvalidRangeException {
+    return temp.read(strided);
+  }
+}
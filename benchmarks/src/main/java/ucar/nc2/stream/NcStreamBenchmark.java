@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+
+package ucar.nc2.stream;
+
+import org.openjdk.jmh.annotations.*;
+import ucar.ma2.InvalidRangeException;
+import ucar.ma2.Section;
+import ucar.nc2.NetcdfFile;
+import ucar.nc2.Variable;
+import ucar.nc2.benchmark.BenchmarkFixtures;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding a float variable to an ncstream data message, and decoding it back, with and without deflate.
+ *
+ * @since 10/17/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class NcStreamBenchmark {
+
+  @Param({"none", "deflate"})
+  public String compression;
+
+  private File dir;
+  private NetcdfFile ncfile;
+  private NcStreamWriter writer;
+  private NcStreamCompression compress;
+  private Variable temp;
+  private Section section;
+  private byte[] encoded;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException, InvalidRangeException {
+    dir = BenchmarkFixtures.createTempDir("ncstream");
+    File file = BenchmarkFixtures.writeNetcdf3(new File(dir, "grids.nc"));
+
+    ncfile = NetcdfFile.open(file.getPath());
+    writer = new NcStreamWriter(ncfile, file.getPath());
+    compress = compression.equals("deflate") ? NcStreamCompression.deflate() : NcStreamCompression.none();
+    temp = ncfile.findVariable("temp");
+    section = temp.getShapeAsSection();
+    encoded = encode().toByteArray();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    ncfile.close();
+    BenchmarkFixtures.deleteDir(dir);
+  }
+
+  @Benchmark
+  public ByteArrayOutputStream encode() throws IOException, InvalidRangeException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(encoded == null ? 1000 * 1000 : encoded.length);
+    writer.sendData(temp, section, out, compress);
+    return out;
+  }
+
+  @Benchmark
+  public NcStreamReader.DataResult decode() throws IOException {
+    NcStreamReader reader = new NcStreamReader();
+    return reader.readData(new ByteArrayInputStream(encoded), ncfile, ncfile.getLocation());
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+
+package ucar.nc2.time;
+
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ISO date parsing and formatting, and "units since date" conversion: the fast paths against the general,
+ * joda based ones they replace.
+ *
+ * @since 10/17/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CalendarDateBenchmark {
+  private static final int N = 1000;
+  private static final String UNIT = "hours since 1970-01-01T00:00:00Z";
+
+  private final DateTimeFormatter isof = DateTimeFormat.forPattern("yyyy-MM-dd'T'HH:mm:ss'Z'").withZoneUTC();
+  private String[] isos;
+  private CalendarDate[] dates;
+  private double[] offsets;
+  private CalendarDateUnit cdu;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    cdu = CalendarDateUnit.of(null, UNIT);
+    isos = new String[N];
+    dates = new CalendarDate[N];
+    offsets = new double[N];
+    for (int i = 0; i < N; i++) {
+      offsets[i] = 400000 + 3 * i;
+      dates[i] = cdu.makeCalendarDate(offsets[i]);
+      isos[i] = CalendarDateFormatter.toDateTimeStringISO(dates[i]);
+    }
+  }
+
+  @Benchmark
+  public long parseIso() {
+    long sum = 0;
+    for (String iso : isos)
+      sum += CalendarDateFormatter.isoStringToCalendarDate(null, iso).getMillis();
+    return sum;
+  }
+
+  @Benchmark
+  public long parseIsoRegexp() {
+    long sum = 0;
+    for (String iso : isos)
+      sum += CalendarDateFormatter.parseIsoTimeStringRegexp(null, iso).getMillis();
+    return sum;
+  }
+
+  @Benchmark
+  public int formatIso() {
+    int sum = 0;
+    for (CalendarDate cd : dates)
+      sum += CalendarDateFormatter.toDateTimeStringISO(cd).length();
+    return sum;
+  }
+
+  @Benchmark
+  public int formatIsoJoda() {
+    int sum = 0;
+    for (CalendarDate cd : dates)
+      sum += isof.print(cd.getDateTime()).length();
+    return sum;
+  }
+
+  @Benchmark
+  public CalendarDateUnit dateUnit() {
+    return CalendarDateUnit.of(null, UNIT);
+  }
+
+  @Benchmark
+  public CalendarDateUnit dateUnitUncached() {
+    return new CalendarDateUnit(Calendar.getDefault(), UNIT);
+  }
+
+  @Benchmark
+  public long[] makeMillisecs() {
+    return cdu.makeMillisecs(offsets);
+  }
+
+  @Benchmark
+  public long[] makeCalendarDates() {
+    long[] result = new long[offsets.length];
+    for (int i = 0; i < offsets.length; i++)
+      result[i] = cdu.makeCalendarDate(offsets[i]).getMillis();
+    return result;
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+
+package ucar.unidata.io;
+
+import org.openjdk.jmh.annotations.*;
+import ucar.nc2.benchmark.BenchmarkFixtures;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffered reads through RandomAccessFile: byte and int at a time, bulk primitive arrays, and short random seeks.
+ *
+ * @since 10/17/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class RandomAccessFileBenchmark {
+  private static final int FILE_SIZE = 16 * 1024 * 1024;
+  private static final int NRANDOM = 10 * 1000;
+
+  @Param({"8092", "65536"})
+  public int bufferSize;
+
+  private File dir;
+  private RandomAccessFile raf;
+  private long[] randomPositions;
+  private float[] floats;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    dir = BenchmarkFixtures.createTempDir("raf");
+    File file = BenchmarkFixtures.writeRandomBytes(new File(dir, "random.bin"), FILE_SIZE);
+    raf = new RandomAccessFile(file.getPath(), "r", bufferSize);
+    raf.order(RandomAccessFile.BIG_ENDIAN);
+
+    Random random = new Random(BenchmarkFixtures.SEED);
+    randomPositions = new long[NRANDOM];
+    for (int i = 0; i < NRANDOM; i++)
+      randomPositions[i] = random.nextInt(FILE_SIZE - 64);
+
+    floats = new float[FILE_SIZE / 4];
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    raf.close();
+    BenchmarkFixtures.deleteDir(dir);
+  }
+
+  @Benchmark
+  public long readByte() throws IOException {
+    raf.seek(0);
+    long sum = 0;
+    for (int i = 0; i < FILE_SIZE; i++)
+      sum += raf.read();
+    return sum;
+  }
+
+  @Benchmark
+  public long readInt() throws IOException {
+    raf.seek(0);
+    long sum = 0;
+    for (int i = 0; i < FILE_SIZE / 4; i++)
+      sum += raf.readInt();
+    return sum;
+  }
+
+  @Benchmark
+  public float[] readFloatArray() throws IOException {
+    raf.seek(0);
+    raf.readFloat(floats, 0, floats.length);
+    return floats;
+  }
+
+  @Benchmark
+  public long readRandom() throws IOException {
+    long sum = 0;
+    for (long pos : randomPositions) {
+      raf.seek(pos);
+      sum += raf.readLong();
+    }
+    return sum;
+  }
+}
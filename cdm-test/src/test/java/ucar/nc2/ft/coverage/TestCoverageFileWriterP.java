@@ -3,6 +3,7 @@ package ucar.nc2.ft.coverage;
 
 import com.google.common.collect.Lists;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -12,7 +13,10 @@ import org.junit.runners.Parameterized;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import ucar.ma2.InvalidRangeException;
+import ucar.ma2.MAMath;
+import ucar.nc2.NetcdfFile;
 import ucar.nc2.NetcdfFileWriter;
+import ucar.nc2.Variable;
 import ucar.nc2.constants.FeatureType;
 import ucar.nc2.dataset.NetcdfDataset;
 import ucar.nc2.dt.grid.GridDataset;
@@ -23,7 +27,9 @@ import ucar.unidata.util.test.category.NeedsCdmUnitTest;
 import ucar.unidata.util.test.TestDir;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.invoke.MethodHandles;
 import java.util.ArrayList;
 import java.util.List;
@@ -125,4 +131,35 @@ public class TestCoverageFileWriterP {
 
   }
 
+  @Test
+  public void streamTestFile() throws IOException, InvalidRangeException {
+    Assume.assumeTrue(version == NetcdfFileWriter.Version.netcdf3);
+    File writtenFile = tempFolder.newFile();
+    File streamedFile = tempFolder.newFile();
+    final long[] length = new long[1];
+
+    try (FeatureDatasetCoverage cc = CoverageDatasetFactory.open(endpoint)) {
+      Assert.assertNotNull(endpoint, cc);
+      CoverageCollection gcs = cc.findCoverageDataset(type);
+
+      NetcdfFileWriter writer = NetcdfFileWriter.createNew(version, writtenFile.getPath(), null);
+      Assert.assertTrue(CFGridCoverageWriter2.writeOrTestSize(gcs, covList, params, false, false, writer).isPresent());
+
+      try (OutputStream out = new FileOutputStream(streamedFile)) {
+        Optional<Long> sizeo = CFGridCoverageWriter2.writeStream(gcs, covList, params, false, out, n -> length[0] = n);
+        Assert.assertTrue(sizeo.getErrorMessage(), sizeo.isPresent());
+      }
+    }
+    Assert.assertEquals(length[0], streamedFile.length());
+
+    try (NetcdfFile written = NetcdfFile.open(writtenFile.getPath());
+         NetcdfFile streamed = NetcdfFile.open(streamedFile.getPath())) {
+      for (String covName : covList) {
+        Variable v = streamed.findVariable(covName);
+        Assert.assertNotNull(covName, v);
+        Assert.assertTrue(covName, MAMath.equals(written.findVariable(covName).read(), v.read()));
+      }
+    }
+  }
+
 }
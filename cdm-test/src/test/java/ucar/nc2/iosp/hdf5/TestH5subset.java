@@ -75,5 +75,15 @@ public class TestH5subset {
     TestSubsettingUtils.subsetVariables(filename, varName, ntrials);
   }
 
+  @Test
+  public void testParallel() throws IOException, InvalidRangeException {
+    H5iosp.setParallelReads(4, 2);
+    try {
+      TestSubsettingUtils.subsetVariables(filename, varName, ntrials);
+    } finally {
+      H5iosp.setParallelReads(0, 0);
+    }
+  }
+
 
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+package ucar.nc2.iosp.nexrad2;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import ucar.nc2.NetcdfFile;
+import ucar.nc2.util.CompareNetcdf2;
+import ucar.nc2.util.DiskCache;
+import ucar.unidata.util.test.TestDir;
+import ucar.unidata.util.test.category.NeedsCdmUnitTest;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Formatter;
+
+/**
+ * Uncompressing bzip2 compressed volumes in memory, with and without threads, must match the ".uncompress" file.
+ *
+ * @since 10/17/2026
+ */
+@Category(NeedsCdmUnitTest.class)
+public class TestNexrad2Uncompress {
+
+  @After
+  public void reset() {
+    Level2VolumeScan.setUncompress(true, -1);
+  }
+
+  @Test
+  public void testInMemoryMatchesDisk() throws IOException {
+    int count = TestDir.actOnAll(TestDir.cdmUnitTestDir + "formats/nexrad/level2/VCP11", new TestDir.FileFilterNoWant(".uncompress"),
+            this::compare);
+    Assert.assertTrue(count > 0);
+  }
+
+  private int compare(String filename) throws IOException {
+    File ufile = DiskCache.getFileStandardPolicy(filename + ".uncompress");
+    for (int nthreads : new int[] {0, 4}) {
+      if (ufile.exists() && !ufile.delete())
+        System.out.printf("Failed to delete %s%n", ufile);
+
+      Level2VolumeScan.setUncompress(true, nthreads);
+      try (NetcdfFile memory = NetcdfFile.open(filename)) {
+        Assert.assertFalse(ufile.exists());
+
+        Level2VolumeScan.setUncompress(false, 0);
+        try (NetcdfFile disk = NetcdfFile.open(filename)) {
+          Formatter f = new Formatter();
+          boolean ok = new CompareNetcdf2(f, false, false, true).compare(disk, memory);
+          Assert.assertTrue(filename + " nthreads=" + nthreads + "\n" + f, ok);
+        }
+      }
+    }
+    return 1;
+  }
+}
@@ -290,6 +290,7 @@ public abstract class Array {
       return;
     }
 
+    arrayDst.checkWritable();
     Object src = arraySrc.get1DJavaArray(arraySrc.getDataType()); // ensure canonical order
     Object dst = arrayDst.getStorage();
     System.arraycopy(src, srcPos, dst, dstPos, len);
@@ -370,13 +371,16 @@ public abstract class Array {
     int[] shape = new int[org.getRank() + 1];
     System.arraycopy(org.getShape(), 0, shape, 1, org.getRank());
     shape[0] = 1;
-    return factory(org.getDataType(), shape, org.getStorage());
+    Array result = factory(org.getDataType(), shape, org.getStorage());
+    result.readOnly = org.readOnly;
+    return result;
   }
 
   /////////////////////////////////////////////////////
   protected final DataType dataType;
   protected final Index indexCalc;
   protected final int rank;
+  private boolean readOnly; // set only on views made by getReadOnlyView(), and views of those
 
   // for subclasses only
   protected Array(DataType dataType, int[] shape) {
@@ -522,6 +526,58 @@ public abstract class Array {
    */
   abstract protected Array createView(Index index);
 
+  // views of a read-only Array are read-only
+  private Array makeView(Index index) {
+    Array view = createView(index);
+    view.readOnly = readOnly;
+    return view;
+  }
+
+  /**
+   * Create a read-only view of this Array. No data is moved, so the view references the same backing store,
+   * but the set methods of the view and of its IndexIterators throw UnsupportedOperationException.
+   * Sections and other logical views of it are also read-only, while copy() makes a writable Array.
+   * Use this to share an Array, eg a cache, without copying it.
+   * <p>
+   * Only the primitive, String and Object Arrays enforce this; other Arrays return a copy.
+   * Note that getStorage() still returns the shared backing store, and get1DJavaArray() returns a copy.
+   *
+   * @return a read-only view of this Array
+   */
+  public Array getReadOnlyView() {
+    if (readOnly)
+      return this;
+    if (!canBeReadOnly())
+      return copy();
+    Array view = createView((Index) indexCalc.clone());
+    view.readOnly = true;
+    return view;
+  }
+
+  /**
+   * Whether this Array is a read-only view, see getReadOnlyView().
+   *
+   * @return true if the set methods throw UnsupportedOperationException
+   */
+  public boolean isReadOnly() {
+    return readOnly;
+  }
+
+  // subclasses whose set methods call checkWritable()
+  boolean canBeReadOnly() {
+    return false;
+  }
+
+  /**
+   * Called by the set methods of subclasses that can be read-only.
+   *
+   * @throws UnsupportedOperationException if this is a read-only view
+   */
+  protected final void checkWritable() {
+    if (readOnly)
+      throw new UnsupportedOperationException("Array is a read-only view");
+  }
+
   /**
    * Create a new Array as a subsection of this Array, with rank reduction.
    * No data is moved, so the new Array references the same backing store as the original.
@@ -534,7 +590,7 @@ public abstract class Array {
    * @throws InvalidRangeException if ranges is invalid
    */
   public Array section(List<Range> ranges) throws InvalidRangeException {
-    return createView(indexCalc.section(ranges));
+    return makeView(indexCalc.section(ranges));
   }
 
   /**
@@ -574,7 +630,7 @@ public abstract class Array {
     }
     for (int i = 0; i < origin.length; i++)
       ranges.add(new Range(origin[i], origin[i] + stride[i] * shape[i] - 1, stride[i]));
-    return createView(indexCalc.section(ranges));
+    return makeView(indexCalc.section(ranges));
   }
 
   /**
@@ -589,7 +645,7 @@ public abstract class Array {
    * @throws InvalidRangeException if ranges is invalid
    */
   public Array sectionNoReduce(List<Range> ranges) throws InvalidRangeException {
-    return createView(indexCalc.sectionNoReduce(ranges));
+    return makeView(indexCalc.sectionNoReduce(ranges));
   }
 
   /**
@@ -615,7 +671,7 @@ public abstract class Array {
       else
         ranges.add(new Range(origin[i], origin[i] + stride[i] * shape[i] - 1, stride[i]));
     }
-    return createView(indexCalc.sectionNoReduce(ranges));
+    return makeView(indexCalc.sectionNoReduce(ranges));
   }
 
   /**
@@ -652,14 +708,14 @@ public abstract class Array {
 
   /**
    * This gets the equivalent java array of the wanted type, in correct order.
-   * It avoids copying if possible.
+   * It avoids copying if possible, but always copies a read-only Array.
    *
    * @param wantType returned object will be an array of this type. This must be convertible to it.
    * @return java array of type want
    */
   public Object get1DJavaArray(DataType wantType) {
     if (wantType == getDataType()) {
-      if (indexCalc.isFastIterator())
+      if (indexCalc.isFastIterator() && !readOnly)
         return getStorage(); // already in order
       else return copyTo1DJavaArray(); // gotta copy
     }
@@ -826,7 +882,7 @@ public abstract class Array {
    * @return the new Array
    */
   public Array flip(int dim) {
-    return createView(indexCalc.flip(dim));
+    return makeView(indexCalc.flip(dim));
   }
 
   /**
@@ -838,7 +894,7 @@ public abstract class Array {
    * @return the new Array
    */
   public Array transpose(int dim1, int dim2) {
-    return createView(indexCalc.transpose(dim1, dim2));
+    return makeView(indexCalc.transpose(dim1, dim2));
   }
 
   /**
@@ -850,7 +906,7 @@ public abstract class Array {
    * @throws IllegalArgumentException: wrong rank or dim[k] not valid
    */
   public Array permute(int[] dims) {
-    return createView(indexCalc.permute(dims));
+    return makeView(indexCalc.permute(dims));
   }
 
   /**
@@ -879,6 +935,7 @@ public abstract class Array {
     Array result = factory(this.getDataType(), shape, getStorage());
     if (result.getSize() != getSize())
       throw new IllegalArgumentException("reshape arrays must have same total size");
+    result.readOnly = readOnly;
     return result;
   }
 
@@ -891,7 +948,7 @@ public abstract class Array {
   public Array reduce() {
     Index ri = indexCalc.reduce();
     if (ri == indexCalc) return this;
-    return createView(ri);
+    return makeView(ri);
   }
 
   /**
@@ -902,7 +959,7 @@ public abstract class Array {
    * @return the new Array
    */
   public Array reduce(int dim) {
-    return createView(indexCalc.reduce(dim));
+    return makeView(indexCalc.reduce(dim));
   }
 
   //////////////////////////////////////////////////////////////
@@ -83,6 +83,11 @@ public class ArrayBoolean extends Array {
     return ArrayBoolean.factory( index, storage);
   }
 
+  // the set methods call checkWritable()
+  boolean canBeReadOnly() {
+    return true;
+  }
+
   /* Get underlying primitive array storage. CAUTION! You may invalidate your warrentee! */
   public Object getStorage() { return storage; }
 
@@ -108,6 +113,7 @@ public class ArrayBoolean extends Array {
   }
     /** set the value at the sepcified index. */
   public void set(Index i, boolean value) {
+    checkWritable();
     storage[i.currentElement()] = value;
   }
 
@@ -142,7 +148,7 @@ public class ArrayBoolean extends Array {
   public void setByte(Index i, byte value) { throw new ForbiddenConversionException(); }
 
   public boolean getBoolean(Index i) { return storage[i.currentElement()]; }
-  public void setBoolean(Index i, boolean value) { storage[i.currentElement()] = value; }
+  public void setBoolean(Index i, boolean value) { checkWritable(); storage[i.currentElement()] = value; }
 
   /** not legal, throw ForbiddenConversionException */
   public char getChar(Index i) { throw new ForbiddenConversionException(); }
@@ -150,7 +156,7 @@ public class ArrayBoolean extends Array {
   public void setChar(Index i, char value) { throw new ForbiddenConversionException(); }
 
   public Object getObject(Index i) { return storage[i.currentElement()]; }
-  public void setObject(Index i, Object value) { storage[i.currentElement()] = (Boolean) value; }
+  public void setObject(Index i, Object value) { checkWritable(); storage[i.currentElement()] = (Boolean) value; }
 
   // package private : mostly for iterators
   public double getDouble(int index) {throw new ForbiddenConversionException(); }
@@ -175,10 +181,10 @@ public class ArrayBoolean extends Array {
   public void setChar(int index, char value) { throw new ForbiddenConversionException(); }
 
   public boolean getBoolean(int index) { return storage[index]; }
-  public void setBoolean(int index, boolean value) {storage[index] = value; }
+  public void setBoolean(int index, boolean value) { checkWritable(); storage[index] = value; }
 
   public Object getObject(int index) { return getBoolean(index); }
-  public void setObject(int index, Object value) { storage[index] = (Boolean) value; }
+  public void setObject(int index, Object value) { checkWritable(); storage[index] = (Boolean) value; }
 
     /** Concrete implementation of Array specialized for byte, rank 0. */
   public static class D0 extends ArrayBoolean {
@@ -198,6 +204,7 @@ public class ArrayBoolean extends Array {
     }
     /** set the value. */
     public void set(boolean value) {
+      checkWritable();
       storage[ix.currentElement()] = value;
     }
   }
@@ -220,6 +227,7 @@ public class ArrayBoolean extends Array {
     }
     /** set the value. */
     public void set(int i, boolean value) {
+      checkWritable();
       storage[ix.setDirect(i)] = value;
     }
   }
@@ -242,6 +250,7 @@ public class ArrayBoolean extends Array {
     }
     /** set the value. */
     public void set(int i, int j, boolean value) {
+      checkWritable();
       storage[ix.setDirect(i,j)] = value;
     }
   }
@@ -264,6 +273,7 @@ public class ArrayBoolean extends Array {
     }
     /** set the value. */
     public void set(int i, int j, int k, boolean value) {
+      checkWritable();
       storage[ix.setDirect(i,j,k)] = value;
     }
   }
@@ -286,6 +296,7 @@ public class ArrayBoolean extends Array {
     }
     /** set the value. */
     public void set(int i, int j, int k, int l, boolean value) {
+      checkWritable();
       storage[ix.setDirect(i,j,k,l)] = value;
     }
   }
@@ -308,6 +319,7 @@ public class ArrayBoolean extends Array {
     }
     /** set the value. */
     public void set(int i, int j, int k, int l, int m, boolean value) {
+      checkWritable();
       storage[ix.setDirect(i,j,k,l, m)] = value;
     }
   }
@@ -330,6 +342,7 @@ public class ArrayBoolean extends Array {
     }
     /** set the value. */
     public void set(int i, int j, int k, int l, int m, int n, boolean value) {
+      checkWritable();
       storage[ix.setDirect(i,j,k,l,m,n)] = value;
     }
   }
@@ -352,6 +365,7 @@ public class ArrayBoolean extends Array {
     }
     /** set the value. */
     public void set(int i, int j, int k, int l, int m, int n, int o, boolean value) {
+      checkWritable();
       storage[ix.setDirect(i,j,k,l,m,n,o)] = value;
     }
   }
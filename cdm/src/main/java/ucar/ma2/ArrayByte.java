@@ -86,6 +86,11 @@ public class ArrayByte extends Array {
     return ArrayByte.factory(index, isUnsigned(), storage);
   }
 
+  // the set methods call checkWritable()
+  boolean canBeReadOnly() {
+    return true;
+  }
+
   public Object getStorage() {
     return storage;
   }
@@ -134,6 +139,7 @@ public class ArrayByte extends Array {
    * @param value set to this value
    */
   public void set(Index i, byte value) {
+    checkWritable();
     storage[i.currentElement()] = value;
   }
 
@@ -143,6 +149,7 @@ public class ArrayByte extends Array {
   }
 
   public void setDouble(Index i, double value) {
+    checkWritable();
     storage[i.currentElement()] = (byte) value;
   }
 
@@ -152,6 +159,7 @@ public class ArrayByte extends Array {
   }
 
   public void setFloat(Index i, float value) {
+    checkWritable();
     storage[i.currentElement()] = (byte) value;
   }
 
@@ -161,6 +169,7 @@ public class ArrayByte extends Array {
   }
 
   public void setLong(Index i, long value) {
+    checkWritable();
     storage[i.currentElement()] = (byte) value;
   }
 
@@ -170,6 +179,7 @@ public class ArrayByte extends Array {
   }
 
   public void setInt(Index i, int value) {
+    checkWritable();
     storage[i.currentElement()] = (byte) value;
   }
 
@@ -179,6 +189,7 @@ public class ArrayByte extends Array {
   }
 
   public void setShort(Index i, short value) {
+    checkWritable();
     storage[i.currentElement()] = (byte) value;
   }
 
@@ -187,6 +198,7 @@ public class ArrayByte extends Array {
   }
 
   public void setByte(Index i, byte value) {
+    checkWritable();
     storage[i.currentElement()] = value;
   }
 
@@ -196,6 +208,7 @@ public class ArrayByte extends Array {
   }
 
   public void setChar(Index i, char value) {
+    checkWritable();
     storage[i.currentElement()] = (byte) value;
   }
 
@@ -218,6 +231,7 @@ public class ArrayByte extends Array {
   }
 
   public void setObject(Index i, Object value) {
+    checkWritable();
     storage[i.currentElement()] = ((Number) value).byteValue();
   }
 
@@ -228,6 +242,7 @@ public class ArrayByte extends Array {
   }
 
   public void setDouble(int index, double value) {
+    checkWritable();
     storage[index] = (byte) value;
   }
 
@@ -237,6 +252,7 @@ public class ArrayByte extends Array {
   }
 
   public void setFloat(int index, float value) {
+    checkWritable();
     storage[index] = (byte) value;
   }
 
@@ -246,6 +262,7 @@ public class ArrayByte extends Array {
   }
 
   public void setLong(int index, long value) {
+    checkWritable();
     storage[index] = (byte) value;
   }
 
@@ -255,6 +272,7 @@ public class ArrayByte extends Array {
   }
 
   public void setInt(int index, int value) {
+    checkWritable();
     storage[index] = (byte) value;
   }
 
@@ -264,6 +282,7 @@ public class ArrayByte extends Array {
   }
 
   public void setShort(int index, short value) {
+    checkWritable();
     storage[index] = (byte) value;
   }
 
@@ -272,6 +291,7 @@ public class ArrayByte extends Array {
   }
 
   public void setByte(int index, byte value) {
+    checkWritable();
     storage[index] = value;
   }
 
@@ -281,6 +301,7 @@ public class ArrayByte extends Array {
   }
 
   public void setChar(int index, char value) {
+    checkWritable();
     storage[index] = (byte) value;
   }
 
@@ -297,6 +318,7 @@ public class ArrayByte extends Array {
   }
 
   public void setObject(int index, Object value) {
+    checkWritable();
     storage[index] = ((Number) value).byteValue();
   }
 
@@ -321,6 +343,7 @@ public class ArrayByte extends Array {
     }
 
     public void set(byte value) {
+      checkWritable();
       storage[ix.currentElement()] = value;
     }
   }
@@ -346,6 +369,7 @@ public class ArrayByte extends Array {
     }
 
     public void set(int i, byte value) {
+      checkWritable();
       storage[ix.setDirect(i)] = value;
     }
   }
@@ -371,6 +395,7 @@ public class ArrayByte extends Array {
     }
 
     public void set(int i, int j, byte value) {
+      checkWritable();
       storage[ix.setDirect(i, j)] = value;
     }
   }
@@ -396,6 +421,7 @@ public class ArrayByte extends Array {
     }
 
     public void set(int i, int j, int k, byte value) {
+      checkWritable();
       storage[ix.setDirect(i, j, k)] = value;
     }
   }
@@ -421,6 +447,7 @@ public class ArrayByte extends Array {
     }
 
     public void set(int i, int j, int k, int l, byte value) {
+      checkWritable();
       storage[ix.setDirect(i, j, k, l)] = value;
     }
   }
@@ -446,6 +473,7 @@ public class ArrayByte extends Array {
     }
 
     public void set(int i, int j, int k, int l, int m, byte value) {
+      checkWritable();
       storage[ix.setDirect(i, j, k, l, m)] = value;
     }
   }
@@ -471,6 +499,7 @@ public class ArrayByte extends Array {
     }
 
     public void set(int i, int j, int k, int l, int m, int n, byte value) {
+      checkWritable();
       storage[ix.setDirect(i, j, k, l, m, n)] = value;
     }
   }
@@ -496,6 +525,7 @@ public class ArrayByte extends Array {
     }
 
     public void set(int i, int j, int k, int l, int m, int n, int o, byte value) {
+      checkWritable();
       storage[ix.setDirect(i, j, k, l, m, n, o)] = value;
     }
   }
@@ -99,6 +99,11 @@ public class ArrayChar extends Array implements Iterable<String> {
     return ArrayChar.factory(index, storage);
   }
 
+  // the set methods call checkWritable()
+  boolean canBeReadOnly() {
+    return true;
+  }
+
   // used only by copyTo1DJavaArray
   public Object getStorage() {
     return storage;
@@ -150,6 +155,7 @@ public class ArrayChar extends Array implements Iterable<String> {
    * set the value at the sepcified index.
    */
   public void set(Index i, char value) {
+    checkWritable();
     storage[i.currentElement()] = value;
   }
 
@@ -158,6 +164,7 @@ public class ArrayChar extends Array implements Iterable<String> {
   }
 
   public void setDouble(Index i, double value) {
+    checkWritable();
     storage[i.currentElement()] = (char) value;
   }
 
@@ -166,6 +173,7 @@ public class ArrayChar extends Array implements Iterable<String> {
   }
 
   public void setFloat(Index i, float value) {
+    checkWritable();
     storage[i.currentElement()] = (char) value;
   }
 
@@ -174,6 +182,7 @@ public class ArrayChar extends Array implements Iterable<String> {
   }
 
   public void setLong(Index i, long value) {
+    checkWritable();
     storage[i.currentElement()] = (char) value;
   }
 
@@ -182,6 +191,7 @@ public class ArrayChar extends Array implements Iterable<String> {
   }
 
   public void setInt(Index i, int value) {
+    checkWritable();
     storage[i.currentElement()] = (char) value;
   }
 
@@ -190,6 +200,7 @@ public class ArrayChar extends Array implements Iterable<String> {
   }
 
   public void setShort(Index i, short value) {
+    checkWritable();
     storage[i.currentElement()] = (char) value;
   }
 
@@ -198,6 +209,7 @@ public class ArrayChar extends Array implements Iterable<String> {
   }
 
   public void setByte(Index i, byte value) {
+    checkWritable();
     storage[i.currentElement()] = (char) value;
   }
 
@@ -206,6 +218,7 @@ public class ArrayChar extends Array implements Iterable<String> {
   }
 
   public void setChar(Index i, char value) {
+    checkWritable();
     storage[i.currentElement()] = value;
   }
 
@@ -228,6 +241,7 @@ public class ArrayChar extends Array implements Iterable<String> {
   }
 
   public void setObject(Index i, Object value) {
+    checkWritable();
     storage[i.currentElement()] = (Character) value;
   }
 
@@ -324,6 +338,7 @@ public class ArrayChar extends Array implements Iterable<String> {
    * @throws IllegalArgumentException if rank != 2
    */
   public void setString(String val) {
+    checkWritable();
     int rank = getRank();
     if (rank != 1)
       throw new IllegalArgumentException("ArayChar.setString rank must be 1");
@@ -355,6 +370,7 @@ public class ArrayChar extends Array implements Iterable<String> {
    * @param val   set chars from this sString
    */
   public void setString(int index, String val) {
+    checkWritable();
     int rank = getRank();
     if (rank != 2)
       throw new IllegalArgumentException("ArrayChar.setString rank must be 2");
@@ -388,6 +404,7 @@ public class ArrayChar extends Array implements Iterable<String> {
    * @param val set to this value
    */
   public void setString(Index ima, String val) {
+    checkWritable();
     int rank = getRank();
     if (rank == 0)
       throw new IllegalArgumentException("ArrayChar.setString rank must not be 0");
@@ -414,6 +431,7 @@ public class ArrayChar extends Array implements Iterable<String> {
   }
 
   public void setDouble(int index, double value) {
+    checkWritable();
     storage[index] = (char) value;
   }
 
@@ -422,6 +440,7 @@ public class ArrayChar extends Array implements Iterable<String> {
   }
 
   public void setFloat(int index, float value) {
+    checkWritable();
     storage[index] = (char) value;
   }
 
@@ -430,6 +449,7 @@ public class ArrayChar extends Array implements Iterable<String> {
   }
 
   public void setLong(int index, long value) {
+    checkWritable();
     storage[index] = (char) value;
   }
 
@@ -438,6 +458,7 @@ public class ArrayChar extends Array implements Iterable<String> {
   }
 
   public void setInt(int index, int value) {
+    checkWritable();
     storage[index] = (char) value;
   }
 
@@ -446,6 +467,7 @@ public class ArrayChar extends Array implements Iterable<String> {
   }
 
   public void setShort(int index, short value) {
+    checkWritable();
     storage[index] = (char) value;
   }
 
@@ -454,6 +476,7 @@ public class ArrayChar extends Array implements Iterable<String> {
   }
 
   public void setByte(int index, byte value) {
+    checkWritable();
     storage[index] = (char) (value & 0xFF);
   }
 
@@ -462,6 +485,7 @@ public class ArrayChar extends Array implements Iterable<String> {
   }
 
   public void setChar(int index, char value) {
+    checkWritable();
     storage[index] = value;
   }
 
@@ -478,6 +502,7 @@ public class ArrayChar extends Array implements Iterable<String> {
   }
 
   public void setObject(int index, Object value) {
+    checkWritable();
     storage[index] = (Character) value;
   }
 
@@ -511,6 +536,7 @@ public class ArrayChar extends Array implements Iterable<String> {
      * set the value.
      */
     public void set(char value) {
+      checkWritable();
       storage[ix.currentElement()] = value;
     }
   }
@@ -545,6 +571,7 @@ public class ArrayChar extends Array implements Iterable<String> {
      * set the value.
      */
     public void set(int i, char value) {
+      checkWritable();
       storage[ix.setDirect(i)] = value;
     }
   }
@@ -579,6 +606,7 @@ public class ArrayChar extends Array implements Iterable<String> {
      * set the value.
      */
     public void set(int i, int j, char value) {
+      checkWritable();
       storage[ix.setDirect(i, j)] = value;
     }
   }
@@ -613,6 +641,7 @@ public class ArrayChar extends Array implements Iterable<String> {
      * set the value.
      */
     public void set(int i, int j, int k, char value) {
+      checkWritable();
       storage[ix.setDirect(i, j, k)] = value;
     }
   }
@@ -647,6 +676,7 @@ public class ArrayChar extends Array implements Iterable<String> {
      * set the value.
      */
     public void set(int i, int j, int k, int l, char value) {
+      checkWritable();
       storage[ix.setDirect(i, j, k, l)] = value;
     }
   }
@@ -681,6 +711,7 @@ public class ArrayChar extends Array implements Iterable<String> {
      * set the value.
      */
     public void set(int i, int j, int k, int l, int m, char value) {
+      checkWritable();
       storage[ix.setDirect(i, j, k, l, m)] = value;
     }
   }
@@ -715,6 +746,7 @@ public class ArrayChar extends Array implements Iterable<String> {
      * set the value.
      */
     public void set(int i, int j, int k, int l, int m, int n, char value) {
+      checkWritable();
       storage[ix.setDirect(i, j, k, l, m, n)] = value;
     }
   }
@@ -749,6 +781,7 @@ public class ArrayChar extends Array implements Iterable<String> {
      * set the value.
      */
     public void set(int i, int j, int k, int l, int m, int n, int o, char value) {
+      checkWritable();
       storage[ix.setDirect(i, j, k, l, m, n, o)] = value;
     }
   }
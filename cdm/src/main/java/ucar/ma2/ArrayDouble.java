@@ -68,6 +68,11 @@ public class ArrayDouble extends Array {
     return ArrayDouble.factory(index, storageD);
   }
 
+  // the set methods call checkWritable()
+  boolean canBeReadOnly() {
+    return true;
+  }
+
  /**
   * Create a new Array using the given IndexArray and backing store.
   * used for sections, and factory. Trusted package private.
@@ -116,6 +121,7 @@ public class ArrayDouble extends Array {
   }
     /** set the value at the specified index. */
   public void set(Index i, double value) {
+    checkWritable();
     storageD[i.currentElement()] = value;
   }
 
@@ -123,6 +129,7 @@ public class ArrayDouble extends Array {
     return storageD[i.currentElement()];
   }
   public void setDouble(Index i, double value) {
+    checkWritable();
     storageD[i.currentElement()] = value;
   }
 
@@ -130,6 +137,7 @@ public class ArrayDouble extends Array {
     return (float) storageD[i.currentElement()];
   }
   public void setFloat(Index i, float value) {
+    checkWritable();
     storageD[i.currentElement()] = (double) value;
   }
 
@@ -137,6 +145,7 @@ public class ArrayDouble extends Array {
     return (long) storageD[i.currentElement()];
   }
   public void setLong(Index i, long value) {
+    checkWritable();
     storageD[i.currentElement()] = (double) value;
   }
 
@@ -144,6 +153,7 @@ public class ArrayDouble extends Array {
     return (int) storageD[i.currentElement()];
   }
   public void setInt(Index i, int value) {
+    checkWritable();
     storageD[i.currentElement()] = (double) value;
   }
 
@@ -151,6 +161,7 @@ public class ArrayDouble extends Array {
     return (short) storageD[i.currentElement()];
   }
   public void setShort(Index i, short value) {
+    checkWritable();
     storageD[i.currentElement()] = (double) value;
   }
 
@@ -158,6 +169,7 @@ public class ArrayDouble extends Array {
     return (byte) storageD[i.currentElement()];
   }
   public void setByte(Index i, byte value) {
+    checkWritable();
     storageD[i.currentElement()] = (double) value;
   }
 
@@ -165,6 +177,7 @@ public class ArrayDouble extends Array {
     return (char) storageD[i.currentElement()];
   }
   public void setChar(Index i, char value) {
+    checkWritable();
     storageD[i.currentElement()] = (double) value;
   }
 
@@ -181,36 +194,37 @@ public class ArrayDouble extends Array {
     return storageD[i.currentElement()];
   }
   public void setObject(Index i, Object value) {
+    checkWritable();
     storageD[i.currentElement()] = ((Number)value).doubleValue();
   }
 
     // trusted, assumes that individual dimension lengths have been checked
   public double getDouble(int index) {return storageD[index]; }
-  public void setDouble(int index, double value) { storageD[index] = value; }
+  public void setDouble(int index, double value) { checkWritable(); storageD[index] = value; }
 
   public float getFloat(int index) { return (float) storageD[index]; }
-  public void setFloat(int index, float value) { storageD[index] = (double) value;}
+  public void setFloat(int index, float value) { checkWritable(); storageD[index] = (double) value;}
 
   public long getLong(int index) {return (long) storageD[index];}
-  public void setLong(int index, long value) { storageD[index] = (double) value;}
+  public void setLong(int index, long value) { checkWritable(); storageD[index] = (double) value;}
 
   public int getInt(int index) { return (int) storageD[index]; }
-  public void setInt(int index, int value) { storageD[index] = (double) value;}
+  public void setInt(int index, int value) { checkWritable(); storageD[index] = (double) value;}
 
   public short getShort(int index) { return (short) storageD[index]; }
-  public void setShort(int index, short value) { storageD[index] = (double) value; }
+  public void setShort(int index, short value) { checkWritable(); storageD[index] = (double) value; }
 
   public byte getByte(int index) { return (byte) storageD[index]; }
-  public void setByte(int index, byte value) {storageD[index] = (double) value;}
+  public void setByte(int index, byte value) { checkWritable(); storageD[index] = (double) value;}
 
   public char getChar(int index) { return (char) storageD[index];}
-  public void setChar(int index, char value) { storageD[index] = (double) value; }
+  public void setChar(int index, char value) { checkWritable(); storageD[index] = (double) value; }
 
   public boolean getBoolean(int index) { throw new ForbiddenConversionException(); }
   public void setBoolean(int index, boolean value) {throw new ForbiddenConversionException(); }
 
   public Object getObject(int index) { return getDouble(index); }
-  public void setObject(int index, Object value) { storageD[index] = ((Number)value).doubleValue(); }
+  public void setObject(int index, Object value) { checkWritable(); storageD[index] = ((Number)value).doubleValue(); }
 
   /** Concrete implementation of Array specialized for doubles, rank 0. */
   public static class D0 extends ArrayDouble {
@@ -230,6 +244,7 @@ public class ArrayDouble extends Array {
     }
     /** set the value. */
     public void set(double value) {
+      checkWritable();
       storageD[ix.currentElement()] = value;
     }
   }
@@ -252,6 +267,7 @@ public class ArrayDouble extends Array {
     }
     /** set the value. */
     public void set(int i, double value) {
+      checkWritable();
       storageD[ix.setDirect(i)] = value;
     }
   }
@@ -274,6 +290,7 @@ public class ArrayDouble extends Array {
     }
     /** set the value. */
     public void set(int i, int j, double value) {
+      checkWritable();
       storageD[ix.setDirect(i,j)] = value;
     }
   }
@@ -296,6 +313,7 @@ public class ArrayDouble extends Array {
     }
     /** set the value. */
     public void set(int i, int j, int k, double value) {
+      checkWritable();
       storageD[ix.setDirect(i,j,k)] = value;
     }
 
@@ -305,7 +323,7 @@ public class ArrayDouble extends Array {
       private int size = (int) ix.getSize();
       public boolean hasNext(int howMany) { return currElement < size-howMany; }
       public double getNext() { return storageD[++currElement]; }
-      public void setNext(double val) { storageD[++currElement] = val; }
+      public void setNext(double val) { checkWritable(); storageD[++currElement] = val; }
     }
   }
 
@@ -327,6 +345,7 @@ public class ArrayDouble extends Array {
     }
     /** set the value. */
     public void set(int i, int j, int k, int l, double value) {
+      checkWritable();
       storageD[ix.setDirect(i,j,k,l)] = value;
     }
   }
@@ -349,6 +368,7 @@ public class ArrayDouble extends Array {
     }
     /** set the value. */
     public void set(int i, int j, int k, int l, int m, double value) {
+      checkWritable();
       storageD[ix.setDirect(i,j,k,l, m)] = value;
     }
   }
@@ -371,6 +391,7 @@ public class ArrayDouble extends Array {
     }
     /** set the value. */
     public void set(int i, int j, int k, int l, int m, int n, double value) {
+      checkWritable();
       storageD[ix.setDirect(i,j,k,l,m,n)] = value;
     }
   }
@@ -393,6 +414,7 @@ public class ArrayDouble extends Array {
     }
     /** set the value. */
     public void set(int i, int j, int k, int l, int m, int n, int o, double value) {
+      checkWritable();
       storageD[ix.setDirect(i,j,k,l,m,n,o)] = value;
     }
   }
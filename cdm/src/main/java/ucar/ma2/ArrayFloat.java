@@ -85,6 +85,11 @@ public class ArrayFloat extends Array {
     return ArrayFloat.factory( index, storage);
   }
 
+  // the set methods call checkWritable()
+  boolean canBeReadOnly() {
+    return true;
+  }
+
   /* Get underlying primitive array storage. CAUTION! You may invalidate your warrentee! */
   public Object getStorage() { return storage; }
 
@@ -117,6 +122,7 @@ public class ArrayFloat extends Array {
   }
     /** set the value at the sepcified index. */
   public void set(Index i, float value) {
+    checkWritable();
     storage[i.currentElement()] = value;
   }
 
@@ -124,6 +130,7 @@ public class ArrayFloat extends Array {
     return (double) storage[i.currentElement()];
   }
   public void setDouble(Index i, double value) {
+    checkWritable();
     storage[i.currentElement()] = (float) value;
   }
 
@@ -131,6 +138,7 @@ public class ArrayFloat extends Array {
     return storage[i.currentElement()];
   }
   public void setFloat(Index i, float value) {
+    checkWritable();
     storage[i.currentElement()] = value;
   }
 
@@ -138,6 +146,7 @@ public class ArrayFloat extends Array {
     return (long) storage[i.currentElement()];
   }
   public void setLong(Index i, long value) {
+    checkWritable();
     storage[i.currentElement()] = (float) value;
   }
 
@@ -145,6 +154,7 @@ public class ArrayFloat extends Array {
     return (int) storage[i.currentElement()];
   }
   public void setInt(Index i, int value) {
+    checkWritable();
     storage[i.currentElement()] = (float) value;
   }
 
@@ -152,6 +162,7 @@ public class ArrayFloat extends Array {
     return (short) storage[i.currentElement()];
   }
   public void setShort(Index i, short value) {
+    checkWritable();
     storage[i.currentElement()] = (float) value;
   }
 
@@ -159,6 +170,7 @@ public class ArrayFloat extends Array {
     return (byte) storage[i.currentElement()];
   }
   public void setByte(Index i, byte value) {
+    checkWritable();
     storage[i.currentElement()] = (float) value;
   }
 
@@ -166,6 +178,7 @@ public class ArrayFloat extends Array {
     return (char) storage[i.currentElement()];
   }
   public void setChar(Index i, char value) {
+    checkWritable();
     storage[i.currentElement()] = (float) value;
   }
 
@@ -182,38 +195,39 @@ public class ArrayFloat extends Array {
     return storage[i.currentElement()];
   }
   public void setObject(Index i, Object value) {
+    checkWritable();
     storage[i.currentElement()] = ((Number)value).floatValue();
   }
 
     // package private : mostly for iterators
   public double getDouble(int index) {return (double) storage[index]; }
-  public void setDouble(int index, double value) { storage[index] = (float) value; }
+  public void setDouble(int index, double value) { checkWritable(); storage[index] = (float) value; }
 
   public float getFloat(int index) {
     return storage[index];
   }
-  public void setFloat(int index, float value) { storage[index] = value;}
+  public void setFloat(int index, float value) { checkWritable(); storage[index] = value;}
 
   public long getLong(int index) {return (long) storage[index];}
-  public void setLong(int index, long value) { storage[index] = (float) value;}
+  public void setLong(int index, long value) { checkWritable(); storage[index] = (float) value;}
 
   public int getInt(int index) { return (int) storage[index]; }
-  public void setInt(int index, int value) { storage[index] = (float) value;}
+  public void setInt(int index, int value) { checkWritable(); storage[index] = (float) value;}
 
   public short getShort(int index) { return (short) storage[index]; }
-  public void setShort(int index, short value) { storage[index] = (float) value; }
+  public void setShort(int index, short value) { checkWritable(); storage[index] = (float) value; }
 
   public byte getByte(int index) { return (byte) storage[index]; }
-  public void setByte(int index, byte value) {storage[index] = (float) value;}
+  public void setByte(int index, byte value) { checkWritable(); storage[index] = (float) value;}
 
   public char getChar(int index) { return (char) storage[index];}
-  public void setChar(int index, char value) { storage[index] = (float) value; }
+  public void setChar(int index, char value) { checkWritable(); storage[index] = (float) value; }
 
   public boolean getBoolean(int index) { throw new ForbiddenConversionException(); }
   public void setBoolean(int index, boolean value) {throw new ForbiddenConversionException(); }
 
   public Object getObject(int index) { return getFloat(index); }
-  public void setObject(int index, Object value) { storage[index] = ((Number)value).floatValue(); }
+  public void setObject(int index, Object value) { checkWritable(); storage[index] = ((Number)value).floatValue(); }
 
   /** Concrete implementation of Array specialized for floats, rank 0. */
   public static class D0 extends ArrayFloat {
@@ -233,6 +247,7 @@ public class ArrayFloat extends Array {
     }
     /** set the value. */
     public void set(float value) {
+      checkWritable();
       storage[ix.currentElement()] = value;
     }
   }
@@ -255,6 +270,7 @@ public class ArrayFloat extends Array {
     }
     /** set the value. */
     public void set(int i, float value) {
+      checkWritable();
       storage[ix.setDirect(i)] = value;
     }
   }
@@ -277,6 +293,7 @@ public class ArrayFloat extends Array {
     }
     /** set the value. */
     public void set(int i, int j, float value) {
+      checkWritable();
       storage[ix.setDirect(i,j)] = value;
     }
   }
@@ -299,6 +316,7 @@ public class ArrayFloat extends Array {
     }
     /** set the value. */
     public void set(int i, int j, int k, float value) {
+      checkWritable();
       storage[ix.setDirect(i,j,k)] = value;
     }
   }
@@ -321,6 +339,7 @@ public class ArrayFloat extends Array {
     }
     /** set the value. */
     public void set(int i, int j, int k, int l, float value) {
+      checkWritable();
       storage[ix.setDirect(i,j,k,l)] = value;
     }
   }
@@ -343,6 +362,7 @@ public class ArrayFloat extends Array {
     }
     /** set the value. */
     public void set(int i, int j, int k, int l, int m, float value) {
+      checkWritable();
       storage[ix.setDirect(i,j,k,l, m)] = value;
     }
   }
@@ -365,6 +385,7 @@ public class ArrayFloat extends Array {
     }
     /** set the value. */
     public void set(int i, int j, int k, int l, int m, int n, float value) {
+      checkWritable();
       storage[ix.setDirect(i,j,k,l,m,n)] = value;
     }
   }
@@ -387,6 +408,7 @@ public class ArrayFloat extends Array {
     }
     /** set the value. */
     public void set(int i, int j, int k, int l, int m, int n, int o, float value) {
+      checkWritable();
       storage[ix.setDirect(i,j,k,l,m,n,o)] = value;
     }
   }
@@ -91,6 +91,11 @@ public class ArrayInt extends Array {
     return ArrayInt.factory(index, isUnsigned(), storage);
   }
 
+  // the set methods call checkWritable()
+  boolean canBeReadOnly() {
+    return true;
+  }
+
   /* Get underlying primitive array storage. CAUTION! You may invalidate your warrentee! */
   public Object getStorage() {
     return storage;
@@ -140,6 +145,7 @@ public class ArrayInt extends Array {
    * @param value set to this value
    */
   public void set(Index i, int value) {
+    checkWritable();
     storage[i.currentElement()] = value;
   }
 
@@ -149,6 +155,7 @@ public class ArrayInt extends Array {
   }
 
   public void setDouble(Index i, double value) {
+    checkWritable();
     storage[i.currentElement()] = (int) value;
   }
 
@@ -158,6 +165,7 @@ public class ArrayInt extends Array {
   }
 
   public void setFloat(Index i, float value) {
+    checkWritable();
     storage[i.currentElement()] = (int) value;
   }
 
@@ -167,6 +175,7 @@ public class ArrayInt extends Array {
   }
 
   public void setLong(Index i, long value) {
+    checkWritable();
     storage[i.currentElement()] = (int) value;
   }
 
@@ -175,6 +184,7 @@ public class ArrayInt extends Array {
   }
 
   public void setInt(Index i, int value) {
+    checkWritable();
     storage[i.currentElement()] = value;
   }
 
@@ -183,6 +193,7 @@ public class ArrayInt extends Array {
   }
 
   public void setShort(Index i, short value) {
+    checkWritable();
     storage[i.currentElement()] = (int) value;
   }
 
@@ -191,6 +202,7 @@ public class ArrayInt extends Array {
   }
 
   public void setByte(Index i, byte value) {
+    checkWritable();
     storage[i.currentElement()] = (int) value;
   }
 
@@ -199,6 +211,7 @@ public class ArrayInt extends Array {
   }
 
   public void setChar(Index i, char value) {
+    checkWritable();
     storage[i.currentElement()] = (int) value;
   }
 
@@ -221,6 +234,7 @@ public class ArrayInt extends Array {
   }
 
   public void setObject(Index i, Object value) {
+    checkWritable();
     storage[i.currentElement()] = ((Number) value).intValue();
   }
 
@@ -231,6 +245,7 @@ public class ArrayInt extends Array {
   }
 
   public void setDouble(int index, double value) {
+    checkWritable();
     storage[index] = (int) value;
   }
 
@@ -240,6 +255,7 @@ public class ArrayInt extends Array {
   }
 
   public void setFloat(int index, float value) {
+    checkWritable();
     storage[index] = (int) value;
   }
 
@@ -249,6 +265,7 @@ public class ArrayInt extends Array {
   }
 
   public void setLong(int index, long value) {
+    checkWritable();
     storage[index] = (int) value;
   }
 
@@ -257,6 +274,7 @@ public class ArrayInt extends Array {
   }
 
   public void setInt(int index, int value) {
+    checkWritable();
     storage[index] = value;
   }
 
@@ -265,6 +283,7 @@ public class ArrayInt extends Array {
   }
 
   public void setShort(int index, short value) {
+    checkWritable();
     storage[index] = (int) value;
   }
 
@@ -273,6 +292,7 @@ public class ArrayInt extends Array {
   }
 
   public void setByte(int index, byte value) {
+    checkWritable();
     storage[index] = (int) value;
   }
 
@@ -281,6 +301,7 @@ public class ArrayInt extends Array {
   }
 
   public void setChar(int index, char value) {
+    checkWritable();
     storage[index] = (int) value;
   }
 
@@ -297,6 +318,7 @@ public class ArrayInt extends Array {
   }
 
   public void setObject(int index, Object value) {
+    checkWritable();
     storage[index] = ((Number) value).intValue();
   }
 
@@ -321,6 +343,7 @@ public class ArrayInt extends Array {
     }
 
     public void set(int value) {
+      checkWritable();
       storage[ix.currentElement()] = value;
     }
   }
@@ -346,6 +369,7 @@ public class ArrayInt extends Array {
     }
 
     public void set(int i, int value) {
+      checkWritable();
       storage[ix.setDirect(i)] = value;
     }
   }
@@ -371,6 +395,7 @@ public class ArrayInt extends Array {
     }
 
     public void set(int i, int j, int value) {
+      checkWritable();
       storage[ix.setDirect(i, j)] = value;
     }
   }
@@ -396,6 +421,7 @@ public class ArrayInt extends Array {
     }
 
     public void set(int i, int j, int k, int value) {
+      checkWritable();
       storage[ix.setDirect(i, j, k)] = value;
     }
   }
@@ -421,6 +447,7 @@ public class ArrayInt extends Array {
     }
 
     public void set(int i, int j, int k, int l, int value) {
+      checkWritable();
       storage[ix.setDirect(i, j, k, l)] = value;
     }
   }
@@ -446,6 +473,7 @@ public class ArrayInt extends Array {
     }
 
     public void set(int i, int j, int k, int l, int m, int value) {
+      checkWritable();
       storage[ix.setDirect(i, j, k, l, m)] = value;
     }
   }
@@ -471,6 +499,7 @@ public class ArrayInt extends Array {
     }
 
     public void set(int i, int j, int k, int l, int m, int n, int value) {
+      checkWritable();
       storage[ix.setDirect(i, j, k, l, m, n)] = value;
     }
   }
@@ -496,6 +525,7 @@ public class ArrayInt extends Array {
     }
 
     public void set(int i, int j, int k, int l, int m, int n, int o, int value) {
+      checkWritable();
       storage[ix.setDirect(i, j, k, l, m, n, o)] = value;
     }
   }
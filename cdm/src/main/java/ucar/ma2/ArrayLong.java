@@ -86,6 +86,11 @@ public class ArrayLong extends Array {
     return ArrayLong.factory( index, isUnsigned(), storage);
   }
 
+  // the set methods call checkWritable()
+  boolean canBeReadOnly() {
+    return true;
+  }
+
   /* Get underlying primitive array storage. CAUTION! You may invalidate your warrentee! */
   public Object getStorage() { return storage; }
 
@@ -120,6 +125,7 @@ public class ArrayLong extends Array {
   }
     /** set the value at the sepcified index. */
   public void set(Index i, long value) {
+    checkWritable();
     storage[i.currentElement()] = value;
   }
 
@@ -127,6 +133,7 @@ public class ArrayLong extends Array {
     return (double) storage[i.currentElement()];
   }
   public void setDouble(Index i, double value) {
+    checkWritable();
     storage[i.currentElement()] = (long) value;
   }
 
@@ -134,6 +141,7 @@ public class ArrayLong extends Array {
     return (float) storage[i.currentElement()];
   }
   public void setFloat(Index i, float value) {
+    checkWritable();
     storage[i.currentElement()] = (long) value;
   }
 
@@ -141,6 +149,7 @@ public class ArrayLong extends Array {
     return storage[i.currentElement()];
   }
   public void setLong(Index i, long value) {
+    checkWritable();
     storage[i.currentElement()] = value;
   }
 
@@ -148,6 +157,7 @@ public class ArrayLong extends Array {
     return (int) storage[i.currentElement()];
   }
   public void setInt(Index i, int value) {
+    checkWritable();
     storage[i.currentElement()] = (long) value;
   }
 
@@ -155,6 +165,7 @@ public class ArrayLong extends Array {
     return (short) storage[i.currentElement()];
   }
   public void setShort(Index i, short value) {
+    checkWritable();
     storage[i.currentElement()] = (long) value;
   }
 
@@ -162,6 +173,7 @@ public class ArrayLong extends Array {
     return (byte) storage[i.currentElement()];
   }
   public void setByte(Index i, byte value) {
+    checkWritable();
     storage[i.currentElement()] = (long) value;
   }
 
@@ -169,6 +181,7 @@ public class ArrayLong extends Array {
     return (char) storage[i.currentElement()];
   }
   public void setChar(Index i, char value) {
+    checkWritable();
     storage[i.currentElement()] = (long) value;
   }
 
@@ -185,36 +198,37 @@ public class ArrayLong extends Array {
     return storage[i.currentElement()];
   }
   public void setObject(Index i, Object value) {
+    checkWritable();
     storage[i.currentElement()] = ((Number)value).longValue();
   }
 
     // package private : mostly for iterators
   public double getDouble(int index) {return (double) storage[index]; }
-  public void setDouble(int index, double value) { storage[index] = (long) value; }
+  public void setDouble(int index, double value) { checkWritable(); storage[index] = (long) value; }
 
   public float getFloat(int index) { return storage[index]; }
-  public void setFloat(int index, float value) { storage[index] = (long) value;}
+  public void setFloat(int index, float value) { checkWritable(); storage[index] = (long) value;}
 
   public long getLong(int index) {return storage[index];}
-  public void setLong(int index, long value) { storage[index] = value;}
+  public void setLong(int index, long value) { checkWritable(); storage[index] = value;}
 
   public int getInt(int index) { return (int) storage[index]; }
-  public void setInt(int index, int value) { storage[index] = (long) value;}
+  public void setInt(int index, int value) { checkWritable(); storage[index] = (long) value;}
 
   public short getShort(int index) { return (short) storage[index]; }
-  public void setShort(int index, short value) { storage[index] = (long) value; }
+  public void setShort(int index, short value) { checkWritable(); storage[index] = (long) value; }
 
   public byte getByte(int index) { return (byte) storage[index]; }
-  public void setByte(int index, byte value) {storage[index] = (long) value;}
+  public void setByte(int index, byte value) { checkWritable(); storage[index] = (long) value;}
 
   public char getChar(int index) { return (char) storage[index];}
-  public void setChar(int index, char value) { storage[index] = (long) value; }
+  public void setChar(int index, char value) { checkWritable(); storage[index] = (long) value; }
 
   public boolean getBoolean(int index) { throw new ForbiddenConversionException(); }
   public void setBoolean(int index, boolean value) {throw new ForbiddenConversionException(); }
 
   public Object getObject(int index) { return getLong(index); }
-  public void setObject(int index, Object value) { storage[index] = ((Number)value).longValue(); }
+  public void setObject(int index, Object value) { checkWritable(); storage[index] = ((Number)value).longValue(); }
 
   /** Concrete implementation of Array specialized for longs, rank 0. */
   public static class D0 extends ArrayLong {
@@ -234,6 +248,7 @@ public class ArrayLong extends Array {
     }
     /** set the value. */
     public void set(long value) {
+      checkWritable();
       storage[ix.currentElement()] = value;
     }
   }
@@ -256,6 +271,7 @@ public class ArrayLong extends Array {
     }
     /** set the value. */
     public void set(int i, long value) {
+      checkWritable();
       storage[ix.setDirect(i)] = value;
     }
   }
@@ -278,6 +294,7 @@ public class ArrayLong extends Array {
     }
     /** set the value. */
     public void set(int i, int j, long value) {
+      checkWritable();
       storage[ix.setDirect(i,j)] = value;
     }
   }
@@ -300,6 +317,7 @@ public class ArrayLong extends Array {
     }
     /** set the value. */
     public void set(int i, int j, int k, long value) {
+      checkWritable();
       storage[ix.setDirect(i,j,k)] = value;
     }
   }
@@ -322,6 +340,7 @@ public class ArrayLong extends Array {
     }
     /** set the value. */
     public void set(int i, int j, int k, int l, long value) {
+      checkWritable();
       storage[ix.setDirect(i,j,k,l)] = value;
     }
   }
@@ -344,6 +363,7 @@ public class ArrayLong extends Array {
     }
     /** set the value. */
     public void set(int i, int j, int k, int l, int m, long value) {
+      checkWritable();
       storage[ix.setDirect(i,j,k,l, m)] = value;
     }
   }
@@ -366,6 +386,7 @@ public class ArrayLong extends Array {
     }
     /** set the value. */
     public void set(int i, int j, int k, int l, int m, int n, long value) {
+      checkWritable();
       storage[ix.setDirect(i,j,k,l,m,n)] = value;
     }
   }
@@ -388,6 +409,7 @@ public class ArrayLong extends Array {
     }
     /** set the value. */
     public void set(int i, int j, int k, int l, int m, int n, int o, long value) {
+      checkWritable();
       storage[ix.setDirect(i,j,k,l,m,n,o)] = value;
     }
   }
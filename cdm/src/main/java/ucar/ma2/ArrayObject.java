@@ -102,6 +102,11 @@ public class ArrayObject extends Array {
     return ArrayObject.factory( dataType, elementType, isVlen, index, storage);
   }
 
+  // the set methods call checkWritable()
+  boolean canBeReadOnly() {
+    return true;
+  }
+
   @Override
   public Array copy() {
     Array newA = factory(getDataType(), getElementType(), isVlen(), Index.factory(getShape()));
@@ -178,6 +183,7 @@ public class ArrayObject extends Array {
     return storage[i.currentElement()];
   }
   public void setObject(Index i, Object value) {
+    checkWritable();
     storage[i.currentElement()] = value;
   }
 
@@ -208,7 +214,7 @@ public class ArrayObject extends Array {
   public void setBoolean(int index, boolean value) { throw new ForbiddenConversionException(); }
 
   public Object getObject(int index) { return storage[index]; }
-  public void setObject(int index, Object value) { storage[index] = value; }
+  public void setObject(int index, Object value) { checkWritable(); storage[index] = value; }
 
   /** Concrete implementation of Array specialized for Objects, rank 0. */
   public static class D0 extends ArrayObject {
@@ -228,6 +234,7 @@ public class ArrayObject extends Array {
     }
     /** set the value. */
     public void set(Object value) {
+      checkWritable();
       storage[ix.currentElement()] = value;
     }
   }
@@ -250,6 +257,7 @@ public class ArrayObject extends Array {
     }
     /** set the value. */
     public void set(int i, Object value) {
+      checkWritable();
       storage[ix.setDirect(i)] = value;
     }
   }
@@ -272,6 +280,7 @@ public class ArrayObject extends Array {
     }
     /** set the value. */
     public void set(int i, int j, Object value) {
+      checkWritable();
       storage[ix.setDirect(i,j)] = value;
     }
   }
@@ -294,6 +303,7 @@ public class ArrayObject extends Array {
     }
     /** set the value. */
     public void set(int i, int j, int k, Object value) {
+      checkWritable();
       storage[ix.setDirect(i,j,k)] = value;
     }
   }
@@ -316,6 +326,7 @@ public class ArrayObject extends Array {
     }
     /** set the value. */
     public void set(int i, int j, int k, int l, Object value) {
+      checkWritable();
       storage[ix.setDirect(i,j,k,l)] = value;
     }
   }
@@ -338,6 +349,7 @@ public class ArrayObject extends Array {
     }
     /** set the value. */
     public void set(int i, int j, int k, int l, int m, Object value) {
+      checkWritable();
       storage[ix.setDirect(i,j,k,l, m)] = value;
     }
   }
@@ -360,6 +372,7 @@ public class ArrayObject extends Array {
     }
     /** set the value. */
     public void set(int i, int j, int k, int l, int m, int n, Object value) {
+      checkWritable();
       storage[ix.setDirect(i,j,k,l,m,n)] = value;
     }
   }
@@ -382,6 +395,7 @@ public class ArrayObject extends Array {
     }
     /** set the value. */
     public void set(int i, int j, int k, int l, int m, int n, int o, Object value) {
+      checkWritable();
       storage[ix.setDirect(i,j,k,l,m,n,o)] = value;
     }
   }
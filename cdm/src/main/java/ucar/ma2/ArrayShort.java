@@ -89,6 +89,12 @@ public class ArrayShort extends Array {
   protected Array createView(Index index) {
     return ArrayShort.factory(index, isUnsigned(), storage);
   }
+
+  // the set methods call checkWritable()
+  boolean canBeReadOnly() {
+    return true;
+  }
+
   /* Get underlying primitive array storage. CAUTION! You may invalidate your warrentee! */
   public Object getStorage() {
     return storage;
@@ -139,6 +145,7 @@ public class ArrayShort extends Array {
    * @param value set to this value
    */
   public void set(Index i, short value) {
+    checkWritable();
     storage[i.currentElement()] = value;
   }
 
@@ -148,6 +155,7 @@ public class ArrayShort extends Array {
   }
 
   public void setDouble(Index i, double value) {
+    checkWritable();
     storage[i.currentElement()] = (short) value;
   }
 
@@ -157,6 +165,7 @@ public class ArrayShort extends Array {
   }
 
   public void setFloat(Index i, float value) {
+    checkWritable();
     storage[i.currentElement()] = (short) value;
   }
 
@@ -166,6 +175,7 @@ public class ArrayShort extends Array {
   }
 
   public void setLong(Index i, long value) {
+    checkWritable();
     storage[i.currentElement()] = (short) value;
   }
 
@@ -175,6 +185,7 @@ public class ArrayShort extends Array {
   }
 
   public void setInt(Index i, int value) {
+    checkWritable();
     storage[i.currentElement()] = (short) value;
   }
 
@@ -183,6 +194,7 @@ public class ArrayShort extends Array {
   }
 
   public void setShort(Index i, short value) {
+    checkWritable();
     storage[i.currentElement()] = value;
   }
 
@@ -191,6 +203,7 @@ public class ArrayShort extends Array {
   }
 
   public void setByte(Index i, byte value) {
+    checkWritable();
     storage[i.currentElement()] = (short) value;
   }
 
@@ -200,6 +213,7 @@ public class ArrayShort extends Array {
   }
 
   public void setChar(Index i, char value) {
+    checkWritable();
     storage[i.currentElement()] = (short) value;
   }
 
@@ -222,6 +236,7 @@ public class ArrayShort extends Array {
   }
 
   public void setObject(Index i, Object value) {
+    checkWritable();
     storage[i.currentElement()] = ((Number) value).shortValue();
   }
 
@@ -232,6 +247,7 @@ public class ArrayShort extends Array {
   }
 
   public void setDouble(int index, double value) {
+    checkWritable();
     storage[index] = (short) value;
   }
 
@@ -241,6 +257,7 @@ public class ArrayShort extends Array {
   }
 
   public void setFloat(int index, float value) {
+    checkWritable();
     storage[index] = (short) value;
   }
 
@@ -250,6 +267,7 @@ public class ArrayShort extends Array {
   }
 
   public void setLong(int index, long value) {
+    checkWritable();
     storage[index] = (short) value;
   }
 
@@ -259,6 +277,7 @@ public class ArrayShort extends Array {
   }
 
   public void setInt(int index, int value) {
+    checkWritable();
     storage[index] = (short) value;
   }
 
@@ -267,6 +286,7 @@ public class ArrayShort extends Array {
   }
 
   public void setShort(int index, short value) {
+    checkWritable();
     storage[index] = value;
   }
 
@@ -275,6 +295,7 @@ public class ArrayShort extends Array {
   }
 
   public void setByte(int index, byte value) {
+    checkWritable();
     storage[index] = (short) value;
   }
 
@@ -284,6 +305,7 @@ public class ArrayShort extends Array {
   }
 
   public void setChar(int index, char value) {
+    checkWritable();
     storage[index] = (short) value;
   }
 
@@ -300,6 +322,7 @@ public class ArrayShort extends Array {
   }
 
   public void setObject(int index, Object value) {
+    checkWritable();
     storage[index] = ((Number) value).shortValue();
   }
 
@@ -324,6 +347,7 @@ public class ArrayShort extends Array {
     }
 
     public void set(short value) {
+      checkWritable();
       storage[ix.currentElement()] = value;
     }
   }
@@ -349,6 +373,7 @@ public class ArrayShort extends Array {
     }
 
     public void set(int i, short value) {
+      checkWritable();
       storage[ix.setDirect(i)] = value;
     }
   }
@@ -374,6 +399,7 @@ public class ArrayShort extends Array {
     }
 
     public void set(int i, int j, short value) {
+      checkWritable();
       storage[ix.setDirect(i, j)] = value;
     }
   }
@@ -399,6 +425,7 @@ public class ArrayShort extends Array {
     }
 
     public void set(int i, int j, int k, short value) {
+      checkWritable();
       storage[ix.setDirect(i, j, k)] = value;
     }
   }
@@ -424,6 +451,7 @@ public class ArrayShort extends Array {
     }
 
     public void set(int i, int j, int k, int l, short value) {
+      checkWritable();
       storage[ix.setDirect(i, j, k, l)] = value;
     }
   }
@@ -449,6 +477,7 @@ public class ArrayShort extends Array {
     }
 
     public void set(int i, int j, int k, int l, int m, short value) {
+      checkWritable();
       storage[ix.setDirect(i, j, k, l, m)] = value;
     }
   }
@@ -474,6 +503,7 @@ public class ArrayShort extends Array {
     }
 
     public void set(int i, int j, int k, int l, int m, int n, short value) {
+      checkWritable();
       storage[ix.setDirect(i, j, k, l, m, n)] = value;
     }
   }
@@ -499,6 +529,7 @@ public class ArrayShort extends Array {
     }
 
     public void set(int i, int j, int k, int l, int m, int n, int o, short value) {
+      checkWritable();
       storage[ix.setDirect(i, j, k, l, m, n, o)] = value;
     }
   }
@@ -90,6 +90,11 @@ public class ArrayString extends Array {
     return ArrayString.factory(index, storage);
   }
 
+  // the set methods call checkWritable()
+  boolean canBeReadOnly() {
+    return true;
+  }
+
   /* Get underlying primitive array storage. CAUTION! You may invalidate your warranty! */
   public Object getStorage() {
     return storage;
@@ -141,6 +146,7 @@ public class ArrayString extends Array {
    * set the value at the sepcified index.
    */
   public void set(Index i, String value) {
+    checkWritable();
     storage[i.currentElement()] = value;
   }
 
@@ -261,6 +267,7 @@ public class ArrayString extends Array {
   }
 
   public void setObject(Index i, Object value) {
+    checkWritable();
     storage[i.currentElement()] = ((String) value);
   }
 
@@ -334,6 +341,7 @@ public class ArrayString extends Array {
   }
 
   public void setObject(int index, Object value) {
+    checkWritable();
     storage[index] = (String) value;
   }
 
@@ -367,6 +375,7 @@ public class ArrayString extends Array {
      * set the value.
      */
     public void set(String value) {
+      checkWritable();
       storage[ix.currentElement()] = value;
     }
   }
@@ -401,6 +410,7 @@ public class ArrayString extends Array {
      * set the value.
      */
     public void set(int i, String value) {
+      checkWritable();
       storage[ix.setDirect(i)] = value;
     }
   }
@@ -435,6 +445,7 @@ public class ArrayString extends Array {
      * set the value.
      */
     public void set(int i, int j, String value) {
+      checkWritable();
       storage[ix.setDirect(i, j)] = value;
     }
   }
@@ -469,6 +480,7 @@ public class ArrayString extends Array {
      * set the value.
      */
     public void set(int i, int j, int k, String value) {
+      checkWritable();
       storage[ix.setDirect(i, j, k)] = value;
     }
   }
@@ -503,6 +515,7 @@ public class ArrayString extends Array {
      * set the value.
      */
     public void set(int i, int j, int k, int l, String value) {
+      checkWritable();
       storage[ix.setDirect(i, j, k, l)] = value;
     }
   }
@@ -537,6 +550,7 @@ public class ArrayString extends Array {
      * set the value.
      */
     public void set(int i, int j, int k, int l, int m, String value) {
+      checkWritable();
       storage[ix.setDirect(i, j, k, l, m)] = value;
     }
   }
@@ -571,6 +585,7 @@ public class ArrayString extends Array {
      * set the value.
      */
     public void set(int i, int j, int k, int l, int m, int n, String value) {
+      checkWritable();
       storage[ix.setDirect(i, j, k, l, m, n)] = value;
     }
   }
@@ -605,6 +620,7 @@ public class ArrayString extends Array {
      * set the value.
      */
     public void set(int i, int j, int k, int l, int m, int n, int o, String value) {
+      checkWritable();
       storage[ix.setDirect(i, j, k, l, m, n, o)] = value;
     }
   }
@@ -41,6 +41,13 @@ public class Variable extends CDMNode implements VariableIF, ProxyReader, Attrib
   static public int defaultSizeToCache = 4000; // bytes  cache any variable whose size() < defaultSizeToCache
   static public int defaultCoordsSizeToCache = 40 * 1000; // bytes cache coordinate variable whose size() < defaultSizeToCache
 
+  /**
+   * When true, reads of cached data return shared read-only views of the cache (see Array.getReadOnlyView()),
+   * instead of copies. Callers then cannot modify the returned Array, but must copy() it first.
+   * Off by default, since existing code may modify the Arrays it reads.
+   */
+  static public boolean shareCachedData = Boolean.getBoolean("ucar.nc2.variable.shareCachedData");
+
   static protected boolean debugCaching = false;
   static private org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(Variable.class);
 
@@ -749,7 +756,7 @@ public class Variable extends CDMNode implements VariableIF, ProxyReader, Attrib
     // check if already cached
     if (cache.data != null) {
       if (debugCaching) System.out.println("got data from cache " + getFullName());
-      return cache.data.copy();
+      return fromCache(cache.data);
     }
 
     Array data = proxyReader.reallyRead(this, null);
@@ -758,12 +765,17 @@ public class Variable extends CDMNode implements VariableIF, ProxyReader, Attrib
     if (isCaching()) {
       setCachedData(data);
       if (debugCaching) System.out.println("cache " + getFullName());
-      return cache.data.copy(); // dont let users get their nasty hands on cached data
+      return fromCache(cache.data);
     } else {
       return data;
     }
   }
 
+  // dont let users get their nasty hands on cached data: return a copy, or a read-only view
+  private Array fromCache(Array data) {
+    return shareCachedData ? data.getReadOnlyView() : data.copy();
+  }
+
   /**
    * public by accident, do not call directly.
    *
@@ -802,7 +814,7 @@ public class Variable extends CDMNode implements VariableIF, ProxyReader, Attrib
         if (debugCaching) System.out.println("cache " + getFullName());
       }
       if (debugCaching) System.out.println("got data from cache " + getFullName());
-      return cache.data.sectionNoReduce(section.getRanges()).copy(); // subset it, return copy
+      return fromCache(cache.data.sectionNoReduce(section.getRanges())); // subset it, return copy or view
     }
 
     return proxyReader.reallyRead(this, section, null);
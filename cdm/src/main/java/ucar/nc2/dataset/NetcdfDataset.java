@@ -19,6 +19,8 @@ import ucar.nc2.stream.CdmRemote;
 import ucar.nc2.util.CancelTask;
 import ucar.nc2.util.CancelTaskImpl;
 import ucar.nc2.util.cache.FileCache;
+import ucar.nc2.util.cache.FileCacheIF;
+import ucar.nc2.util.cache.FileCacheStriped;
 import ucar.nc2.util.cache.FileFactory;
 
 import java.io.IOException;
@@ -234,7 +236,7 @@ public class NetcdfDataset extends ucar.nc2.NetcdfFile {
   ////////////////////////////////////////////////////////////////////////////////////
   // NetcdfFile caching
 
-  static private ucar.nc2.util.cache.FileCache netcdfFileCache = null;
+  static private ucar.nc2.util.cache.FileCacheIF netcdfFileCache = null;
   static private ucar.nc2.util.cache.FileFactory defaultNetcdfFileFactory = new MyNetcdfFileFactory();
 
   // no state, so a singleton is ok
@@ -272,6 +274,17 @@ public class NetcdfDataset extends ucar.nc2.NetcdfFile {
                                                         hardLimit, period);
   }
 
+  /**
+   * Use this FileCacheIF for acquireFile() and acquireDataset(), eg a {@link ucar.nc2.util.cache.FileCacheStriped}.
+   * When application terminates, call NetcdfDataset.shutdown().
+   *
+   * @param fileCache the cache, or null to not cache.
+   */
+  static public synchronized void setNetcdfFileCache(ucar.nc2.util.cache.FileCacheIF fileCache) {
+    if (null != netcdfFileCache && netcdfFileCache != fileCache) netcdfFileCache.disable();
+    netcdfFileCache = fileCache;
+  }
+
   static public synchronized void disableNetcdfFileCache() {
     if (null != netcdfFileCache) netcdfFileCache.disable();
     netcdfFileCache = null;
@@ -284,6 +297,7 @@ public class NetcdfDataset extends ucar.nc2.NetcdfFile {
   static public synchronized void shutdown() {
     disableNetcdfFileCache();
     FileCache.shutdown();
+    FileCacheStriped.shutdown();
   }
 
   /**
@@ -629,7 +643,7 @@ public class NetcdfDataset extends ucar.nc2.NetcdfFile {
    * @return NetcdfFile object
    * @throws java.io.IOException on read error
    *
-  static private NetcdfFile openOrAcquireFile(FileCache cache, FileFactory factory, Object hashKey, String orgLocation,
+  static private NetcdfFile openOrAcquireFile(FileCacheIF cache, FileFactory factory, Object hashKey, String orgLocation,
                                               int buffer_size, ucar.nc2.util.CancelTask cancelTask, Object spiObject) throws IOException {
 
     if (orgLocation == null)
@@ -640,7 +654,7 @@ public class NetcdfDataset extends ucar.nc2.NetcdfFile {
     return openOrAcquireFile(cache, factory, hashKey, durl, buffer_size, cancelTask, spiObject);
   } */
 
-  static private NetcdfFile openOrAcquireFile(FileCache cache, FileFactory factory, Object hashKey, DatasetUrl durl,
+  static private NetcdfFile openOrAcquireFile(FileCacheIF cache, FileFactory factory, Object hashKey, DatasetUrl durl,
                                               int buffer_size, ucar.nc2.util.CancelTask cancelTask, Object spiObject) throws IOException {
 
     if (durl.serviceType != null) {
@@ -694,7 +708,7 @@ public class NetcdfDataset extends ucar.nc2.NetcdfFile {
    */
   static private final String DAP4_PATH = "dap4.cdm.nc2";
 
-  static private NetcdfFile acquireDODS(FileCache cache, FileFactory factory, Object hashKey,
+  static private NetcdfFile acquireDODS(FileCacheIF cache, FileFactory factory, Object hashKey,
                                         String location, int buffer_size, ucar.nc2.util.CancelTask cancelTask, Object spiObject) throws IOException {
     if (cache == null) {
       return openDodsByReflection(location, cancelTask);
@@ -704,7 +718,7 @@ public class NetcdfDataset extends ucar.nc2.NetcdfFile {
     return (NetcdfFile) cache.acquire(factory, hashKey, new DatasetUrl(ServiceType.OPENDAP, location), buffer_size, cancelTask, spiObject);
   }
 
-  static private NetcdfFile acquireDap4(FileCache cache,
+  static private NetcdfFile acquireDap4(FileCacheIF cache,
                                         FileFactory factory,
                                         Object hashKey,
                                         String location,
@@ -798,7 +812,7 @@ public class NetcdfDataset extends ucar.nc2.NetcdfFile {
 
   ////////////////////////////////////////////////////////////////////////////////////
 
-  static private NetcdfFile acquireNcml(FileCache cache, FileFactory factory, Object hashKey,
+  static private NetcdfFile acquireNcml(FileCacheIF cache, FileFactory factory, Object hashKey,
                                         String location, int buffer_size, ucar.nc2.util.CancelTask cancelTask, Object spiObject) throws IOException {
     if (cache == null) return NcMLReader.readNcML(location, cancelTask);
 
@@ -812,7 +826,7 @@ public class NetcdfDataset extends ucar.nc2.NetcdfFile {
     }
   }
 
-  static private NetcdfFile acquireCdmRemote(FileCache cache, FileFactory factory, Object hashKey,
+  static private NetcdfFile acquireCdmRemote(FileCacheIF cache, FileFactory factory, Object hashKey,
                                              String location, int buffer_size, ucar.nc2.util.CancelTask cancelTask, Object spiObject) throws IOException {
     if (cache == null) return new CdmRemote(location);
 
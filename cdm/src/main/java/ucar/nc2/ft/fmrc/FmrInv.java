@@ -129,6 +129,27 @@ public class FmrInv implements Comparable<FmrInv> {
 
   }
 
+  // a copy of a finished FmrInv for another FmrcInv, which sets the expected time coords of the grids.
+  // the inventories and coordinates are shared.
+  FmrInv copy() {
+    FmrInv result = new FmrInv(runtime);
+    result.invList.addAll(invList);
+    result.timeCoords.addAll(timeCoords);
+    result.ensCoords.addAll(ensCoords);
+    result.vertCoords.addAll(vertCoords);
+    result.gridList = new ArrayList<>();
+    for (GridVariable grid : gridList) {
+      GridVariable copy = result.new GridVariable(grid.name);
+      copy.gridList.addAll(grid.gridList);
+      copy.vertCoordUnion = grid.vertCoordUnion;
+      copy.ensCoordUnion = grid.ensCoordUnion;
+      copy.timeCoordUnion = grid.timeCoordUnion;
+      result.uvHash.put(copy.name, copy);
+      result.gridList.add(copy);
+    }
+    return result;
+  }
+
   @Override
   public int compareTo(FmrInv fmr) {
     return runtime.compareTo(fmr.getRunDate());
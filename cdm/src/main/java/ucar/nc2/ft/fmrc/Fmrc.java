@@ -107,6 +107,35 @@ public class Fmrc implements Closeable {
   private volatile long lastInvChanged;
   private volatile long lastProtoChanged;
 
+  // from the last update, to only reread the files and rebuild the runs that have changed
+  private Map<String, FileState> fileStates = new HashMap<>(); // key = path
+  private Map<CalendarDate, RunState> runStates = new HashMap<>();
+
+  private static class FileState {
+    final long lastModified, length;
+    final CalendarDate runDate;
+
+    FileState(MFile mfile, CalendarDate runDate) {
+      this.lastModified = mfile.getLastModified();
+      this.length = mfile.getLength();
+      this.runDate = runDate;
+    }
+
+    boolean isSame(MFile mfile) {
+      return lastModified == mfile.getLastModified() && length == mfile.getLength();
+    }
+  }
+
+  private static class RunState {
+    final List<String> paths;
+    final FmrInv fmr;
+
+    RunState(List<String> paths, FmrInv fmr) {
+      this.paths = paths;
+      this.fmr = fmr;
+    }
+  }
+
   private Fmrc(String collectionSpec, Formatter errlog) throws IOException {
     this.manager = MFileCollectionManager.open(collectionSpec, collectionSpec, null, errlog);  // LOOK no name
     this.config = new FeatureCollectionConfig();
@@ -141,7 +170,9 @@ public class Fmrc implements Closeable {
   }
 
   public FmrcInv getFmrcInv(Formatter debug) throws IOException {
-    return makeFmrcInv( debug);
+    synchronized (lock) {
+      return makeFmrcInv( debug);
+    }
   }
 
   /////////////////////////////////////////////////////////////////////////////////////////
@@ -255,11 +286,16 @@ public class Fmrc implements Closeable {
     }
   }
 
-  // scan has been done, create FmrcInv
+  // scan has been done, create FmrcInv.
+  // Only the files that are new or have changed are read, and only the runs that they are in are rebuilt.
+  // must be called while holding lock
   private FmrcInv makeFmrcInv(Formatter debug) throws IOException {
     try {
-      Map<CalendarDate, FmrInv> fmrMap = new HashMap<>(); // all files are grouped by run date in an FmrInv
-      List<FmrInv> fmrList = new ArrayList<>(); // an fmrc is a collection of fmr
+      boolean incremental = (debug == null); // with debug, rebuild everything so all the details are shown
+      Map<String, FileState> files = new HashMap<>();
+      Map<String, Element> ncmls = new HashMap<>();
+      Map<String, GridDatasetInv> opened = new HashMap<>();  // files read on this update
+      Map<CalendarDate, List<MFile>> runFiles = new HashMap<>(); // all files are grouped by run date
 
       // get the inventory, sorted by path
       for (MFile f : manager.getFilesSorted()) {
@@ -277,35 +313,81 @@ public class Fmrc implements Closeable {
           Element runDateAttr = ncmlWriter.makeAttributeElement(new Attribute(_Coordinate.ModelRunDate, runDate.toString()));
           config.innerNcml = element.addContent(runDateAttr);
         }
-
-        GridDatasetInv inv;
-        try {
-          inv = GridDatasetInv.open(manager, f, config.innerNcml); // inventory is discovered for each GDS
-        } catch (IOException ioe) {
-          logger.warn("Error opening " + f.getPath() + "(skipped)", ioe);
-          continue; // skip
+        ncmls.put(f.getPath(), config.innerNcml);
+
+        FileState state = incremental ? fileStates.get(f.getPath()) : null;
+        if (state != null && state.isSame(f)) {
+          runDate = state.runDate;
+
+        } else {
+          GridDatasetInv inv;
+          try {
+            inv = GridDatasetInv.open(manager, f, config.innerNcml); // inventory is discovered for each GDS
+          } catch (IOException ioe) {
+            logger.warn("Error opening " + f.getPath() + "(skipped)", ioe);
+            continue; // skip
+          }
+
+          runDate = inv.getRunDate();
+          if (debug != null) debug.format("  opened %s rundate = %s%n", f.getPath(), inv.getRunDateString());
+          opened.put(f.getPath(), inv);
         }
 
-        runDate = inv.getRunDate();
-        if (debug != null) debug.format("  opened %s rundate = %s%n", f.getPath(), inv.getRunDateString());
+        files.put(f.getPath(), new FileState(f, runDate));
+        runFiles.computeIfAbsent(runDate, k -> new ArrayList<>()).add(f);
+      }
 
-        // add to fmr for that rundate
-        FmrInv fmr = fmrMap.get(runDate);
-        if (fmr == null) {
-          fmr = new FmrInv(runDate);
-          fmrMap.put(runDate, fmr);
-          fmrList.add(fmr);
+      // make an FmrInv for each rundate, or reuse the one from the last update if its files have not changed
+      List<FmrInv> fmrList = new ArrayList<>(); // an fmrc is a collection of fmr
+      Map<CalendarDate, RunState> runs = new HashMap<>();
+      int nreused = 0;
+      for (Map.Entry<CalendarDate, List<MFile>> entry : runFiles.entrySet()) {
+        CalendarDate runDate = entry.getKey();
+        List<String> paths = new ArrayList<>();
+        boolean changed = false;
+        for (MFile f : entry.getValue()) {
+          paths.add(f.getPath());
+          if (opened.containsKey(f.getPath())) changed = true;
         }
-        fmr.addDataset(inv, debug);
-      }
-      if (debug != null) debug.format("%n");
 
-      // finish the FmrInv
-      Collections.sort(fmrList);
-      for (FmrInv fmr : fmrList) {
+        RunState prev = incremental ? runStates.get(runDate) : null;
+        if (prev != null && !changed && prev.paths.equals(paths)) {
+          fmrList.add(prev.fmr.copy()); // the FmrcInv sets the expected times of its grids, so it needs its own
+          runs.put(runDate, prev);
+          nreused++;
+          continue;
+        }
+
+        // the FmrInv modifies the inventories it is made from, so they must not come from another FmrInv
+        FmrInv fmr = new FmrInv(runDate);
+        for (MFile f : entry.getValue()) {
+          GridDatasetInv inv = opened.get(f.getPath());
+          if (inv == null) {
+            try {
+              inv = GridDatasetInv.open(manager, f, ncmls.get(f.getPath()));
+            } catch (IOException ioe) {
+              logger.warn("Error opening " + f.getPath() + "(skipped)", ioe);
+              files.remove(f.getPath()); // try again next time
+              continue; // skip
+            }
+          }
+          fmr.addDataset(inv, debug);
+        }
+        if (fmr.getInventoryList().isEmpty()) continue;
         fmr.finish();
         if (logger.isDebugEnabled())
           logger.debug("Fmrc:"+config.name+": made fmr with rundate="+fmr.getRunDate()+" nfiles= "+fmr.getFiles().size());
+
+        fmrList.add(fmr);
+        runs.put(runDate, new RunState(paths, fmr));
+      }
+      if (debug != null) debug.format("%n");
+      Collections.sort(fmrList);
+
+      if (incremental) {
+        fileStates = files;
+        runStates = runs;
+        logger.debug("Fmrc:{}: read {} files, reused {} of {} runs", config.name, opened.size(), nreused, fmrList.size());
       }
 
       return new FmrcInv("fmrc:"+manager.getCollectionName(), fmrList, config.fmrcConfig.regularize);
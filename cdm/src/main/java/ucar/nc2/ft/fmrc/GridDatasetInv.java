@@ -37,7 +37,7 @@ import thredds.inventory.MFile;
  * The data inventory of one GridDataset.
  * Track grids, time, vert, ens coordinates.
  * Grids are grouped by the time coordinated that they use.
- * Provides serialization to/from XML.
+ * Provides serialization to/from XML, and to/from a compact binary form, which is what is kept in the metadata store.
  * Uses dense time, vert coordinates - just the ones that are in the file.
  *
  * This replaces the older ucar.nc2.dt.fmrc.ForecastModelRunInventory, gets rid of the definition files.
@@ -55,11 +55,23 @@ public class GridDatasetInv {
   static private final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(GridDatasetInv.class);
   static private final int REQ_VERSION = 2; // minimum required version, else regenerate XML
   static private final int CURR_VERSION = 2;  // current version
+  static private final int BINARY_MAGIC = 0x46696e76; // "Finv"
+  static private final int BINARY_VERSION = 1;
   
   static private boolean debug = false;  // current version
 
   public static GridDatasetInv open(MCollection cm, MFile mfile, Element ncml) throws IOException {
-    // do we already have it ?
+    // do we already have it ? must have the same size and last modified date as the file
+    byte[] binBytes = ((CollectionManagerAbstract)cm).getMetadata(mfile, "fmrInv.bin");
+    if (binBytes != null) {
+      GridDatasetInv inv = readBinary(binBytes, mfile);
+      if (inv != null) {
+        if (logger.isDebugEnabled()) logger.debug(" got fmrInv.bin in cache ="+ mfile.getPath()+ " size = "+binBytes.length);
+        return inv;
+      }
+    }
+
+    // older versions kept the XML
     byte[] xmlBytes = ((CollectionManagerAbstract)cm).getMetadata(mfile, "fmrInv.xml");  // LOOK should we keep this functionality ??
     if (xmlBytes != null) {
       if (logger.isDebugEnabled()) logger.debug(" got xmlFile in cache ="+ mfile.getPath()+ " size = "+xmlBytes.length);
@@ -76,6 +88,7 @@ public class GridDatasetInv {
           long xmlModifiedSecs = inv.getLastModified() / 1000; // ignore msecs
           if (xmlModifiedSecs >= fileModifiedSecs) { // LOOK if fileDate is -1, will always succeed
             if (logger.isDebugEnabled()) logger.debug(" cache ok "+new Date(inv.getLastModified())+" >= "+new Date(mfile.getLastModified())+" for " + mfile.getName());
+            ((CollectionManagerAbstract)cm).putMetadata(mfile, "fmrInv.bin", inv.writeBinary(mfile));
             return inv; // ok, use it
           } else {
             if (logger.isInfoEnabled()) logger.info(" cache out of date "+new Date(inv.getLastModified())+" < "+new Date(mfile.getLastModified())+" for " + mfile.getName());
@@ -102,10 +115,10 @@ public class GridDatasetInv {
       // System.out.println("gds dataset= "+ gds.getNetcdfDataset());
 
       GridDatasetInv inv = new GridDatasetInv(gds, cm.extractDate(mfile));
-      String xmlString = inv.writeXML( new Date(mfile.getLastModified()));
-      ((CollectionManagerAbstract)cm).putMetadata(mfile, "fmrInv.xml", xmlString.getBytes(CDM.utf8Charset));
-      if (logger.isDebugEnabled()) logger.debug(" added xmlFile "+ mfile.getPath()+".fmrInv.xml to cache");
-      if (debug) System.out.printf(" added xmlFile %s.fmrInv.xml to cache%n", mfile.getPath());
+      inv.lastModified = new Date(mfile.getLastModified());
+      ((CollectionManagerAbstract)cm).putMetadata(mfile, "fmrInv.bin", inv.writeBinary(mfile));
+      if (logger.isDebugEnabled()) logger.debug(" added "+ mfile.getPath()+".fmrInv.bin to cache");
+      if (debug) System.out.printf(" added %s.fmrInv.bin to cache%n", mfile.getPath());
       // System.out.println("new xmlBytes= "+ xmlString);
       return inv;
     } finally {
@@ -644,6 +657,151 @@ public class GridDatasetInv {
     return fmr;
   }
 
+  /**
+   * Write the compact binary representation, with the size and last modified date of the file, which are
+   * checked by readBinary().
+   *
+   * @param mfile the file that this is the inventory of
+   * @return the binary representation
+   */
+  byte[] writeBinary(MFile mfile) throws IOException {
+    ByteArrayOutputStream bout = new ByteArrayOutputStream(1000);
+    DataOutputStream out = new DataOutputStream(bout);
+    out.writeInt(BINARY_MAGIC);
+    out.writeInt(BINARY_VERSION);
+    out.writeLong(mfile.getLength());
+    out.writeLong(mfile.getLastModified());
+    out.writeUTF(location);
+    out.writeUTF(runTimeString);
+
+    // same content as the XML
+    Collections.sort(vaxes);
+    int count = 0;
+    out.writeInt(vaxes.size());
+    for (VertCoord vc : vaxes) {
+      vc.setId(count++);
+      out.writeUTF(vc.getName());
+      writeString(out, vc.getUnits());
+      writeDoubles(out, vc.getValues1());
+      writeDoubles(out, vc.getValues2());
+    }
+
+    count = 0;
+    out.writeInt(times.size());
+    for (TimeCoord tc : times) {
+      tc.setId(count++);
+      out.writeBoolean(tc.isInterval());
+      if (tc.isInterval()) {
+        writeDoubles(out, tc.getBound1());
+        writeDoubles(out, tc.getBound2());
+      } else {
+        writeDoubles(out, tc.getOffsetTimes());
+      }
+
+      List<GridDatasetInv.Grid> vars = tc.getGridInventory();
+      Collections.sort(vars);
+      out.writeInt(vars.size());
+      for (Grid grid : vars) {
+        out.writeUTF(grid.name);
+        out.writeInt(grid.ec == null ? -1 : grid.ec.getId());
+        out.writeInt(grid.vc == null ? -1 : grid.vc.getId());
+      }
+    }
+
+    out.flush();
+    return bout.toByteArray();
+  }
+
+  /**
+   * Construct a GridDatasetInv from its binary representation
+   *
+   * @param bytes the binary representation
+   * @param mfile the file that it should be the inventory of
+   * @return the GridDatasetInv, or null if it is out of date, or from another version
+   */
+  static GridDatasetInv readBinary(byte[] bytes, MFile mfile) {
+    try {
+      DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+      if (in.readInt() != BINARY_MAGIC || in.readInt() != BINARY_VERSION)
+        return null;
+      long length = in.readLong();
+      long lastModified = in.readLong();
+      if (length != mfile.getLength() || lastModified != mfile.getLastModified()) {
+        if (logger.isInfoEnabled()) logger.info(" cache out of date for " + mfile.getName());
+        return null;
+      }
+
+      GridDatasetInv fmr = new GridDatasetInv();
+      fmr.version = CURR_VERSION;
+      fmr.lastModified = new Date(lastModified);
+      fmr.location = in.readUTF();
+      fmr.runTimeString = in.readUTF();
+      fmr.runDate = DateUnit.parseCalendarDate(fmr.runTimeString);
+
+      int nvert = in.readInt();
+      for (int i = 0; i < nvert; i++) {
+        VertCoord vc = new VertCoord();
+        fmr.vaxes.add(vc);
+        vc.setId(i);
+        vc.setName(in.readUTF());
+        vc.setUnits(readString(in));
+        vc.setValues1(readDoubles(in));
+        vc.setValues2(readDoubles(in));
+      }
+
+      int ntimes = in.readInt();
+      for (int i = 0; i < ntimes; i++) {
+        TimeCoord tc = new TimeCoord(fmr.runDate);
+        fmr.times.add(tc);
+        tc.setId(i);
+        if (in.readBoolean()) {
+          double[] bound1 = readDoubles(in);
+          double[] bound2 = readDoubles(in);
+          tc.setBounds(bound1, bound2);
+        } else {
+          tc.setOffsetTimes(readDoubles(in));
+        }
+
+        int ngrids = in.readInt();
+        for (int j = 0; j < ngrids; j++) {
+          Grid grid = fmr.makeGrid(in.readUTF());
+          grid.ec = fmr.getEnsCoordinate(in.readInt());
+          grid.vc = fmr.getVertCoordinate(in.readInt());
+          tc.addGridInventory(grid);
+          grid.tc = tc;
+        }
+      }
+      return fmr;
+
+    } catch (IOException | RuntimeException e) {
+      logger.warn(" bad fmrInv.bin in cache for " + mfile.getPath() + "; will reread", e);
+      return null;
+    }
+  }
+
+  private static void writeString(DataOutputStream out, String s) throws IOException {
+    out.writeBoolean(s != null);
+    if (s != null) out.writeUTF(s);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    return in.readBoolean() ? in.readUTF() : null;
+  }
+
+  private static void writeDoubles(DataOutputStream out, double[] values) throws IOException {
+    out.writeInt(values == null ? -1 : values.length);
+    if (values != null)
+      for (double v : values) out.writeDouble(v);
+  }
+
+  private static double[] readDoubles(DataInputStream in) throws IOException {
+    int n = in.readInt();
+    if (n < 0) return null;
+    double[] values = new double[n];
+    for (int i = 0; i < n; i++) values[i] = in.readDouble();
+    return values;
+  }
+
   public static void main(String[] args) {
     String values = "1,2,3,4";
     String[] value = values.split("[,]");
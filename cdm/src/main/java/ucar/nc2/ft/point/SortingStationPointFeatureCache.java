@@ -1,10 +1,20 @@
 package ucar.nc2.ft.point;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
 
 import com.google.common.base.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import ucar.nc2.constants.FeatureType;
 import ucar.nc2.ft.FeatureDatasetFactoryManager;
 import ucar.nc2.ft.FeatureDatasetPoint;
@@ -13,6 +23,13 @@ import ucar.nc2.ft.PointFeatureIterator;
 import ucar.nc2.units.DateUnit;
 
 /**
+ * Sorts StationPointFeatures with a Comparator; features that compare equal keep the order they were added in.
+ * <p/>
+ * Memory use is bounded: features are deep copied into an in-memory run until it reaches maxBytesInMemory.
+ * The run is then sorted and written to a temporary "spill" file in the compact form of
+ * {@link StationFeatureCopyFactory#write}, which is about the raw payload size.
+ * {@link #getPointFeatureIterator} merges the spilled runs and the in-memory run (an external merge sort).
+ * Call {@link #close} to delete the spill files.
  *
  * @author cwardgar
  * @since 2014/08/21
@@ -20,11 +37,20 @@ import ucar.nc2.units.DateUnit;
 // This class ought to be a PointFeatureCollection, by extending PointCollectionImpl.
 // However, we do not have the timeUnit and altUnits that the constructor requires. Does it really need
 // that info? Can't it calculate it from one of its features? That interface may need to be re-thought.
-public class SortingStationPointFeatureCache {
+public class SortingStationPointFeatureCache implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(SortingStationPointFeatureCache.class);
+
     public static final Comparator<StationPointFeature> stationNameComparator = (pointFeat1, pointFeat2) ->
             pointFeat1.getStation().getName().compareTo(pointFeat2.getStation().getName());
 
-    private final SortedMap<StationPointFeature, List<StationPointFeature>> inMemCache;
+    public static final long DEFAULT_MAX_BYTES_IN_MEMORY = 64L * 1000 * 1000;
+
+    private final Comparator<StationPointFeature> comp;
+    private final long maxBytesInMemory;
+    private final File spillDir;
+
+    private List<StationPointFeature> inMemRun = new ArrayList<>();
+    private final List<SpillFile> spillFiles = new ArrayList<>();
 
     private volatile StationFeatureCopyFactory stationFeatCopyFactory;
 
@@ -34,13 +60,25 @@ public class SortingStationPointFeatureCache {
 
     // We're going to init stationFeatCopyFactory using the first feat that's add()ed.
     public SortingStationPointFeatureCache(Comparator<StationPointFeature> comp) {
-        this.inMemCache = new TreeMap<>(Preconditions.checkNotNull(comp, "comp == null"));
+        this(comp, DEFAULT_MAX_BYTES_IN_MEMORY, null);
         // stationFeatCopyFactory remains null.
     }
 
+    /**
+     * @param comp              sort features with this
+     * @param maxBytesInMemory  approximate size of the deep copies held in memory before they are spilled to disk
+     * @param spillDir          directory for the spill files, or null for the default temporary-file directory
+     */
+    public SortingStationPointFeatureCache(Comparator<StationPointFeature> comp, long maxBytesInMemory, File spillDir) {
+        Preconditions.checkArgument(maxBytesInMemory > 0, "maxBytesInMemory must be > 0");
+        this.comp = Preconditions.checkNotNull(comp, "comp == null");
+        this.maxBytesInMemory = maxBytesInMemory;
+        this.spillDir = spillDir;
+    }
+
     public SortingStationPointFeatureCache(
             Comparator<StationPointFeature> comp, StationPointFeature proto, DateUnit dateUnit) throws IOException {
-        this.inMemCache = new TreeMap<>(Preconditions.checkNotNull(comp, "comp == null"));
+        this(comp);
 
         if (proto != null && dateUnit != null) {
             this.stationFeatCopyFactory = new StationFeatureCopyFactory(proto);
@@ -49,15 +87,48 @@ public class SortingStationPointFeatureCache {
 
     public void add(StationPointFeature feat) throws IOException {
         Preconditions.checkNotNull(feat, "feat == null");
-        StationPointFeature featCopy = getStationFeatureCopyFactory(feat).deepCopy(feat);
+        StationFeatureCopyFactory factory = getStationFeatureCopyFactory(feat);
+        inMemRun.add(factory.deepCopy(feat));
+
+        if ((long) inMemRun.size() * factory.getSizeInBytes() >= maxBytesInMemory) {
+            spill();
+        }
+    }
 
-        List<StationPointFeature> bucket = inMemCache.get(featCopy);
-        if (bucket == null) {
-            bucket = new LinkedList<>();
-            inMemCache.put(featCopy, bucket);
+    /**
+     * @return number of runs that have been spilled to disk so far.
+     */
+    public int getNumSpillFiles() {
+        return spillFiles.size();
+    }
+
+    // Sort the in-memory run and write it to a new spill file.
+    private void spill() throws IOException {
+        inMemRun.sort(comp);  // List.sort() is stable.
+
+        File file = File.createTempFile("stationPointFeatures", ".run", spillDir);
+        spillFiles.add(new SpillFile(file, inMemRun.size()));  // Add before writing, so that close() deletes it.
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            for (StationPointFeature feat : inMemRun) {
+                stationFeatCopyFactory.write(feat, out);
+            }
         }
 
-        bucket.add(featCopy);
+        inMemRun = new ArrayList<>();
+    }
+
+    /**
+     * Deletes the spill files. Iterators that are still open will fail.
+     */
+    @Override
+    public void close() {
+        for (SpillFile spillFile : spillFiles) {
+            if (!spillFile.file.delete() && spillFile.file.exists()) {
+                logger.warn("Could not delete spill file {}", spillFile.file);
+            }
+        }
+        spillFiles.clear();
     }
 
     public void addAll(File datasetFile) throws NoFactoryFoundException, IOException {
@@ -98,43 +169,146 @@ public class SortingStationPointFeatureCache {
 
     // TODO: Once this method is called, prohibit any further additions to cache.
     public PointFeatureIterator getPointFeatureIterator() throws IOException {
-        return new PointIteratorAdapter(new Iter());
+        inMemRun.sort(comp);
+
+        if (spillFiles.isEmpty()) {
+            return new PointIteratorAdapter(Collections.unmodifiableList(inMemRun).iterator());
+        }
+
+        // The in-memory run was added last, so it goes last: runs are merged in the order they were created.
+        List<Iterator<StationPointFeature>> runs = new ArrayList<>();
+        for (SpillFile spillFile : spillFiles) {
+            runs.add(new SpillFileIter(spillFile));
+        }
+        runs.add(inMemRun.iterator());
+
+        MergeIter mergeIter = new MergeIter(runs);
+        return new PointIteratorAdapter(mergeIter) {
+            @Override
+            public void close() {
+                mergeIter.close();
+                super.close();
+            }
+        };
     }
 
-    private class Iter implements Iterator<StationPointFeature> {
-        private final Iterator<List<StationPointFeature>> bucketsIter;
-        private Iterator<StationPointFeature> featsIter;
+    private static class SpillFile {
+        private final File file;
+        private final int count;
 
-        public Iter() {
-            this.bucketsIter = inMemCache.values().iterator();
+        SpillFile(File file, int count) {
+            this.file = file;
+            this.count = count;
+        }
+    }
+
+    // Reads one spilled run back, one feature at a time.
+    private class SpillFileIter implements Iterator<StationPointFeature>, Closeable {
+        private final DataInputStream in;
+        private int remaining;
+
+        SpillFileIter(SpillFile spillFile) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(spillFile.file)));
+            this.remaining = spillFile.count;
         }
 
         @Override
-        public boolean hasNext() {  // Method is idempotent.
-            while (featsIter == null || !featsIter.hasNext()) {
-                if (!bucketsIter.hasNext()) {
-                    return false;
-                } else {
-                    featsIter = bucketsIter.next().iterator();
-                }
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public StationPointFeature next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("There are no more elements.");
             }
 
-            assert featsIter != null && featsIter.hasNext();
-            return true;
+            try {
+                remaining--;
+                return stationFeatCopyFactory.read(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                in.close();
+            } catch (IOException e) {
+                logger.warn("Could not close spill file", e);
+            }
+        }
+    }
+
+    // K-way merge of sorted runs. On ties, the feature from the earlier run wins, which keeps the sort stable.
+    private class MergeIter implements Iterator<StationPointFeature>, Closeable {
+        private final List<Iterator<StationPointFeature>> runs;
+        private final PriorityQueue<Head> heads;
+
+        MergeIter(List<Iterator<StationPointFeature>> runs) {
+            this.runs = runs;
+            this.heads = new PriorityQueue<>(runs.size(), (head1, head2) -> {
+                int result = comp.compare(head1.feat, head2.feat);
+                return (result != 0) ? result : Integer.compare(head1.run, head2.run);
+            });
+
+            for (int run = 0; run < runs.size(); run++) {
+                advance(run);
+            }
+        }
+
+        private void advance(int run) {
+            Iterator<StationPointFeature> iter = runs.get(run);
+            if (iter.hasNext()) {
+                heads.add(new Head(iter.next(), run));
+            } else if (iter instanceof Closeable) {
+                closeQuietly((Closeable) iter);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {  // Method is idempotent.
+            return !heads.isEmpty();
         }
 
         @Override
         public StationPointFeature next() {
-            if (!hasNext()) {  // Don't rely on user to call this.
+            Head head = heads.poll();
+            if (head == null) {  // Don't rely on user to call hasNext().
                 throw new NoSuchElementException("There are no more elements.");
-            } else {
-                return featsIter.next();
             }
+
+            advance(head.run);
+            return head.feat;
         }
 
         @Override
-        public void remove() {
-            throw new UnsupportedOperationException("Operation not supported by this iterator.");
+        public void close() {
+            heads.clear();
+            for (Iterator<StationPointFeature> iter : runs) {
+                if (iter instanceof Closeable) {
+                    closeQuietly((Closeable) iter);
+                }
+            }
+        }
+    }
+
+    private static class Head {
+        private final StationPointFeature feat;
+        private final int run;
+
+        Head(StationPointFeature feat, int run) {
+            this.feat = feat;
+            this.run = run;
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            logger.warn("Could not close " + closeable, e);
         }
     }
 }
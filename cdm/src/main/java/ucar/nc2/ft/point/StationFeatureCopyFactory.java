@@ -5,12 +5,22 @@
 
 package ucar.nc2.ft.point;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import ucar.ma2.ArrayStructureBB;
 import ucar.ma2.StructureData;
 import ucar.ma2.StructureDataDeep;
 import ucar.ma2.StructureMembers;
+import ucar.nc2.ft.DsgFeatureCollection;
 import ucar.nc2.ft.PointFeature;
 import javax.annotation.Nonnull;
 
@@ -19,6 +29,7 @@ import javax.annotation.Nonnull;
  * A factory will use the first StationPointFeature to get the StructureMembers object, and the DateUnits, and uses that for all copies.
  * So all StationPointFeature must have the same StructureMembers and DateUnit.
  * It will keep a hashmap of Stations, and reuse the Station object.
+ * Copies can also be written to and read back from a compact binary form, see {@link #write} and {@link #read}.
  *
  * @author caron
  * @since 6/20/2014
@@ -29,7 +40,10 @@ public class StationFeatureCopyFactory {
   static private final int OBJECT_SIZE = 40; // overhead per object estimate
   static private final int ARRAY_SIZE = 8;   // assume 64 bit pointers
 
-  private final Map<String, StationFeatureImpl> stationMap;
+  private final Map<String, Integer> stationMap; // station name -> index into stations
+  private final List<StationFeatureImpl> stations = new ArrayList<>();
+  private final Map<DsgFeatureCollection, Integer> dsgMap = new IdentityHashMap<>();
+  private final List<DsgFeatureCollection> dsgs = new ArrayList<>();
   private final StructureMembers sm;
   private final int sizeInBytes;
 
@@ -57,26 +71,135 @@ public class StationFeatureCopyFactory {
   }
 
   public StationPointFeature deepCopy(StationPointFeature from) throws IOException {
-    StationFeature s = from.getStation();
-    StationFeatureImpl sUse = stationMap.get(s.getName());
-    if (sUse == null) {
-      sUse = new StationFeatureImpl(s);
-      stationMap.put(s.getName(), sUse);
-    }
+    StationFeatureImpl sUse = stations.get(stationIndex(from.getStation()));
     sUse.incrNobs();
     StationPointFeatureCopy deep = new StationPointFeatureCopy(sUse, from);
     deep.data = StructureDataDeep.copy(from.getFeatureData(), sm);
     return deep;
   }
 
+  /**
+   * Write a StationPointFeature in a compact binary form: the station and feature collection as indices into tables
+   * kept by this factory, the times, and the feature data packed as in an ArrayStructureBB.
+   * The size is close to StructureMembers.getStructureSize(), plus any Strings.
+   * The result can only be read back by this factory.
+   *
+   * @param feat write this feature; must have the same StructureMembers as the prototype
+   * @param out  write to here
+   * @throws IOException on write error
+   */
+  public void write(StationPointFeature feat, DataOutput out) throws IOException {
+    out.writeInt(stationIndex(feat.getStation()));
+    out.writeInt(dsgIndex(feat.getFeatureCollection()));
+    out.writeDouble(feat.getObservationTime());
+    out.writeDouble(feat.getNominalTime());
+
+    ArrayStructureBB abb = StructureDataDeep.copyToArrayBB(feat.getFeatureData(), sm, ByteOrder.BIG_ENDIAN);
+    ByteBuffer bb = abb.getByteBuffer();
+    out.write(bb.array(), bb.arrayOffset(), sm.getStructureSize());
+
+    // the heap only has Strings and String[], see StructureDataDeep.copyToArrayBB()
+    List<Object> heap = abb.getHeap();
+    out.writeInt(heap == null ? 0 : heap.size());
+    if (heap != null) {
+      for (Object ho : heap) {
+        if (ho instanceof String[]) {
+          String[] hos = (String[]) ho;
+          out.writeInt(hos.length);
+          for (String hs : hos)
+            writeString(hs, out);
+        } else {
+          out.writeInt(-1);
+          writeString((String) ho, out);
+        }
+      }
+    }
+  }
+
+  /**
+   * Read back a StationPointFeature written by {@link #write}.
+   *
+   * @param in read from here
+   * @return a self contained StationPointFeature
+   * @throws IOException on read error
+   */
+  public StationPointFeature read(DataInput in) throws IOException {
+    StationFeatureImpl station = stations.get(in.readInt());
+    DsgFeatureCollection dsg = dsgs.get(in.readInt());
+    double obsTime = in.readDouble();
+    double nomTime = in.readDouble();
+
+    byte[] fixed = new byte[sm.getStructureSize()];
+    in.readFully(fixed);
+    ArrayStructureBB abb = new ArrayStructureBB(sm, new int[]{1}, ByteBuffer.wrap(fixed), 0); // big endian
+
+    int nheap = in.readInt();
+    for (int i = 0; i < nheap; i++) {
+      int count = in.readInt();
+      if (count < 0) {
+        abb.addObjectToHeap(readString(in));
+      } else {
+        String[] hos = new String[count];
+        for (int j = 0; j < count; j++)
+          hos[j] = readString(in);
+        abb.addObjectToHeap(hos);
+      }
+    }
+
+    StationPointFeatureCopy copy = new StationPointFeatureCopy(station, dsg, obsTime, nomTime);
+    copy.data = abb.getStructureData(0);
+    return copy;
+  }
+
+  private int stationIndex(StationFeature s) {
+    Integer index = stationMap.get(s.getName());
+    if (index == null) {
+      index = stations.size();
+      stations.add(new StationFeatureImpl(s));
+      stationMap.put(s.getName(), index);
+    }
+    return index;
+  }
+
+  private int dsgIndex(DsgFeatureCollection dsg) {
+    Integer index = dsgMap.get(dsg);
+    if (index == null) {
+      index = dsgs.size();
+      dsgs.add(dsg);
+      dsgMap.put(dsg, index);
+    }
+    return index;
+  }
+
+  private static void writeString(String s, DataOutput out) throws IOException {
+    if (s == null) {
+      out.writeInt(-1);
+      return;
+    }
+    byte[] b = s.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(b.length);
+    out.write(b);
+  }
+
+  private static String readString(DataInput in) throws IOException {
+    int len = in.readInt();
+    if (len < 0) return null;
+    byte[] b = new byte[len];
+    in.readFully(b);
+    return new String(b, StandardCharsets.UTF_8);
+  }
+
   private class StationPointFeatureCopy extends PointFeatureImpl implements StationPointFeature {
 
     final StationFeature station;
     StructureData data;
 
     StationPointFeatureCopy(StationFeature station, PointFeature pf) {
-      super(pf.getFeatureCollection(), station, pf.getObservationTime(), pf.getNominalTime(),
-              pf.getFeatureCollection().getTimeUnit());
+      this(station, pf.getFeatureCollection(), pf.getObservationTime(), pf.getNominalTime());
+    }
+
+    StationPointFeatureCopy(StationFeature station, DsgFeatureCollection dsg, double obsTime, double nomTime) {
+      super(dsg, station, obsTime, nomTime, dsg.getTimeUnit());
       this.station = station;
     }
 
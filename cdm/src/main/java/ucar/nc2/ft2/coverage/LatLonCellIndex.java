@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+package ucar.nc2.ft2.coverage;
+
+import ucar.ma2.ArrayDouble;
+import ucar.ma2.DataType;
+
+/**
+ * Spatial index of the cells of a curvilinear grid, ie one with 2D lat(y,x) and lon(y,x) coordinates.
+ * The cells are put into a uniform lat/lon grid of buckets, using their bounding boxes, so that finding the cell
+ * that contains a point only looks at a few cells, instead of walking or scanning the grid.
+ * Build it once for a pair of 2D lat/lon coordinates, and reuse it for all the lookups. Immutable, so thread-safe.
+ *
+ * @since 10/17/2026
+ */
+public class LatLonCellIndex {
+  private static final int CELLS_PER_BUCKET = 2;
+  private static final int MAX_BUCKET_SPAN = 64;  // cells that cover more buckets than this are kept in the wide list
+
+  private final double[] latEdge, lonEdge;  // (nrows+1, ncols+1)
+  private final int nrows, ncols;
+
+  private final double minLat, minLon, maxLat, maxLon;
+  private final int nlatBuckets, nlonBuckets;
+  private final double latScale, lonScale;
+  private final int[] bucketStart; // cells in bucket b are cells[bucketStart[b] .. bucketStart[b+1])
+  private final int[] cells;       // cell = row * ncols + col
+  private final int[] wideCells;   // very large cells, usually those that cross the longitude seam
+
+  /**
+   * Build the index.
+   *
+   * @param latEdge lat of the cell corners, shape (nrows+1, ncols+1), missing values are NaN
+   * @param lonEdge lon of the cell corners, shape (nrows+1, ncols+1), normalized so that cells do not wrap around
+   */
+  public LatLonCellIndex(ArrayDouble.D2 latEdge, ArrayDouble.D2 lonEdge) {
+    int[] shape = latEdge.getShape();
+    this.nrows = shape[0] - 1;
+    this.ncols = shape[1] - 1;
+    this.latEdge = (double[]) latEdge.get1DJavaArray(DataType.DOUBLE);
+    this.lonEdge = (double[]) lonEdge.get1DJavaArray(DataType.DOUBLE);
+
+    double minLat = Double.MAX_VALUE, minLon = Double.MAX_VALUE;
+    double maxLat = -Double.MAX_VALUE, maxLon = -Double.MAX_VALUE;
+    for (int i = 0; i < this.latEdge.length; i++) {
+      double lat = this.latEdge[i];
+      double lon = this.lonEdge[i];
+      if (Double.isNaN(lat) || Double.isNaN(lon)) continue;
+      minLat = Math.min(minLat, lat);
+      maxLat = Math.max(maxLat, lat);
+      minLon = Math.min(minLon, lon);
+      maxLon = Math.max(maxLon, lon);
+    }
+    if (minLat > maxLat) { // all missing
+      minLat = maxLat = minLon = maxLon = 0.0;
+    }
+    this.minLat = minLat;
+    this.maxLat = maxLat;
+    this.minLon = minLon;
+    this.maxLon = maxLon;
+
+    // about CELLS_PER_BUCKET cells in each bucket, with the buckets about square in lat/lon
+    long ncells = (long) Math.max(nrows, 0) * Math.max(ncols, 0);
+    int nbuckets = (int) Math.max(1, Math.min(ncells / CELLS_PER_BUCKET, 1 << 24));
+    double latRange = Math.max(maxLat - minLat, 1.0e-6);
+    double lonRange = Math.max(maxLon - minLon, 1.0e-6);
+    int nlat = (int) Math.round(Math.sqrt(nbuckets * latRange / lonRange));
+    nlat = Math.max(1, Math.min(nlat, nbuckets));
+    this.nlatBuckets = nlat;
+    this.nlonBuckets = Math.max(1, nbuckets / nlat);
+    this.latScale = nlatBuckets / latRange;
+    this.lonScale = nlonBuckets / lonRange;
+
+    // count the cells in each bucket, then fill them in
+    int[] count = new int[nlatBuckets * nlonBuckets + 1];
+    int nwide = 0;
+    double[] bb = new double[4];
+    for (int row = 0; row < nrows; row++) {
+      for (int col = 0; col < ncols; col++) {
+        if (!cellBounds(row, col, bb)) continue;
+        int lat0 = latBucket(bb[0]), lat1 = latBucket(bb[1]);
+        int lon0 = lonBucket(bb[2]), lon1 = lonBucket(bb[3]);
+        if ((lat1 - lat0 + 1) * (lon1 - lon0 + 1) > MAX_BUCKET_SPAN) {
+          nwide++;
+          continue;
+        }
+        for (int i = lat0; i <= lat1; i++)
+          for (int j = lon0; j <= lon1; j++)
+            count[i * nlonBuckets + j + 1]++;
+      }
+    }
+
+    this.bucketStart = new int[count.length];
+    for (int b = 1; b < count.length; b++)
+      bucketStart[b] = bucketStart[b - 1] + count[b];
+    this.cells = new int[bucketStart[count.length - 1]];
+    this.wideCells = new int[nwide];
+
+    int[] next = count; // reuse as the fill position of each bucket
+    System.arraycopy(bucketStart, 0, next, 0, next.length);
+    nwide = 0;
+    for (int row = 0; row < nrows; row++) {
+      for (int col = 0; col < ncols; col++) {
+        if (!cellBounds(row, col, bb)) continue;
+        int lat0 = latBucket(bb[0]), lat1 = latBucket(bb[1]);
+        int lon0 = lonBucket(bb[2]), lon1 = lonBucket(bb[3]);
+        int cell = row * ncols + col;
+        if ((lat1 - lat0 + 1) * (lon1 - lon0 + 1) > MAX_BUCKET_SPAN) {
+          wideCells[nwide++] = cell;
+          continue;
+        }
+        for (int i = lat0; i <= lat1; i++)
+          for (int j = lon0; j <= lon1; j++)
+            cells[next[i * nlonBuckets + j]++] = cell;
+      }
+    }
+  }
+
+  /**
+   * Find the cell that contains the given lat,lon point.
+   *
+   * @param wantLat   lat of point
+   * @param wantLon   lon of point, in the same longitude range as the lonEdge
+   * @param rectIndex return (row,col) index here. may not be null
+   * @return false if not in any cell of the grid.
+   */
+  public boolean findCell(double wantLat, double wantLon, int[] rectIndex) {
+    if (!(wantLat >= minLat && wantLat <= maxLat && wantLon >= minLon && wantLon <= maxLon))
+      return false;
+
+    int b = latBucket(wantLat) * nlonBuckets + lonBucket(wantLon);
+    for (int k = bucketStart[b]; k < bucketStart[b + 1]; k++) {
+      if (contains(wantLat, wantLon, cells[k], rectIndex))
+        return true;
+    }
+    for (int cell : wideCells) {
+      if (contains(wantLat, wantLon, cell, rectIndex))
+        return true;
+    }
+    return false;
+  }
+
+  /**
+   * Find the index bounds of the cell corners that are inside a lat/lon box.
+   * Gives the same answer as looking at every corner of the grid.
+   *
+   * @param minLat minimum lat of the box
+   * @param maxLat maximum lat of the box
+   * @param minLon minimum lon of the box, in the same longitude range as the lonEdge
+   * @param maxLon maximum lon of the box
+   * @return {minRow, maxRow, minCol, maxCol} of the corners, inclusive, or null if no corner is inside the box
+   */
+  public int[] findEdgeBounds(double minLat, double maxLat, double minLon, double maxLon) {
+    int[] result = {Integer.MAX_VALUE, -1, Integer.MAX_VALUE, -1};
+    if (minLat <= this.maxLat && maxLat >= this.minLat && minLon <= this.maxLon && maxLon >= this.minLon) {
+      int lat0 = latBucket(minLat), lat1 = latBucket(maxLat);
+      int lon0 = lonBucket(minLon), lon1 = lonBucket(maxLon);
+      for (int i = lat0; i <= lat1; i++) {
+        for (int j = lon0; j <= lon1; j++) {
+          int b = i * nlonBuckets + j;
+          for (int k = bucketStart[b]; k < bucketStart[b + 1]; k++)
+            addCorners(cells[k], minLat, maxLat, minLon, maxLon, result);
+        }
+      }
+      for (int cell : wideCells)
+        addCorners(cell, minLat, maxLat, minLon, maxLon, result);
+    }
+    return (result[1] < 0) ? null : result;
+  }
+
+  ////////////////////////////////////////////////////////////
+
+  private int latBucket(double lat) {
+    int b = (int) ((lat - minLat) * latScale);
+    return Math.max(0, Math.min(b, nlatBuckets - 1));
+  }
+
+  private int lonBucket(double lon) {
+    int b = (int) ((lon - minLon) * lonScale);
+    return Math.max(0, Math.min(b, nlonBuckets - 1));
+  }
+
+  // bounding box of the non-missing corners of the cell: minLat, maxLat, minLon, maxLon; false if all missing
+  private boolean cellBounds(int row, int col, double[] bb) {
+    bb[0] = bb[2] = Double.MAX_VALUE;
+    bb[1] = bb[3] = -Double.MAX_VALUE;
+    boolean any = false;
+    for (int i = row; i <= row + 1; i++) {
+      for (int j = col; j <= col + 1; j++) {
+        int idx = i * (ncols + 1) + j;
+        double lat = latEdge[idx];
+        double lon = lonEdge[idx];
+        if (Double.isNaN(lat) || Double.isNaN(lon)) continue;
+        bb[0] = Math.min(bb[0], lat);
+        bb[1] = Math.max(bb[1], lat);
+        bb[2] = Math.min(bb[2], lon);
+        bb[3] = Math.max(bb[3], lon);
+        any = true;
+      }
+    }
+    return any;
+  }
+
+  private void addCorners(int cell, double minLat, double maxLat, double minLon, double maxLon, int[] result) {
+    int row = cell / ncols;
+    int col = cell % ncols;
+    for (int i = row; i <= row + 1; i++) {
+      for (int j = col; j <= col + 1; j++) {
+        int idx = i * (ncols + 1) + j;
+        double lat = latEdge[idx];
+        double lon = lonEdge[idx];
+        if ((lat >= minLat) && (lat <= maxLat) && (lon >= minLon) && (lon <= maxLon)) {
+          if (i < result[0]) result[0] = i;
+          if (i > result[1]) result[1] = i;
+          if (j < result[2]) result[2] = j;
+          if (j > result[3]) result[3] = j;
+        }
+      }
+    }
+  }
+
+  // Is the point inside the cell ? The cell is taken to be a convex quadrilateral: the point must be on the
+  // same side of all four edges. see HorizCoordSys2D.Edges.contains()
+  private boolean contains(double wantLat, double wantLon, int cell, int[] rectIndex) {
+    int row = cell / ncols;
+    int col = cell % ncols;
+    int idx1 = row * (ncols + 1) + col;
+    int idx4 = idx1 + ncols + 1;
+
+    double x1 = lonEdge[idx1];
+    double y1 = latEdge[idx1];
+    double x2 = lonEdge[idx1 + 1];
+    double y2 = latEdge[idx1 + 1];
+    double x3 = lonEdge[idx4 + 1];
+    double y3 = latEdge[idx4 + 1];
+    double x4 = lonEdge[idx4];
+    double y4 = latEdge[idx4];
+    if (Double.isNaN(x1 + y1 + x2 + y2 + x3 + y3 + x4 + y4))
+      return false;
+
+    boolean sign = detIsPositive(x1, y1, x2, y2, wantLon, wantLat);
+    if (sign != detIsPositive(x2, y2, x3, y3, wantLon, wantLat)) return false;
+    if (sign != detIsPositive(x3, y3, x4, y4, wantLon, wantLat)) return false;
+    if (sign != detIsPositive(x4, y4, x1, y1, wantLon, wantLat)) return false;
+
+    rectIndex[0] = row;
+    rectIndex[1] = col;
+    return true;
+  }
+
+  private static boolean detIsPositive(double x0, double y0, double x1, double y1, double x2, double y2) {
+    double det = (x1 * y2 - y1 * x2 - x0 * y2 + y0 * x2 + x0 * y1 - y0 * x1);
+    return det > 0;
+  }
+}
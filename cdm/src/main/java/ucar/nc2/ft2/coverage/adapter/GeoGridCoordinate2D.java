@@ -5,6 +5,7 @@
 package ucar.nc2.ft2.coverage.adapter;
 
 import ucar.nc2.dataset.CoordinateAxis2D;
+import ucar.nc2.ft2.coverage.LatLonCellIndex;
 import ucar.ma2.ArrayDouble;
 import ucar.ma2.MAMath;
 
@@ -13,8 +14,8 @@ import ucar.ma2.MAMath;
  *
  * 2D Coordinate System has lat(x,y) and lon(x,y).
  * This class implements finding the index (i,j) from (lat, lon) coord.
- * This is for "one-off" computation, not a systematic lookup table for all points in a pixel array.
- * Hueristic search of the 2D space for the cell that contains the point.
+ * findCoordElement() uses a LatLonCellIndex, built the first time it is needed.
+ * findCoordElementNoForce() is the older hueristic search of the 2D space for the cell that contains the point.
  *
  * @author caron
  * @since Jul 10, 2009
@@ -27,6 +28,7 @@ public class GeoGridCoordinate2D {
   private final int nrows, ncols;
   private ArrayDouble.D2 latEdge, lonEdge;
   private MAMath.MinMax latMinMax, lonMinMax;
+  private LatLonCellIndex index;
 
   GeoGridCoordinate2D(CoordinateAxis2D latCoord, CoordinateAxis2D lonCoord) {
     this.latCoord = latCoord;
@@ -40,11 +42,12 @@ public class GeoGridCoordinate2D {
     ncols = shape[1];
   }
 
-  private void findBounds() {
+  private synchronized void findBounds() {
     if (lonMinMax != null) return;
 
     lonEdge = lonCoord.getEdges();
     latEdge = latCoord.getEdges();
+    index = new LatLonCellIndex(latEdge, lonEdge);
 
     // assume missing values have been converted to NaNs
     latMinMax = MAMath.getMinMax(latEdge);
@@ -80,8 +83,17 @@ public class GeoGridCoordinate2D {
     return false;
   }
 
+  /**
+   * Find the cell that contains the given lat,lon point, using the cell index.
+   * @param wantLat   lat of point
+   * @param wantLon   lon of point
+   * @param rectIndex return (row,col) index here. may not be null
+   *
+   * @return false if not in the grid.
+   */
   public boolean findCoordElement(double wantLat, double wantLon, int[] rectIndex) {
-    return findCoordElementNoForce(wantLat, wantLon,rectIndex);
+    findBounds();
+    return index.findCell(wantLat, wantLon, rectIndex);
   }
 
 
@@ -11,13 +11,20 @@ import ucar.ma2.Section;
 import ucar.nc2.*;
 import ucar.nc2.constants.*;
 import ucar.nc2.ft2.coverage.*;
+import ucar.nc2.iosp.netcdf3.N3iosp;
+import ucar.nc2.iosp.netcdf3.N3outputStreamWriter;
 import ucar.nc2.time.CalendarDate;
 import ucar.nc2.util.Optional;
 import ucar.unidata.geoloc.*;
 import ucar.unidata.geoloc.projection.LatLonProjection;
 
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.*;
+import java.util.function.LongConsumer;
 
 /**
  * Write CF Compliant Grid file from a Coverage.
@@ -56,17 +63,38 @@ public class CFGridCoverageWriter2 {
     return writer2.writeFile(gdsOrg, gridNames, subset, tryToAddLatLon2D, testSizeOnly, writer);
   }
 
-  private ucar.nc2.util.Optional<Long> writeFile(CoverageCollection gdsOrg, List<String> gridNames,
-          SubsetParams subsetParams, boolean tryToAddLatLon2D, boolean testSizeOnly, NetcdfFileWriter writer)
+  /**
+   * Write a netcdf-3/CF file directly to an OutputStream, without creating an intermediate file.
+   * The header is computed up front, then the data of each variable is read and sent in file order,
+   * so the client starts receiving bytes before the whole subset has been read.
+   * Only the classic format is supported, so the variables must total less than 2 Gbytes;
+   * use writeOrTestSize() with testSizeOnly=true to check first.
+   *
+   * @param gdsOrg            the CoverageDataset
+   * @param gridNames         the list of coverage names to be written, or null for all
+   * @param subset            defines the requested subset, or null to include everything in gdsOrg
+   * @param tryToAddLatLon2D  add 2D lat/lon coordinates, if possible
+   * @param out               write to this stream. It is flushed but not closed.
+   * @param lengthListener    if not null, is passed the exact length of the file before anything is written,
+   *                          eg to set a Content-Length header
+   * @return  the total number of bytes that the variables in the output file occupy.
+   * @throws IOException
+   * @throws InvalidRangeException
+   */
+  public static ucar.nc2.util.Optional<Long> writeStream(CoverageCollection gdsOrg, List<String> gridNames,
+          SubsetParams subset, boolean tryToAddLatLon2D, OutputStream out, LongConsumer lengthListener)
           throws IOException, InvalidRangeException {
-    if (gridNames == null) {  // want all of them
-      gridNames = new LinkedList<>();
+    CFGridCoverageWriter2 writer2 = new CFGridCoverageWriter2();
+    return writer2.streamFile(gdsOrg, gridNames, subset, tryToAddLatLon2D, out, lengthListener);
+  }
 
-      for (Coverage coverage : gdsOrg.getCoverages()) {
-        gridNames.add(coverage.getName());
-      }
-    }
+  private CoverageCollection subsetDataset;
+  private boolean shouldAddLatLon2D;
+  private Array[] latLon2D;  // computed lazily when streaming
 
+  private ucar.nc2.util.Optional<Long> writeFile(CoverageCollection gdsOrg, List<String> gridNames,
+          SubsetParams subsetParams, boolean tryToAddLatLon2D, boolean testSizeOnly, NetcdfFileWriter writer)
+          throws IOException, InvalidRangeException {
     if (subsetParams == null) {
       subsetParams = new SubsetParams();
     }
@@ -79,13 +107,83 @@ public class CFGridCoverageWriter2 {
       }
     }
 
+    Optional<Long> sizeo = defineFile(gdsOrg, gridNames, subsetParams, tryToAddLatLon2D, writer);
+    if (!sizeo.isPresent())
+      return sizeo;
+    long totalSizeOfVars = sizeo.get();
+
+    if (!testSizeOnly) {
+      // Actually create file and write variable data to it.
+      writer.setLargeFile(isLargeFile(totalSizeOfVars));
+      writer.create();
+
+      writeCoordinateData(subsetDataset, writer);
+      writeCoverageData(gdsOrg, subsetParams, subsetDataset, writer);
+
+      if (shouldAddLatLon2D) {
+        writeLatLon2D(subsetDataset, writer);
+      }
+
+      writer.close();
+    }
+
+    return Optional.of(totalSizeOfVars);
+  }
+
+  private ucar.nc2.util.Optional<Long> streamFile(CoverageCollection gdsOrg, List<String> gridNames,
+          SubsetParams subsetParams, boolean tryToAddLatLon2D, OutputStream out, LongConsumer lengthListener)
+          throws IOException, InvalidRangeException {
+    if (subsetParams == null) {
+      subsetParams = new SubsetParams();
+    }
+
+    // the writer is only used to build the metadata; it never creates a file
+    NetcdfFileWriter writer = NetcdfFileWriter.createNew(null, false);
+    Optional<Long> sizeo = defineFile(gdsOrg, gridNames, subsetParams, tryToAddLatLon2D, writer);
+    if (!sizeo.isPresent())
+      return sizeo;
+    if (isLargeFile(sizeo.get()))
+      return Optional.empty("Request too large to stream as classic netCDF-3 = " + sizeo.get());
+
+    // the header is small, compute it first so we know the exact file length
+    NetcdfFile ncfile = writer.getNetcdfFile();
+    N3outputStreamWriter n3writer = new N3outputStreamWriter(ncfile);
+    ByteArrayOutputStream header = new ByteArrayOutputStream(10 * 1000);
+    n3writer.writeHeader(new DataOutputStream(header), 0);
+    if (lengthListener != null)
+      lengthListener.accept(n3writer.calcFileLength(0));
+
+    DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(out, 64 * 1000));
+    header.writeTo(stream);
+
+    // variables must be sent in the same order as in the header
+    for (Variable v : ncfile.getVariables()) {
+      if (show) System.out.printf("CFGridCoverageWriter2 stream %s%n", v.getNameAndDimensions());
+      n3writer.writeNonRecordData(v, stream, readVariableData(gdsOrg, subsetParams, v));
+    }
+    stream.flush();
+
+    return sizeo;
+  }
+
+  // add the metadata to the writer, return the size of the variables
+  private ucar.nc2.util.Optional<Long> defineFile(CoverageCollection gdsOrg, List<String> gridNames,
+          SubsetParams subsetParams, boolean tryToAddLatLon2D, NetcdfFileWriter writer) {
+    if (gridNames == null) {  // want all of them
+      gridNames = new LinkedList<>();
+
+      for (Coverage coverage : gdsOrg.getCoverages()) {
+        gridNames.add(coverage.getName());
+      }
+    }
+
     // We need global attributes, subsetted axes, transforms, and the coverages with attributes and referencing
     // subsetted axes.
     Optional<CoverageCollection> opt = CoverageSubsetter2.makeCoverageDatasetSubset(gdsOrg, gridNames, subsetParams);
     if (!opt.isPresent())
       return ucar.nc2.util.Optional.empty(opt.getErrorMessage());
 
-    CoverageCollection subsetDataset = opt.get();
+    subsetDataset = opt.get();
 
     ////////////////////////////////////////////////////////////////////
 
@@ -95,7 +193,7 @@ public class CFGridCoverageWriter2 {
     addCoverages(subsetDataset, writer);
     addCoordTransforms(subsetDataset, writer);
 
-    boolean shouldAddLatLon2D = shouldAddLatLon2D(tryToAddLatLon2D, subsetDataset);
+    shouldAddLatLon2D = shouldAddLatLon2D(tryToAddLatLon2D, subsetDataset);
     if (shouldAddLatLon2D) {
       addLatLon2D(subsetDataset, writer);
     }
@@ -111,21 +209,6 @@ public class CFGridCoverageWriter2 {
       totalSizeOfVars += var.getSize() * var.getElementSize();
     }
 
-    if (!testSizeOnly) {
-      // Actually create file and write variable data to it.
-      writer.setLargeFile(isLargeFile(totalSizeOfVars));
-      writer.create();
-
-      writeCoordinateData(subsetDataset, writer);
-      writeCoverageData(gdsOrg, subsetParams, subsetDataset, writer);
-
-      if (shouldAddLatLon2D) {
-        writeLatLon2D(subsetDataset, writer);
-      }
-
-      writer.close();
-    }
-
     return Optional.of(totalSizeOfVars);
   }
 
@@ -401,8 +484,59 @@ public class CFGridCoverageWriter2 {
     }
   }
 
+  // find the data for a variable in the subsetted file, when streaming
+  private Array readVariableData(CoverageCollection gdsOrg, SubsetParams subsetParams, Variable v)
+          throws IOException, InvalidRangeException {
+    String name = v.getShortName();
+
+    CoverageCoordAxis axis = subsetDataset.findCoordAxis(name);
+    if (axis != null)
+      return axis.getCoordsAsArray();
+
+    if (name.endsWith(BOUNDS)) {
+      CoverageCoordAxis boundedAxis = subsetDataset.findCoordAxis(name.substring(0, name.length() - BOUNDS.length()));
+      if (boundedAxis != null)
+        return boundedAxis.getCoordBoundsAsArray();
+    }
+
+    Coverage coverage = subsetDataset.findCoverage(name);
+    if (coverage != null) {
+      // we need to call readData on the original
+      Coverage coverageOrg = gdsOrg.findCoverage(name);
+      GeoReferencedArray array = coverageOrg.readData(subsetParams);
+      checkConformance(coverage, array, gdsOrg.getName());
+      return array.getData();
+    }
+
+    if (shouldAddLatLon2D && (name.equals("lat") || name.equals("lon"))) {
+      if (latLon2D == null)
+        latLon2D = makeLatLon2D(subsetDataset);
+      return name.equals("lat") ? latLon2D[0] : latLon2D[1];
+    }
+
+    // coordinate transform variables have no data, same as writing a file with fill on
+    if (subsetDataset.findCoordTransform(name) != null) {
+      return Array.factory(DataType.INT, new int[0], new int[]{N3iosp.NC_FILL_INT});
+    }
+
+    throw new IllegalStateException("CFGridCoverageWriter2 no data for variable " + name);
+  }
+
   private void writeLatLon2D(CoverageCollection subsetDataset, NetcdfFileWriter writer)
           throws IOException, InvalidRangeException {
+    Array[] latlon = makeLatLon2D(subsetDataset);
+
+    Variable latVar = writer.findVariable("lat");
+    assert latVar != null : "We should have added lat var in addLatLon2D().";
+    writer.write(latVar, latlon[0]);
+
+    Variable lonVar = writer.findVariable("lon");
+    assert lonVar != null : "We should have added lon var in addLatLon2D().";
+    writer.write(lonVar, latlon[1]);
+  }
+
+  // return {lat, lon}
+  private Array[] makeLatLon2D(CoverageCollection subsetDataset) {
     HorizCoordSys horizCoordSys = subsetDataset.getHorizCoordSys();
     CoverageCoordAxis1D xAxis = horizCoordSys.getXAxis();
     CoverageCoordAxis1D yAxis = horizCoordSys.getYAxis();
@@ -430,15 +564,9 @@ public class CFGridCoverageWriter2 {
       }
     }
 
-    Variable latVar = writer.findVariable("lat");
-    assert latVar != null : "We should have added lat var in addLatLon2D().";
     Array latDataArray = Array.factory(DataType.DOUBLE, new int[] { numY, numX }, latData);
-    writer.write(latVar, latDataArray);
-
-    Variable lonVar = writer.findVariable("lon");
-    assert lonVar != null : "We should have added lon var in addLatLon2D().";
     Array lonDataArray = Array.factory(DataType.DOUBLE, new int[] { numY, numX }, lonData);
-    writer.write(lonVar, lonDataArray);
+    return new Array[] {latDataArray, lonDataArray};
   }
 
   private void checkConformance(Coverage gridSubset, GeoReferencedArray geo, String where) {
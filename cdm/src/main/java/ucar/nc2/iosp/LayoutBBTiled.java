@@ -4,11 +4,19 @@
  */
 package ucar.nc2.iosp;
 
+import ucar.ma2.DataType;
 import ucar.ma2.InvalidRangeException;
 import ucar.ma2.Section;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.nio.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
  * For datasets where the data are stored in chunks, and must be processed, eg compressed or filtered.
@@ -131,6 +139,68 @@ public class LayoutBBTiled implements LayoutBB {
     return sbuff.toString();
   }
 
+  /**
+   * Decode the data chunks concurrently, and copy each into arr.
+   * Each chunk is handled by one task, which decodes it and copies the intersection with wantSection into arr.
+   * Chunks do not overlap, so the tasks write to disjoint parts of arr.
+   * The chunks' getByteBuffer() must be safe to call from multiple threads at once.
+   *
+   * @param chunks      the data chunks
+   * @param chunkSize   all chunks assumed to be the same size
+   * @param elemSize    size of an element in bytes.
+   * @param wantSection the wanted section of data, contains a List of Range objects. Must be complete.
+   * @param dataType    dataType of the variable; use BYTE for CHAR
+   * @param arr         primitive array to read data into, already filled with the fill value
+   * @param pool        run the tasks in this pool
+   * @return arr
+   * @throws java.io.IOException on io error
+   */
+  static public Object readDataParallel(List<DataChunk> chunks, int[] chunkSize, int elemSize, Section wantSection,
+                                        DataType dataType, Object arr, ForkJoinPool pool) throws IOException {
+    List<Callable<Object>> tasks = new ArrayList<>(chunks.size());
+    for (DataChunk dataChunk : chunks) {
+      tasks.add(() -> {
+        LayoutBBTiled layout = new LayoutBBTiled(new SingleChunkIterator(dataChunk), chunkSize, elemSize, wantSection);
+        return IospHelper.readData(layout, dataType, arr);
+      });
+    }
+
+    try {
+      for (Future<Object> result : pool.invokeAll(tasks))
+        result.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("LayoutBBTiled.readDataParallel interrupted");
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IllegalStateException && cause.getCause() instanceof IOException)
+        cause = cause.getCause(); // hasNext() wraps IOExceptions
+      if (cause instanceof IOException) throw (IOException) cause;
+      if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+      if (cause instanceof Error) throw (Error) cause;
+      throw new IOException(cause);
+    }
+    return arr;
+  }
+
+  static private class SingleChunkIterator implements DataChunkIterator {
+    private DataChunk chunk;
+
+    SingleChunkIterator(DataChunk chunk) {
+      this.chunk = chunk;
+    }
+
+    public boolean hasNext() {
+      return chunk != null;
+    }
+
+    public DataChunk next() {
+      DataChunk result = chunk;
+      chunk = null;
+      return result;
+    }
+  }
+
   /**
    * An iterator over the data chunks.
    */
@@ -144,6 +214,11 @@ public class LayoutBBTiled implements LayoutBB {
    */
   static public interface DataChunk {
     public int[] getOffset();
+
+    /**
+     * Get the (uncompressed) data of this chunk.
+     * The returned buffer belongs to the caller; it must not be shared with or reused by later calls.
+     */
     public ByteBuffer getByteBuffer() throws IOException;
   }
 
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 1998-2018 John Caron and University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+package ucar.nc2.iosp.hdf5;
+
+import java.io.IOException;
+
+/**
+ * Decodes chunk data that was encoded by an HDF5 filter.
+ * To read files that use other codecs, register an implementation with H5filters.register(), using the
+ * HDF5 filter id.
+ * <p>
+ * One instance is shared by all threads, so implementations must be thread safe. Per-thread state
+ * (eg a decompressor) should be kept in a ThreadLocal.
+ *
+ * @since 10/17/2026
+ */
+public interface H5filter {
+
+  /**
+   * Decode the data in buffer, in the read direction.
+   * On entry the input is in buffer.getData()[0, buffer.getLength()).
+   * The filter leaves the output in the same place, either by changing the length, or by writing to
+   * buffer.getSpare() and calling buffer.swap().
+   *
+   * @param buffer     input and output
+   * @param clientData the filter's client data values from the filter pipeline message
+   * @throws IOException on decoding error
+   */
+  void decode(H5filters.FilterBuffer buffer, int[] clientData) throws IOException;
+
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) 1998-2018 John Caron and University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+package ucar.nc2.iosp.hdf5;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Registry of HDF5 filter decoders, keyed on the HDF5 filter id, and a small pool of the buffers used to run
+ * the filter pipeline on a chunk.
+ * Buffers and Inflaters are borrowed from bounded pools for each chunk and returned after, so reading many small
+ * chunks does not allocate much, and idle threads do not hold on to them.
+ *
+ * @since 10/17/2026
+ */
+@ThreadSafe
+public class H5filters {
+  // System property name for -D flag
+  static final String MAXPOOLEDBUFFERSIZE = "unidata.h5iosp.filter.maxPooledBufferSize";
+  static private final int DEFAULT_MAXPOOLEDBUFFERSIZE = 4 * 1000 * 1000;
+
+  // Copied from ArrayList.
+  static final int MAX_ARRAY_LEN = Integer.MAX_VALUE - 8;
+
+  // at most this many idle FilterBuffers and Inflaters are kept
+  static private final int POOL_SIZE = Runtime.getRuntime().availableProcessors();
+
+  static private final Map<Integer, H5filter> filters = new ConcurrentHashMap<>();
+  static private final BlockingQueue<FilterBuffer> buffers = new ArrayBlockingQueue<>(POOL_SIZE);
+  static private int maxPooledBufferSize = DEFAULT_MAXPOOLEDBUFFERSIZE;
+
+  static {
+    register(1, new Deflate());
+    register(2, new Shuffle());
+    register(3, new Fletcher32());
+
+    if (System.getProperty(MAXPOOLEDBUFFERSIZE) != null) {
+      try {
+        maxPooledBufferSize = Integer.parseInt(System.getProperty(MAXPOOLEDBUFFERSIZE));
+      } catch (NumberFormatException nfe) {
+        H5iosp.log.warn(String.format("-D%s is not an integer", MAXPOOLEDBUFFERSIZE));
+      }
+    }
+  }
+
+  /**
+   * Register a decoder for an HDF5 filter id. Replaces any existing decoder for that id.
+   *
+   * @param filterId the HDF5 filter id, eg 1 = deflate, 307 = bzip2
+   * @param filter   the decoder
+   */
+  static public void register(int filterId, H5filter filter) {
+    filters.put(filterId, filter);
+  }
+
+  /**
+   * Find the decoder for an HDF5 filter id.
+   *
+   * @param filterId the HDF5 filter id
+   * @return the decoder, or null if none is registered
+   */
+  static public H5filter find(int filterId) {
+    return filters.get(filterId);
+  }
+
+  /**
+   * Borrow a FilterBuffer from the pool, or make a new one if the pool is empty.
+   * Give it back with releaseBuffer() when done with it.
+   *
+   * @return a FilterBuffer for use by the caller only
+   */
+  static FilterBuffer getBuffer() {
+    FilterBuffer buffer = buffers.poll();
+    return (buffer != null) ? buffer : new FilterBuffer();
+  }
+
+  /**
+   * Return a FilterBuffer to the pool. Dropped if the pool is full.
+   * The caller must not use the buffer, or any array it got from it, afterwards.
+   *
+   * @param buffer from getBuffer()
+   */
+  static void releaseBuffer(FilterBuffer buffer) {
+    buffer.trim();
+    buffers.offer(buffer);
+  }
+
+  /**
+   * Run the filter pipeline backwards over the data in buffer.
+   *
+   * @param buffer     holds the filtered chunk on entry, the decoded chunk on exit
+   * @param pipeline   the filters that were applied to the data, in the order they were applied
+   * @param filterMask bit i set means filter i was skipped for this chunk
+   * @throws IOException on decoding error, or if a filter is not registered
+   */
+  static void decode(FilterBuffer buffer, H5header.Filter[] pipeline, int filterMask) throws IOException {
+    for (int i = pipeline.length - 1; i >= 0; i--) {
+      if (((filterMask >>> i) & 1) != 0)
+        continue;
+      H5header.Filter f = pipeline[i];
+      H5filter filter = find(f.id);
+      if (filter == null)
+        throw new RuntimeException("Unknown filter type=" + f.id);
+      filter.decode(buffer, f.data);
+    }
+  }
+
+  /**
+   * Working storage for decoding one chunk: the current data and a spare buffer to decode into.
+   * Both are kept between chunks, unless larger than -Dunidata.h5iosp.filter.maxPooledBufferSize.
+   * Not thread safe; borrow one with H5filters.getBuffer() for each chunk.
+   */
+  static public class FilterBuffer {
+    private byte[] data = new byte[0];
+    private int length;
+    private byte[] spare = new byte[0];
+    private int expectedSize;
+
+    /**
+     * Get a data buffer of at least size bytes, to read the filtered chunk into.
+     *
+     * @param size         number of bytes that will be read
+     * @param expectedSize expected size of the decoded chunk; a hint, may be 0
+     * @return data buffer, length is set to size
+     */
+    byte[] start(int size, int expectedSize) {
+      data = ensure(data, size);
+      length = size;
+      this.expectedSize = expectedSize;
+      return data;
+    }
+
+    /** The current data, valid from 0 to getLength(). */
+    public byte[] getData() {
+      return data;
+    }
+
+    /** The number of valid bytes in getData(). */
+    public int getLength() {
+      return length;
+    }
+
+    /** Change the number of valid bytes in getData(), eg to drop a checksum. */
+    public void setLength(int length) {
+      if (length < 0 || length > data.length)
+        throw new IllegalArgumentException("length " + length + " not in [0," + data.length + "]");
+      this.length = length;
+    }
+
+    /** Expected size of the decoded chunk, or 0 if not known. Useful to size output buffers. */
+    public int getExpectedSize() {
+      return expectedSize;
+    }
+
+    /**
+     * Get the spare buffer, with at least minSize bytes, to write filter output into.
+     * Existing contents of the spare buffer are discarded.
+     */
+    public byte[] getSpare(int minSize) {
+      spare = ensure(spare, minSize);
+      return spare;
+    }
+
+    /**
+     * Grow the spare buffer, keeping the first n bytes.
+     */
+    public byte[] growSpare(int minSize, int n) {
+      byte[] bigger = new byte[minSize];
+      System.arraycopy(spare, 0, bigger, 0, n);
+      spare = bigger;
+      return spare;
+    }
+
+    /**
+     * Make the spare buffer the current data.
+     *
+     * @param length number of valid bytes in the spare buffer
+     */
+    public void swap(int length) {
+      byte[] tmp = data;
+      data = spare;
+      spare = tmp;
+      setLength(length);
+    }
+
+    /**
+     * Hand the current data over to the caller, wrapped as a ByteBuffer with the given order.
+     * This buffer no longer uses that array; the spare buffer becomes the one to read the next chunk into.
+     */
+    ByteBuffer detach(ByteOrder byteOrder) {
+      ByteBuffer result = ByteBuffer.wrap(data, 0, length);
+      result.order(byteOrder);
+      data = spare;
+      length = 0;
+      spare = new byte[0];
+      return result;
+    }
+
+    /** Release any buffers too big to keep. Call when done with the result. */
+    void trim() {
+      if (data.length > maxPooledBufferSize) data = new byte[0];
+      if (spare.length > maxPooledBufferSize) spare = new byte[0];
+    }
+
+    private byte[] ensure(byte[] b, int size) {
+      if (size < 0 || size > MAX_ARRAY_LEN)
+        throw new IllegalArgumentException(String.format("Filtered data chunk is %s bytes and we must load it all " +
+                "into memory. However the maximum length of a byte array in Java is %s.", size, MAX_ARRAY_LEN));
+      return (b.length >= size) ? b : new byte[size];
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////
+  // built in filters
+
+  // zlib deflate, filter id 1
+  static private class Deflate implements H5filter {
+    // Inflaters hold native memory, so those that do not fit back in the pool are end()ed
+    private final BlockingQueue<Inflater> inflaters = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    public void decode(FilterBuffer buffer, int[] clientData) throws IOException {
+      Inflater inflater = inflaters.poll();
+      if (inflater == null) inflater = new Inflater();
+      try {
+        inflate(inflater, buffer);
+      } finally {
+        inflater.reset();
+        if (!inflaters.offer(inflater))
+          inflater.end();
+      }
+    }
+
+    private void inflate(Inflater inflater, FilterBuffer buffer) throws IOException {
+      inflater.setInput(buffer.getData(), 0, buffer.getLength());
+
+      int size = buffer.getExpectedSize() > 0 ? buffer.getExpectedSize() : Math.min(8 * buffer.getLength(), MAX_ARRAY_LEN);
+      byte[] out = buffer.getSpare(size);
+      int done = 0;
+      try {
+        while (!inflater.finished()) {
+          if (done == out.length) {
+            if (done == MAX_ARRAY_LEN)
+              throw new IOException("Inflated chunk is larger than the maximum length of a byte array");
+            out = buffer.growSpare((int) Math.min(2L * out.length + 1, MAX_ARRAY_LEN), done);
+          }
+          int n = inflater.inflate(out, done, out.length - done);
+          if (n == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+            throw new EOFException("Unexpected end of ZLIB input stream");
+          done += n;
+        }
+      } catch (DataFormatException e) {
+        throw new IOException(e.getMessage(), e);
+      }
+
+      if (H5tiledLayoutBB.debugFilter)
+        System.out.println(" inflate bytes in= " + buffer.getLength() + " bytes out= " + done);
+      buffer.swap(done);
+    }
+  }
+
+  // byte shuffle, filter id 2; clientData[0] is the element size
+  static private class Shuffle implements H5filter {
+    public void decode(FilterBuffer buffer, int[] clientData) throws IOException {
+      int n = clientData[0];
+      int len = buffer.getLength();
+      if (n <= 1) return;
+
+      byte[] data = buffer.getData();
+      byte[] result = buffer.getSpare(len);
+      int m = len / n;
+      for (int j = 0; j < n; j++) {
+        int src = j * m;
+        for (int i = 0; i < m; i++)
+          result[i * n + j] = data[src + i];
+      }
+      // any leftover bytes are not shuffled
+      System.arraycopy(data, m * n, result, m * n, len - m * n);
+      buffer.swap(len);
+    }
+  }
+
+  // just strip off the 4-byte fletcher32 checksum at the end, filter id 3
+  static private class Fletcher32 implements H5filter {
+    public void decode(FilterBuffer buffer, int[] clientData) throws IOException {
+      buffer.setLength(buffer.getLength() - 4);
+    }
+  }
+
+}
@@ -20,6 +20,7 @@ import java.io.*;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.Formatter;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * HDF5 I/O
@@ -90,6 +91,38 @@ public class H5iosp extends AbstractIOServiceProvider {
     useHdfEos = val;
   }
 
+  //////////////////////////////////////////////////////////////////////////////////
+  // parallel decoding of filtered chunks
+
+  // System property name for -D flag
+  static final String PARALLEL_THREADS = "unidata.h5iosp.parallel.threads";
+  static private volatile ForkJoinPool parallelPool = null;
+  static private volatile int parallelMinChunks = 4;
+
+  static {
+    if (System.getProperty(PARALLEL_THREADS) != null) {
+      try {
+        setParallelReads(Integer.parseInt(System.getProperty(PARALLEL_THREADS)), parallelMinChunks);
+      } catch (NumberFormatException nfe) {
+        log.warn(String.format("-D%s is not an integer", PARALLEL_THREADS));
+      }
+    }
+  }
+
+  /**
+   * Decode filtered (eg compressed) chunks concurrently, when a read covers many chunks.
+   * Off by default; can also be turned on with -Dunidata.h5iosp.parallel.threads=n.
+   * All files share one pool of nthreads threads.
+   * The previous pool is not shut down, since reads in progress may still be using it; its threads exit once idle.
+   *
+   * @param nthreads  number of decoding threads; 0 turns parallel decoding off
+   * @param minChunks only use the pool when a read covers at least this many chunks
+   */
+  public static synchronized void setParallelReads(int nthreads, int minChunks) {
+    parallelPool = (nthreads > 0) ? new ForkJoinPool(nthreads) : null;
+    parallelMinChunks = Math.max(minChunks, 2);
+  }
+
   //////////////////////////////////////////////////////////////////////////////////
 
   //private RandomAccessFile raf;
@@ -139,8 +172,11 @@ public class H5iosp extends AbstractIOServiceProvider {
       assert vinfo.isChunked;
       ByteOrder bo = (vinfo.typeInfo.endian == 0) ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
       layout = new H5tiledLayoutBB(v2, wantSection, raf, vinfo.mfp.getFilters(), bo);
+      ForkJoinPool pool = parallelPool;
       if (vinfo.typeInfo.isVString) {
         data = readFilteredStringData((LayoutBB) layout);
+      } else if (pool != null && (dataType.isNumeric() || dataType == DataType.CHAR)) {
+        data = ((H5tiledLayoutBB) layout).readDataParallel(dataType, vinfo.getFillValue(), pool, parallelMinChunks);
       } else{
         data = IospHelper.readDataFill((LayoutBB) layout, v2.getDataType(), vinfo.getFillValue());
       }
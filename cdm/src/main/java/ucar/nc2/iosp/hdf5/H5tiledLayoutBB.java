@@ -10,16 +10,18 @@ import ucar.ma2.DataType;
 import ucar.ma2.InvalidRangeException;
 import ucar.ma2.Section;
 import ucar.nc2.Variable;
+import ucar.nc2.iosp.IospHelper;
 import ucar.nc2.iosp.LayoutBB;
 import ucar.nc2.iosp.LayoutBBTiled;
-import ucar.nc2.util.IO;
 import ucar.unidata.io.RandomAccessFile;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Iterator to read/write subsets of an array.
@@ -31,13 +33,11 @@ import java.nio.ByteOrder;
  */
 class H5tiledLayoutBB implements LayoutBB {
 
-  static final int DEFAULTZIPBUFFERSIZE = 512;
-  // System property name for -D flag
-  static final String INFLATEBUFFERSIZE = "unidata.h5iosp.inflate.buffersize";
-
   static public boolean debugFilter = false;
 
   private LayoutBBTiled delegate;
+  private DataChunkIterator dcIter;
+  private boolean positionalReads; // use thread-safe reads, for readDataParallel
 
   private RandomAccessFile raf;
   private H5header.Filter[] filters;
@@ -48,9 +48,9 @@ class H5tiledLayoutBB implements LayoutBB {
   private int elemSize; // last dimension of the StorageLayout message
   private int nChunkDims;
 
-  private boolean debug = false;
+  private int expectedChunkBytes; // size of an unfiltered chunk
 
-  private int inflatebuffersize = DEFAULTZIPBUFFERSIZE;
+  private boolean debug = false;
 
   /**
    * Constructor.
@@ -92,22 +92,12 @@ class H5tiledLayoutBB implements LayoutBB {
 
     // create the data chunk iterator
     DataBTree.DataChunkIterator iter = vinfo.btree.getDataChunkIteratorFilter(this.want);
-    DataChunkIterator dcIter = new DataChunkIterator(iter);
+    dcIter = new DataChunkIterator(iter);
     delegate = new LayoutBBTiled(dcIter, chunkSize, elemSize, this.want);
 
-    if(System.getProperty(INFLATEBUFFERSIZE) != null)  {
-      try {
-        int size = Integer.parseInt(System.getProperty(INFLATEBUFFERSIZE));
-        if(size <= 0)
-          H5iosp.log.warn(String.format("-D%s must be > 0",INFLATEBUFFERSIZE));
-        else
-          this.inflatebuffersize = size;
-      } catch (NumberFormatException nfe) {
-        H5iosp.log.warn(String.format("-D%s is not an integer",INFLATEBUFFERSIZE));
-      }
-    }
-    if(debugFilter)
-      System.out.printf("inflate buffer size -D%s = %d%n",INFLATEBUFFERSIZE,this.inflatebuffersize);
+    long nbytes = elemSize;
+    for (int size : chunkSize) nbytes *= size;
+    this.expectedChunkBytes = (int) Math.min(nbytes, H5filters.MAX_ARRAY_LEN);
 
     if (debug) System.out.println(" H5tiledLayout: " + this);
   }
@@ -128,6 +118,46 @@ class H5tiledLayoutBB implements LayoutBB {
     return delegate.next();
   }
 
+  /**
+   * Read the wanted section by decoding the chunks concurrently, instead of iterating with hasNext()/next().
+   * The B-tree is walked on the calling thread; the chunks are then read and decoded in the pool.
+   * Uses positional reads, so the RandomAccessFile is not repositioned.
+   *
+   * @param dataType  dataType of the variable, must be numeric or CHAR
+   * @param fillValue fill value as a wrapped primitive, or null for the default
+   * @param pool      decode in this pool
+   * @param minChunks use the pool only if at least this many chunks intersect the wanted section
+   * @return primitive array with data read in
+   * @throws java.io.IOException on io error
+   */
+  Object readDataParallel(DataType dataType, Object fillValue, ForkJoinPool pool, int minChunks) throws IOException {
+    positionalReads = true;
+    List<LayoutBBTiled.DataChunk> chunks = new ArrayList<>();
+    while (dcIter.hasNext()) {
+      LayoutBBTiled.DataChunk dataChunk = dcIter.next();
+      if (new Section(dataChunk.getOffset(), chunkSize).intersects(want))
+        chunks.add(dataChunk);
+    }
+
+    DataType readType = (dataType == DataType.CHAR) ? DataType.BYTE : dataType;
+    int size = (int) getTotalNelems();
+    Object arr = (fillValue == null) ? IospHelper.makePrimitiveArray(size, readType) :
+            IospHelper.makePrimitiveArray(size, readType, fillValue);
+
+    try {
+      if (chunks.size() < minChunks) {
+        LayoutBBTiled layout = new LayoutBBTiled(new ListChunkIterator(chunks), chunkSize, elemSize, want);
+        IospHelper.readData(layout, readType, arr);
+      } else {
+        LayoutBBTiled.readDataParallel(chunks, chunkSize, elemSize, want, readType, arr, pool);
+      }
+    } catch (InvalidRangeException e) {
+      throw new IllegalStateException(e);
+    }
+
+    return (dataType == DataType.CHAR) ? IospHelper.convertByteToChar((byte[]) arr) : arr;
+  }
+
   public String toString() {
     StringBuilder sbuff = new StringBuilder();
     sbuff.append("want=").append(want).append("; ");
@@ -157,9 +187,24 @@ class H5tiledLayoutBB implements LayoutBB {
     }
   }
 
+  static private class ListChunkIterator implements LayoutBBTiled.DataChunkIterator {
+    private Iterator<LayoutBBTiled.DataChunk> iter;
+
+    ListChunkIterator(List<LayoutBBTiled.DataChunk> chunks) {
+      this.iter = chunks.iterator();
+    }
+
+    public boolean hasNext() {
+      return iter.hasNext();
+    }
+
+    public LayoutBBTiled.DataChunk next() {
+      return iter.next();
+    }
+  }
+
   private class DataChunk implements ucar.nc2.iosp.LayoutBBTiled.DataChunk {
-    // Copied from ArrayList.
-    private static final int MAX_ARRAY_LEN = Integer.MAX_VALUE - 8;
+    private static final int MAX_ARRAY_LEN = H5filters.MAX_ARRAY_LEN;
 
     DataBTree.DataChunk delegate;
 
@@ -197,124 +242,33 @@ class H5tiledLayoutBB implements LayoutBB {
     }
 
     public ByteBuffer getByteBuffer() throws IOException {
+      // read the data into a pooled buffer
+      H5filters.FilterBuffer buffer = H5filters.getBuffer();
       try {
-        // read the data
-        byte[] data = new byte[delegate.size];
-        raf.seek(delegate.filePos);
-        raf.readFully(data);
-
-      // apply filters backwards
-      for (int i = filters.length - 1; i >= 0; i--) {
-        H5header.Filter f = filters[i];
-        if (isBitSet(delegate.filterMask, i)) {
-          if (debug) System.out.println("skip for chunk " + delegate);
-          continue;
+        byte[] data = buffer.start(delegate.size, expectedChunkBytes);
+        if (positionalReads) {
+          raf.readFully(delegate.filePos, data, 0, delegate.size);
+        } else {
+          raf.seek(delegate.filePos);
+          raf.readFully(data, 0, delegate.size);
         }
-        if (f.id == 1) {
-          data = inflate(data);
-        } else if (f.id == 2) {
-          data = shuffle(data, f.data[0]);
-        } else if (f.id == 3) {
-          data = checkfletcher32(data);
-        /* }  else if (f.id == 307) {
-          data = unbzip2(data); */
-        } else
-          throw new RuntimeException("Unknown filter type="+f.id);
-      }
 
-        ByteBuffer result = ByteBuffer.wrap(data);
-        result.order(byteOrder);
-        return result;
+        // apply filters backwards
+        if (debug) System.out.println(" filter chunk " + delegate);
+        H5filters.decode(buffer, filters, delegate.filterMask);
+
+        // the decoded array now belongs to the caller; the pooled buffer keeps only its spare
+        return buffer.detach(byteOrder);
       } catch (OutOfMemoryError e) {
         Error oom =  new OutOfMemoryError("Ran out of memory trying to read HDF5 filtered chunk. Either increase the " +
                 "JVM's heap size (use the -Xmx switch) or reduce the size of the dataset's chunks (use nccopy -c).");
         oom.initCause(e);  // OutOfMemoryError lacks a constructor with a cause parameter.
         throw oom;
+      } finally {
+        H5filters.releaseBuffer(buffer);
       }
     }
 
-    /**
-     * inflate data
-     *
-     * @param compressed compressed data
-     * @return uncompressed data
-     * @throws IOException on I/O error
-     */
-    private byte[] inflate(byte[] compressed) throws IOException {
-      // run it through the Inflator
-      ByteArrayInputStream in = new ByteArrayInputStream(compressed);
-      java.util.zip.Inflater inflater = new java.util.zip.Inflater();
-      java.util.zip.InflaterInputStream inflatestream
-        = new java.util.zip.InflaterInputStream(in, inflater, inflatebuffersize);
-      int len = Math.min(8 * compressed.length, MAX_ARRAY_LEN);
-      ByteArrayOutputStream out = new ByteArrayOutputStream(len); // Fixes KXL-349288
-      IO.copyB(inflatestream, out, len);
-
-      byte[] uncomp = out.toByteArray();
-      if (debug || debugFilter)
-        System.out.println(" inflate bytes in= " + compressed.length + " bytes out= " + uncomp.length);
-      return uncomp;
-    }
-
-    /* private byte[] unbzip2(byte[] compressed) throws IOException {
-      int max = 20 * compressed.length;
-      byte[] buffer = new byte[max];
-      ByteArrayOutputStream out = new ByteArrayOutputStream(20 * compressed.length);
-      ByteArrayInputStream in = new ByteArrayInputStream(compressed);
-      try (org.itadaki.bzip2.BZip2InputStream bzIn = new org.itadaki.bzip2.BZip2InputStream(in, false)) {
-        int bytesRead;
-        int totRead = 0;
-        while ((bytesRead = bzIn.read (buffer)) != -1) {
-          out.write (buffer, 0, bytesRead) ;             // LOOK unneeded copy
-          totRead += bytesRead;
-        }
-        out.close();
-        //System.out.printf("unbzip2=%d%n", totRead);
-      } catch (Exception e) {
-        e.printStackTrace();
-      }
-
-      return out.toByteArray();
-     } */
-
-     // just strip off the 4-byte fletcher32 checksum at the end
-    private byte[] checkfletcher32(byte[] org) throws IOException {
-      byte[] result = new byte[org.length-4];
-      System.arraycopy(org, 0, result, 0, result.length);
-      if (debug) System.out.println(" checkfletcher32 bytes in= " + org.length + " bytes out= " + result.length);
-      return result;
-    }
-
-    private byte[] shuffle(byte[] data, int n) throws IOException {
-      if (debug) System.out.println(" shuffle bytes in= " + data.length + " n= " + n);
-
-      assert data.length % n == 0;
-      if (n <= 1) return data;
-
-      int m = data.length / n;
-      int[] count = new int[n];
-      for (int k = 0; k < n; k++) count[k] = k * m;
-
-      byte[] result = new byte[data.length];
-      /* for (int i = 0; i < data.length; i += n) {
-        for (int k = 0; k < n; k++) {
-          result[count[k]++] = data[i + k];
-        }
-      } */
-
-      for (int i = 0; i < m; i++) {
-        for (int j = 0; j < n; j++) {
-          result[i*n+j] = data[i + count[j]];
-        }
-      }
-
-      return result;
-    }
-
-    boolean isBitSet(int val, int bitno) {
-      return ((val >>> bitno) & 1) != 0;
-    }
-
   }
 
 
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+package ucar.nc2.iosp.nexrad2;
+
+import ucar.unidata.io.RandomAccessFile;
+import ucar.unidata.io.bzip2.BZip2ReadException;
+import ucar.unidata.io.bzip2.CBZip2InputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Uncompress a bzip2 compressed NEXRAD Level II volume (AR2V0001, etc) into memory.
+ * After the 24 byte volume header, the file is a sequence of blocks, each a 4 byte length followed by an
+ * independent bzip2 stream. So all the blocks are read first, then uncompressed concurrently.
+ * The result is the same as the ".uncompress" file written by Level2VolumeScan.
+ *
+ * @since 10/17/2026
+ */
+class Level2Uncompressor {
+  static private org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(Level2Uncompressor.class);
+
+  private static final int TASKS_PER_THREAD = 2; // so that the threads finish about the same time
+
+  /**
+   * Uncompress the volume.
+   *
+   * @param raf  compressed file
+   * @param pool uncompress the blocks in this pool, or null to do them in the calling thread
+   * @return volume header, followed by the uncompressed blocks
+   * @throws IOException on read error
+   */
+  static byte[] uncompress(RandomAccessFile raf, ForkJoinPool pool) throws IOException {
+    raf.seek(0);
+    byte[] header = new byte[Level2Record.FILE_HEADER_SIZE];
+    int bytesRead = raf.read(header);
+    if (bytesRead != header.length) {
+      throw new IOException("Error reading NEXRAD2 header -- got " + bytesRead + " rather than" + header.length);
+    }
+
+    List<byte[]> blocks = readBlocks(raf);
+    byte[][] ublocks = new byte[blocks.size()][];
+
+    int ntasks = (pool == null) ? 1 : Math.min(blocks.size(), TASKS_PER_THREAD * pool.getParallelism());
+    if (ntasks <= 1) {
+      uncompress(blocks, ublocks, 0, blocks.size());
+    } else {
+      // each task does a contiguous run of blocks, so it can reuse one CBZip2InputStream
+      List<Callable<Object>> tasks = new ArrayList<>(ntasks);
+      for (int t = 0; t < ntasks; t++) {
+        int start = (int) ((long) blocks.size() * t / ntasks);
+        int end = (int) ((long) blocks.size() * (t + 1) / ntasks);
+        tasks.add(() -> {
+          uncompress(blocks, ublocks, start, end);
+          return null;
+        });
+      }
+
+      try {
+        for (Future<Object> result : pool.invokeAll(tasks))
+          result.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Level2Uncompressor interrupted");
+      } catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+        if (cause instanceof Error) throw (Error) cause;
+        throw new IOException(cause);
+      }
+    }
+
+    long total = header.length;
+    for (byte[] ublock : ublocks)
+      total += ublock.length;
+    if (total > Integer.MAX_VALUE)
+      throw new IOException("Uncompressed NEXRAD2 file is too large: " + total + " bytes");
+
+    byte[] result = new byte[(int) total];
+    System.arraycopy(header, 0, result, 0, header.length);
+    int pos = header.length;
+    for (byte[] ublock : ublocks) {
+      System.arraycopy(ublock, 0, result, pos, ublock.length);
+      pos += ublock.length;
+    }
+    if (log.isDebugEnabled())
+      log.debug("uncompressed " + blocks.size() + " blocks of " + raf.getLocation() + " to " + total + " bytes");
+    return result;
+  }
+
+  // read the compressed blocks, just after the volume header
+  private static List<byte[]> readBlocks(RandomAccessFile raf) throws IOException {
+    List<byte[]> blocks = new ArrayList<>();
+    boolean eof = false;
+    while (!eof) {
+      int numCompBytes;
+      try {
+        numCompBytes = raf.readInt();
+        if (numCompBytes == -1) {
+          if (log.isDebugEnabled())
+            log.debug("  done: numCompBytes=-1 ");
+          break;
+        }
+      } catch (EOFException ee) {
+        log.debug("got EOFException");
+        break; // assume this is ok
+      }
+
+      // the last block has the number of bytes negated; assume that any negative number (other than -1) is the last block
+      if (numCompBytes < 0) {
+        if (log.isDebugEnabled())
+          log.debug("last block?" + numCompBytes);
+        numCompBytes = -numCompBytes;
+        eof = true;
+      }
+      byte[] buf = new byte[numCompBytes];
+      raf.readFully(buf);
+      blocks.add(buf);
+    }
+    return blocks;
+  }
+
+  // uncompress blocks[start, end), put results in ublocks
+  private static void uncompress(List<byte[]> blocks, byte[][] ublocks, int start, int end) {
+    CBZip2InputStream cbzip2 = new CBZip2InputStream();
+    byte[] obuff = new byte[40000];
+    for (int b = start; b < end; b++) {
+      byte[] buf = blocks.get(b);
+      int total = 0;
+      try {
+        cbzip2.setStream(new ByteArrayInputStream(buf, 2, buf.length - 2)); // skip "BZ"
+        int c;
+        while ((c = cbzip2.read()) != -1) {
+          if (total == obuff.length) {
+            byte[] temp = obuff;
+            obuff = new byte[temp.length * 2];
+            System.arraycopy(temp, 0, obuff, 0, temp.length);
+          }
+          obuff[total++] = (byte) c;
+        }
+        byte[] ublock = new byte[total];
+        System.arraycopy(obuff, 0, ublock, 0, total);
+        ublocks[b] = ublock;
+
+      } catch (BZip2ReadException ioe) {
+        log.warn("Nexrad2IOSP.uncompress ", ioe);
+        ublocks[b] = new byte[0]; // skip the bad block
+      }
+    }
+  }
+
+}
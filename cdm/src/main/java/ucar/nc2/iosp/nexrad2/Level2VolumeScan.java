@@ -15,9 +15,9 @@ import java.io.*;
 import java.util.*;
 import java.nio.channels.FileLock;
 import java.nio.channels.OverlappingFileLockException;
+import java.util.concurrent.ForkJoinPool;
 
-import ucar.unidata.io.bzip2.CBZip2InputStream;
-import ucar.unidata.io.bzip2.BZip2ReadException;
+import ucar.unidata.io.InMemoryRandomAccessFile;
 
 /**
  * This class reads a NEXRAD level II data file.
@@ -44,6 +44,40 @@ public class Level2VolumeScan {
   static public final String AR2V0007 = "AR2V0007";
 
   static private org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(Level2VolumeScan.class);
+
+  //////////////////////////////////////////////////////////////////////////////////
+  // uncompressing bzip2 compressed volumes
+
+  // System property name for -D flag
+  static final String UNCOMPRESS_THREADS = "unidata.nexrad2.uncompress.threads";
+  static private volatile ForkJoinPool uncompressPool = ForkJoinPool.commonPool();
+  static private volatile boolean uncompressInMemory = true;
+
+  static {
+    if (System.getProperty(UNCOMPRESS_THREADS) != null) {
+      try {
+        setUncompress(uncompressInMemory, Integer.parseInt(System.getProperty(UNCOMPRESS_THREADS)));
+      } catch (NumberFormatException nfe) {
+        log.warn(String.format("-D%s is not an integer", UNCOMPRESS_THREADS));
+      }
+    }
+  }
+
+  /**
+   * How to uncompress bzip2 compressed volumes (AR2V0001, etc).
+   * By default, the blocks are uncompressed concurrently in the common ForkJoinPool, and kept in memory.
+   * The number of threads can also be set with -Dunidata.nexrad2.uncompress.threads=n.
+   * An existing ".uncompress" file in the DiskCache is always used.
+   * The previous pool is not shut down, since reads in progress may still be using it; its threads exit once idle.
+   *
+   * @param inMemory if false, write the uncompressed volume to a ".uncompress" file in the DiskCache, and read from that
+   * @param nthreads number of threads for uncompressing the blocks; 0 uses the calling thread, &lt; 0 the common pool
+   */
+  public static synchronized void setUncompress(boolean inMemory, int nthreads) {
+    uncompressPool = (nthreads < 0) ? ForkJoinPool.commonPool() : (nthreads > 0) ? new ForkJoinPool(nthreads) : null;
+    uncompressInMemory = inMemory;
+  }
+
   ////////////////////////////////////////////////////////////////////////////////////
 
   // Data file
@@ -147,6 +181,9 @@ public class Level2VolumeScan {
           } // Lock is released when the corresponding channel is closed on exit of try()
           uraf = ucar.unidata.io.RandomAccessFile.acquire(uncompressedFile.getPath());
 
+        } else if (uncompressInMemory) {
+          uraf = new InMemoryRandomAccessFile(raf.getLocation(), Level2Uncompressor.uncompress(raf, uncompressPool));
+
         } else {
           try {
             // nope, gotta uncompress it
@@ -640,85 +677,7 @@ public class Level2VolumeScan {
     }
 
     try {
-        inputRaf.seek(0);
-        byte[] header = new byte[Level2Record.FILE_HEADER_SIZE];
-        int bytesRead = inputRaf.read(header);
-        if (bytesRead != header.length)
-        {
-            throw new IOException("Error reading NEXRAD2 header -- got " +
-                    bytesRead + " rather than" + header.length);
-        }
-        outputRaf.write(header);
-
-        boolean eof = false;
-        int numCompBytes;
-        byte[] ubuff = new byte[40000];
-        byte[] obuff = new byte[40000];
-
-        CBZip2InputStream cbzip2 = new CBZip2InputStream();
-        while (!eof) {
-            try {
-                numCompBytes = inputRaf.readInt();
-                if (numCompBytes == -1) {
-                    if (log.isDebugEnabled())
-                        log.debug("  done: numCompBytes=-1 ");
-                    break;
-                }
-            } catch (EOFException ee) {
-                log.debug("got EOFException");
-                break; // assume this is ok
-            }
-
-            if (log.isDebugEnabled()) {
-                log.debug("reading compressed bytes " + numCompBytes + " input starts at " + inputRaf.getFilePointer() + "; output starts at " + outputRaf.getFilePointer());
-
-            }
-          /*
-          * For some stupid reason, the last block seems to
-          * have the number of bytes negated.  So, we just
-          * assume that any negative number (other than -1)
-          * is the last block and go on our merry little way.
-          */
-            if (numCompBytes < 0) {
-                if (log.isDebugEnabled())
-                    log.debug("last block?" + numCompBytes);
-                numCompBytes = -numCompBytes;
-                eof = true;
-            }
-            byte[] buf = new byte[numCompBytes];
-            inputRaf.readFully(buf);
-            ByteArrayInputStream bis = new ByteArrayInputStream(buf, 2,
-                    numCompBytes - 2);
-
-            //CBZip2InputStream cbzip2 = new CBZip2InputStream(bis);
-            cbzip2.setStream(bis);
-            int total = 0;
-            int nread;
-          /*
-          while ((nread = cbzip2.read(ubuff)) != -1) {
-            dout2.write(ubuff, 0, nread);
-            total += nread;
-          }
-          */
-            try {
-                while ((nread = cbzip2.read(ubuff)) != -1) {
-                    if (total + nread > obuff.length) {
-                        byte[] temp = obuff;
-                        obuff = new byte[temp.length * 2];
-                        System.arraycopy(temp, 0, obuff, 0, temp.length);
-                    }
-                    System.arraycopy(ubuff, 0, obuff, total, nread);
-                    total += nread;
-                }
-                if (obuff.length >= 0) outputRaf.write(obuff, 0, total);
-            } catch (BZip2ReadException ioe) {
-                log.warn("Nexrad2IOSP.uncompress ", ioe);
-            }
-            float nrecords = (float) (total / 2432.0);
-            if (log.isDebugEnabled())
-                log.debug("  unpacked " + total + " num bytes " + nrecords + " records; ouput ends at " + outputRaf.getFilePointer());
-        }
-
+        outputRaf.write(Level2Uncompressor.uncompress(inputRaf, uncompressPool));
         outputRaf.flush();
     } catch (IOException e) {
         if (outputRaf != null) outputRaf.close();
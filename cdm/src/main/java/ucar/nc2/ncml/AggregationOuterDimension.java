@@ -16,11 +16,13 @@ import ucar.nc2.units.DateUnit;
 import ucar.nc2.util.CancelTask;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.*;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * Superclass for Aggregations on the outer dimension: joinNew, joinExisting, Fmrc, FmrcSingle
@@ -36,6 +38,7 @@ public abstract class AggregationOuterDimension extends Aggregation implements P
   protected List<String> aggVarNames = new ArrayList<String>(); // explicitly specified in the NcML
   protected List<VariableDS> aggVars = new ArrayList<VariableDS>(); // actual vars that will be aggregated
   private int totalCoords = 0;  // the aggregation dimension size
+  private volatile JoinIndex joinIndex; // set by buildCoords
 
   protected List<CacheVar> cacheList = new ArrayList<CacheVar>(); // promote global attribute to variable
   protected boolean timeUnitsChange = false;
@@ -133,10 +136,50 @@ public abstract class AggregationOuterDimension extends Aggregation implements P
     }
 
     totalCoords = 0;
+    int[] starts = new int[nestedDatasets.size()];
+    int count = 0;
     for (Dataset nested : nestedDatasets) {
       DatasetOuterDimension dod = (DatasetOuterDimension) nested;
+      starts[count++] = totalCoords;
       totalCoords += dod.setStartEnd(totalCoords, cancelTask);
     }
+    joinIndex = new JoinIndex(nestedDatasets, starts);
+  }
+
+  // the aggStart of each nested dataset, so a section read can binary search for the datasets it needs
+  private static class JoinIndex {
+    final List<Dataset> datasets;
+    final int[] starts;
+
+    JoinIndex(List<Dataset> datasets, int[] starts) {
+      this.datasets = datasets;
+      this.starts = starts;
+    }
+  }
+
+  /**
+   * Find the first nested dataset that may hold the given index of the aggregated dimension.
+   *
+   * @param nestedDatasets the current datasets
+   * @param want           index in the aggregated dimension
+   * @return index into nestedDatasets, or -1 if the datasets were not indexed by buildCoords()
+   */
+  private int findFirstDataset(List<Dataset> nestedDatasets, int want) {
+    JoinIndex index = joinIndex;
+    if (index == null || index.datasets != nestedDatasets || index.starts.length != nestedDatasets.size())
+      return -1;
+
+    // the last dataset with aggStart <= want; empty datasets share the aggStart of the next one
+    int[] starts = index.starts;
+    int low = 0, high = starts.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (starts[mid] <= want)
+        low = mid + 1;
+      else
+        high = mid;
+    }
+    return Math.max(low - 1, 0);
   }
 
   // time units change - must read in time coords and convert, cache the results
@@ -315,42 +358,115 @@ public abstract class AggregationOuterDimension extends Aggregation implements P
     //  return readAggCoord(mainv, section, cancelTask);
 
     Array sectionData = Array.factory(dtype, section.getShape());
-    int destPos = 0;
 
     List<Range> ranges = section.getRanges();
     Range joinRange = section.getRange(0);
-    List<Range> nestedSection = new ArrayList<>(ranges); // get copy
-    List<Range> innerSection = ranges.subList(1, ranges.size());
+    long innerSize = 1;
+    for (Range r : ranges.subList(1, ranges.size()))
+      innerSize *= r.length();
 
     if (debug) System.out.println("   agg wants range=" + mainv.getFullName() + "(" + joinRange + ")");
 
-    // LOOK: could multithread here
+    // find the datasets that overlap the join range, and where each one goes in sectionData
     List<Dataset> nestedDatasets = getDatasets();
-    for (Dataset nested : nestedDatasets) {
-      DatasetOuterDimension dod = (DatasetOuterDimension) nested;
+    int first = findFirstDataset(nestedDatasets, joinRange.first());
+    boolean indexed = (first >= 0);
+    List<SectionReaderTask> tasks = new ArrayList<>();
+    int destPos = 0;
+    for (int i = Math.max(first, 0); i < nestedDatasets.size(); i++) {
+      DatasetOuterDimension dod = (DatasetOuterDimension) nestedDatasets.get(i);
+      if (indexed && dod.aggStart > joinRange.last())
+        break;
       Range nestedJoinRange = dod.getNestedJoinRange(joinRange);
       if (nestedJoinRange == null)
         continue;
       //if (debug)
-      //  System.out.println("   agg use " + nested.aggStart + ":" + nested.aggEnd + " range= " + nestedJoinRange + " file " + nested.getLocation());
+      //  System.out.println("   agg use " + dod.aggStart + ":" + dod.aggEnd + " range= " + nestedJoinRange + " file " + dod.getLocation());
+
+      tasks.add(new SectionReaderTask(dod, mainv, ranges, nestedJoinRange, dtype, sectionData, destPos, cancelTask));
+      destPos += nestedJoinRange.length() * innerSize;
+    }
+
+    if (isParallel() && tasks.size() > 1) {
+      // each task writes its own part of sectionData
+      CompletionService<Boolean> completionService = new ExecutorCompletionService<>(executor);
+      for (SectionReaderTask task : tasks)
+        completionService.submit(task);
+
+      try {
+        for (int i = 0; i < tasks.size(); ++i)
+          completionService.take().get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted reading " + mainv.getFullName());
+      } catch (ExecutionException e) {
+        throw new IOException(e.getMessage(), e.getCause());
+      }
+
+      if ((cancelTask != null) && cancelTask.isCancel())
+        return null;
 
+    } else {
+      for (SectionReaderTask task : tasks) {
+        if (!task.read())
+          return null;
+      }
+    }
+
+    return sectionData;
+  }
+
+  // A nested aggregation is read by a task already running on the executor. Waiting there for tasks
+  // queued behind it on the same threads could deadlock, so it reads its own datasets one at a time.
+  private boolean isParallel() {
+    return executor != null && !ForkJoinTask.inForkJoinPool();
+  }
+
+  // read the part of a section that is in one nested dataset, and copy it into the section array
+  private class SectionReaderTask implements Callable<Boolean> {
+    DatasetOuterDimension dod;
+    Variable mainv;
+    List<Range> ranges;
+    Range nestedJoinRange;
+    DataType dtype;
+    Array sectionData;
+    int destPos;
+    CancelTask cancelTask;
+
+    SectionReaderTask(DatasetOuterDimension dod, Variable mainv, List<Range> ranges, Range nestedJoinRange, DataType dtype,
+                      Array sectionData, int destPos, CancelTask cancelTask) {
+      this.dod = dod;
+      this.mainv = mainv;
+      this.ranges = ranges;
+      this.nestedJoinRange = nestedJoinRange;
+      this.dtype = dtype;
+      this.sectionData = sectionData;
+      this.destPos = destPos;
+      this.cancelTask = cancelTask;
+    }
+
+    public Boolean call() throws Exception {
+      return read();
+    }
+
+    // return false if cancelled
+    boolean read() throws IOException, InvalidRangeException {
       Array varData;
       if ((type == Type.joinNew) || (type == Type.forecastModelRunCollection)) {
-        varData = dod.read(mainv, cancelTask, innerSection);
+        varData = dod.read(mainv, cancelTask, ranges.subList(1, ranges.size()));
       } else {
+        List<Range> nestedSection = new ArrayList<>(ranges); // get copy
         nestedSection.set(0, nestedJoinRange);
         varData = dod.read(mainv, cancelTask, nestedSection);
       }
 
       if ((cancelTask != null) && cancelTask.isCancel())
-        return null;
+        return false;
       varData = MAMath.convert(varData, dtype); // just in case it need to be converted
 
       Array.arraycopy(varData, 0, sectionData, destPos, (int) varData.getSize());
-      destPos += varData.getSize();
+      return true;
     }
-
-    return sectionData;
   }
 
   /**
@@ -394,7 +510,7 @@ public abstract class AggregationOuterDimension extends Aggregation implements P
     int destPos = 0;
 
     List<Dataset> nestedDatasets = getDatasets();
-    if (executor != null) {
+    if (isParallel()) {
       CompletionService<Result> completionService = new ExecutorCompletionService<>(executor);
 
       int count = 0;
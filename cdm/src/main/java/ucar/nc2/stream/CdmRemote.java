@@ -34,6 +34,7 @@ public class CdmRemote extends ucar.nc2.NetcdfFile {
   // static private org.slf4SCHEMEj.Logger logger = org.slf4j.LoggerFactory.getLogger(CdmRemote.class);
   static private boolean showRequest = false;
   static private boolean compress = false;
+  static private String compression = null;
 
   static public void setDebugFlags(ucar.nc2.util.DebugFlags debugFlag) {
     showRequest = debugFlag.isSet("CdmRemote/showRequest");
@@ -43,6 +44,16 @@ public class CdmRemote extends ucar.nc2.NetcdfFile {
     compress = b;
   }
 
+  /**
+   * Ask the server to compress data responses this way.
+   * A server that does not know it sends the data uncompressed; the Data message says which was used.
+   *
+   * @param type compression for data responses, or null for the default (see setAllowCompression)
+   */
+  static public void setCompression(NcStreamProto.Compress type) {
+    compression = (type == null) ? null : type.name().toLowerCase();
+  }
+
 
   /**
    * Create the canonical form of the URL.
@@ -129,7 +140,9 @@ public class CdmRemote extends ucar.nc2.NetcdfFile {
 
     Formatter f = new Formatter();
     f.format("%s?req=data", remoteURI);
-    if (compress)
+    if (compression != null)
+      f.format("&compress=%s", compression);
+    if (compress || (compression != null && compression.endsWith("deflate")))
       f.format("&deflate=5");
     //f.format("&var=%s", v.getShortName());
     f.format("&var=%s", v.getFullNameEscaped());
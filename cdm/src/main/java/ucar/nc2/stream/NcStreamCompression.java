@@ -5,8 +5,13 @@
 
 package ucar.nc2.stream;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.InflaterInputStream;
 
 /**
  * Created by rmay on 8/10/15.
@@ -36,8 +41,86 @@ public class NcStreamCompression {
         return new NcStreamCompression(NcStreamProto.Compress.DEFLATE, level);
     }
 
+    /**
+     * LZ4 compression: much faster than deflate, but the data is not as small.
+     */
+    public static NcStreamCompression lz4() {
+        return new NcStreamCompression(NcStreamProto.Compress.LZ4);
+    }
+
+    /**
+     * Byte shuffle, then deflate. The shuffle groups the bytes of the data elements by significance,
+     * which usually makes floating point data compress better.
+     */
+    public static NcStreamCompression shuffleDeflate(int level) {
+        return new NcStreamCompression(NcStreamProto.Compress.SHUFFLE_DEFLATE, level);
+    }
+
+    /**
+     * Byte shuffle, then LZ4.
+     */
+    public static NcStreamCompression shuffleLz4() {
+        return new NcStreamCompression(NcStreamProto.Compress.SHUFFLE_LZ4);
+    }
+
+    /**
+     * Find the compression from its name, as used in the cdmremote "compress" query parameter.
+     *
+     * @param name  none, deflate, lz4, shuffle_deflate, or shuffle_lz4; case insensitive
+     * @param level deflate level, -1 for the default
+     * @return the compression, or null if the name is not known
+     */
+    public static NcStreamCompression fromName(String name, int level) {
+        switch (name.toLowerCase()) {
+            case "none":
+                return none();
+            case "deflate":
+                return deflate(level);
+            case "lz4":
+                return lz4();
+            case "shuffle_deflate":
+                return shuffleDeflate(level);
+            case "shuffle_lz4":
+                return shuffleLz4();
+            default:
+                return null;
+        }
+    }
+
+    public NcStreamProto.Compress getType() {
+        return type;
+    }
+
+    /**
+     * The same compression, without the byte shuffle.
+     */
+    NcStreamCompression withoutShuffle() {
+        switch (type) {
+            case SHUFFLE_DEFLATE:
+                return new NcStreamCompression(NcStreamProto.Compress.DEFLATE, compressInfo);
+            case SHUFFLE_LZ4:
+                return lz4();
+            default:
+                return this;
+        }
+    }
+
     public OutputStream setupStream(OutputStream out, int size)
             throws IOException
+    {
+        return setupStream(out, size, 1);
+    }
+
+    /**
+     * Set up the stream for the data of a variable.
+     *
+     * @param out      write to this stream
+     * @param size     number of bytes of data that will be written
+     * @param elemSize size in bytes of each data element, used by the byte shuffle
+     * @return write the data to this stream, then flush it
+     */
+    public OutputStream setupStream(OutputStream out, int size, int elemSize)
+            throws IOException
     {
         switch (type) {
             // For compression (currently deflate) we compress the data, then
@@ -48,6 +131,12 @@ public class NcStreamCompression {
                 int bufferSize = Math.min(size / 2, 512 * 1024 * 1024);
                 return new NcStreamCompressedOutputStream(out, bufferSize, level);
 
+            // these need all of the data before compressing it
+            case LZ4:
+            case SHUFFLE_DEFLATE:
+            case SHUFFLE_LZ4:
+                return new BlockOutputStream(out, size, elemSize);
+
             default:
                 System.out.printf(" Unknown compression type %s. Defaulting to none.%n", type);
 
@@ -58,4 +147,125 @@ public class NcStreamCompression {
                 return out;
         }
     }
-}
\ No newline at end of file
+
+    // Collects the data, then writes the size of the compressed block and the block when flushed.
+    private class BlockOutputStream extends DataOutputStream {
+        private final OutputStream writer;
+        private final ByteArrayOutputStream buffer;
+        private final int elemSize;
+
+        BlockOutputStream(OutputStream out, int size, int elemSize) {
+            super(out);
+            this.writer = out;
+            this.elemSize = elemSize;
+            this.buffer = new ByteArrayOutputStream(Math.max(size, 32));
+            this.out = buffer;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            byte[] data = buffer.toByteArray();
+            byte[] compressed = compress(data);
+            written = compressed.length;
+            written += NcStream.writeVInt(writer, compressed.length);
+            writer.write(compressed);
+            buffer.reset();
+        }
+
+        private byte[] compress(byte[] data) {
+            if (type == NcStreamProto.Compress.SHUFFLE_DEFLATE || type == NcStreamProto.Compress.SHUFFLE_LZ4)
+                data = shuffle(data, elemSize);
+
+            if (type == NcStreamProto.Compress.SHUFFLE_DEFLATE) {
+                int level = Math.min(Math.max((Integer) compressInfo, -1), 9);
+                Deflater deflater = new Deflater(level);
+                try {
+                    deflater.setInput(data);
+                    deflater.finish();
+                    ByteArrayOutputStream bout = new ByteArrayOutputStream(data.length / 2 + 64);
+                    byte[] chunk = new byte[64 * 1024];
+                    while (!deflater.finished()) {
+                        int n = deflater.deflate(chunk);
+                        bout.write(chunk, 0, n);
+                    }
+                    return bout.toByteArray();
+                } finally {
+                    deflater.end();
+                }
+            }
+            return NcStreamLz4.compress(data, 0, data.length);
+        }
+    }
+
+    /**
+     * Uncompress a block of data that was compressed by setupStream().
+     *
+     * @param type             from the Data message
+     * @param data             the compressed block
+     * @param uncompressedSize from the Data message
+     * @param elemSize         size in bytes of each data element
+     * @return the uncompressed data
+     */
+    static byte[] uncompress(NcStreamProto.Compress type, byte[] data, int uncompressedSize, int elemSize) throws IOException {
+        byte[] result;
+        switch (type) {
+            case NONE:
+                return data;
+            case DEFLATE:
+            case SHUFFLE_DEFLATE:
+                result = new byte[uncompressedSize];
+                InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(data));
+                NcStream.readFully(in, result);
+                break;
+            case LZ4:
+            case SHUFFLE_LZ4:
+                result = NcStreamLz4.decompress(data, 0, data.length, uncompressedSize);
+                break;
+            default:
+                throw new IOException("Unknown compression type " + type);
+        }
+
+        if (type == NcStreamProto.Compress.SHUFFLE_DEFLATE || type == NcStreamProto.Compress.SHUFFLE_LZ4)
+            result = unshuffle(result, elemSize);
+        return result;
+    }
+
+    /**
+     * Byte shuffle: all the first bytes of the elements, then all the second bytes, etc.
+     * Any bytes after the last whole element are left at the end.
+     *
+     * @param data     the data
+     * @param elemSize size in bytes of each element
+     * @return shuffled copy of the data, or data itself if elemSize < 2
+     */
+    static byte[] shuffle(byte[] data, int elemSize) {
+        if (elemSize < 2)
+            return data;
+        int n = data.length / elemSize;
+        byte[] result = new byte[data.length];
+        for (int b = 0; b < elemSize; b++) {
+            int dest = b * n;
+            for (int i = 0, src = b; i < n; i++, src += elemSize)
+                result[dest + i] = data[src];
+        }
+        System.arraycopy(data, n * elemSize, result, n * elemSize, data.length - n * elemSize);
+        return result;
+    }
+
+    /**
+     * Undo shuffle().
+     */
+    static byte[] unshuffle(byte[] data, int elemSize) {
+        if (elemSize < 2)
+            return data;
+        int n = data.length / elemSize;
+        byte[] result = new byte[data.length];
+        for (int b = 0; b < elemSize; b++) {
+            int src = b * n;
+            for (int i = 0, dest = b; i < n; i++, dest += elemSize)
+                result[dest] = data[src + i];
+        }
+        System.arraycopy(data, n * elemSize, result, n * elemSize, data.length - n * elemSize);
+        return result;
+    }
+}
@@ -14,7 +14,6 @@ import java.util.ArrayList;
 import java.util.Formatter;
 import java.util.List;
 import java.util.zip.DeflaterOutputStream;
-import java.util.zip.InflaterInputStream;
 import ucar.ma2.Array;
 import ucar.ma2.ArrayStructureBB;
 import ucar.ma2.ArrayStructureBBsection;
@@ -70,7 +69,8 @@ public class NcStreamIosp extends AbstractIOServiceProvider {
     int size;
     long filePos;
     Section section;
-    boolean isVlen, isDeflate;
+    boolean isVlen;
+    NcStreamProto.Compress compress;
     ByteOrder bo;
     int nelems, uncompressedLen;
     NcStreamProto.StructureData sdata;
@@ -82,8 +82,8 @@ public class NcStreamIosp extends AbstractIOServiceProvider {
       nelems = (int) section.computeSize();
       bo = NcStream.decodeDataByteOrder(dproto);
       isVlen = dproto.getVdata();
-      isDeflate = dproto.getCompress() == NcStreamProto.Compress.DEFLATE;
-      if (isDeflate)
+      compress = dproto.getCompress();
+      if (compress != NcStreamProto.Compress.NONE)
         uncompressedLen = dproto.getUncompressedSize();
     }
 
@@ -94,7 +94,7 @@ public class NcStreamIosp extends AbstractIOServiceProvider {
               ", section=" + section +
               ", nelems=" + nelems +
               ", isVlen=" + isVlen +
-              ", isDeflate=" + isDeflate;
+              ", compress=" + compress;
     }
   }
 
@@ -116,14 +116,10 @@ public class NcStreamIosp extends AbstractIOServiceProvider {
         byte[] data = new byte[dataStorage.size];
         raf.readFully(data);
 
-        if (dataStorage.isDeflate) {
-          ByteArrayInputStream bin = new ByteArrayInputStream(data);
-          InflaterInputStream in = new InflaterInputStream(bin);
-          ByteArrayOutputStream bout = new ByteArrayOutputStream(data.length * 7);
-          IO.copy(in, bout);
-          byte[] resultb = bout.toByteArray();
-          result = ByteBuffer.wrap(resultb); // look - an extra copy !! override ByteArrayOutputStream to fix
-          if (debug) System.out.printf(" uncompressedLen header=%d actual=%d%n", dataStorage.uncompressedLen , resultb.length);
+        if (dataStorage.compress != NcStreamProto.Compress.NONE) {
+          byte[] resultb = NcStreamCompression.uncompress(dataStorage.compress, data, dataStorage.uncompressedLen,
+                  v.getElementSize());
+          result = ByteBuffer.wrap(resultb);
           result.order(dataStorage.bo);
 
         } else {
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+
+package ucar.nc2.stream;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A self contained LZ4 block codec, used for the LZ4 compression of ncstream data.
+ * The output is in the LZ4 block format, so it can also be read by other LZ4 implementations.
+ * Much faster than deflate, with a lower compression ratio.
+ * The compressor is a single pass greedy matcher with a 4 byte hash table. Thread-safe.
+ *
+ * @see "https://github.com/lz4/lz4/blob/dev/doc/lz4_Block_format.md"
+ * @since 10/17/2026
+ */
+public class NcStreamLz4 {
+  private static final int MIN_MATCH = 4;
+  private static final int LAST_LITERALS = 5;  // the last 5 bytes are always literals
+  private static final int MF_LIMIT = 12;      // the last match must start at least 12 bytes before the end
+  private static final int MAX_DISTANCE = 65535;
+  private static final int HASH_LOG = 16;
+  private static final int SKIP_TRIGGER = 6;   // go faster through incompressible data
+
+  private NcStreamLz4() {
+  }
+
+  /**
+   * The largest size of the compressed data.
+   *
+   * @param len length of the uncompressed data
+   */
+  public static int maxCompressedLength(int len) {
+    return len + len / 255 + 16;
+  }
+
+  /**
+   * Compress a block of data.
+   *
+   * @param src    the data
+   * @param srcOff start of the data
+   * @param srcLen length of the data
+   * @return the compressed data
+   */
+  public static byte[] compress(byte[] src, int srcOff, int srcLen) {
+    byte[] dest = new byte[maxCompressedLength(srcLen)];
+    int srcEnd = srcOff + srcLen;
+    int anchor = srcOff;
+    int op = 0;
+
+    if (srcLen > MF_LIMIT) {
+      int mfLimit = srcEnd - MF_LIMIT;
+      int matchLimit = srcEnd - LAST_LITERALS;
+      int[] table = new int[1 << HASH_LOG]; // position + 1 of the last occurrence of each hash, 0 = none
+
+      int ip = srcOff;
+      while (ip < mfLimit) {
+        int sequence = readInt(src, ip);
+        int h = hash(sequence);
+        int ref = table[h] - 1;
+        table[h] = ip + 1;
+
+        if (ref < 0 || ip - ref > MAX_DISTANCE || readInt(src, ref) != sequence) {
+          ip += 1 + ((ip - anchor) >>> SKIP_TRIGGER);
+          continue;
+        }
+
+        // extend the match backwards into the pending literals, then forwards
+        while (ip > anchor && ref > srcOff && src[ip - 1] == src[ref - 1]) {
+          ip--;
+          ref--;
+        }
+        int matchLen = MIN_MATCH;
+        while (ip + matchLen < matchLimit && src[ip + matchLen] == src[ref + matchLen])
+          matchLen++;
+
+        op = writeSequence(src, anchor, ip - anchor, ip - ref, matchLen, dest, op);
+        ip += matchLen;
+        anchor = ip;
+
+        if (ip < mfLimit)
+          table[hash(readInt(src, ip - 2))] = ip - 2 + 1;
+      }
+    }
+
+    op = writeLastLiterals(src, anchor, srcEnd - anchor, dest, op);
+    return Arrays.copyOf(dest, op);
+  }
+
+  /**
+   * Decompress a block of data.
+   *
+   * @param src     the compressed data
+   * @param srcOff  start of the compressed data
+   * @param srcLen  length of the compressed data
+   * @param destLen the uncompressed length, which the caller must know
+   * @return the uncompressed data
+   * @throws IOException if the compressed data is not valid, or does not have destLen bytes
+   */
+  public static byte[] decompress(byte[] src, int srcOff, int srcLen, int destLen) throws IOException {
+    byte[] dest = new byte[destLen];
+    int ip = srcOff;
+    int srcEnd = srcOff + srcLen;
+    int op = 0;
+
+    while (true) {
+      if (ip >= srcEnd)
+        throw new IOException("LZ4: truncated data");
+      int token = src[ip++] & 0xff;
+
+      // literals
+      int literalLen = token >>> 4;
+      if (literalLen == 15) {
+        int b;
+        do {
+          if (ip >= srcEnd)
+            throw new IOException("LZ4: truncated literal length");
+          b = src[ip++] & 0xff;
+          literalLen += b;
+        } while (b == 255 && literalLen > 0);
+      }
+      if (literalLen < 0 || literalLen > srcEnd - ip || literalLen > destLen - op)
+        throw new IOException("LZ4: bad literal length " + literalLen);
+      System.arraycopy(src, ip, dest, op, literalLen);
+      ip += literalLen;
+      op += literalLen;
+
+      if (ip == srcEnd) // the last sequence has no match
+        break;
+
+      // match
+      if (srcEnd - ip < 2)
+        throw new IOException("LZ4: truncated match offset");
+      int offset = (src[ip] & 0xff) | ((src[ip + 1] & 0xff) << 8);
+      ip += 2;
+      if (offset == 0 || offset > op)
+        throw new IOException("LZ4: bad match offset " + offset);
+
+      int matchLen = token & 0x0f;
+      if (matchLen == 15) {
+        int b;
+        do {
+          if (ip >= srcEnd)
+            throw new IOException("LZ4: truncated match length");
+          b = src[ip++] & 0xff;
+          matchLen += b;
+        } while (b == 255 && matchLen > 0);
+      }
+      matchLen += MIN_MATCH;
+      if (matchLen < MIN_MATCH || matchLen > destLen - op)
+        throw new IOException("LZ4: bad match length " + matchLen);
+
+      int ref = op - offset;
+      if (offset >= matchLen) {
+        System.arraycopy(dest, ref, dest, op, matchLen);
+      } else { // overlapping: repeats the last offset bytes
+        for (int i = 0; i < matchLen; i++)
+          dest[op + i] = dest[ref + i];
+      }
+      op += matchLen;
+    }
+
+    if (op != destLen)
+      throw new IOException("LZ4: uncompressed length " + op + " not " + destLen);
+    return dest;
+  }
+
+  ////////////////////////////////////////////////////////////
+
+  private static int readInt(byte[] b, int pos) {
+    return (b[pos] & 0xff) | ((b[pos + 1] & 0xff) << 8) | ((b[pos + 2] & 0xff) << 16) | ((b[pos + 3] & 0xff) << 24);
+  }
+
+  private static int hash(int sequence) {
+    return (sequence * -1640531535) >>> (32 - HASH_LOG);
+  }
+
+  private static int writeLength(int len, byte[] dest, int op) {
+    while (len >= 255) {
+      dest[op++] = (byte) 255;
+      len -= 255;
+    }
+    dest[op++] = (byte) len;
+    return op;
+  }
+
+  private static int writeSequence(byte[] src, int literalStart, int literalLen, int offset, int matchLen, byte[] dest, int op) {
+    int tokenPos = op++;
+    int token;
+    if (literalLen >= 15) {
+      token = 15 << 4;
+      op = writeLength(literalLen - 15, dest, op);
+    } else {
+      token = literalLen << 4;
+    }
+    System.arraycopy(src, literalStart, dest, op, literalLen);
+    op += literalLen;
+
+    dest[op++] = (byte) offset;
+    dest[op++] = (byte) (offset >>> 8);
+
+    int len = matchLen - MIN_MATCH;
+    if (len >= 15) {
+      token |= 15;
+      op = writeLength(len - 15, dest, op);
+    } else {
+      token |= len;
+    }
+    dest[tokenPos] = (byte) token;
+    return op;
+  }
+
+  private static int writeLastLiterals(byte[] src, int literalStart, int literalLen, byte[] dest, int op) {
+    if (literalLen >= 15) {
+      dest[op++] = (byte) (15 << 4);
+      op = writeLength(literalLen - 15, dest, op);
+    } else {
+      dest[op++] = (byte) (literalLen << 4);
+    }
+    System.arraycopy(src, literalStart, dest, op, literalLen);
+    return op + literalLen;
+  }
+}
@@ -11,13 +11,11 @@ import ucar.nc2.NetcdfFileSubclass;
 import ucar.nc2.Structure;
 import ucar.ma2.*;
 
-import java.io.ByteArrayInputStream;
 import java.io.EOFException;
 import java.io.InputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.util.zip.InflaterInputStream;
 
 import com.google.protobuf.InvalidProtocolBufferException;
 import ucar.nc2.constants.CDM;
@@ -183,15 +181,12 @@ public class NcStreamReader {
     Array data;
     NcStreamProto.Compress compress = dproto.getCompress();
     int uncompressedSize = dproto.getUncompressedSize();
-    if (compress == NcStreamProto.Compress.DEFLATE) {
-      ByteArrayInputStream bin = new ByteArrayInputStream(datab);
-      InflaterInputStream in = new InflaterInputStream(bin);
-      byte[] resultb = new byte[uncompressedSize];
-      NcStream.readFully(in, resultb);
+    if (compress != NcStreamProto.Compress.NONE) {
+      byte[] resultb = NcStreamCompression.uncompress(compress, datab, uncompressedSize, dataType.getSize());
 
       data = Array.factory(dataType, section.getShape(), ByteBuffer.wrap(resultb)); // another copy, not sure can do anything
       if (showDeflate)
-        System.out.printf("Deflate = %d / %d = %f %n", uncompressedSize, dsize, ((float) uncompressedSize) / dsize);
+        System.out.printf("%s = %d / %d = %f %n", compress, uncompressedSize, dsize, ((float) uncompressedSize) / dsize);
       total_uncompressedSize += uncompressedSize;
       total_compressedSize += dsize;
 
@@ -69,8 +69,11 @@ public class NcStreamWriter {
 
     // length of data uncompressed
     long uncompressedLength = section.computeSize();
-    if ((v.getDataType() != DataType.STRING) && (v.getDataType() != DataType.OPAQUE) && !v.isVariableLength())
+    boolean fixedSize = (v.getDataType() != DataType.STRING) && (v.getDataType() != DataType.OPAQUE) && !v.isVariableLength();
+    if (fixedSize)
       uncompressedLength *= v.getElementSize(); // nelems for vdata, else nbytes
+    else
+      compress = compress.withoutShuffle(); // no fixed element size to shuffle by
 
     ByteOrder bo = ByteOrder.nativeOrder(); // reader makes right
     long size = 0;
@@ -110,7 +113,7 @@ public class NcStreamWriter {
     }
 
     // Writing the size of the block is handled for us.
-    out = compress.setupStream(out, (int)uncompressedLength);
+    out = compress.setupStream(out, (int)uncompressedLength, v.getElementSize());
     size += v.readToStream(section, out);
     out.flush();
     return size;
@@ -153,9 +156,8 @@ public class NcStreamWriter {
       Attribute compressAtt = v.findAttribute(CDM.COMPRESS);
       if (compressAtt != null && compressAtt.isString()) {
         String compType = compressAtt.getStringValue();
-        if (compType.equalsIgnoreCase(CDM.COMPRESS_DEFLATE)) {
-          compress = NcStreamCompression.deflate();
-        } else {
+        compress = NcStreamCompression.fromName(compType, -1); // deflate, lz4, shuffle_deflate, shuffle_lz4
+        if (compress == null) {
           if (show) System.out.printf(" Unknown compression type %s. Defaulting to none.%n", compType);
           compress = NcStreamCompression.none();
         }
@@ -41,7 +41,9 @@ public class CalendarDateFormatter {
   private static DateTimeFormatter df_units = DateTimeFormat.forPattern("yyyy-MM-dd HH:mm:ss.SSS 'UTC'").withZoneUTC(); // udunits
 
   static public String toDateTimeStringISO(CalendarDate cd) {
-	
+	 String s = formatFast(cd.getDateTime(), 'T');
+	 if (s != null) return s;
+
 	 if(cd.getDateTime().getMillisOfSecond() == 0)
 		 return isof.print( cd.getDateTime() );
 	 else
@@ -58,6 +60,8 @@ public class CalendarDateFormatter {
    }
 
    static public String toDateTimeString(CalendarDate cd) {
+	  String s = formatFast(cd.getDateTime(), ' ');
+	  if (s != null) return s;
 
 	  if(cd.getDateTime().getMillisOfSecond()==0)	  
 		  return dtf.print(cd.getDateTime());
@@ -94,6 +98,41 @@ public class CalendarDateFormatter {
 	  return df_units.print(date.getTime());
   }
 
+  // Same result as isof, dtf and their _with_millis_of_second versions, without going through the joda formatter.
+  // Only for UTC and 4 digit years, otherwise return null.
+  private static String formatFast(DateTime dt, char sep) {
+    if (dt.getZone() != DateTimeZone.UTC) return null;
+    int year = dt.getYear();
+    if (year < 0 || year > 9999) return null;
+    int millis = dt.getMillisOfSecond();
+
+    char[] c = new char[millis == 0 ? 20 : 24];
+    put(c, 0, year, 4);
+    c[4] = '-';
+    put(c, 5, dt.getMonthOfYear(), 2);
+    c[7] = '-';
+    put(c, 8, dt.getDayOfMonth(), 2);
+    c[10] = sep;
+    put(c, 11, dt.getHourOfDay(), 2);
+    c[13] = ':';
+    put(c, 14, dt.getMinuteOfHour(), 2);
+    c[16] = ':';
+    put(c, 17, dt.getSecondOfMinute(), 2);
+    if (millis != 0) {
+      c[19] = '.';
+      put(c, 20, millis, 3);
+    }
+    c[c.length - 1] = 'Z';
+    return new String(c);
+  }
+
+  private static void put(char[] c, int start, int value, int ndigits) {
+    for (int i = start + ndigits - 1; i >= start; i--) {
+      c[i] = (char) ('0' + value % 10);
+      value /= 10;
+    }
+  }
+
   static public CalendarDateFormatter factory(CalendarPeriod period) {
     switch (period.getField()) {
       case Year: return new CalendarDateFormatter("yyyy");
@@ -183,6 +222,79 @@ public class CalendarDateFormatter {
   private static final Pattern isodatePattern = Pattern.compile(isodatePatternString);
 
   private static DateTime parseIsoTimeString(Calendar calt, String iso) {
+    DateTime dt = parseIsoTimeStringFast(calt, iso);
+    return (dt != null) ? dt : parseIsoTimeStringRegexp(calt, iso);
+  }
+
+  /*
+   * The common forms yyyy-MM-dd, yyyy-MM-ddTHH:mm[:ss[.S*]][Z] (also with a 't' or a space instead of the 'T'),
+   * without the regexp, tokenizers and substrings. Gives the same result as parseIsoTimeStringRegexp().
+   * Returns null for anything else, including illegal field values, so that the general parser reports the error.
+   */
+  private static DateTime parseIsoTimeStringFast(Calendar calt, String iso) {
+    int len = iso.length();
+    if (len > 11 && (iso.charAt(len - 1) == 'Z' || iso.charAt(len - 1) == 'z')) len--;
+    if (len != 10 && len != 16 && len < 19) return null;
+    if (iso.charAt(4) != '-' || iso.charAt(7) != '-') return null;
+
+    int year = digits(iso, 0, 4);
+    int month = digits(iso, 5, 2);
+    int day = digits(iso, 8, 2);
+    int hour = 0;
+    int minute = 0;
+    long millis = 0;
+
+    if (len > 10) {
+      char sep = iso.charAt(10);
+      if (sep != 'T' && sep != 't' && sep != ' ') return null;
+      if (iso.charAt(13) != ':') return null;
+      hour = digits(iso, 11, 2);
+      minute = digits(iso, 14, 2);
+
+      if (len > 16) {
+        if (iso.charAt(16) != ':') return null;
+        int second = digits(iso, 17, 2);
+        if (second < 0) return null;
+        if (len == 19) {
+          millis = 1000L * second;
+        } else {
+          if (len == 20 || iso.charAt(19) != '.') return null;
+          for (int i = 20; i < len; i++) {
+            char c = iso.charAt(i);
+            if (c < '0' || c > '9') return null;
+          }
+          millis = (long) (1000 * Double.parseDouble(iso.substring(17, len)));
+        }
+      }
+    }
+    if (year < 0 || month < 0 || day < 0 || hour < 0 || minute < 0) return null;
+
+    // kludge to deal with legacy files using year 0. see parseIsoTimeStringRegexp()
+    if ((year == 0) && (calt == Calendar.gregorian)) {
+      calt = Calendar.proleptic_gregorian;
+    }
+
+    try {
+      Chronology cron = Calendar.getChronology(calt).withUTC();
+      return new DateTime(cron.getDateTimeMillis(year, month, day, hour, minute, 0, 0) + millis, cron);
+    } catch (Throwable e) {
+      return null;
+    }
+  }
+
+  // value of the ndigits decimal digits starting at start, or -1 if not all digits
+  private static int digits(String s, int start, int ndigits) {
+    int result = 0;
+    for (int i = start; i < start + ndigits; i++) {
+      int d = s.charAt(i) - '0';
+      if (d < 0 || d > 9) return -1;
+      result = 10 * result + d;
+    }
+    return result;
+  }
+
+  // the general parser, package private for testing
+  static DateTime parseIsoTimeStringRegexp(Calendar calt, String iso) {
     iso = iso.trim();
     iso = iso.toLowerCase();
 
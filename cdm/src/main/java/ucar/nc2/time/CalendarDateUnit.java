@@ -4,9 +4,13 @@
  */
 package ucar.nc2.time;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 import javax.annotation.concurrent.Immutable;
 
 import java.util.Date;
+import java.util.EnumMap;
 import java.util.Formatter;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -54,6 +58,22 @@ public class CalendarDateUnit {
   //                                                                     "([\\+\\-\\d]+)([ Tt]([\\.\\:\\d]*)([ \\+\\-]\\S*)?z?)?$"; // public for testing
   private static final Pattern udunitPattern = Pattern.compile(udunitPatternString);
 
+  // CalendarDateUnit is immutable, so the parsed units are shared. The same few unit strings are used over and over.
+  private static final EnumMap<Calendar, Cache<String, CalendarDateUnit>> cache = new EnumMap<>(Calendar.class);
+  static {
+    for (Calendar cal : Calendar.values())
+      cache.put(cal, CacheBuilder.newBuilder().maximumSize(1000).<String, CalendarDateUnit>build());  // limit cache size
+  }
+
+  private static CalendarDateUnit getCached(Calendar calt, String udunitString) {
+    Cache<String, CalendarDateUnit> calCache = cache.get(calt);
+    CalendarDateUnit got = calCache.getIfPresent(udunitString);
+    if (got != null) return got;
+    CalendarDateUnit want = new CalendarDateUnit(calt, udunitString); // IllegalArgumentException is not cached
+    calCache.put(udunitString, want);
+    return want;
+  }
+
   /**
    * Create a CalendarDateUnit from a calendar name and a udunit string = "unit since calendarDate"
    * @param calendarName must match a calendar enum, or one of its aliases, see ucar.nc2.time.Calendar.get()
@@ -64,7 +84,7 @@ public class CalendarDateUnit {
   static public CalendarDateUnit of(String calendarName, String udunitString) {
     Calendar calt = Calendar.get(calendarName);
     if (calt == null) calt = Calendar.getDefault();
-    return new CalendarDateUnit(calt, udunitString);
+    return getCached(calt, udunitString);
   }
 
   /**
@@ -76,7 +96,7 @@ public class CalendarDateUnit {
    */
   static public CalendarDateUnit withCalendar(Calendar calt, String udunitString) {
     if (calt == null) calt = Calendar.getDefault();
-    return new CalendarDateUnit(calt, udunitString);
+    return getCached(calt, udunitString);
   }
 
   /**
@@ -99,7 +119,8 @@ public class CalendarDateUnit {
   private final CalendarDate baseDate;
   private final boolean isCalendarField;
 
-  private CalendarDateUnit(Calendar calt, String dateUnitString) {
+  // not cached, package private for testing
+  CalendarDateUnit(Calendar calt, String dateUnitString) {
 
     dateUnitString = dateUnitString.trim();
     // dateUnitString = dateUnitString.replaceAll("\\s+", " ");  LOOK think about should we allow this ??
@@ -163,6 +184,41 @@ public class CalendarDateUnit {
       return baseDate.add( value, periodField);
   }
 
+  /**
+   * Convert an array of values in this unit to msecs since 1970-01-01T00:00:00Z.
+   * Same as makeCalendarDate(values[i]).getMillis(), without making the CalendarDates.
+   * @param values values in this unit (secs, days, etc) from the baseDate
+   * @return msecs since the epoch, same length as values
+   */
+  public long[] makeMillisecs(double[] values) {
+    long[] result = new long[values.length];
+    if (isCalendarField) {
+      for (int i = 0; i < values.length; i++)
+        result[i] = makeCalendarDate(values[i]).getMillis();
+      return result;
+    }
+
+    double msecsPerUnit = getMillisecsPerUnit(periodField);
+    long base = baseDate.getMillis();
+    for (int i = 0; i < values.length; i++)
+      result[i] = base + Math.round(values[i] * msecsPerUnit);
+    return result;
+  }
+
+  // see CalendarDate.add(double, CalendarPeriod.Field)
+  private static double getMillisecsPerUnit(CalendarPeriod.Field field) {
+    switch (field) {
+      case Millisec: return 1.0;
+      case Second: return CalendarDate.MILLISECS_IN_SECOND;
+      case Minute: return CalendarDate.MILLISECS_IN_MINUTE;
+      case Hour: return CalendarDate.MILLISECS_IN_HOUR;
+      case Day: return CalendarDate.MILLISECS_IN_DAY;
+      case Month: return CalendarDate.MILLISECS_IN_MONTH;
+      case Year: return CalendarDate.MILLISECS_IN_YEAR;
+    }
+    throw new UnsupportedOperationException("period units = " + field);
+  }
+
   public CalendarDate makeCalendarDate(int value) {
     if (isCalendarField)
       return baseDate.add(CalendarPeriod.of( value, periodField));
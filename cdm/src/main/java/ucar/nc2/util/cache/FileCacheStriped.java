@@ -0,0 +1,492 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+
+package ucar.nc2.util.cache;
+
+import ucar.nc2.dataset.DatasetUrl;
+import ucar.nc2.time.CalendarDateFormatter;
+import ucar.nc2.util.CancelTask;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A FileCacheIF for many concurrent users, with the same contract and limits as {@link FileCache}.
+ * <ul>
+ * <li>Each hashKey has its own pool of open files. The pools live in a ConcurrentHashMap, so threads working on
+ *     different keys never contend, and threads on the same key only contend on that key's lock-free idle queue.
+ *     acquire() and release() are O(1), and take no global lock.</li>
+ * <li>Eviction closes the least recently released idle files, down to minElements. It is done by a shared
+ *     ScheduledExecutorService every period secs, soon after the soft limit is passed, or in the calling thread
+ *     when the hard limit is passed. It works from a snapshot of the idle files, so it never blocks acquire()
+ *     or release(); the LRU order is therefore approximate.</li>
+ * <li>Hit, miss and eviction counts are kept in LongAdders, see {@link #getHits()} etc.</li>
+ * </ul>
+ * Use it anywhere a FileCacheIF is taken, eg RandomAccessFile.setGlobalFileCache(), NetcdfDataset.setNetcdfFileCache(),
+ * GribCdmIndex.setGribCollectionCache(). Call shutdown() when exiting the program.
+ *
+ * @since 10/17/2026
+ */
+@ThreadSafe
+public class FileCacheStriped implements FileCacheIF {
+  static private final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(FileCacheStriped.class);
+  static private final org.slf4j.Logger cacheLog = org.slf4j.LoggerFactory.getLogger("cacheLogger");
+
+  // Shared mutable data. Access to it is limited to the following 2 synchronized methods.
+  static private ScheduledExecutorService exec;
+
+  /**
+   * Shut down the background eviction thread shared by all instances.
+   */
+  public static synchronized void shutdown() {
+    if (exec != null)
+      exec.shutdownNow();
+    exec = null;
+  }
+
+  private static synchronized ScheduledExecutorService getExecutor() {
+    if (exec == null) {
+      exec = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "FileCacheStriped");
+        t.setDaemon(true);
+        return t;
+      });
+    }
+    return exec;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////
+
+  private static final int IN_USE = 0, IDLE = 1, EVICTED = 2;
+
+  private final String name;
+  private final int minElements, softLimit, hardLimit;
+  private final long period; // msecs
+
+  private final AtomicBoolean disabled = new AtomicBoolean(false);
+  private final AtomicBoolean hasScheduled = new AtomicBoolean(false); // an eviction is scheduled or running
+  private final Object evictLock = new Object();                       // only one eviction at a time
+  private volatile ScheduledFuture<?> periodicTask;
+
+  private final ConcurrentHashMap<Object, Pool> pools;          // per hashKey
+  private final ConcurrentHashMap<FileCacheable, Entry> files;  // all files in the cache, for release()
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder evictionRuns = new LongAdder();
+
+  /**
+   * Constructor.
+   *
+   * @param name                of file cache
+   * @param minElementsInMemory keep this number in the cache
+   * @param softLimit           schedule an eviction if it goes over this number.
+   * @param hardLimit           if > 0, never allow more than this many elements. This causes an eviction to be done in the calling thread.
+   * @param period              if > 0, do periodic evictions every this number of seconds.
+   */
+  public FileCacheStriped(String name, int minElementsInMemory, int softLimit, int hardLimit, int period) {
+    this.name = name;
+    this.minElements = minElementsInMemory;
+    this.softLimit = softLimit;
+    this.hardLimit = hardLimit;
+    this.period = (long) 1000 * period;
+
+    int concurrency = Math.max(16, Runtime.getRuntime().availableProcessors() * 4);
+    pools = new ConcurrentHashMap<>(2 * Math.max(softLimit, 16), 0.75f, concurrency);
+    files = new ConcurrentHashMap<>(4 * Math.max(softLimit, 16), 0.75f, concurrency);
+
+    if (period > 0) {
+      periodicTask = getExecutor().scheduleAtFixedRate(this::scheduledEviction, this.period, this.period, TimeUnit.MILLISECONDS);
+      if (cacheLog.isDebugEnabled())
+        cacheLog.debug("FileCacheStriped " + name + " eviction every " + period + " secs");
+    }
+  }
+
+  @Override
+  public void enable() {
+    disabled.set(false);
+  }
+
+  /**
+   * Disable the cache, and force close all files.
+   */
+  @Override
+  public void disable() {
+    disabled.set(true);
+    ScheduledFuture<?> task = periodicTask;
+    if (task != null) task.cancel(false);
+    periodicTask = null;
+    clearCache(true);
+  }
+
+  @Override
+  public FileCacheable acquire(FileFactory factory, DatasetUrl durl) throws IOException {
+    return acquire(factory, durl.trueurl, durl, -1, null, null);
+  }
+
+  /**
+   * Acquire a FileCacheable from the cache, and lock it so no one else can use it.
+   * If not already in cache, open it with the FileFactory, and put in cache.
+   * Call FileCacheable.close() when done, and the file is then released instead of closed.
+   *
+   * @param factory     use this factory to open the file if not in the cache; may not be null
+   * @param hashKey     unique key for this file. If null, the location will be used
+   * @param location    file location, may also used as the cache name, will be passed to the FileFactory
+   * @param buffer_size RandomAccessFile buffer size, if <= 0, use default size
+   * @param cancelTask  user can cancel, ok to be null.
+   * @param spiObject   passed to the factory if object needs to be recreated
+   * @return FileCacheable corresponding to location.
+   * @throws IOException on error
+   */
+  @Override
+  public FileCacheable acquire(FileFactory factory, Object hashKey, DatasetUrl location,
+                               int buffer_size, CancelTask cancelTask, Object spiObject) throws IOException {
+    if (null == hashKey) hashKey = location.trueurl;
+    if (null == hashKey) throw new IllegalArgumentException();
+
+    FileCacheable ncfile = acquireCacheOnly(hashKey);
+    if (ncfile != null) {
+      hits.increment();
+      return ncfile;
+    }
+    misses.increment();
+
+    ncfile = factory.open(location, buffer_size, cancelTask, spiObject);
+    if (cacheLog.isDebugEnabled())
+      cacheLog.debug("FileCacheStriped " + name + " acquire " + hashKey + " " + ncfile.getLocation());
+
+    // user may have canceled
+    if ((cancelTask != null) && (cancelTask.isCancel())) {
+      ncfile.close();
+      return null;
+    }
+
+    if (disabled.get()) return ncfile;
+
+    Entry entry = new Entry(hashKey, ncfile);
+    files.put(ncfile, entry);
+    pools.compute(hashKey, (key, pool) -> {
+      if (pool == null) pool = new Pool();
+      pool.all.add(entry);
+      return pool;
+    });
+    ncfile.setFileCache(this);
+
+    int count = files.size();
+    if ((hardLimit > 0) && (count > hardLimit)) {
+      evict(hardLimit);
+
+    } else if ((softLimit > 0) && (count > softLimit) && hasScheduled.compareAndSet(false, true)) {
+      try {
+        getExecutor().schedule(this::scheduledEviction, 100, TimeUnit.MILLISECONDS);
+      } catch (RejectedExecutionException e) {
+        hasScheduled.set(false); // shut down
+      }
+    }
+
+    return ncfile;
+  }
+
+  // Take an idle file for hashKey, or return null.
+  private FileCacheable acquireCacheOnly(Object hashKey) {
+    if (disabled.get()) return null;
+
+    Pool pool = pools.get(hashKey);
+    if (pool == null) return null;
+
+    Entry entry;
+    while ((entry = pool.idle.pollFirst()) != null) { // most recently released first
+      if (!entry.state.compareAndSet(IDLE, IN_USE))
+        continue; // evicted while it was in the queue
+
+      FileCacheable ncfile = entry.ncfile;
+      if (ncfile.getLastModified() != entry.lastModified) {
+        if (cacheLog.isDebugEnabled())
+          cacheLog.debug("FileCacheStriped " + name + ": acquire from cache " + hashKey + " " + ncfile.getLocation() + " was changed; discard");
+        remove(entry);
+        continue;
+      }
+
+      try {
+        ncfile.reacquire(); // rehydrate
+        return ncfile;
+      } catch (IOException ioe) {
+        if (cacheLog.isDebugEnabled())
+          cacheLog.debug("FileCacheStriped " + name + " acquire from cache " + hashKey + " " + ncfile.getLocation() + " failed: " + ioe.getMessage());
+        remove(entry);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Release the file. This unlocks it, and makes it available to the next acquire().
+   * Normally applications need not call this, just close the file as usual.
+   *
+   * @param ncfile release this file.
+   * @return true if file was in cache, false if it was not
+   */
+  @Override
+  public boolean release(FileCacheable ncfile) throws IOException {
+    if (ncfile == null) return false;
+
+    if (disabled.get()) {
+      ncfile.setFileCache(null); // prevent infinite loops
+      ncfile.close();
+      return false;
+    }
+
+    Entry entry = files.get(ncfile);
+    if (entry == null) return false;
+
+    if (entry.state.get() != IN_USE) {
+      cacheLog.warn("FileCacheStriped " + name + " release " + ncfile.getLocation() + " not locked; hash= " + ncfile.hashCode());
+      return true;
+    }
+
+    entry.lastAccessed = System.currentTimeMillis();
+    entry.countAccessed.incrementAndGet();
+    ncfile.release(); // before it becomes visible to other threads
+
+    if (entry.state.compareAndSet(IN_USE, IDLE)) {
+      Pool pool = pools.get(entry.hashKey);
+      if (pool != null) pool.idle.offerFirst(entry);
+    }
+    return true;
+  }
+
+  /**
+   * Remove all instances of hashKey from the cache. Idle files are closed now; files in use are
+   * unhooked from the cache, and are closed when their user closes them.
+   *
+   * @param hashKey the object
+   */
+  @Override
+  public void eject(Object hashKey) {
+    if (disabled.get()) return;
+
+    Pool pool = pools.remove(hashKey);
+    if (pool == null) return;
+
+    for (Entry entry : pool.all) {
+      int prev = entry.state.getAndSet(EVICTED);
+      files.remove(entry.ncfile);
+      entry.ncfile.setFileCache(null); // unhook the caching
+      if (prev == IDLE) close(entry);
+    }
+    if (cacheLog.isDebugEnabled()) cacheLog.debug("FileCacheStriped " + name + " eject " + hashKey);
+  }
+
+  /**
+   * Remove all cache entries.
+   *
+   * @param force if true, remove them even if they are currently in use.
+   */
+  @Override
+  public void clearCache(boolean force) {
+    int count = 0;
+    for (Entry entry : files.values()) {
+      if (force) {
+        if (entry.state.getAndSet(EVICTED) == IN_USE)
+          cacheLog.warn("FileCacheStriped " + name + " force close locked file= " + entry);
+      } else if (!entry.state.compareAndSet(IDLE, EVICTED)) {
+        continue;
+      }
+      unlink(entry);
+      close(entry);
+      count++;
+    }
+    if (cacheLog.isDebugEnabled())
+      cacheLog.debug("FileCacheStriped " + name + " clearCache force= " + force + " deleted= " + count + " left=" + files.size());
+  }
+
+  private void scheduledEviction() {
+    try {
+      if (!disabled.get()) evict(softLimit);
+    } catch (Throwable t) {
+      log.error("FileCacheStriped " + name + " eviction failed", t);
+    } finally {
+      hasScheduled.set(false);
+    }
+  }
+
+  /**
+   * Close idle files, least recently released first, until the cache is down to minElements.
+   * Files in use are never closed. Normally done in a background thread, you dont need to call.
+   *
+   * @param maxElements warn if it cant get below this number because too many files are in use.
+   */
+  void evict(int maxElements) {
+    synchronized (evictLock) {
+      int size = files.size();
+      if (size <= minElements) return;
+      evictionRuns.increment();
+
+      List<Stamped> idle = new ArrayList<>(size);
+      for (Entry entry : files.values()) {
+        if (entry.state.get() == IDLE) idle.add(new Stamped(entry));
+      }
+      idle.sort(Stamped.OLDEST_FIRST);
+
+      int need2delete = size - minElements;
+      int count = 0;
+      for (Stamped stamped : idle) {
+        if (count >= need2delete) break;
+        Entry entry = stamped.entry;
+        if (entry.state.compareAndSet(IDLE, EVICTED)) { // lost the race if someone acquired it meanwhile
+          unlink(entry);
+          close(entry);
+          evictions.increment();
+          count++;
+        }
+      }
+
+      if (size - count > maxElements)
+        cacheLog.warn("FileCacheStriped " + name + " eviction couldnt remove enough to keep under the maximum= " + maxElements +
+                " due to locked files; currently at = " + (size - count));
+      if (cacheLog.isDebugEnabled())
+        cacheLog.debug("FileCacheStriped {} eviction had={} removed={}", name, size, count);
+    }
+  }
+
+  // remove an entry that we own (state IN_USE) from the cache, and close it
+  private void remove(Entry entry) {
+    entry.state.set(EVICTED);
+    unlink(entry);
+    close(entry);
+  }
+
+  private void unlink(Entry entry) {
+    files.remove(entry.ncfile);
+    pools.computeIfPresent(entry.hashKey, (key, pool) -> {
+      pool.all.remove(entry);
+      pool.idle.remove(entry);
+      return pool.all.isEmpty() ? null : pool;
+    });
+  }
+
+  private void close(Entry entry) {
+    try {
+      entry.ncfile.setFileCache(null); // unhook the caching
+      entry.ncfile.close();
+    } catch (IOException e) {
+      log.error("FileCacheStriped " + name + " close failed on " + entry.ncfile.getLocation(), e);
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////
+  // stats
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  public long getEvictions() {
+    return evictions.sum();
+  }
+
+  /**
+   * @return number of open files in the cache, in use or idle.
+   */
+  public int size() {
+    return files.size();
+  }
+
+  @Override
+  public void resetTracking() {
+    hits.reset();
+    misses.reset();
+    evictions.reset();
+    evictionRuns.reset();
+  }
+
+  @Override
+  public void showTracking(Formatter format) {
+    long all = getHits() + getMisses();
+    float r = (all == 0) ? 0 : ((float) getHits()) / all;
+    format.format("%nTracking FileCacheStriped %s%n", name);
+    format.format("  total=%7d : %6d %6d hit ratio=%f evictions=%d%n", all, getHits(), getMisses(), r, getEvictions());
+  }
+
+  @Override
+  public void showCache(Formatter format) {
+    format.format("%nFileCacheStriped %s (min=%d softLimit=%d hardLimit=%d scour=%d secs):%n", name, minElements, softLimit, hardLimit, period / 1000);
+    format.format(" isLocked  accesses lastAccess                   location %n");
+    for (String s : showCache())
+      format.format("%s%n", s);
+    showStats(format);
+  }
+
+  @Override
+  public List<String> showCache() {
+    List<Stamped> all = new ArrayList<>(files.size());
+    for (Entry entry : files.values())
+      all.add(new Stamped(entry));
+    all.sort(Stamped.OLDEST_FIRST); // oldest on top
+
+    List<String> result = new ArrayList<>(all.size());
+    for (Stamped stamped : all)
+      result.add(stamped.entry.toString());
+    return result;
+  }
+
+  @Override
+  public void showStats(Formatter format) {
+    format.format("  hits= %d miss= %d evictions= %d (runs= %d) nfiles= %d elems= %d%n", getHits(), getMisses(), getEvictions(),
+            evictionRuns.sum(), files.size(), pools.size());
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////
+
+  // An entry with a copy of its lastAccessed, which release() keeps changing, so that sorting sees a consistent order
+  private static class Stamped {
+    static final Comparator<Stamped> OLDEST_FIRST = Comparator.comparingLong(stamped -> stamped.lastAccessed);
+
+    final Entry entry;
+    final long lastAccessed;
+
+    Stamped(Entry entry) {
+      this.entry = entry;
+      this.lastAccessed = entry.lastAccessed;
+    }
+  }
+
+  // All the open files for one hashKey.
+  private static class Pool {
+    final Set<Entry> all = ConcurrentHashMap.newKeySet();
+    final ConcurrentLinkedDeque<Entry> idle = new ConcurrentLinkedDeque<>();
+  }
+
+  private static class Entry {
+    final Object hashKey;
+    final FileCacheable ncfile;
+    final long lastModified;
+    final AtomicInteger state = new AtomicInteger(IN_USE);
+    final AtomicInteger countAccessed = new AtomicInteger();
+    volatile long lastAccessed;
+
+    Entry(Object hashKey, FileCacheable ncfile) {
+      this.hashKey = hashKey;
+      this.ncfile = ncfile;
+      this.lastModified = ncfile.getLastModified();
+      this.lastAccessed = System.currentTimeMillis();
+    }
+
+    public String toString() {
+      return (state.get() == IN_USE) + " " + countAccessed.get() + " " +
+              CalendarDateFormatter.toDateTimeStringISO(lastAccessed) + "   " + ncfile.getLocation();
+    }
+  }
+}
@@ -56,6 +56,17 @@ public class InMemoryRandomAccessFile extends ucar.unidata.io.RandomAccessFile {
     return len;
   }
 
+  @Override
+  public int read(long pos, ByteBuffer dst) throws IOException {
+    if (pos < 0)
+      throw new IOException("Negative read offset");
+    if (pos >= buffer.length)
+      return -1;
+    int len = Math.min(dst.remaining(), (int) (buffer.length - pos));
+    dst.put(buffer, (int) pos, len);
+    return len;
+  }
+
   @Override
   public long readToByteChannel(WritableByteChannel dest, long offset, long nbytes) throws IOException {
     return dest.write(ByteBuffer.wrap(buffer, (int) offset, (int) nbytes));
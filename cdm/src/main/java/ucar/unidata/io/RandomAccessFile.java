@@ -16,6 +16,7 @@ import ucar.unidata.util.StringUtil2;
 
 import javax.annotation.concurrent.NotThreadSafe;
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.WritableByteChannel;
 import java.util.*;
@@ -40,6 +41,8 @@ import java.util.concurrent.atomic.AtomicLong;
  * Freeware Java Classes</a>.
  * <p/>
  * Must be thread confined - that is, can only be used by a single thread at a time..
+ * The exceptions are the positional read methods (eg read(long, ByteBuffer)), which do not use the file pointer
+ * or the shared buffer, and so may be called concurrently.
  *
  * @author Alex McManus
  * @author Russ Rew
@@ -865,6 +868,166 @@ public class RandomAccessFile implements DataInput, DataOutput, FileCacheable, C
     filePosition--;
   }
 
+  //////////////////////////////////////////////////////////////////////////////////////////////
+  // Positional reads.
+  // These do not use or change filePosition or the shared buffer, so they may be called
+  // concurrently from multiple threads on the same open file. They see only what is on disk;
+  // call flush() first if this file has pending writes.
+
+  /**
+   * Read bytes starting at the given file position into a ByteBuffer, without going through
+   * the read buffer and without changing the file pointer. Reads until dst is full or
+   * the end of the file is reached. Safe to call from multiple threads.
+   *
+   * @param pos start here in the file
+   * @param dst read into dst, starting at its position, up to its limit
+   * @return the number of bytes read, or -1 if pos is at or past the end of the file
+   * @throws IOException on io error
+   */
+  public int read(long pos, ByteBuffer dst) throws IOException {
+    if (pos < 0)
+      throw new IOException("Negative read offset");
+
+    java.nio.channels.FileChannel channel = getFileChannel();
+    int want = dst.remaining();
+    int done = 0;
+    while (dst.hasRemaining()) {
+      int n = channel.read(dst, pos + done);
+      if (n < 0) break;
+      done += n;
+    }
+    if (debugAccess) {
+      if (showRead)
+        System.out.println(" **pread " + location + " = " + want + " bytes at " + pos);
+      debug_nseeks.incrementAndGet();
+      debug_nbytes.addAndGet(done);
+    }
+
+    if (extendMode && (done < want)) {
+      while (dst.hasRemaining()) dst.put((byte) 0);
+      done = want;
+    }
+    return (done == 0 && want > 0) ? -1 : done;
+  }
+
+  /**
+   * Read exactly <code>len</code> bytes starting at the given file position, without
+   * changing the file pointer. Safe to call from multiple threads.
+   *
+   * @param pos start here in the file
+   * @param b   the buffer into which the data is read.
+   * @param off the start offset in b.
+   * @param len the number of bytes to read.
+   * @throws EOFException if the end of the file is reached before reading all the bytes.
+   * @throws IOException  if an I/O error occurs.
+   */
+  public final void readFully(long pos, byte[] b, int off, int len) throws IOException {
+    readFully(pos, ByteBuffer.wrap(b, off, len));
+  }
+
+  /**
+   * Read exactly n shorts starting at the given file position, without changing the file pointer.
+   * Safe to call from multiple threads.
+   *
+   * @param pos   start here in the file
+   * @param order byte order of the data in the file
+   * @param pa    read into this array
+   * @param start starting at pa[start]
+   * @param n     read this many elements
+   * @throws IOException on read error
+   */
+  public final void readShort(long pos, ByteOrder order, short[] pa, int start, int n) throws IOException {
+    readFully(pos, 2 * n, order).asShortBuffer().get(pa, start, n);
+  }
+
+  /**
+   * Read exactly n ints starting at the given file position, without changing the file pointer.
+   * Safe to call from multiple threads.
+   *
+   * @param pos   start here in the file
+   * @param order byte order of the data in the file
+   * @param pa    read into this array
+   * @param start starting at pa[start]
+   * @param n     read this many elements
+   * @throws IOException on read error
+   */
+  public final void readInt(long pos, ByteOrder order, int[] pa, int start, int n) throws IOException {
+    readFully(pos, 4 * n, order).asIntBuffer().get(pa, start, n);
+  }
+
+  /**
+   * Read exactly n longs starting at the given file position, without changing the file pointer.
+   * Safe to call from multiple threads.
+   *
+   * @param pos   start here in the file
+   * @param order byte order of the data in the file
+   * @param pa    read into this array
+   * @param start starting at pa[start]
+   * @param n     read this many elements
+   * @throws IOException on read error
+   */
+  public final void readLong(long pos, ByteOrder order, long[] pa, int start, int n) throws IOException {
+    readFully(pos, 8 * n, order).asLongBuffer().get(pa, start, n);
+  }
+
+  /**
+   * Read exactly n floats starting at the given file position, without changing the file pointer.
+   * Safe to call from multiple threads.
+   *
+   * @param pos   start here in the file
+   * @param order byte order of the data in the file
+   * @param pa    read into this array
+   * @param start starting at pa[start]
+   * @param n     read this many elements
+   * @throws IOException on read error
+   */
+  public final void readFloat(long pos, ByteOrder order, float[] pa, int start, int n) throws IOException {
+    readFully(pos, 4 * n, order).asFloatBuffer().get(pa, start, n);
+  }
+
+  /**
+   * Read exactly n doubles starting at the given file position, without changing the file pointer.
+   * Safe to call from multiple threads.
+   *
+   * @param pos   start here in the file
+   * @param order byte order of the data in the file
+   * @param pa    read into this array
+   * @param start starting at pa[start]
+   * @param n     read this many elements
+   * @throws IOException on read error
+   */
+  public final void readDouble(long pos, ByteOrder order, double[] pa, int start, int n) throws IOException {
+    readFully(pos, 8 * n, order).asDoubleBuffer().get(pa, start, n);
+  }
+
+  private ByteBuffer readFully(long pos, int nbytes, ByteOrder order) throws IOException {
+    ByteBuffer bb = ByteBuffer.allocate(nbytes);
+    readFully(pos, bb);
+    bb.flip();
+    bb.order(order);
+    return bb;
+  }
+
+  private void readFully(long pos, ByteBuffer dst) throws IOException {
+    int want = dst.remaining();
+    int done = 0;
+    while (done < want) {
+      int count = read(pos + done, dst);
+      if (count < 0)
+        throw new EOFException("Reading " + location + " at " + (pos + done) + " file length = " + length());
+      done += count;
+    }
+  }
+
+  // the channel is created once by java.io.RandomAccessFile, so racing here is harmless
+  private java.nio.channels.FileChannel getFileChannel() throws IOException {
+    if (file == null)
+      throw new IOException("File is closed: " + location);
+    if (fileChannel == null)
+      fileChannel = file.getChannel();
+    return fileChannel;
+  }
+
   //
   // Write primitives.
   //
@@ -16,12 +16,23 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Gives access to files over HTTP, using "Accept-Ranges" HTTP header to do random access.
  * This version uses a single instance of HttpClient, following performance guidelines at
  * http://jakarta.apache.org/commons/httpclient/performance.html
  * Plus other improvements.
+ * <p>
+ * Files too big to read in one gulp are read through a cache of fixed size blocks, so that going back to
+ * a part of the file already read (eg the B-trees of an HDF5 file) does not make another request.
+ * Consecutive reads turn on read-ahead, which grows as long as the reads stay sequential.
+ * The missing blocks of each read, plus any small gaps between them, are fetched in a single range request.
  *
  * @author John Caron, based on work by Donald Denbo
  */
@@ -31,12 +42,36 @@ public class HTTPRandomAccessFile extends ucar.unidata.io.RandomAccessFile {
   static public final int maxHTTPBufferSize = 10 * 1000 * 1000;     // 10 M
   static private final boolean debug = false, debugDetails = false;
 
+  static private int blockSize = 64 * 1024;     // 64K
+  static private int maxCacheBlocks = 256;      // 16 M per open file
+  static private int maxReadAheadBlocks = 64;   // 4 M
+  static private final int maxGapBlocks = 2;    // fetch cached blocks rather than make another request
+
+  /**
+   * Set the block cache used for files that are bigger than maxHTTPBufferSize.
+   *
+   * @param size      size of each block in bytes
+   * @param maxBlocks maximum number of blocks cached by each open file, 0 to not use a block cache
+   * @param readAhead maximum number of blocks to read ahead when reading sequentially, 0 for no read-ahead
+   */
+  static public void setBlockCache(int size, int maxBlocks, int readAhead) {
+    blockSize = Math.max(size, 1000);
+    maxCacheBlocks = Math.max(maxBlocks, 0);
+    maxReadAheadBlocks = Math.max(readAhead, 0);
+  }
+
   ///////////////////////////////////////////////////////////////////////////////////
 
   private String url;
   private HTTPSession session = null;
   private long total_length = 0;
 
+  private final int cacheBlockSize = blockSize;
+  private Map<Long, byte[]> blocks;  // LRU cache, null if not used
+  private long lastReadEnd = -1;     // for read-ahead: reads are sequential if they start where the last one ended
+  private int readAhead = 0;         // number of blocks
+  private final AtomicInteger nrequests = new AtomicInteger();
+
   public HTTPRandomAccessFile(String url) throws IOException {
     this(url, defaultHTTPBufferSize);
     location = url;
@@ -90,7 +125,18 @@ public class HTTPRandomAccessFile extends ucar.unidata.io.RandomAccessFile {
     if (needtest && !rangeOk(url))
       throw new IOException("Server does not support byte Ranges");
 
-    if (total_length > 0) {
+    if (total_length > maxHTTPBufferSize && maxCacheBlocks > 0) {
+      // read through the block cache, with a buffer the size of a block
+      final int maxBlocks = maxCacheBlocks;
+      blocks = new LinkedHashMap<Long, byte[]>(2 * maxBlocks, .75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+          return size() > maxBlocks;
+        }
+      };
+      setBufferSize(cacheBlockSize);
+
+    } else if (total_length > 0) {
       // this means that we will read the file in one gulp then deal with it in memory
       int useBuffer = (int) Math.min(total_length, maxHTTPBufferSize); // entire file size if possible
       useBuffer = Math.max(useBuffer, defaultHTTPBufferSize); // minimum buffer
@@ -108,6 +154,19 @@ public class HTTPRandomAccessFile extends ucar.unidata.io.RandomAccessFile {
       session.close();
       session = null;
     }
+
+    if (blocks != null) {
+      synchronized (blocks) {
+        blocks.clear();
+      }
+    }
+  }
+
+  /**
+   * The number of range requests made to the server for data, for debugging and testing.
+   */
+  public int getRequestCount() {
+    return nrequests.get();
   }
 
   private boolean rangeOk(String url)
@@ -170,11 +229,91 @@ public class HTTPRandomAccessFile extends ucar.unidata.io.RandomAccessFile {
    */
   @Override
   protected int read_(long pos, byte[] buff, int offset, int len) throws IOException {
+    // big reads would just push everything else out of the cache
+    if (blocks == null || len > maxCacheBlocks * (long) cacheBlockSize / 4)
+      return readRange(pos, buff, offset, len);
+
+    if (pos >= total_length || len <= 0)
+      return 0;
+    len = (int) Math.min(len, total_length - pos);
+
+    long firstBlock = pos / cacheBlockSize;
+    long lastBlock = (pos + len - 1) / cacheBlockSize;
+    long lastFileBlock = (total_length - 1) / cacheBlockSize;
+
+    // read-ahead doubles each time a read starts where the last one ended
+    long wantLast;
+    synchronized (this) {
+      if (pos == lastReadEnd)
+        readAhead = Math.min(Math.max(2 * readAhead, 1), maxReadAheadBlocks);
+      else
+        readAhead = 0;
+      lastReadEnd = pos + len;
+      wantLast = Math.min(lastBlock + readAhead, lastFileBlock);
+    }
+
+    // find the missing blocks, and group them into ranges, bridging small gaps
+    Map<Long, byte[]> found = new HashMap<>();
+    List<long[]> ranges = new ArrayList<>(); // first and last block of each range
+    synchronized (blocks) {
+      for (long b = firstBlock; b <= wantLast; b++) {
+        byte[] block = blocks.get(b);
+        if (block != null) {
+          found.put(b, block);
+          continue;
+        }
+        long[] last = ranges.isEmpty() ? null : ranges.get(ranges.size() - 1);
+        if (last != null && b - last[1] <= maxGapBlocks + 1)
+          last[1] = b;
+        else
+          ranges.add(new long[]{b, b});
+      }
+    }
+
+    for (long[] range : ranges)
+      fetchBlocks(range[0], range[1], found);
+
+    // copy out of the blocks
+    int done = 0;
+    for (long b = firstBlock; b <= lastBlock; b++) {
+      byte[] block = found.get(b);
+      int start = (b == firstBlock) ? (int) (pos - b * cacheBlockSize) : 0;
+      int n = Math.min(block.length - start, len - done);
+      if (n <= 0) break;
+      System.arraycopy(block, start, buff, offset + done, n);
+      done += n;
+    }
+    return done;
+  }
+
+  // read blocks first to last from the server and add them to the cache, and to found
+  private void fetchBlocks(long first, long last, Map<Long, byte[]> found) throws IOException {
+    long start = first * cacheBlockSize;
+    int len = (int) (Math.min((last + 1) * cacheBlockSize, total_length) - start);
+    byte[] data = new byte[len];
+    int n = readRange(start, data, 0, len);
+    if (n < len)
+      throw new IOException(url + " short read at " + start + ": wanted " + len + " bytes, got " + n);
+
+    synchronized (blocks) {
+      for (long b = first; b <= last; b++) {
+        int off = (int) ((b - first) * cacheBlockSize);
+        byte[] block = new byte[Math.min(cacheBlockSize, len - off)];
+        System.arraycopy(data, off, block, 0, block.length);
+        blocks.put(b, block);
+        found.put(b, block);
+      }
+    }
+  }
+
+  // make one range request
+  private int readRange(long pos, byte[] buff, int offset, int len) throws IOException {
     long end = pos + len - 1;
     if (end >= total_length)
       end = total_length - 1;
 
     if (debug) System.out.println(" HTTPRandomAccessFile bytes=" + pos + "-" + end + ": ");
+    nrequests.incrementAndGet();
 
     try (HTTPMethod method = HTTPFactory.Get(session,url)) {
       method.setFollowRedirects(true);
@@ -210,6 +349,26 @@ public class HTTPRandomAccessFile extends ucar.unidata.io.RandomAccessFile {
     return done;
   }
 
+  // each range request is independent, so this is safe to call concurrently
+  @Override
+  public int read(long pos, ByteBuffer dst) throws IOException {
+    if (pos >= total_length)
+      return -1;
+    int want = dst.remaining();
+    if (want == 0)
+      return 0;
+    int done;
+    if (dst.hasArray()) {
+      done = read_(pos, dst.array(), dst.arrayOffset() + dst.position(), want);
+      dst.position(dst.position() + done);
+    } else {
+      byte[] buff = new byte[want];
+      done = read_(pos, buff, 0, want);
+      dst.put(buff, 0, done);
+    }
+    return done;
+  }
+
   @Override
   public long readToByteChannel(WritableByteChannel dest, long offset, long nbytes) throws IOException {
     int n = (int) nbytes;
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+package ucar.ma2;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test Array.getReadOnlyView().
+ *
+ * @since 10/17/2026
+ */
+public class TestArrayReadOnly {
+
+  private ArrayDouble.D2 makeArray() {
+    ArrayDouble.D2 a = new ArrayDouble.D2(3, 4);
+    for (int i = 0; i < 3; i++)
+      for (int j = 0; j < 4; j++)
+        a.set(i, j, i * 10 + j);
+    return a;
+  }
+
+  @Test
+  public void testSharesStorage() {
+    ArrayDouble.D2 a = makeArray();
+    Array ro = a.getReadOnlyView();
+    Assert.assertTrue(ro.isReadOnly());
+    Assert.assertFalse(a.isReadOnly());
+    Assert.assertSame(a.getStorage(), ro.getStorage());
+    Assert.assertSame(ro, ro.getReadOnlyView());
+
+    a.set(1, 2, -1.0);
+    Assert.assertEquals(-1.0, ((ArrayDouble.D2) ro).get(1, 2), 0.0);
+  }
+
+  @Test
+  public void testSetters() {
+    Array ro = makeArray().getReadOnlyView();
+    Index ima = ro.getIndex();
+    assertThrows(() -> ro.setDouble(ima, 1.0));
+    assertThrows(() -> ro.setInt(3, 1));
+    assertThrows(() -> ((ArrayDouble.D2) ro).set(0, 0, 1.0));
+    assertThrows(() -> ro.getIndexIterator().setDoubleNext(1.0));
+    assertThrows(() -> Array.arraycopy(makeArray(), 0, ro, 0, 4));
+    Assert.assertEquals(12.0, ro.getDouble(ima.set(1, 2)), 0.0);
+  }
+
+  @Test
+  public void testViews() throws InvalidRangeException {
+    Array ro = makeArray().getReadOnlyView();
+    Array section = ro.section(new int[]{1, 1}, new int[]{2, 2});
+    Assert.assertTrue(section.isReadOnly());
+    Assert.assertEquals(11.0, section.getDouble(0), 0.0);
+    assertThrows(() -> section.setDouble(0, 1.0));
+    Assert.assertTrue(ro.transpose(0, 1).isReadOnly());
+    Assert.assertTrue(ro.reshapeNoCopy(new int[]{12}).isReadOnly());
+
+    // copies are writable
+    Array copy = section.copy();
+    Assert.assertFalse(copy.isReadOnly());
+    copy.setDouble(0, 1.0);
+    Assert.assertEquals(11.0, ro.getDouble(ro.getIndex().set(1, 1)), 0.0);
+
+    double[] ja = (double[]) ro.get1DJavaArray(DataType.DOUBLE);
+    Assert.assertNotSame(ro.getStorage(), ja);
+    Assert.assertEquals(23.0, ja[11], 0.0);
+  }
+
+  @Test
+  public void testOtherTypes() {
+    ArrayChar chars = new ArrayChar.D1(4);
+    chars.setString("abcd");
+    ArrayChar roChars = (ArrayChar) chars.getReadOnlyView();
+    Assert.assertEquals("abcd", roChars.getString());
+    assertThrows(() -> roChars.setString("wxyz"));
+
+    Array strings = Array.factory(DataType.STRING, new int[]{2});
+    strings.setObject(0, "one");
+    Array roStrings = strings.getReadOnlyView();
+    Assert.assertEquals("one", roStrings.getObject(0));
+    assertThrows(() -> roStrings.setObject(1, "two"));
+
+    Array bytes = Array.factory(DataType.UBYTE, new int[]{2});
+    Array roBytes = bytes.getReadOnlyView();
+    Assert.assertTrue(roBytes.isUnsigned());
+    assertThrows(() -> roBytes.setByte(1, (byte) 2));
+  }
+
+  private static void assertThrows(Runnable r) {
+    try {
+      r.run();
+      Assert.fail("read-only Array was modified");
+    } catch (UnsupportedOperationException e) {
+      // expected
+    }
+  }
+}
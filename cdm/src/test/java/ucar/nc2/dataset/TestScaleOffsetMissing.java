@@ -131,6 +131,60 @@ public class TestScaleOffsetMissing {
   }
 
 
+  // The bulk conversion of packed short data must give the same values as converting one value at a time.
+  @Test
+  public void testPackedShortAllValues() throws Exception {
+    String filename = tempFolder.newFile().getAbsolutePath();
+    Array packed = Array.factory(DataType.SHORT, new int[]{256, 256});
+    for (int i = 0; i < 65536; i++)
+      packed.setShort(i, (short) (i + Short.MIN_VALUE));
+
+    try (NetcdfFileWriter ncfile = NetcdfFileWriter.createNew(filename, true)) {
+      ncfile.addDimension("y", 256);
+      ncfile.addDimension("x", 256);
+      ncfile.addVariable("packed", DataType.SHORT, "y x");
+      ncfile.addVariableAttribute("packed", CDM.FILL_VALUE, (short) -32767);
+      ncfile.addVariableAttribute("packed", CDM.MISSING_VALUE, (short) 9999);
+      ncfile.addVariableAttribute("packed", CDM.SCALE_FACTOR, 0.01f);
+      ncfile.addVariableAttribute("packed", CDM.ADD_OFFSET, 273.15f);
+      ncfile.addVariableAttribute("packed", new Attribute(CDM.VALID_RANGE, Array.factory(DataType.SHORT, new int[]{2}, new short[]{-30000, 30000})));
+      ncfile.create();
+      ncfile.write("packed", packed);
+    }
+
+    try (NetcdfDataset ncd = NetcdfDataset.openDataset(filename)) {
+      VariableDS vs = (VariableDS) ncd.findVariable("packed");
+      Assert.assertEquals(DataType.FLOAT, vs.getDataType());
+
+      for (boolean useNaNs : new boolean[]{true, false}) {
+        vs.setUseNaNs(useNaNs);
+        Array data = vs.read();
+        int nmissing = 0;
+        for (int i = 0; i < 65536; i++) {
+          float expect = (float) vs.convertScaleOffsetMissing(packed.getShort(i));
+          Assert.assertEquals("raw=" + packed.getShort(i), expect, data.getFloat(i), 0.0f);
+          if (Float.isNaN(data.getFloat(i))) nmissing++;
+        }
+        if (useNaNs)
+          Assert.assertTrue(nmissing > 65536 - 60001);
+        else
+          Assert.assertEquals(0, nmissing);
+
+        // a section goes through the same conversion
+        Array section = vs.read("100:101,0:255");
+        for (int i = 0; i < section.getSize(); i++)
+          Assert.assertEquals(data.getFloat(100 * 256 + i), section.getFloat(i), 0.0f);
+      }
+
+      // changing what is missing must be seen by the next read
+      vs.setUseNaNs(true);
+      int idx = 9999 - Short.MIN_VALUE;
+      Assert.assertTrue(Float.isNaN(vs.read().getFloat(idx)));
+      vs.setMissingDataIsMissing(false);
+      Assert.assertFalse(Float.isNaN(vs.read().getFloat(idx)));
+    }
+  }
+
   // Asserts that "scale_factor" is applied to "_FillValue".
   // This test demonstrated the bug in https://github.com/Unidata/thredds/issues/1065.
   @Test
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+package ucar.nc2.ft.fmrc;
+
+import org.junit.Assert;
+import org.junit.Test;
+import thredds.filesystem.MFileOS;
+import ucar.nc2.dt.grid.GridDataset;
+import ucar.nc2.ncml.TestNcML;
+import ucar.nc2.time.CalendarDate;
+
+import java.util.Formatter;
+import java.util.List;
+
+/**
+ * Test the binary form of GridDatasetInv, and the incremental update of Fmrc.
+ *
+ * @since 10/17/2026
+ */
+public class TestFmrcInventoryCache {
+  private static final String dir = TestNcML.topDir + "fmrc/";
+
+  @Test
+  public void testBinaryRoundTrip() throws Exception {
+    MFileOS mfile = new MFileOS(dir + "GFS_Puerto_Rico_191km_20090729_0000.nc");
+    GridDatasetInv inv;
+    try (GridDataset gds = GridDataset.open(mfile.getPath())) {
+      inv = new GridDatasetInv(gds, CalendarDate.parseISOformat(null, "2009-07-29T00:00:00Z"));
+    }
+
+    byte[] bytes = inv.writeBinary(mfile);
+    GridDatasetInv inv2 = GridDatasetInv.readBinary(bytes, mfile);
+    Assert.assertNotNull(inv2);
+    Assert.assertEquals(inv.writeXML(null), inv2.writeXML(null));
+    Assert.assertEquals(mfile.getLastModified(), inv2.getLastModified());
+    Assert.assertEquals(inv.getRunDate(), inv2.getRunDate());
+
+    // keyed by the size and last modified date of the file
+    MFileOS other = new MFileOS(dir + "GFS_Puerto_Rico_191km_20090730_0000.nc");
+    if (other.getLength() != mfile.getLength() || other.getLastModified() != mfile.getLastModified())
+      Assert.assertNull(GridDatasetInv.readBinary(bytes, other));
+
+    // not valid
+    Assert.assertNull(GridDatasetInv.readBinary(new byte[]{1, 2, 3}, mfile));
+  }
+
+  @Test
+  public void testIncrementalUpdate() throws Exception {
+    Formatter errlog = new Formatter();
+    Fmrc fmrc = Fmrc.open(dir + "GFS_Puerto_Rico_191km_#yyyyMMdd_HHmm#\\.nc$", errlog);
+    Assert.assertNotNull(errlog.toString(), fmrc);
+
+    try {
+      fmrc.update();
+      List<CalendarDate> runs = fmrc.getRunDates();
+      Assert.assertEquals(3, runs.size());
+      List<CalendarDate> forecasts = fmrc.getForecastDates();
+
+      // nothing has changed, so all the runs are reused
+      fmrc.update();
+      Assert.assertEquals(runs, fmrc.getRunDates());
+      Assert.assertEquals(forecasts, fmrc.getForecastDates());
+
+      // but not shared, since each FmrcInv sets the expected times of the grids of its runs
+      FmrcInv first = fmrc.getFmrcInv(null);
+      FmrcInv second = fmrc.getFmrcInv(null);
+      for (int i = 0; i < first.getFmrList().size(); i++) {
+        FmrInv fmr = first.getFmrList().get(i);
+        Assert.assertNotSame(fmr, second.getFmrList().get(i));
+        for (int j = 0; j < fmr.getGrids().size(); j++) {
+          FmrInv.GridVariable grid = fmr.getGrids().get(j);
+          Assert.assertNotSame(grid, second.getFmrList().get(i).getGrids().get(j));
+          Assert.assertNotNull(grid.getTimeExpected());
+        }
+      }
+
+      // full rebuild gives the same inventory
+      FmrcInv full = fmrc.getFmrcInv(new Formatter());
+      Assert.assertEquals(3, full.getFmrList().size());
+      Assert.assertEquals(forecasts, full.getForecastTimes());
+    } finally {
+      fmrc.close();
+    }
+  }
+}
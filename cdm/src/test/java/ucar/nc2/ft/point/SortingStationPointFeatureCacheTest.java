@@ -12,7 +12,9 @@ import java.util.LinkedList;
 import java.util.List;
 import com.google.common.collect.Ordering;
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import ucar.ma2.DataType;
@@ -27,6 +29,9 @@ import ucar.nc2.time.CalendarDateUnit;
 public class SortingStationPointFeatureCacheTest {
     private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
     @Test
     public void test1() throws Exception {
         StructureDataScalar stationData = new StructureDataScalar("StationFeature");  // leave it empty.
@@ -119,4 +124,33 @@ public class SortingStationPointFeatureCacheTest {
             Assert.assertTrue(PointTestUtil.equals(pointIterExpected, pointIterActual));
         }
     }
+    
+    @Test
+    public void testSpillToDisk() throws URISyntaxException, NoFactoryFoundException, IOException {
+        // Same as test3, but every feature is bigger than the memory limit, so each one is spilled to its own run.
+        Comparator<StationPointFeature> longestStationNameFirst = new Comparator<StationPointFeature>() {
+            @Override
+            public int compare(StationPointFeature o1, StationPointFeature o2) {
+                return -Integer.compare(o1.getStation().getName().length(), o2.getStation().getName().length());
+            }
+        };
+        File spillDir = tempFolder.newFolder();
+
+        try (SortingStationPointFeatureCache cache =
+                new SortingStationPointFeatureCache(longestStationNameFirst, 1, spillDir);
+                FeatureDatasetPoint fdInput = PointTestUtil.openPointDataset("cacheTestInput1.ncml");
+                FeatureDatasetPoint fdExpected = PointTestUtil.openPointDataset("cacheTestExpected1.ncml")) {
+            cache.addAll(fdInput);
+            Assert.assertTrue(cache.getNumSpillFiles() > 1);
+            Assert.assertEquals(cache.getNumSpillFiles(), spillDir.list().length);
+
+            PointFeatureIterator pointIterExpected =
+                    new FlattenedDatasetPointCollection(fdExpected).getPointFeatureIterator();
+            PointFeatureIterator pointIterActual = cache.getPointFeatureIterator();
+            Assert.assertTrue(PointTestUtil.equals(pointIterExpected, pointIterActual));
+
+            cache.close();
+            Assert.assertEquals(0, spillDir.list().length);
+        }
+    }
 }
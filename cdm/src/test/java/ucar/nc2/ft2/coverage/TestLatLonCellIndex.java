@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+package ucar.nc2.ft2.coverage;
+
+import org.junit.Assert;
+import org.junit.Test;
+import ucar.ma2.ArrayDouble;
+
+import java.util.Random;
+
+/**
+ * Test LatLonCellIndex against looking at every cell of a curvilinear grid.
+ *
+ * @since 10/17/2026
+ */
+public class TestLatLonCellIndex {
+  private static final int NROWS = 60, NCOLS = 90;
+
+  // a rotated and curved grid, with some missing corners
+  private ArrayDouble.D2 latEdge = new ArrayDouble.D2(NROWS + 1, NCOLS + 1);
+  private ArrayDouble.D2 lonEdge = new ArrayDouble.D2(NROWS + 1, NCOLS + 1);
+
+  public TestLatLonCellIndex() {
+    for (int i = 0; i <= NROWS; i++) {
+      for (int j = 0; j <= NCOLS; j++) {
+        double x = j * 0.1, y = i * 0.1;
+        latEdge.set(i, j, 30.0 + 0.8 * y + 0.3 * x + 0.01 * x * x);
+        lonEdge.set(i, j, -80.0 + 0.9 * x - 0.4 * y);
+      }
+    }
+    latEdge.set(NROWS, NCOLS, Double.NaN);
+    lonEdge.set(0, NCOLS, Double.NaN);
+  }
+
+  @Test
+  public void testFindCell() {
+    LatLonCellIndex index = new LatLonCellIndex(latEdge, lonEdge);
+    Random r = new Random(14);
+    int found = 0;
+    for (int k = 0; k < 2000; k++) {
+      double lat = 29.0 + 10.0 * r.nextDouble();
+      double lon = -83.0 + 12.0 * r.nextDouble();
+      int[] want = findExhaustive(lat, lon);
+      int[] got = new int[2];
+      boolean ok = index.findCell(lat, lon, got);
+      Assert.assertEquals(lat + " " + lon, want != null, ok);
+      if (ok) {
+        Assert.assertArrayEquals(want, got);
+        found++;
+      }
+    }
+    Assert.assertTrue(found > 500);
+
+    // center of a cell
+    double lat = (latEdge.get(10, 20) + latEdge.get(10, 21) + latEdge.get(11, 20) + latEdge.get(11, 21)) / 4;
+    double lon = (lonEdge.get(10, 20) + lonEdge.get(10, 21) + lonEdge.get(11, 20) + lonEdge.get(11, 21)) / 4;
+    int[] rectIndex = new int[2];
+    Assert.assertTrue(index.findCell(lat, lon, rectIndex));
+    Assert.assertArrayEquals(new int[]{10, 20}, rectIndex);
+    Assert.assertFalse(index.findCell(0.0, 0.0, rectIndex));
+  }
+
+  @Test
+  public void testFindEdgeBounds() {
+    LatLonCellIndex index = new LatLonCellIndex(latEdge, lonEdge);
+    Random r = new Random(15);
+    for (int k = 0; k < 500; k++) {
+      double minLat = 29.0 + 10.0 * r.nextDouble();
+      double maxLat = minLat + 3.0 * r.nextDouble();
+      double minLon = -83.0 + 12.0 * r.nextDouble();
+      double maxLon = minLon + 3.0 * r.nextDouble();
+
+      int[] want = {Integer.MAX_VALUE, -1, Integer.MAX_VALUE, -1};
+      for (int i = 0; i <= NROWS; i++) {
+        for (int j = 0; j <= NCOLS; j++) {
+          double lat = latEdge.get(i, j), lon = lonEdge.get(i, j);
+          if (lat >= minLat && lat <= maxLat && lon >= minLon && lon <= maxLon) {
+            want[0] = Math.min(want[0], i);
+            want[1] = Math.max(want[1], i);
+            want[2] = Math.min(want[2], j);
+            want[3] = Math.max(want[3], j);
+          }
+        }
+      }
+
+      int[] got = index.findEdgeBounds(minLat, maxLat, minLon, maxLon);
+      if (want[1] < 0)
+        Assert.assertNull(got);
+      else
+        Assert.assertArrayEquals(want, got);
+    }
+  }
+
+  @Test
+  public void testAllMissing() {
+    ArrayDouble.D2 missing = new ArrayDouble.D2(3, 3);
+    for (int i = 0; i < 9; i++)
+      missing.setDouble(i, Double.NaN);
+    LatLonCellIndex index = new LatLonCellIndex(missing, missing);
+    Assert.assertFalse(index.findCell(0.0, 0.0, new int[2]));
+    Assert.assertNull(index.findEdgeBounds(-90, 90, -180, 180));
+  }
+
+  // first cell in row major order that contains the point, same test as the index
+  private int[] findExhaustive(double lat, double lon) {
+    for (int row = 0; row < NROWS; row++) {
+      for (int col = 0; col < NCOLS; col++) {
+        double[] x = {lonEdge.get(row, col), lonEdge.get(row, col + 1), lonEdge.get(row + 1, col + 1), lonEdge.get(row + 1, col)};
+        double[] y = {latEdge.get(row, col), latEdge.get(row, col + 1), latEdge.get(row + 1, col + 1), latEdge.get(row + 1, col)};
+        boolean missing = false, inside = true;
+        Boolean sign = null;
+        for (int k = 0; k < 4; k++) {
+          if (Double.isNaN(x[k]) || Double.isNaN(y[k])) missing = true;
+          int n = (k + 1) % 4;
+          double det = x[k] * y[n] - y[k] * x[n] - x[k] * lat + y[k] * lon + x[n] * lat - y[n] * lon;
+          if (sign == null) sign = det > 0;
+          else if (sign != (det > 0)) inside = false;
+        }
+        if (!missing && inside)
+          return new int[]{row, col};
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 1998-2018 John Caron and University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+package ucar.nc2.iosp.hdf5;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.Deflater;
+
+/**
+ * Test the built in HDF5 filter decoders and the filter registry.
+ */
+public class TestH5filters {
+
+  private byte[] makeData(int n) {
+    byte[] data = new byte[n];
+    Random r = new Random(17);
+    for (int i = 0; i < n; i++)
+      data[i] = (byte) (r.nextInt(8) + i / 100);
+    return data;
+  }
+
+  private byte[] deflate(byte[] data) {
+    Deflater deflater = new Deflater();
+    deflater.setInput(data);
+    deflater.finish();
+    byte[] out = new byte[data.length + 1000];
+    int n = deflater.deflate(out);
+    deflater.end();
+    return Arrays.copyOf(out, n);
+  }
+
+  private byte[] shuffle(byte[] data, int n) {
+    byte[] result = new byte[data.length];
+    int m = data.length / n;
+    for (int i = 0; i < m; i++)
+      for (int j = 0; j < n; j++)
+        result[j * m + i] = data[i * n + j];
+    System.arraycopy(data, m * n, result, m * n, data.length - m * n);
+    return result;
+  }
+
+  private byte[] decode(int filterId, byte[] input, int expected, int[] clientData) throws IOException {
+    H5filters.FilterBuffer buffer = H5filters.getBuffer();
+    try {
+      byte[] data = buffer.start(input.length, expected);
+      System.arraycopy(input, 0, data, 0, input.length);
+      H5filters.find(filterId).decode(buffer, clientData);
+      return Arrays.copyOf(buffer.getData(), buffer.getLength());
+    } finally {
+      H5filters.releaseBuffer(buffer);
+    }
+  }
+
+  @Test
+  public void testDeflate() throws IOException {
+    byte[] data = makeData(10000);
+    byte[] compressed = deflate(data);
+    Assert.assertArrayEquals(data, decode(1, compressed, data.length, new int[] {5}));
+    // wrong size hint must still work, and reuse the same buffers
+    Assert.assertArrayEquals(data, decode(1, compressed, 10, new int[] {5}));
+    Assert.assertArrayEquals(data, decode(1, compressed, 0, new int[] {5}));
+  }
+
+  @Test(expected = IOException.class)
+  public void testDeflateTruncated() throws IOException {
+    byte[] compressed = deflate(makeData(10000));
+    decode(1, Arrays.copyOf(compressed, compressed.length / 2), 10000, new int[0]);
+  }
+
+  @Test
+  public void testShuffle() throws IOException {
+    byte[] data = makeData(4003);
+    Assert.assertArrayEquals(data, decode(2, shuffle(data, 4), data.length, new int[] {4}));
+    Assert.assertArrayEquals(data, decode(2, shuffle(data, 8), data.length, new int[] {8}));
+  }
+
+  @Test
+  public void testFletcher32() throws IOException {
+    byte[] data = makeData(100);
+    byte[] result = decode(3, data, 96, new int[0]);
+    Assert.assertArrayEquals(Arrays.copyOf(data, 96), result);
+  }
+
+  @Test
+  public void testRegister() throws IOException {
+    int id = 32000;
+    Assert.assertNull(H5filters.find(id));
+    H5filters.register(id, (buffer, clientData) -> {
+      byte[] out = buffer.getSpare(buffer.getLength());
+      for (int i = 0; i < buffer.getLength(); i++)
+        out[i] = (byte) (buffer.getData()[i] ^ clientData[0]);
+      buffer.swap(buffer.getLength());
+    });
+    byte[] data = makeData(100);
+    byte[] xored = decode(id, data, 100, new int[] {0x5a});
+    Assert.assertArrayEquals(data, decode(id, xored, 100, new int[] {0x5a}));
+  }
+
+  @Test
+  public void testDetachedDataIsOwned() throws IOException {
+    byte[] data = makeData(10000);
+    byte[] compressed = deflate(data);
+
+    H5filters.FilterBuffer buffer = H5filters.getBuffer();
+    H5filters.FilterBuffer other = H5filters.getBuffer();
+    Assert.assertNotSame(buffer, other);
+    H5filters.releaseBuffer(other);
+
+    System.arraycopy(compressed, 0, buffer.start(compressed.length, data.length), 0, compressed.length);
+    H5filters.find(1).decode(buffer, new int[0]);
+    ByteBuffer bb = buffer.detach(ByteOrder.BIG_ENDIAN);
+    H5filters.releaseBuffer(buffer);
+
+    // decoding more chunks with the pooled buffers must not change the detached data
+    decode(1, deflate(makeData(20000)), 20000, new int[0]);
+    decode(1, deflate(new byte[10000]), 10000, new int[0]);
+    byte[] result = new byte[bb.remaining()];
+    bb.get(result);
+    Assert.assertArrayEquals(data, result);
+  }
+
+}
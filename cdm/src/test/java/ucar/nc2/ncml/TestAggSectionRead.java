@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+package ucar.nc2.ncml;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import ucar.ma2.*;
+import ucar.nc2.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Test section reads of a joinExisting aggregation, one dataset at a time and in parallel,
+ * and of an aggregation of aggregations in parallel.
+ *
+ * @since 10/17/2026
+ */
+public class TestAggSectionRead {
+  private static final int[] ntimes = {3, 1, 4, 1, 5, 9, 2, 6, 5, 3, 5, 8};
+  private static final int NX = 2;
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private ForkJoinPool pool;
+
+  @After
+  public void tearDown() {
+    Aggregation.setExecutor(null);
+    if (pool != null)
+      pool.shutdownNow();
+  }
+
+  @Test
+  public void testSerial() throws IOException, InvalidRangeException {
+    testSections();
+  }
+
+  @Test
+  public void testParallel() throws IOException, InvalidRangeException {
+    pool = new ForkJoinPool(4);
+    Aggregation.setExecutor(pool);
+    testSections();
+  }
+
+  // an aggregation of aggregations, on fewer threads than there are outer datasets
+  @Test(timeout = 60 * 1000)
+  public void testParallelNested() throws IOException, InvalidRangeException {
+    pool = new ForkJoinPool(2);
+    Aggregation.setExecutor(pool);
+    testNestedSections();
+  }
+
+  private void testSections() throws IOException, InvalidRangeException {
+    StringBuilder ncml = new StringBuilder();
+    ncml.append("<netcdf xmlns='http://www.unidata.ucar.edu/namespaces/netcdf/ncml-2.2'>\n");
+    ncml.append("  <aggregation dimName='time' type='joinExisting'>\n");
+    int start = 0;
+    for (int i = 0; i < ntimes.length; i++) {
+      File file = writeFile(i, start, ntimes[i]);
+      ncml.append("    <netcdf location='").append(file.toURI()).append("' ncoords='").append(ntimes[i]).append("'/>\n");
+      start += ntimes[i];
+    }
+    ncml.append("  </aggregation>\n</netcdf>");
+    checkSections(ncml.toString(), start);
+  }
+
+  // the same files, in groups of 3 nested aggregations
+  private void testNestedSections() throws IOException, InvalidRangeException {
+    StringBuilder ncml = new StringBuilder();
+    ncml.append("<netcdf xmlns='http://www.unidata.ucar.edu/namespaces/netcdf/ncml-2.2'>\n");
+    ncml.append("  <aggregation dimName='time' type='joinExisting'>\n");
+    int start = 0;
+    for (int i = 0; i < ntimes.length; i += 3) {
+      int ncoords = ntimes[i] + ntimes[i + 1] + ntimes[i + 2];
+      ncml.append("    <netcdf ncoords='").append(ncoords).append("'>\n");
+      ncml.append("      <aggregation dimName='time' type='joinExisting'>\n");
+      for (int j = i; j < i + 3; j++) {
+        File file = writeFile(j, start, ntimes[j]);
+        ncml.append("        <netcdf location='").append(file.toURI()).append("' ncoords='").append(ntimes[j]).append("'/>\n");
+        start += ntimes[j];
+      }
+      ncml.append("      </aggregation>\n    </netcdf>\n");
+    }
+    ncml.append("  </aggregation>\n</netcdf>");
+    checkSections(ncml.toString(), start);
+  }
+
+  private void checkSections(String ncml, int total) throws IOException, InvalidRangeException {
+    try (NetcdfFile ncfile = NcMLReader.readNcML(new StringReader(ncml), null)) {
+      Variable v = ncfile.findVariable("T");
+      Assert.assertNotNull(v);
+      v.setCaching(false);
+      Assert.assertEquals(total, v.getShape(0));
+
+      String[] sections = {"0:0,:", "5:17,:", "3:40:7,1", "11:11,0", "4:51:3,:", "50:51,:", "1:48:47,:"};
+      for (String spec : sections) {
+        Section section = new Section(spec);
+        Array data = v.read(section);
+        Assert.assertArrayEquals(spec, section.getShape(), data.getShape());
+
+        Range trange = section.getRange(0);
+        Range xrange = section.getRange(1);
+        IndexIterator iter = data.getIndexIterator();
+        for (int t : trange) {
+          for (int x : xrange)
+            Assert.assertEquals(spec, t * 10 + x, iter.getIntNext());
+        }
+      }
+    }
+  }
+
+  // T(time, x) = 10 * (index in the aggregation) + x
+  private File writeFile(int count, int start, int ntime) throws IOException, InvalidRangeException {
+    File file = new File(tempFolder.getRoot(), "agg" + count + ".nc");
+    try (NetcdfFileWriter writer = NetcdfFileWriter.createNew(NetcdfFileWriter.Version.netcdf3, file.getPath())) {
+      writer.addDimension(null, "time", ntime);
+      writer.addDimension(null, "x", NX);
+      Variable time = writer.addVariable(null, "time", DataType.INT, "time");
+      Variable t = writer.addVariable(null, "T", DataType.INT, "time x");
+      writer.create();
+
+      ArrayInt.D1 times = new ArrayInt.D1(ntime, false);
+      ArrayInt.D2 values = new ArrayInt.D2(ntime, NX, false);
+      for (int i = 0; i < ntime; i++) {
+        times.set(i, start + i);
+        for (int x = 0; x < NX; x++)
+          values.set(i, x, (start + i) * 10 + x);
+      }
+      writer.write(time, times);
+      writer.write(t, values);
+    }
+    return file;
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+package ucar.nc2.stream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * Test the LZ4 codec, the byte shuffle, and the compressed blocks of NcStreamCompression.
+ *
+ * @since 10/17/2026
+ */
+public class TestNcStreamCompression {
+
+  @Test
+  public void testLz4Block() throws IOException {
+    // 3 literals, a 12 byte match at offset 3, then 5 literals
+    byte[] block = {0x38, 'a', 'b', 'c', 3, 0, 0x50, 'x', 'y', 'z', 'z', 'y'};
+    byte[] result = NcStreamLz4.decompress(block, 0, block.length, 20);
+    Assert.assertEquals("abcabcabcabcabcxyzzy", new String(result, "US-ASCII"));
+  }
+
+  @Test
+  public void testLz4RoundTrip() throws IOException {
+    Random r = new Random(17);
+    for (int len : new int[]{0, 1, 12, 13, 100, 70000, 300000}) {
+      checkLz4(new byte[len]);
+
+      byte[] random = new byte[len];
+      r.nextBytes(random);
+      checkLz4(random);
+
+      byte[] text = new byte[len];
+      for (int i = 0; i < len; i++)
+        text[i] = (byte) ("the quick brown fox ".charAt(r.nextInt(20)) + (i % 1000 == 0 ? 1 : 0));
+      checkLz4(text);
+    }
+
+    // compresses a shuffled float grid
+    byte[] floats = NcStreamCompression.shuffle(makeFloats(100 * 1000), 4);
+    byte[] compressed = NcStreamLz4.compress(floats, 0, floats.length);
+    Assert.assertTrue(compressed.length < floats.length / 2);
+  }
+
+  @Test(expected = IOException.class)
+  public void testLz4BadOffset() throws IOException {
+    byte[] block = {0x18, 'a', 9, 0, 0x00};
+    NcStreamLz4.decompress(block, 0, block.length, 6);
+  }
+
+  @Test(expected = IOException.class)
+  public void testLz4WrongLength() throws IOException {
+    byte[] data = makeFloats(1000);
+    byte[] compressed = NcStreamLz4.compress(data, 0, data.length);
+    NcStreamLz4.decompress(compressed, 0, compressed.length, data.length + 1);
+  }
+
+  @Test
+  public void testShuffle() {
+    byte[] data = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+    byte[] shuffled = NcStreamCompression.shuffle(data, 4);
+    Assert.assertArrayEquals(new byte[]{1, 5, 2, 6, 3, 7, 4, 8, 9, 10}, shuffled);
+    Assert.assertArrayEquals(data, NcStreamCompression.unshuffle(shuffled, 4));
+    Assert.assertSame(data, NcStreamCompression.shuffle(data, 1));
+  }
+
+  @Test
+  public void testBlocks() throws IOException {
+    byte[] data = makeFloats(10 * 1000);
+    for (NcStreamCompression compress : new NcStreamCompression[]{NcStreamCompression.none(), NcStreamCompression.deflate(),
+            NcStreamCompression.lz4(), NcStreamCompression.shuffleDeflate(5), NcStreamCompression.shuffleLz4()}) {
+      ByteArrayOutputStream bout = new ByteArrayOutputStream();
+      OutputStream out = compress.setupStream(bout, data.length, 4);
+      out.write(data);
+      out.flush();
+
+      ByteArrayInputStream in = new ByteArrayInputStream(bout.toByteArray());
+      int size = NcStream.readVInt(in);
+      byte[] block = new byte[size];
+      NcStream.readFully(in, block);
+      Assert.assertEquals(compress.getType().toString(), 0, in.available());
+
+      byte[] result = NcStreamCompression.uncompress(compress.getType(), block, data.length, 4);
+      Assert.assertArrayEquals(compress.getType().toString(), data, result);
+    }
+  }
+
+  @Test
+  public void testFromName() {
+    Assert.assertEquals(NcStreamProto.Compress.SHUFFLE_LZ4, NcStreamCompression.fromName("SHUFFLE_LZ4", -1).getType());
+    Assert.assertEquals(NcStreamProto.Compress.DEFLATE, NcStreamCompression.fromName("deflate", 5).getType());
+    Assert.assertNull(NcStreamCompression.fromName("zstd", -1));
+  }
+
+  private void checkLz4(byte[] data) throws IOException {
+    byte[] compressed = NcStreamLz4.compress(data, 0, data.length);
+    Assert.assertTrue(compressed.length <= NcStreamLz4.maxCompressedLength(data.length));
+    Assert.assertArrayEquals(data, NcStreamLz4.decompress(compressed, 0, compressed.length, data.length));
+  }
+
+  // a smooth field
+  private byte[] makeFloats(int n) {
+    ByteBuffer bb = ByteBuffer.allocate(4 * n);
+    for (int i = 0; i < n; i++)
+      bb.putFloat((float) (280.0 + 10.0 * Math.sin(i / 50.0) + (i % 7) * 0.125));
+    return bb.array();
+  }
+}
@@ -60,6 +60,34 @@ public class TestCalendarDate {
      assertAddReturnsExpectedDate(baseDate, valueInMillisecs/CalendarDate.MILLISECS_IN_YEAR, Field.Year, expectedResult);
    }
 
+   @Test
+   public void testMakeMillisecs() {
+     double[] values = {0.0, 1.0, -1.0, 0.5, 1.0e-4, 123456.789, 2025829799999.99977 / CalendarDate.MILLISECS_IN_HOUR, Double.NaN};
+     String[] units = {"msecs since 1970-01-01", "seconds since 1950-01-01T00:00:00Z", "minutes since 2000-02-28 12:00",
+             "hours since 1582-10-15", "days since 0001-01-01", "months since 1992-10-8", "years since 1992-10-8",
+             "calendar months since 1992-10-31", "calendar years since 2000-01-31"};
+
+     for (String unit : units) {
+       CalendarDateUnit cdu = CalendarDateUnit.of("noleap", unit);
+       long[] msecs = cdu.makeMillisecs(values);
+       for (int i = 0; i < values.length; i++)
+         assertEquals(unit + " " + values[i], cdu.makeCalendarDate(values[i]).getMillis(), msecs[i]);
+     }
+   }
+
+   @Test
+   public void testCalendarDateUnitCache() {
+     String unit = "hours since 2012-04-27T14:00Z";
+     CalendarDateUnit cdu = CalendarDateUnit.of(null, unit);
+     assert cdu == CalendarDateUnit.of(null, unit);
+     assert cdu == CalendarDateUnit.withCalendar(Calendar.getDefault(), unit);
+     assert cdu != CalendarDateUnit.of("noleap", unit);
+
+     CalendarDateUnit uncached = new CalendarDateUnit(Calendar.getDefault(), unit);
+     assertEquals(uncached.toString(), cdu.toString());
+     assertEquals(uncached.getBaseCalendarDate(), cdu.getBaseCalendarDate());
+   }
+
    private void assertAddReturnsExpectedDate(String baseDate, double value, Field units, String expectedResult) {
      CalendarDate base = CalendarDateFormatter.isoStringToCalendarDate(Calendar.gregorian, baseDate);
      CalendarDate result = base.add(value, units);
@@ -5,6 +5,8 @@ import static org.junit.Assert.assertEquals;
 import java.lang.invoke.MethodHandles;
 import java.util.Date;
 
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
 import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -120,6 +122,54 @@ public class TestCalendarDateFormatter {
     assertEquals(mstDate.getTime(), utcDate.getTime()); //This fails!!
   }
 
+  // the fast path must give the same answer as the general parser, or leave it to the general parser
+  @Test
+  public void testFastParse() {
+    String[] isos = {"1997-07-16", "1997-07-16T19:20", "1997-07-16t19:20Z", "1997-07-16 19:20:30", "1997-07-16T19:20:30Z",
+            "1997-07-16T19:20:30.1", "1997-07-16T19:20:30.123Z", "1997-07-16T19:20:30.0000001", "1997-07-16T19:20:75",
+            "2000-02-29T00:00:00Z", "1582-10-15T12:00:00", "1582-10-04T12:00:00", "0000-01-01T00:00:00Z", "9999-12-31T23:59:59Z",
+            "2012-04-27T14:00Z", "1997-07-16Z", "1997-07-16T19:20:30+01:00", "1997-07-16T19:20:30.Z", "1997-07-16T1920",
+            "2001-02-29T00:00:00Z", "1997-13-16T19:20:30Z", "1997-07-16T24:00:00", "1997-07-16T19:20:3x", "199a-07-16"};
+
+    for (Calendar cal : new Calendar[] {null, Calendar.gregorian, Calendar.proleptic_gregorian, Calendar.noleap, Calendar.uniform30day}) {
+      for (String iso : isos) {
+        String want;
+        try {
+          want = CalendarDateFormatter.parseIsoTimeStringRegexp(cal, iso).toString();
+        } catch (IllegalArgumentException e) {
+          want = null;
+        }
+
+        String got;
+        try {
+          CalendarDate cd = CalendarDateFormatter.isoStringToCalendarDate(cal, iso);
+          got = cd.getDateTime().toString();
+        } catch (IllegalArgumentException e) {
+          got = null;
+        }
+        assertEquals(cal + " " + iso, want, got);
+      }
+    }
+  }
+
+  @Test
+  public void testFastFormat() {
+    DateTimeFormatter isof = DateTimeFormat.forPattern("yyyy-MM-dd'T'HH:mm:ss'Z'").withZoneUTC();
+    DateTimeFormatter isofMillis = DateTimeFormat.forPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").withZoneUTC();
+    DateTimeFormatter dtf = DateTimeFormat.forPattern("yyyy-MM-dd HH:mm:ss'Z'").withZoneUTC();
+    DateTimeFormatter dtfMillis = DateTimeFormat.forPattern("yyyy-MM-dd HH:mm:ss.SSS'Z'").withZoneUTC();
+
+    long[] millis = {0, 1, 999, 1000, 1333065600000L, 1333065600001L, -1, -86400000L, 253402300799999L, -62135596800000L};
+    for (Calendar cal : new Calendar[] {Calendar.gregorian, Calendar.proleptic_gregorian, Calendar.noleap}) {
+      for (long msecs : millis) {
+        CalendarDate cd = CalendarDate.of(cal, msecs);
+        boolean hasMillis = cd.getDateTime().getMillisOfSecond() != 0;
+        assertEquals((hasMillis ? isofMillis : isof).print(cd.getDateTime()), CalendarDateFormatter.toDateTimeStringISO(cd));
+        assertEquals((hasMillis ? dtfMillis : dtf).print(cd.getDateTime()), CalendarDateFormatter.toDateTimeString(cd));
+      }
+    }
+  }
+
   private void claimGood(String s) {
     try {
       CalendarDate result = CalendarDateFormatter.isoStringToCalendarDate(null, s);
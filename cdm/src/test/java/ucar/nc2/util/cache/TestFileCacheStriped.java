@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+package ucar.nc2.util.cache;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import ucar.nc2.dataset.DatasetUrl;
+import ucar.nc2.util.CancelTask;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test FileCacheStriped with in-memory FileCacheables.
+ *
+ * @since 10/17/2026
+ */
+public class TestFileCacheStriped {
+
+  static class MyFile implements FileCacheable {
+    final String location;
+    FileCacheIF cache;
+    volatile boolean closed;
+    int reacquired;
+
+    MyFile(String location) {
+      this.location = location;
+    }
+
+    public String getLocation() {
+      return location;
+    }
+
+    public synchronized void close() throws IOException {
+      if (cache != null && cache.release(this)) return;
+      closed = true;
+    }
+
+    public long getLastModified() {
+      return 0;
+    }
+
+    public void setFileCache(FileCacheIF fileCache) {
+      this.cache = fileCache;
+    }
+
+    public void release() {
+    }
+
+    public void reacquire() {
+      reacquired++;
+    }
+  }
+
+  static class MyFactory implements FileFactory {
+    final AtomicInteger opened = new AtomicInteger();
+
+    public FileCacheable open(DatasetUrl location, int buffer_size, CancelTask cancelTask, Object iospMessage) {
+      opened.incrementAndGet();
+      return new MyFile(location.trueurl);
+    }
+  }
+
+  private FileCacheStriped cache;
+  private MyFactory factory;
+
+  @Before
+  public void setUp() {
+    cache = new FileCacheStriped("test", 2, 100, -1, 0); // no background eviction
+    factory = new MyFactory();
+  }
+
+  @After
+  public void tearDown() {
+    cache.disable();
+  }
+
+  private FileCacheable acquire(String location) throws IOException {
+    return cache.acquire(factory, new DatasetUrl(null, location));
+  }
+
+  @Test
+  public void testReuse() throws IOException {
+    MyFile f1 = (MyFile) acquire("a");
+    MyFile f2 = (MyFile) acquire("a"); // f1 is locked, so must open another
+    Assert.assertNotSame(f1, f2);
+    Assert.assertEquals(2, factory.opened.get());
+
+    f1.close();
+    Assert.assertFalse(f1.closed);
+    MyFile f3 = (MyFile) acquire("a");
+    Assert.assertSame(f1, f3);
+    Assert.assertEquals(1, f1.reacquired);
+
+    Assert.assertEquals(1, cache.getHits());
+    Assert.assertEquals(2, cache.getMisses());
+    Assert.assertEquals(2, cache.size());
+  }
+
+  @Test
+  public void testEvict() throws IOException {
+    List<MyFile> files = new ArrayList<>();
+    for (int i = 0; i < 8; i++)
+      files.add((MyFile) acquire("file" + i));
+
+    for (int i = 0; i < 7; i++) // file7 stays locked
+      files.get(i).close();
+
+    cache.evict(5);
+    Assert.assertEquals(2, cache.size());
+    Assert.assertEquals(6, cache.getEvictions());
+
+    // files in use are never closed
+    Assert.assertFalse(files.get(7).closed);
+    MyFile evicted = null;
+    int nclosed = 0;
+    for (int i = 0; i < 7; i++) {
+      if (files.get(i).closed) {
+        evicted = files.get(i);
+        nclosed++;
+      }
+    }
+    Assert.assertEquals(6, nclosed);
+    Assert.assertNull(evicted.cache);
+
+    // evicted file is not returned
+    MyFile again = (MyFile) acquire(evicted.getLocation());
+    Assert.assertNotSame(evicted, again);
+  }
+
+  @Test
+  public void testEject() throws IOException {
+    MyFile inUse = (MyFile) acquire("a");
+    MyFile idle = (MyFile) acquire("a");
+    idle.close();
+
+    cache.eject("a");
+    Assert.assertTrue(idle.closed);
+    Assert.assertFalse(inUse.closed);
+    Assert.assertEquals(0, cache.size());
+
+    inUse.close(); // no longer cached, so really closed
+    Assert.assertTrue(inUse.closed);
+  }
+
+  @Test
+  public void testClearCache() throws IOException {
+    MyFile inUse = (MyFile) acquire("a");
+    MyFile idle = (MyFile) acquire("b");
+    idle.close();
+
+    cache.clearCache(false);
+    Assert.assertTrue(idle.closed);
+    Assert.assertFalse(inUse.closed);
+    Assert.assertEquals(1, cache.size());
+
+    cache.clearCache(true);
+    Assert.assertTrue(inUse.closed);
+    Assert.assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testConcurrent() throws Exception {
+    cache = new FileCacheStriped("concurrent", 2, 5, 20, 1); // background and hard limit evictions while in use
+    int nthreads = 8;
+    int nloops = 2000;
+    ExecutorService exec = Executors.newFixedThreadPool(nthreads);
+    try {
+      List<Future<Void>> results = new ArrayList<>();
+      for (int t = 0; t < nthreads; t++) {
+        final int seed = t;
+        results.add(exec.submit(() -> {
+          Random r = new Random(seed);
+          for (int i = 0; i < nloops; i++) {
+            MyFile f = (MyFile) acquire("file" + r.nextInt(10));
+            Assert.assertFalse(f.closed);
+            f.close();
+          }
+          return null;
+        }));
+      }
+      for (Future<Void> f : results)
+        f.get();
+    } finally {
+      exec.shutdown();
+    }
+
+    Assert.assertEquals(nthreads * nloops, cache.getHits() + cache.getMisses());
+    Assert.assertEquals(factory.opened.get(), cache.getMisses());
+  }
+}
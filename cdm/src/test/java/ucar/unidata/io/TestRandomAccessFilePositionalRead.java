@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+package ucar.unidata.io;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Test the thread-safe positional reads in RandomAccessFile
+ */
+public class TestRandomAccessFilePositionalRead {
+  static private final int N = 10000;
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private File makeFile() throws IOException {
+    File f = tempFolder.newFile();
+    try (DataOutputStream out = new DataOutputStream(new FileOutputStream(f))) {
+      for (int i = 0; i < N; i++)
+        out.writeFloat((float) i);
+    }
+    return f;
+  }
+
+  @Test
+  public void testPositionalDoesNotMoveFilePointer() throws IOException {
+    File f = makeFile();
+    try (RandomAccessFile raf = new RandomAccessFile(f.getPath(), "r")) {
+      raf.seek(40);
+      float[] pa = new float[10];
+      raf.readFloat(400, ByteOrder.BIG_ENDIAN, pa, 0, 10);
+      for (int i = 0; i < 10; i++)
+        Assert.assertEquals(100 + i, pa[i], 0.0);
+
+      Assert.assertEquals(40, raf.getFilePointer());
+      Assert.assertEquals(10.0f, raf.readFloat(), 0.0);
+    }
+  }
+
+  @Test
+  public void testReadByteBuffer() throws IOException {
+    File f = makeFile();
+    try (RandomAccessFile raf = new RandomAccessFile(f.getPath(), "r")) {
+      ByteBuffer bb = ByteBuffer.allocate(100);
+      Assert.assertEquals(8, raf.read(4 * N - 8, bb));
+      bb.flip();
+      Assert.assertEquals(N - 2, bb.getFloat(), 0.0);
+      Assert.assertEquals(N - 1, bb.getFloat(), 0.0);
+
+      bb.clear();
+      Assert.assertEquals(-1, raf.read(4 * N, bb));
+    }
+  }
+
+  @Test(expected = EOFException.class)
+  public void testReadFullyPastEnd() throws IOException {
+    File f = makeFile();
+    try (RandomAccessFile raf = new RandomAccessFile(f.getPath(), "r")) {
+      raf.readFully(4 * N - 2, new byte[4], 0, 4);
+    }
+  }
+
+  @Test
+  public void testInMemory() throws IOException {
+    ByteBuffer data = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+    data.putInt(7).putInt(-3);
+    try (RandomAccessFile raf = new InMemoryRandomAccessFile("test", data.array())) {
+      int[] pa = new int[2];
+      raf.readInt(0, ByteOrder.LITTLE_ENDIAN, pa, 0, 2);
+      Assert.assertEquals(7, pa[0]);
+      Assert.assertEquals(-3, pa[1]);
+    }
+  }
+
+  @Test
+  public void testConcurrentReads() throws Exception {
+    File f = makeFile();
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    try (RandomAccessFile raf = new RandomAccessFile(f.getPath(), "r")) {
+      List<Future<Boolean>> results = new ArrayList<>();
+      for (int t = 0; t < 64; t++) {
+        final int start = (t * 131) % (N - 100);
+        results.add(pool.submit(() -> {
+          float[] pa = new float[100];
+          for (int j = 0; j < 20; j++) {
+            raf.readFloat(4L * start, ByteOrder.BIG_ENDIAN, pa, 0, 100);
+            for (int i = 0; i < 100; i++)
+              if (pa[i] != start + i) return false;
+          }
+          return true;
+        }));
+      }
+      for (Future<Boolean> result : results)
+        Assert.assertTrue(result.get());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+package ucar.unidata.io.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test the block cache, read-ahead and range coalescing of HTTPRandomAccessFile,
+ * against a local server that counts the range requests.
+ *
+ * @since 10/17/2026
+ */
+public class TestHTTPRandomAccessFileCache {
+  static private final int BLOCK = 64 * 1024;
+  static private final int SIZE = 12 * 1000 * 1000; // bigger than maxHTTPBufferSize
+
+  private byte[] content;
+  private HttpServer server;
+  private String url;
+  private final AtomicInteger ngets = new AtomicInteger();
+
+  @Before
+  public void startServer() throws IOException {
+    content = new byte[SIZE];
+    new Random(15).nextBytes(content);
+
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/data.bin", this::handle);
+    server.start();
+    url = "http://127.0.0.1:" + server.getAddress().getPort() + "/data.bin";
+    HTTPRandomAccessFile.setBlockCache(BLOCK, 256, 64);
+  }
+
+  @After
+  public void stopServer() {
+    server.stop(0);
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    exchange.getResponseHeaders().add("Accept-Ranges", "bytes");
+    if (exchange.getRequestMethod().equals("HEAD")) {
+      exchange.getResponseHeaders().add("Content-Length", Integer.toString(SIZE));
+      exchange.sendResponseHeaders(200, -1);
+      exchange.close();
+      return;
+    }
+
+    // only a single range: "bytes=first-last"
+    String range = exchange.getRequestHeaders().getFirst("Range");
+    String[] tokens = range.substring("bytes=".length()).split("-");
+    int first = Integer.parseInt(tokens[0]);
+    int last = Math.min(Integer.parseInt(tokens[1]), SIZE - 1);
+    ngets.incrementAndGet();
+
+    exchange.getResponseHeaders().add("Content-Range", "bytes " + first + "-" + last + "/" + SIZE);
+    exchange.sendResponseHeaders(206, last - first + 1);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(content, first, last - first + 1);
+    }
+  }
+
+  private byte[] read(HTTPRandomAccessFile raf, long pos, int len) throws IOException {
+    ByteBuffer bb = ByteBuffer.allocate(len);
+    while (bb.hasRemaining()) {
+      int n = raf.read(pos + bb.position(), bb);
+      Assert.assertTrue(n > 0);
+    }
+    return bb.array();
+  }
+
+  private void check(HTTPRandomAccessFile raf, int pos, int len) throws IOException {
+    Assert.assertArrayEquals(Arrays.copyOfRange(content, pos, pos + len), read(raf, pos, len));
+  }
+
+  @Test
+  public void testCacheAndCoalesce() throws IOException {
+    try (HTTPRandomAccessFile raf = new HTTPRandomAccessFile(url)) {
+      check(raf, 10, 100);
+      check(raf, 2 * BLOCK + 10, 100);
+      Assert.assertEquals(2, raf.getRequestCount());
+
+      // blocks 1, 3 and 4 are missing: one request, which also gets the cached block 2
+      check(raf, 0, 5 * BLOCK);
+      Assert.assertEquals(3, raf.getRequestCount());
+
+      // all cached
+      check(raf, 2 * BLOCK - 50, 100);
+      check(raf, 5, 4 * BLOCK);
+      Assert.assertEquals(3, raf.getRequestCount());
+      Assert.assertEquals(3, ngets.get());
+    }
+  }
+
+  @Test
+  public void testReadAhead() throws IOException {
+    try (HTTPRandomAccessFile raf = new HTTPRandomAccessFile(url)) {
+      // small sequential reads, through the buffer
+      byte[] result = new byte[SIZE];
+      raf.seek(0);
+      for (int pos = 0; pos < SIZE; pos += 1000)
+        raf.readFully(result, pos, 1000);
+      Assert.assertArrayEquals(content, result);
+
+      // without read-ahead, this would be one request for each block
+      Assert.assertTrue(raf.getRequestCount() < SIZE / BLOCK / 8);
+    }
+  }
+
+  @Test
+  public void testRandomReads() throws IOException {
+    Random r = new Random(16);
+    try (HTTPRandomAccessFile raf = new HTTPRandomAccessFile(url)) {
+      for (int i = 0; i < 200; i++) {
+        int len = 1 + r.nextInt(3 * BLOCK);
+        int pos = r.nextInt(SIZE - len);
+        check(raf, pos, len);
+      }
+      // the last block is short
+      check(raf, SIZE - 1000, 1000);
+    }
+  }
+}
@@ -189,6 +189,12 @@ public class CDMCursor extends AbstractCursor
         if(datatype == null)
             throw new dap4.core.util.DapException("Unknown basetype: " + basetype);
         Object content = array.get1DJavaArray(datatype); // not very efficient; should do conversion
+        // A whole variable of a primitive type is already in the right form,
+        // so hand it to the serializer as is rather than copying it value by value.
+        if(content.getClass().getComponentType().isPrimitive()
+                && DapUtil.isWhole(slices, dimset)
+                && java.lang.reflect.Array.getLength(content) == DapUtil.sliceProduct(slices))
+            return content;
         Odometer odom = Odometer.factory(slices, dimset);
         Object data = CDMTypeFcns.createVector(datatype, odom.totalSize());
         for(int dstoffset = 0; odom.hasNext(); dstoffset++) {
@@ -283,7 +283,7 @@ public class ChunkWriter extends OutputStream
         // and amount to write is zero,
         // go ahead and write the zero size chunk.
         if(chunk == null)
-            chunk = ByteBuffer.allocate(maxbuffersize);
+            chunk = ByteBuffer.allocate(maxbuffersize).order(getWriteOrder());
 
         int buffersize = chunk.position();
         chunkheader(buffersize, flags, header);
@@ -450,6 +450,65 @@ public class ChunkWriter extends OutputStream
     @Override
     public void write(byte[] b, int off, int len)
             throws IOException
+    {
+        if(b.length < off + len)
+            throw new BufferUnderflowException();
+        startWrite(len);
+        int left = len;
+        int offset = off;
+        while(left > 0) {
+            ByteBuffer buf = getChunk(1);
+            int towrite = Math.min(left, buf.remaining());
+            buf.put(b, offset, towrite);
+            offset += towrite;
+            left -= towrite;
+        }
+    }
+
+    /**
+     * Writes the remaining bytes of src to this output stream.
+     * If src has a backing array, then whole chunks are
+     * written straight from it, without going through
+     * the chunk buffer.
+     *
+     * @param src the data; its position is advanced to its limit
+     * @throws IOException if an I/O error occurs
+     */
+
+    public void write(ByteBuffer src)
+            throws IOException
+    {
+        startWrite(src.remaining());
+        while(src.hasRemaining()) {
+            // Leave at least one byte for the chunk buffer,
+            // so close() still has a last chunk to mark as the end.
+            if(chunk.position() == 0 && src.hasArray() && src.remaining() > maxbuffersize) {
+                chunkheader(maxbuffersize, DapUtil.CHUNK_DATA, header);
+                output.write(DapUtil.extract(header));
+                output.write(src.array(), src.arrayOffset() + src.position(), maxbuffersize);
+                src.position(src.position() + maxbuffersize);
+                continue;
+            }
+            ByteBuffer buf = getChunk(1);
+            int towrite = Math.min(src.remaining(), buf.remaining());
+            ByteBuffer part = src.duplicate();
+            part.limit(part.position() + towrite);
+            buf.put(part);
+            src.position(src.position() + towrite);
+        }
+    }
+
+    /**
+     * Prepare to write len bytes of data: check the state
+     * and the write limit, and set up the chunk buffer.
+     * Must be called before putting data into getChunk().
+     *
+     * @param len number of bytes that will be written
+     * @throws IOException if the write is not allowed
+     */
+
+    void startWrite(long len)
+            throws IOException
     {
         verifystate();
         if(writecount + len >= writelimit)
@@ -462,23 +521,25 @@ public class ChunkWriter extends OutputStream
             state = State.DATA;
         }
         assert (state == State.DATA);
-        if(b.length < off + len)
-            throw new BufferUnderflowException();
-        int left = len;
-        int offset = off;
-        while(left > 0) {
-            int avail = chunk.remaining();
-            do {
-                if(avail == 0) {
-                    writeChunk(DapUtil.CHUNK_DATA);
-                    avail = chunk.remaining();
-                }
-                int towrite = (left < avail ? left : avail);
-                chunk.put(b, off, towrite);
-                left -= towrite;
-                avail -= towrite;
-            } while(left > 0);
-        }
         writecount += len;
     }
+
+    /**
+     * Get the chunk buffer, so that data can be encoded
+     * directly into it; its byte order is the write order.
+     * If it has less than minspace bytes free, the
+     * current chunk is written out first.
+     *
+     * @param minspace the space the caller needs; at most the chunk size
+     * @return the chunk buffer, positioned at its free space
+     * @throws IOException if an I/O error occurs
+     */
+
+    ByteBuffer getChunk(int minspace)
+            throws IOException
+    {
+        if(chunk.remaining() < minspace)
+            writeChunk(DapUtil.CHUNK_DATA);
+        return chunk;
+    }
 }
@@ -11,18 +11,29 @@ import dap4.core.util.DapException;
 import dap4.dap4lib.DapCodes;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 /**
- * Provide an LRU cache of DSPs.
+ * Provide a concurrent LRU cache of DSPs, keyed by path.
  * It is expected (for now) that this is only used on the server side.
- * The cache key is assumed to be the DSP object.
- * The cache is synchronized to avoid race conditions.
- * Note that we do not have to release because Java
- * uses garbage collection and entries will be purged
- * if the LRU cache is full.
+ * <ul>
+ * <li> Only one thread opens the DSP for a given path; other threads
+ * asking for the same path wait for it (single-flight loading).
+ * <li> Each open() must be matched by a release(); a DSP that is
+ * evicted (or has expired) while in use is closed by the last release.
+ * <li> The maximum number of entries and their time to live are set
+ * by setCacheLimits().
+ * </ul>
  * Singleton class
  */
 
@@ -32,10 +43,30 @@ abstract public class DapCache
     //////////////////////////////////////////////////
     // Constants
 
-    static final int MAXFILES = 100; // size of the cache
+    static final int MAXFILES = 100; // default size of the cache
 
     static public final String MATCHMETHOD = "dspMatch";
 
+    //////////////////////////////////////////////////
+    // Type Decls
+
+    static protected class Entry
+    {
+        final String path;
+        final CountDownLatch loaded = new CountDownLatch(1);
+        DSP dsp = null;           // set when loaded
+        Throwable failure = null; // set if the load failed
+        long loadedAt;            // msecs
+        volatile long lastUsed;   // msecs
+        int refs = 0;             // number of open() not yet released
+        boolean retired = false;  // no longer in the cache; close when refs == 0
+
+        Entry(String path)
+        {
+            this.path = path;
+        }
+    }
+
     //////////////////////////////////////////////////
     // Static variables
 
@@ -45,9 +76,25 @@ abstract public class DapCache
     static public DSPRegistry dspregistry = new DSPRegistry();
 
     /**
-     * Define an lru cache of known DSP objects: oldest first.
+     * The cached DSP objects, by path.
      */
-    static protected List<DSP> lru = new ArrayList<DSP>();
+    static protected final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * The entry of each open DSP, so that release() can find it.
+     */
+    static protected final Map<DSP, Entry> owners = new IdentityHashMap<>();
+
+    static protected volatile int maxfiles = MAXFILES;
+    static protected volatile long ttl = 0; // msecs; 0 means no limit
+
+    static protected final Object evictlock = new Object();
+
+    // statistics
+    static protected final AtomicLong hits = new AtomicLong();
+    static protected final AtomicLong misses = new AtomicLong();
+    static protected final AtomicLong loadnanos = new AtomicLong();
+    static protected final AtomicLong evictions = new AtomicLong();
 
     // This should be set by any subclass
     static protected DSPFactory factory = null;
@@ -62,50 +109,260 @@ abstract public class DapCache
         return factory;
     }
 
-    static public synchronized DSP open(String path, DapContext cxt)
+    /**
+     * Set the cache limits.
+     *
+     * @param max    maximum number of cached DSPs
+     * @param ttlsecs a DSP is reopened when it has been open this long; 0 means no limit
+     */
+    static public void setCacheLimits(int max, long ttlsecs)
+    {
+        maxfiles = Math.max(1, max);
+        ttl = Math.max(0, ttlsecs) * 1000;
+        evict(null);
+    }
+
+    static public int getMaxFiles()
+    {
+        return maxfiles;
+    }
+
+    static public long getTTL() // secs
+    {
+        return ttl / 1000;
+    }
+
+    static public int size()
+    {
+        return entries.size();
+    }
+
+    static public long getHits()
+    {
+        return hits.get();
+    }
+
+    static public long getMisses()
+    {
+        return misses.get();
+    }
+
+    /**
+     * @return total time spent opening DSPs, in msecs
+     */
+    static public long getLoadTime()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(loadnanos.get());
+    }
+
+    static public long getEvictions()
+    {
+        return evictions.get();
+    }
+
+    /**
+     * Get the DSP for a path, opening it if it is not cached.
+     * The caller must release() it when done.
+     *
+     * @param path the resource path
+     * @param cxt  the dap context
+     * @return the DSP for path
+     * @throws IOException if no DSP matches path, or it cannot be opened
+     */
+    static public DSP open(String path, DapContext cxt)
             throws IOException
     {
         assert cxt != null;
-        int lrusize = lru.size();
-        for(int i = lrusize - 1; i >= 0; i--) {
-            DSP dsp = lru.get(i);
-            String dsppath = dsp.getLocation();
-            if(dsppath.equals(path)) {
-                // move to the front of the queue to maintain LRU property
-                lru.remove(i);
-                lru.add(dsp);
-                CEConstraint.release(lru.get(0).getDMR());
-                return dsp;
+        for(; ; ) {
+            Entry entry = entries.get(path);
+            boolean loader = false;
+            if(entry == null) {
+                Entry newentry = new Entry(path);
+                entry = entries.putIfAbsent(path, newentry);
+                if(entry == null) {
+                    entry = newentry;
+                    loader = true;
+                }
             }
+            if(loader)
+                load(entry, cxt);
+            else
+                await(entry);
+
+            boolean stale = false;
+            boolean got = false;
+            synchronized (entry) {
+                if(entry.failure != null) {
+                    if(entry.failure instanceof IOException)
+                        throw (IOException) entry.failure;
+                    if(entry.failure instanceof Error)
+                        throw (Error) entry.failure;
+                    throw (RuntimeException) entry.failure;
+                }
+                long now = System.currentTimeMillis();
+                if(!entry.retired) {
+                    if(ttl > 0 && !loader && now - entry.loadedAt > ttl)
+                        stale = true;
+                    else {
+                        entry.refs++;
+                        entry.lastUsed = now;
+                        got = true;
+                    }
+                }
+            }
+            if(stale)
+                retire(entry);
+            if(!got)
+                continue; // evicted or expired in the meantime; try again
+            if(loader)
+                evict(entry);
+            else
+                hits.incrementAndGet();
+            return entry.dsp;
         }
-        // No match found, create and initialize it.
-        // If cache is full, remove oldest entry
-        if(lrusize == MAXFILES) {
-            // make room
-            lru.remove(0);
-            CEConstraint.release(lru.get(0).getDMR());
-        }
-        // Find dsp that can process this path
-        DSP dsp = dspregistry.findMatchingDSP(path,cxt);
+    }
+
+    /**
+     * Release a DSP obtained from open().
+     *
+     * @param dsp the DSP; null is ignored
+     */
+    static public void release(DSP dsp)
+    {
         if(dsp == null)
-            throw new DapException("Resource has no matching DSP: " + path)
-                    .setCode(DapCodes.SC_FORBIDDEN);
-        dsp.setContext(cxt);
-        dsp.open(path);
-        lru.add(dsp);
-        return dsp;
+            return;
+        Entry entry;
+        synchronized (owners) {
+            entry = owners.get(dsp);
+        }
+        if(entry == null)
+            return; // flushed
+        boolean close = false;
+        synchronized (entry) {
+            if(entry.refs > 0) {
+                entry.refs--;
+                close = entry.retired && entry.refs == 0;
+            }
+        }
+        if(close)
+            close(entry);
     }
 
     static synchronized public void flush() // for testing
             throws Exception
     {
-        while(lru.size() > 0) {
-            DSP dsp = lru.get(0);
-            CEConstraint.release(dsp.getDMR());
-            dsp.close();
-            lru.remove(0);
+        for(Entry entry : new ArrayList<>(entries.values()))
+            retire(entry);
+    }
+
+    //////////////////////////////////////////////////
+    // Utilities
+
+    static protected void load(Entry entry, DapContext cxt)
+    {
+        misses.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            // Find dsp that can process this path
+            DSP dsp = dspregistry.findMatchingDSP(entry.path, cxt);
+            if(dsp == null)
+                throw new DapException("Resource has no matching DSP: " + entry.path)
+                        .setCode(DapCodes.SC_FORBIDDEN);
+            dsp.setContext(cxt);
+            dsp.open(entry.path);
+            synchronized (owners) {
+                owners.put(dsp, entry);
+            }
+            boolean flushed;
+            synchronized (entry) {
+                entry.dsp = dsp;
+                entry.loadedAt = System.currentTimeMillis();
+                flushed = entry.retired;
+            }
+            if(flushed)
+                close(entry);
+        } catch (Throwable e) { // including Errors from the DSP, else the entry would stay with no dsp
+            synchronized (entry) {
+                entry.failure = e;
+                entry.retired = true;
+            }
+            entries.remove(entry.path, entry);
+        } finally {
+            loadnanos.addAndGet(System.nanoTime() - start);
+            entry.loaded.countDown();
+        }
+    }
+
+    static protected void await(Entry entry)
+            throws IOException
+    {
+        try {
+            entry.loaded.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for " + entry.path);
+        }
+    }
+
+    /**
+     * Evict the least recently used entries until the cache is within its limit.
+     *
+     * @param keep do not evict this entry
+     */
+    static protected void evict(Entry keep)
+    {
+        if(entries.size() <= maxfiles)
+            return;
+        List<Entry> victims = new ArrayList<>();
+        synchronized (evictlock) {
+            int excess = entries.size() - maxfiles;
+            // Sort on a copy of lastUsed, since open() keeps changing it
+            List<Map.Entry<Long, Entry>> candidates = new ArrayList<>();
+            for(Entry entry : entries.values()) {
+                if(entry != keep && entry.loaded.getCount() == 0)
+                    candidates.add(new AbstractMap.SimpleImmutableEntry<>(entry.lastUsed, entry));
+            }
+            candidates.sort(Map.Entry.comparingByKey());
+            for(int i = 0; i < excess && i < candidates.size(); i++)
+                victims.add(candidates.get(i).getValue());
+        }
+        for(Entry entry : victims) {
+            if(retire(entry))
+                evictions.incrementAndGet();
         }
     }
 
+    /**
+     * Remove an entry from the cache, and close it if it is not in use.
+     *
+     * @return true if this call retired it
+     */
+    static protected boolean retire(Entry entry)
+    {
+        boolean close;
+        synchronized (entry) {
+            if(entry.retired)
+                return false;
+            entry.retired = true;
+            close = entry.refs == 0 && entry.dsp != null;
+        }
+        entries.remove(entry.path, entry);
+        if(close)
+            close(entry);
+        return true;
+    }
+
+    static protected void close(Entry entry)
+    {
+        synchronized (owners) {
+            owners.remove(entry.dsp);
+        }
+        try {
+            CEConstraint.release(entry.dsp.getDMR());
+            entry.dsp.close();
+        } catch (IOException e) {
+            // ignore; nothing useful can be done
+        }
+    }
 
 } // DapCache
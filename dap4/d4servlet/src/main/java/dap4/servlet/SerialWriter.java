@@ -64,6 +64,7 @@ public class SerialWriter
 
     protected ByteBuffer crcbuffer = null;
     protected ByteBuffer countbuffer = null;
+    protected ByteBuffer elembuffer = null; // for a value that spans two chunks
 
     //////////////////////////////////////////////////
     // Constructor(s)
@@ -77,6 +78,8 @@ public class SerialWriter
                 .order(order);
         this.crcbuffer = ByteBuffer.allocate(4) //4==sizeof(crc32 digest)
                 .order(order);
+        this.elembuffer = ByteBuffer.allocate(8) //8==max sizeof(atomic value)
+                .order(order);
         if("CRC32".equalsIgnoreCase(DapUtil.DIGESTER)) {
             // use the one from java.util.zip.CRC32
             this.checksum = new java.util.zip.CRC32();
@@ -297,6 +300,11 @@ public class SerialWriter
             throws IOException
     {
         assert values != null && values.getClass().isArray();
+        if(!(DEBUG || DUMPDATA || DUMPCSUM)
+                && output instanceof ChunkWriter
+                && ((ChunkWriter) output).getWriteOrder() == this.order
+                && writeFixedArray((ChunkWriter) output, daptype.getAtomicType(), values))
+            return;
         ByteBuffer buf = SerialWriter.encodeArray(daptype, values, this.order);
         byte[] bytes = buf.array();
         int len = buf.position();
@@ -311,6 +319,122 @@ public class SerialWriter
         }
     }
 
+    /**
+     * Write out an array of fixed size atomic values
+     * without encoding the whole array into an intermediate buffer.
+     * Byte arrays are handed to the ChunkWriter as is;
+     * other values are encoded straight into its chunk buffer,
+     * and each encoded piece is checksummed in place.
+     * The bytes written are the same as for encodeArray().
+     *
+     * @param cw       the output
+     * @param atomtype type of the values
+     * @param values   the array of values
+     * @return false if the type is not of fixed size, and nothing was written
+     * @throws IOException
+     */
+    protected boolean
+    writeFixedArray(ChunkWriter cw, TypeSort atomtype, Object values)
+            throws IOException
+    {
+        boolean csum = this.checksummode.enabled(ChecksumMode.DAP);
+        int count = Array.getLength(values);
+        switch (atomtype) {
+        case UInt8:
+        case Int8:
+            byte[] data8 = (byte[]) values;
+            if(csum)
+                this.checksum.update(data8, 0, count);
+            cw.write(ByteBuffer.wrap(data8));
+            return true;
+        case Char:
+        case Int16:
+        case UInt16:
+        case Int32:
+        case UInt32:
+        case Int64:
+        case UInt64:
+        case Float32:
+        case Float64:
+            break;
+        default:
+            return false;
+        }
+        int elemsize = TypeSort.getSize(atomtype);
+        cw.startWrite((long) count * elemsize);
+        int i = 0;
+        while(i < count) {
+            ByteBuffer chunk = cw.getChunk(1);
+            int n = Math.min(count - i, chunk.remaining() / elemsize);
+            if(n == 0) {
+                // The next value spans the end of this chunk
+                elembuffer.clear();
+                encodeValues(elembuffer, atomtype, values, i, 1);
+                elembuffer.flip();
+                if(csum)
+                    this.checksum.update(elembuffer.array(), 0, elemsize);
+                while(elembuffer.hasRemaining()) {
+                    chunk = cw.getChunk(1);
+                    int m = Math.min(elembuffer.remaining(), chunk.remaining());
+                    for(int k = 0; k < m; k++) {
+                        chunk.put(elembuffer.get());
+                    }
+                }
+                i++;
+                continue;
+            }
+            int start = chunk.position();
+            encodeValues(chunk, atomtype, values, i, n);
+            if(csum)
+                this.checksum.update(chunk.array(), chunk.arrayOffset() + start, n * elemsize);
+            i += n;
+        }
+        return true;
+    }
+
+    /**
+     * Encode values[start..start+n) into buf at its position,
+     * using the byte order of buf, and advance its position.
+     */
+    static protected void
+    encodeValues(ByteBuffer buf, TypeSort atomtype, Object values, int start, int n)
+    {
+        int pos = buf.position();
+        switch (atomtype) {
+        case Char:
+            char[] datac = (char[]) values;
+            for(int i = start; i < start + n; i++) {
+                buf.put((byte) (0xFFL & (long) (datac[i])));
+            }
+            return;
+        case Int16:
+        case UInt16:
+            buf.asShortBuffer().put((short[]) values, start, n);
+            buf.position(pos + 2 * n); // because we are using asXXXBuffer
+            return;
+        case Int32:
+        case UInt32:
+            buf.asIntBuffer().put((int[]) values, start, n);
+            buf.position(pos + 4 * n);
+            return;
+        case Int64:
+        case UInt64:
+            buf.asLongBuffer().put((long[]) values, start, n);
+            buf.position(pos + 8 * n);
+            return;
+        case Float32:
+            buf.asFloatBuffer().put((float[]) values, start, n);
+            buf.position(pos + 4 * n);
+            return;
+        case Float64:
+            buf.asDoubleBuffer().put((double[]) values, start, n);
+            buf.position(pos + 8 * n);
+            return;
+        default:
+            assert false : "Not a fixed size type: " + atomtype;
+        }
+    }
+
     /**
      * Write out a set of bytes
      *
@@ -0,0 +1,164 @@
+/* Copyright 2012, UCAR/Unidata.
+   See the LICENSE file for more information.
+*/
+
+package dap4.test;
+
+import dap4.core.data.ChecksumMode;
+import dap4.core.dmr.DapType;
+import dap4.core.dmr.TypeSort;
+import dap4.core.util.DapUtil;
+import dap4.dap4lib.RequestMode;
+import dap4.servlet.ChunkWriter;
+import dap4.servlet.SerialWriter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+/**
+ * TestChunkWriter checks that atomic arrays encoded straight
+ * into the chunks give the same response as encoding
+ * them with SerialWriter.encodeArray(), including
+ * values that span two chunks.
+ */
+
+public class TestChunkWriter
+{
+    static protected final int N = 100003; // several chunks for any type
+
+    static protected final String DMR = "<Dataset name=\"test\"/>";
+
+    /**
+     * A SerialWriter that always goes through encodeArray().
+     */
+    static protected class EncodingWriter extends SerialWriter
+    {
+        public EncodingWriter(ChunkWriter output, ByteOrder order, ChecksumMode mode)
+        {
+            super(output, order, mode);
+        }
+
+        @Override
+        protected boolean
+        writeFixedArray(ChunkWriter cw, TypeSort atomtype, Object values)
+        {
+            return false;
+        }
+    }
+
+    @Test
+    public void testTypes()
+            throws Exception
+    {
+        Random r = new Random(24);
+        byte[] v8 = new byte[N];
+        r.nextBytes(v8);
+        char[] vc = new char[N];
+        short[] v16 = new short[N];
+        int[] v32 = new int[N];
+        long[] v64 = new long[N];
+        float[] vf = new float[N];
+        double[] vd = new double[N];
+        for(int i = 0; i < N; i++) {
+            vc[i] = (char) ('a' + r.nextInt(26));
+            v16[i] = (short) r.nextInt();
+            v32[i] = r.nextInt();
+            v64[i] = r.nextLong();
+            vf[i] = r.nextFloat();
+            vd[i] = r.nextGaussian();
+        }
+        for(ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+            check(DapType.INT8, v8, order);
+            check(DapType.CHAR, vc, order);
+            check(DapType.INT16, v16, order);
+            check(DapType.UINT32, v32, order);
+            check(DapType.INT64, v64, order);
+            check(DapType.FLOAT32, vf, order);
+            check(DapType.FLOAT64, vd, order);
+        }
+    }
+
+    @Test
+    public void testSmall()
+            throws Exception
+    {
+        check(DapType.FLOAT64, new double[]{1.5}, ByteOrder.BIG_ENDIAN);
+        check(DapType.INT8, new byte[0], ByteOrder.LITTLE_ENDIAN);
+    }
+
+    protected void
+    check(DapType type, Object values, ByteOrder order)
+            throws Exception
+    {
+        String msg = type.getShortName() + " " + order;
+        ByteArrayOutputStream direct = new ByteArrayOutputStream();
+        String dcsum = write(direct, false, type, values, order);
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        String ecsum = write(encoded, true, type, values, order);
+        Assert.assertEquals(msg, ecsum, dcsum);
+        Assert.assertArrayEquals(msg, encoded.toByteArray(), direct.toByteArray());
+
+        // The chunk payloads must be the dmr, count, values and checksum
+        ByteBuffer payload = dechunk(direct.toByteArray());
+        payload.position(payload.position() + DapUtil.extract(DapUtil.UTF8.encode(
+                ChunkWriter.XMLDOCUMENTHEADER + "\n" + DMR + DapUtil.CRLF)).length);
+        payload.order(order);
+        int count = java.lang.reflect.Array.getLength(values);
+        Assert.assertEquals(msg, count, payload.getLong());
+        byte[] want = DapUtil.extract(SerialWriter.encodeArray(type, values, order));
+        byte[] got = new byte[want.length];
+        payload.get(got);
+        Assert.assertArrayEquals(msg, want, got);
+        CRC32 crc = new CRC32();
+        crc.update(DapUtil.extract(ByteBuffer.allocate(8).order(order).putLong(0, count)));
+        crc.update(want);
+        Assert.assertEquals(msg, String.format("%08x", crc.getValue()), dcsum);
+        Assert.assertEquals(msg, (int) crc.getValue(), payload.getInt());
+        Assert.assertFalse(msg, payload.hasRemaining());
+    }
+
+    protected String
+    write(ByteArrayOutputStream out, boolean encode, DapType type, Object values, ByteOrder order)
+            throws IOException
+    {
+        ChunkWriter cw = new ChunkWriter(out, RequestMode.DAP, order);
+        cw.setWriteLimit(Long.MAX_VALUE);
+        cw.cacheDMR(DMR);
+        cw.flush();
+        SerialWriter sw = encode ? new EncodingWriter(cw, order, ChecksumMode.DAP)
+                : new SerialWriter(cw, order, ChecksumMode.DAP);
+        sw.startVariable();
+        sw.writeCount(java.lang.reflect.Array.getLength(values)); // misalign the values
+        sw.writeAtomicArray(type, values);
+        sw.endVariable();
+        cw.close();
+        return sw.getLastChecksum();
+    }
+
+    // Strip the chunk headers, checking that only the last chunk is marked as the end
+    protected ByteBuffer
+    dechunk(byte[] response)
+    {
+        ByteBuffer src = ByteBuffer.wrap(response).order(ByteOrder.BIG_ENDIAN);
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        boolean end = false;
+        while(src.hasRemaining()) {
+            Assert.assertFalse("data after the last chunk", end);
+            int hdr = src.getInt();
+            int flags = hdr >>> 24;
+            int len = hdr & 0xFFFFFF;
+            Assert.assertTrue(len <= 0xFFFF);
+            end = (flags & DapUtil.CHUNK_END) != 0;
+            payload.write(response, src.position(), len);
+            src.position(src.position() + len);
+        }
+        Assert.assertTrue("no last chunk", end);
+        return ByteBuffer.wrap(payload.toByteArray());
+    }
+}
@@ -0,0 +1,208 @@
+/* Copyright 2012, UCAR/Unidata.
+   See the LICENSE file for more information.
+*/
+
+package dap4.test;
+
+import dap4.core.data.DSP;
+import dap4.core.data.DSPRegistry;
+import dap4.core.util.DapContext;
+import dap4.core.util.DapException;
+import dap4.dap4lib.AbstractDSP;
+import dap4.servlet.DapCache;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TestDapCache checks the loading, reference counting
+ * and eviction of the DSP cache.
+ */
+
+public class TestDapCache
+{
+    static protected final String PREFIX = "/testdapcache/";
+
+    static protected final AtomicInteger opens = new AtomicInteger();
+    static protected final AtomicInteger closes = new AtomicInteger();
+
+    /**
+     * A DSP that takes a while to open, and counts opens and closes.
+     */
+    static public class CountingDSP extends AbstractDSP
+    {
+        public boolean closed = false;
+
+        public CountingDSP()
+        {
+        }
+
+        @Override
+        public boolean dspMatch(String path, DapContext context)
+        {
+            return path.startsWith(PREFIX);
+        }
+
+        @Override
+        public CountingDSP open(String location)
+                throws DapException
+        {
+            if(location.endsWith("bad"))
+                throw new DapException("cannot open " + location);
+            if(location.endsWith("broken"))
+                throw new AssertionError("broken " + location);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                throw new DapException(e);
+            }
+            setLocation(location);
+            opens.incrementAndGet();
+            return this;
+        }
+
+        @Override
+        public void close()
+        {
+            Assert.assertFalse("closed twice", closed);
+            closed = true;
+            closes.incrementAndGet();
+        }
+    }
+
+    //////////////////////////////////////////////////
+
+    @Before
+    public void setup()
+            throws Exception
+    {
+        DapCache.flush();
+        DapCache.dspregistry.register(CountingDSP.class, DSPRegistry.FIRST);
+        opens.set(0);
+        closes.set(0);
+    }
+
+    @After
+    public void cleanup()
+            throws Exception
+    {
+        DapCache.flush();
+        DapCache.setCacheLimits(100, 0);
+        DapCache.dspregistry.unregister(CountingDSP.class);
+    }
+
+    @Test
+    public void testSingleFlight()
+            throws Exception
+    {
+        long misses = DapCache.getMisses();
+        long hits = DapCache.getHits();
+        int nthreads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(nthreads);
+        try {
+            List<Callable<DSP>> tasks = new ArrayList<>();
+            for(int i = 0; i < nthreads; i++)
+                tasks.add(() -> DapCache.open(PREFIX + "one", new DapContext()));
+            List<DSP> dsps = new ArrayList<>();
+            for(Future<DSP> f : pool.invokeAll(tasks))
+                dsps.add(f.get());
+            for(DSP dsp : dsps)
+                Assert.assertSame(dsps.get(0), dsp);
+            Assert.assertEquals(1, opens.get());
+            Assert.assertEquals(1, DapCache.getMisses() - misses);
+            Assert.assertEquals(nthreads - 1, DapCache.getHits() - hits);
+            for(DSP dsp : dsps)
+                DapCache.release(dsp);
+            Assert.assertEquals(0, closes.get());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testEvictInUse()
+            throws Exception
+    {
+        DapCache.setCacheLimits(2, 0);
+        CountingDSP a = (CountingDSP) DapCache.open(PREFIX + "a", new DapContext());
+        DapCache.release(DapCache.open(PREFIX + "b", new DapContext()));
+        DapCache.release(DapCache.open(PREFIX + "c", new DapContext()));
+
+        // a is the least recently used, so it is evicted, but not closed
+        Assert.assertEquals(2, DapCache.size());
+        Assert.assertEquals(0, closes.get());
+        Assert.assertFalse("evicted while in use", a.closed);
+
+        DapCache.release(DapCache.open(PREFIX + "d", new DapContext()));
+        Assert.assertEquals(2, DapCache.size());
+        Assert.assertEquals(1, closes.get()); // b
+
+        DapCache.release(a);
+        Assert.assertTrue(a.closed);
+        Assert.assertEquals(2, closes.get());
+
+        // a is reopened, evicting c
+        DSP a2 = DapCache.open(PREFIX + "a", new DapContext());
+        Assert.assertNotSame(a, a2);
+        DapCache.release(a2);
+        Assert.assertEquals(5, opens.get());
+        Assert.assertEquals(3, closes.get());
+    }
+
+    @Test
+    public void testTTL()
+            throws Exception
+    {
+        DapCache.setCacheLimits(10, 1);
+        DSP dsp = DapCache.open(PREFIX + "ttl", new DapContext());
+        DapCache.release(dsp);
+        Thread.sleep(1100);
+        DSP dsp2 = DapCache.open(PREFIX + "ttl", new DapContext());
+        DapCache.release(dsp2);
+        Assert.assertNotSame(dsp, dsp2);
+        Assert.assertEquals(2, opens.get());
+        Assert.assertEquals(1, closes.get());
+    }
+
+    @Test
+    public void testFailure()
+            throws Exception
+    {
+        for(int i = 0; i < 2; i++) {
+            try {
+                DapCache.open(PREFIX + "bad", new DapContext());
+                Assert.fail("expected DapException");
+            } catch (DapException e) {
+                // expected; the failure is not cached
+            }
+        }
+        Assert.assertEquals(0, DapCache.size());
+    }
+
+    @Test
+    public void testError()
+            throws Exception
+    {
+        long hits = DapCache.getHits();
+        for(int i = 0; i < 2; i++) {
+            try {
+                DapCache.open(PREFIX + "broken", new DapContext());
+                Assert.fail("expected AssertionError");
+            } catch (AssertionError e) {
+                // expected; not cached as an entry with no DSP
+                Assert.assertEquals("broken " + PREFIX + "broken", e.getMessage());
+            }
+        }
+        Assert.assertEquals(0, DapCache.size());
+        Assert.assertEquals(hits, DapCache.getHits());
+    }
+}
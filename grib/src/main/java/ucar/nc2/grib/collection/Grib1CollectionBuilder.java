@@ -60,31 +60,37 @@ public class Grib1CollectionBuilder extends GribCollectionBuilder {
 
     // place each record into its group
     int totalRecords = 0;
-    try (CloseableIterator<MFile> iter = dcm.getFileIterator()) { // not sorted
+    try (CloseableIterator<MFile> iter = dcm.getFileIterator(); // not sorted
+         // here is where gbx9 files get recreated, concurrently if GribIndexPool is on
+         GribIndexPool.ScanAhead<MFile, GribIndex> scans = (iter == null) ? null : GribIndexPool.scanAhead(iter,
+                 mfile -> Grib.debugGbxIndexOnly ? null : GribIndex.readOrCreateIndexFromSingleFile(true, mfile, CollectionUpdateType.test, logger))) {
       if (iter == null)
         return new ArrayList<>(); // empty
 
-      while (iter.hasNext()) {
-        MFile mfile = iter.next();
+      while (scans.hasNext()) {
+        GribIndexPool.Scanned<MFile, GribIndex> scanned = scans.next();
+        MFile mfile = scanned.item;
         Grib1Index index;
         try {
           if (Grib.debugGbxIndexOnly) {
             index = (Grib1Index) GribIndex.open(true, mfile);
             if (index == null) continue;
           } else {
-            // here is where gbx9 files get recreated
-            index = (Grib1Index) GribIndex.readOrCreateIndexFromSingleFile(true, mfile, CollectionUpdateType.test, logger);
+            index = (Grib1Index) scanned.get();
           }
           allFiles.add(mfile);  // add on success
 
         } catch (IOException ioe) {
           logger.error("Grib2CollectionBuilder " + name + " : reading/Creating gbx9 index for file " + mfile.getPath() + " failed", ioe);
+          GribIndexPool.fileFailed();
           continue;
         }
         if (index == null) {
           logger.error("Grib2CollectionBuilder " + name + " : reading/Creating gbx9 index for file " + mfile.getPath() + " failed");
+          GribIndexPool.fileFailed();
           continue;
         }
+        GribIndexPool.fileScanned(index.getNRecords());
 
         /* add all gcs to tracker
         for (Grib1SectionGridDefinition gds : index.getGds()) {
@@ -89,6 +89,7 @@ class Grib1CollectionWriter extends GribCollectionWriter {
 
     if (idxFile.exists()) {
       RandomAccessFile.eject(idxFile.getPath());
+      GribIndexMapper.remove(idxFile.getPath());
       if (!idxFile.delete())
         logger.warn(" gc1 cant delete index file {}", idxFile.getPath());
     }
@@ -61,33 +61,39 @@ class Grib2CollectionBuilder extends GribCollectionBuilder {
 
     // place each record into its group
     int totalRecords = 0;
-    try (CloseableIterator<MFile> iter = dcm.getFileIterator()) { // not sorted
+    try (CloseableIterator<MFile> iter = dcm.getFileIterator(); // not sorted
+         // this is where gbx9 files get recreated, concurrently if GribIndexPool is on
+         GribIndexPool.ScanAhead<MFile, GribIndex> scans = (iter == null) ? null : GribIndexPool.scanAhead(iter,
+                 mfile -> Grib.debugGbxIndexOnly ? null : GribIndex.readOrCreateIndexFromSingleFile(false, mfile, CollectionUpdateType.test, logger))) {
       if (iter == null)
         return new ArrayList<>(); // empty
 
-      while (iter.hasNext()) {
-        MFile mfile = iter.next();
+      while (scans.hasNext()) {
+        GribIndexPool.Scanned<MFile, GribIndex> scanned = scans.next();
+        MFile mfile = scanned.item;
         Grib2Index index;
 
         try {
           if (Grib.debugGbxIndexOnly) {
              index = (Grib2Index) GribIndex.open(false, mfile);
            } else {
-             // this is where gbx9 files get recreated
-             index = (Grib2Index) GribIndex.readOrCreateIndexFromSingleFile(false, mfile, CollectionUpdateType.test, logger);
+             index = (Grib2Index) scanned.get();
            }
           allFiles.add(mfile);  // add on success
 
         } catch (IOException ioe) {
           logger.error("Grib2CollectionBuilder " + name + " : reading/Creating gbx9 index for file " + mfile.getPath() + " failed", ioe);
+          GribIndexPool.fileFailed();
           continue;
         }
         if (index == null) {
           logger.error("Grib2CollectionBuilder " + name + " : reading/Creating gbx9 index for file " + mfile.getPath() + " failed");
+          GribIndexPool.fileFailed();
           continue;
         }
         int n = index.getNRecords();
         totalRecords += n;
+        GribIndexPool.fileScanned(n);
 
         for (Grib2Record gr : index.getRecords()) { // we are using entire Grib2Record - memory limitations
           if (this.cust == null) {
@@ -91,6 +91,7 @@ class Grib2CollectionWriter extends GribCollectionWriter {
 
     if (idxFile.exists()) {
       RandomAccessFile.eject(idxFile.getPath());
+      GribIndexMapper.remove(idxFile.getPath());
       if (!idxFile.delete()) {
         logger.error("gc2 cant delete index file {}", idxFile.getPath());
       }
@@ -33,10 +33,14 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Formatter;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -200,6 +204,7 @@ public class GribCdmIndex implements IndexReader {
     } catch (Throwable t) {
       logger.warn("GribCdmIndex.openCdmIndex failed on " + indexFilenameInCache, t);
       RandomAccessFile.eject(indexFilenameInCache);
+      GribIndexMapper.remove(indexFilenameInCache);
       if (!indexFileInCache.delete())
         logger.warn("failed to delete {}", indexFileInCache.getPath());
     }
@@ -249,6 +254,7 @@ public class GribCdmIndex implements IndexReader {
 
     if (result == null) {
       RandomAccessFile.eject(indexFilenameInCache);
+      GribIndexMapper.remove(indexFilenameInCache);
       if (!indexFileInCache.delete())
         logger.warn("failed to delete {}", indexFileInCache.getPath());
     }
@@ -342,6 +348,7 @@ public class GribCdmIndex implements IndexReader {
       Grib2CollectionBuilder builder = new Grib2CollectionBuilder(dcm.getCollectionName(), dcm, logger);
       changed = builder.updateNeeded(updateType) && builder.createIndex(ptype, errlog);
     }
+    if (changed) GribIndexPool.collectionWritten();
     return changed;
   }
 
@@ -357,6 +364,7 @@ public class GribCdmIndex implements IndexReader {
       Grib2PartitionBuilder builder = new Grib2PartitionBuilder(dcm.getCollectionName(), new File(dcm.getRoot()), dcm, logger);
       changed = builder.updateNeeded(updateType) && builder.createPartitionedIndex(updateType, errlog);
     }
+    if (changed) GribIndexPool.partitionWritten();
     return changed;
   }
 
@@ -368,16 +376,21 @@ public class GribCdmIndex implements IndexReader {
 
     long start = System.currentTimeMillis();
     Formatter errlog = new Formatter();
+    List<MCollection> failed = Collections.synchronizedList(new ArrayList<>());
 
-    for (MCollection part : tp.makePartitions(updateType)) {
+    // the component grib collections, concurrently if GribIndexPool is on
+    Map<MCollection, Formatter> partErrlogs = makeErrlogs(tp.makePartitions(updateType));
+    GribIndexPool.forEach(partErrlogs.keySet(), part -> {
       try {
-        updateGribCollection(isGrib1, part, updateType, FeatureCollectionConfig.PartitionType.timePeriod, logger, errlog);
+        updateGribCollection(isGrib1, part, updateType, FeatureCollectionConfig.PartitionType.timePeriod, logger, partErrlogs.get(part));
 
       } catch (Throwable t) {
         logger.warn("Error making partition " + part.getRoot(), t);
-        tp.removePartition(part); // keep on truckin; can happen if directory is empty
+        failed.add(part);
       }
-    }   // loop over component grib collections
+    });
+    appendErrlogs(partErrlogs, errlog);
+    removePartitions(tp, failed); // keep on truckin; can happen if directory is empty
 
 
     try {
@@ -398,6 +411,28 @@ public class GribCdmIndex implements IndexReader {
     }
   }
 
+  // children that failed are removed after they are all done, since the partitions are not thread-safe
+  static private void removePartitions(PartitionManager partition, List<MCollection> failed) {
+    for (MCollection part : failed) {
+      partition.removePartition(part);
+      GribIndexPool.partitionFailed();
+    }
+  }
+
+  // each child gets its own errlog, so children updated concurrently dont interleave their messages
+  static private <T> Map<T, Formatter> makeErrlogs(Iterable<T> children) {
+    Map<T, Formatter> result = new LinkedHashMap<>();
+    for (T child : children)
+      result.put(child, new Formatter());
+    return result;
+  }
+
+  // then they are appended to the parent errlog, in the order of the children
+  static private void appendErrlogs(Map<?, Formatter> childErrlogs, Formatter errlog) {
+    for (Formatter childErrlog : childErrlogs.values())
+      errlog.format("%s", childErrlog);
+  }
+
   static private boolean isUpdateNeeded(String idxFilenameOrg, CollectionUpdateType updateType, GribCollectionType wantType, Logger logger) {
     if (updateType == CollectionUpdateType.never) return false;
 
@@ -417,6 +452,7 @@ public class GribCdmIndex implements IndexReader {
 
       if (bad) { // delete the file and remove from cache if its in there
         RandomAccessFile.eject(collectionIndexFile.getPath());
+        GribIndexMapper.remove(collectionIndexFile.getPath());
         if (!collectionIndexFile.delete())
           logger.warn("failed to delete {}", collectionIndexFile.getPath());
       }
@@ -435,9 +471,10 @@ public class GribCdmIndex implements IndexReader {
 
     long start = System.currentTimeMillis();
 
-    // check the children partitions first
+    // check the children partitions first, concurrently if GribIndexPool is on
     if (updateType != CollectionUpdateType.testIndexOnly) {   // skip children on testIndexOnly
-      for (MCollection part : dpart.makePartitions(updateType)) {
+      List<MCollection> failed = Collections.synchronizedList(new ArrayList<>());
+      GribIndexPool.forEach(dpart.makePartitions(updateType), part -> {
         part.putAuxInfo(FeatureCollectionConfig.AUX_CONFIG, config);
         try {
           if (part instanceof DirectoryPartition) {   // LOOK if child partition fails, the parent partition doesnt know that - suckage
@@ -448,13 +485,14 @@ public class GribCdmIndex implements IndexReader {
           }
         } catch (IllegalStateException t) {
           logger.warn("Error making partition {} '{}'", part.getRoot(), t.getMessage());
-          dpart.removePartition(part); // keep on truckin; can happen if directory is empty
+          failed.add(part); // keep on truckin; can happen if directory is empty
 
         } catch (Throwable t) {
           logger.error("Error making partition " + part.getRoot(), t);
-          dpart.removePartition(part);
+          failed.add(part);
         }
-      }   // loop over partitions
+      });
+      removePartitions(dpart, failed);
     }
 
     try {
@@ -537,27 +575,31 @@ public class GribCdmIndex implements IndexReader {
 
       final AtomicBoolean anyChange = new AtomicBoolean(false); // just need a mutable boolean we can declare final
 
-      // redo the children here
+      // redo the children here, concurrently if GribIndexPool is on
       if (updateType != CollectionUpdateType.testIndexOnly) {   // skip children on testIndexOnly
-        partition.iterateOverMFileCollection(new DirectoryCollection.Visitor() {
-          public void consume(MFile mfile) {
-            MCollection part = new CollectionSingleFile(mfile, logger);
-            part.putAuxInfo(FeatureCollectionConfig.AUX_CONFIG, config);
-
-            try {
-              boolean changed = updateGribCollection(isGrib1, part, updateType, FeatureCollectionConfig.PartitionType.file, logger, errlog);
-              if (changed) anyChange.set(true);
-
-            } catch (IllegalStateException t) {
-              logger.warn("Error making partition {} '{}'", part.getRoot(), t.getMessage());
-              partition.removePartition(part); // keep on truckin; can happen if directory is empty
-
-            } catch (Throwable t) {
-              logger.error("Error making partition " + part.getRoot(), t);
-              partition.removePartition(part);
-            }
+        List<MFile> mfiles = new ArrayList<>();
+        partition.iterateOverMFileCollection(mfiles::add);
+        Map<MFile, Formatter> fileErrlogs = makeErrlogs(mfiles);
+        List<MCollection> failed = Collections.synchronizedList(new ArrayList<>());
+        GribIndexPool.forEach(fileErrlogs.keySet(), mfile -> {
+          MCollection part = new CollectionSingleFile(mfile, logger);
+          part.putAuxInfo(FeatureCollectionConfig.AUX_CONFIG, config);
+
+          try {
+            boolean changed = updateGribCollection(isGrib1, part, updateType, FeatureCollectionConfig.PartitionType.file, logger, fileErrlogs.get(mfile));
+            if (changed) anyChange.set(true);
+
+          } catch (IllegalStateException t) {
+            logger.warn("Error making partition {} '{}'", part.getRoot(), t.getMessage());
+            failed.add(part); // keep on truckin; can happen if directory is empty
+
+          } catch (Throwable t) {
+            logger.error("Error making partition " + part.getRoot(), t);
+            failed.add(part);
           }
         });
+        appendErrlogs(fileErrlogs, errlog);
+        removePartitions(partition, failed);
       }
 
       // LOOK what if theres only one file?
@@ -968,6 +1010,9 @@ public class GribCdmIndex implements IndexReader {
     @Parameter(names = {"-update", "--CollectionUpdateType"}, description = "Collection Update Type")
     public CollectionUpdateType updateType = CollectionUpdateType.always;
 
+    @Parameter(names = {"-nthreads", "--nthreads"}, description = "Number of threads to index with")
+    public int nthreads = 1;
+
     @Parameter(names = {"-h", "--help"}, description = "Display this help and exit", help = true)
     public boolean help = false;
 
@@ -980,7 +1025,7 @@ public class GribCdmIndex implements IndexReader {
 
     private static class ParameterDescriptionComparator implements Comparator<ParameterDescription> {
       // Display parameters in this order in the usage information.
-      private final List<String> orderedParamNames = Arrays.asList("--featureCollection", "--CollectionUpdateType", "--help");
+      private final List<String> orderedParamNames = Arrays.asList("--featureCollection", "--CollectionUpdateType", "--nthreads", "--help");
 
       @Override
       public int compare(ParameterDescription p0, ParameterDescription p1) {
@@ -1024,8 +1069,10 @@ public class GribCdmIndex implements IndexReader {
         FeatureCollectionConfigBuilder reader = new FeatureCollectionConfigBuilder(errlog);
         String location = cmdLine.inputFile.getAbsolutePath();
         FeatureCollectionConfig config = reader.readConfigFromFile(location);
+        GribIndexPool.setNThreads(cmdLine.nthreads);
         boolean changed = GribCdmIndex.updateGribCollection(config, cmdLine.updateType, classLogger);
         System.out.printf("changed = %s%n", changed);
+        System.out.printf("%s%n", GribIndexPool.getStats());
 
       } catch (Exception e) {
         System.out.printf("%s = %s %n", e.getClass().getName(), e.getMessage());
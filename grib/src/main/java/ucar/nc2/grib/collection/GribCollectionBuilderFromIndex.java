@@ -18,6 +18,7 @@ import ucar.nc2.time.CalendarPeriod;
 import ucar.unidata.io.RandomAccessFile;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.*;
 
 /**
@@ -85,8 +86,13 @@ abstract class GribCollectionBuilderFromIndex {
       }
       if (debug) System.out.printf("GribCollectionBuilderFromIndex proto len = %d%n", size);
 
-      byte[] m = new byte[size];
-      raf.readFully(m);
+      // decode from the mapped index if we can, else read it into the heap
+      ByteBuffer mapped = GribIndexMapper.getBuffer(raf.getLocation());
+      byte[] m = null;
+      if (mapped == null) {
+        m = new byte[size];
+        raf.readFully(m);
+      }
 
       /*
       message GribCollection {
@@ -115,7 +121,8 @@ abstract class GribCollectionBuilderFromIndex {
       }
        */
 
-      GribCollectionProto.GribCollection proto = GribCollectionProto.GribCollection.parseFrom(m);
+      GribCollectionProto.GribCollection proto = (mapped == null) ? GribCollectionProto.GribCollection.parseFrom(m) :
+              GribCollectionProto.GribCollection.parseFrom(GribIndexMapper.getInputStream(mapped, raf.getFilePointer(), size));
 
       // need to read this first to get this.tables initialized
       gc.center = proto.getCenter();
@@ -34,6 +34,8 @@ import java.io.Closeable;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -454,6 +456,7 @@ public abstract class GribCollectionImmutable implements Closeable, FileCacheabl
 
     // read in on demand
     private SparseArray<Record> sa;   // for GC only; lazily read; same array shape as variable, minus x and y
+    private SoftReference<SparseArray<Record>> saRef; // instead of sa, when the index is memory mapped
 
     protected VariableIndex(GroupGC g, GribCollectionMutable.VariableIndex gcVar) {
       this.group = g;
@@ -470,58 +473,93 @@ public abstract class GribCollectionImmutable implements Closeable, FileCacheabl
     }
 
     public synchronized void readRecords() throws IOException {
-      if (this.sa != null) return;
+      if (getRecordsIfRead() != null) return;
 
       if (recordsLen == 0)
         return;
-      byte[] b = new byte[recordsLen];
 
-      try (RandomAccessFile indexRaf = RandomAccessFile.acquire(indexFilename)) {
-
-        indexRaf.seek(recordsPos);
-        indexRaf.readFully(b);
-
-        /*
-        message SparseArray {
-          repeated uint32 size = 2 [packed=true];     // multidim sizes = shape[]
-          repeated uint32 track = 3 [packed=true];    // 1-based index into record list, 0 == missing
-          repeated Record records = 4;                // List<Record>
-          uint32 ndups = 5;                           // duplicates found when creating
-        }
-       */
-        GribCollectionProto.SparseArray proto = GribCollectionProto.SparseArray.parseFrom(b);
-
-        int nsizes = proto.getSizeCount();
-        int[] size = new int[nsizes];
-        for (int i = 0; i < nsizes; i++)
-          size[i] = proto.getSize(i);
-
-        int ntrack = proto.getTrackCount();
-        int[] track = new int[ntrack];
-        for (int i = 0; i < ntrack; i++)
-          track[i] = proto.getTrack(i);
-
-        int n = proto.getRecordsCount();
-        List<Record> records = new ArrayList<>(n);
-        for (int i = 0; i < n; i++) {
-          GribCollectionProto.Record pr = proto.getRecords(i);
-          records.add(new Record(pr.getFileno(), pr.getStartPos(), pr.getBmsOffset(), pr.getDrsOffset()));
+      /*
+      message SparseArray {
+        repeated uint32 size = 2 [packed=true];     // multidim sizes = shape[]
+        repeated uint32 track = 3 [packed=true];    // 1-based index into record list, 0 == missing
+        repeated Record records = 4;                // List<Record>
+        uint32 ndups = 5;                           // duplicates found when creating
+      }
+     */
+      GribCollectionProto.SparseArray proto;
+      ByteBuffer mapped = GribIndexMapper.getBuffer(indexFilename);
+      try {
+        if (mapped != null) {
+          proto = GribCollectionProto.SparseArray.parseFrom(GribIndexMapper.getInputStream(mapped, recordsPos, recordsLen));
+
+        } else {
+          byte[] b = new byte[recordsLen];
+          try (RandomAccessFile indexRaf = RandomAccessFile.acquire(indexFilename)) {
+            indexRaf.seek(recordsPos);
+            indexRaf.readFully(b);
+          }
+          proto = GribCollectionProto.SparseArray.parseFrom(b);
         }
-        int ndups = proto.getNdups();
-        this.sa = new SparseArray<>(size, track, records, ndups);
 
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
         logger.error(" file={} recordsLen={} recordPos={}", indexFilename, recordsLen, recordsPos);
         throw e;
       }
+
+      int nsizes = proto.getSizeCount();
+      int[] size = new int[nsizes];
+      for (int i = 0; i < nsizes; i++)
+        size[i] = proto.getSize(i);
+
+      int ntrack = proto.getTrackCount();
+      int[] track = new int[ntrack];
+      for (int i = 0; i < ntrack; i++)
+        track[i] = proto.getTrack(i);
+
+      int n = proto.getRecordsCount();
+      RecordList records = new RecordList(n);
+      for (int i = 0; i < n; i++) {
+        GribCollectionProto.Record pr = proto.getRecords(i);
+        records.set(i, pr.getFileno(), pr.getStartPos(), pr.getBmsOffset(), pr.getDrsOffset());
+      }
+      int ndups = proto.getNdups();
+      SparseArray<Record> result = new SparseArray<>(size, track, records, ndups);
+
+      if (mapped != null)
+        this.saRef = new SoftReference<>(result);
+      else
+        this.sa = result;
+    }
+
+    private SparseArray<Record> getRecordsIfRead() {
+      if (sa != null) return sa;
+      return (saRef == null) ? null : saRef.get();
+    }
+
+    // read the records again if they were dropped
+    private SparseArray<Record> getRecords() {
+      SparseArray<Record> result = getRecordsIfRead();
+      if (result != null || saRef == null) return result;
+      try {
+        readRecords();
+      } catch (IOException e) {
+        throw new RuntimeException("Failed to read records from " + indexFilename, e);
+      }
+      return getRecordsIfRead();
+    }
+
+    // drop the records read from a mapped index, as the garbage collector may; for testing
+    synchronized void clearSoftRecords() {
+      if (saRef != null)
+        saRef.clear();
     }
 
     public synchronized Record getRecordAt(int sourceIndex) {
-      return sa.getContent(sourceIndex);
+      return getRecords().getContent(sourceIndex);
     }
 
     public synchronized Record getRecordAt(int[] sourceIndex) {
-      return sa.getContent(sourceIndex);
+      return getRecords().getContent(sourceIndex);
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -602,7 +640,7 @@ public abstract class GribCollectionImmutable implements Closeable, FileCacheabl
 
         want[count++] = idx;
       }
-      return sa.getContent(want);
+      return getRecords().getContent(want);
     }
 
     public List<Coordinate> getCoordinates() {
@@ -638,12 +676,13 @@ public abstract class GribCollectionImmutable implements Closeable, FileCacheabl
       return coordIndex;
     }
 
-    public SparseArray<Record> getSparseArray() {
-      return sa;
+    public synchronized SparseArray<Record> getSparseArray() {
+      return getRecords();
     }
 
-    public int getNRecords() {
-      return sa == null ? -1 : sa.countNotMissing();
+    public synchronized int getNRecords() {
+      SparseArray<Record> records = getRecordsIfRead();
+      return records == null ? -1 : records.countNotMissing();
     }
 
     public int getTableVersion() {
@@ -851,6 +890,38 @@ public abstract class GribCollectionImmutable implements Closeable, FileCacheabl
     }
   }
 
+  // The records of a variable, stored compactly. The Record objects are made on demand.
+  private static class RecordList extends AbstractList<Record> implements RandomAccess {
+    private final int[] fileno;
+    private final long[] pos;
+    private final int[] bmsOffset;
+    private final int[] drsOffset;
+
+    RecordList(int n) {
+      fileno = new int[n];
+      pos = new long[n];
+      bmsOffset = new int[n];
+      drsOffset = new int[n];
+    }
+
+    void set(int i, int fileno, long pos, int bmsOffset, int drsOffset) {
+      this.fileno[i] = fileno;
+      this.pos[i] = pos;
+      this.bmsOffset[i] = bmsOffset;
+      this.drsOffset[i] = drsOffset;
+    }
+
+    @Override
+    public Record get(int i) {
+      return new Record(fileno[i], pos[i], bmsOffset[i], drsOffset[i]);
+    }
+
+    @Override
+    public int size() {
+      return fileno.length;
+    }
+  }
+
   //////////////////////////////////////////////////////////////////////////////////////////////////
   // stuff for FileCacheable
 
@@ -858,6 +929,7 @@ public abstract class GribCollectionImmutable implements Closeable, FileCacheabl
     if (objCache != null) {
       if (objCache.release(this)) return;
     }
+    GribIndexMapper.remove(indexFilename);
   }
 
   // release any resources like file handles
@@ -28,6 +28,7 @@ import ucar.unidata.io.RandomAccessFile;
 import javax.annotation.concurrent.Immutable;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Grib Data Reader.
@@ -57,6 +58,52 @@ public abstract class GribDataReader {
   static public String currentDataRafFilename;
   static boolean show = false;   // debug
 
+  //////////////////////////////////////////////////////////////////////////////////
+  // merged reads and parallel unpacking, see GribReadPlanner
+
+  // System property names for -D flags
+  static final String MERGE_DISTANCE = "unidata.grib.read.mergeDistance";
+  static final String PARALLEL_THREADS = "unidata.grib.read.parallel.threads";
+  static private volatile int mergeDistance = 256 * 1000;
+  static private volatile int maxBatchBytes = 16 * 1000 * 1000;
+  static private volatile ForkJoinPool parallelPool = null;
+
+  static {
+    try {
+      if (System.getProperty(MERGE_DISTANCE) != null)
+        setMergedReads(Integer.parseInt(System.getProperty(MERGE_DISTANCE)), maxBatchBytes);
+      if (System.getProperty(PARALLEL_THREADS) != null)
+        setParallelReads(Integer.parseInt(System.getProperty(PARALLEL_THREADS)));
+    } catch (NumberFormatException nfe) {
+      logger.warn(String.format("-D%s and -D%s must be integers", MERGE_DISTANCE, PARALLEL_THREADS));
+    }
+  }
+
+  /**
+   * Read records in the same file with one read, when their messages start within mergeDistance bytes of each other.
+   * Saves a seek per record when reading many records, eg a time series. On by default, with a mergeDistance of 256K;
+   * can also be set with -Dunidata.grib.read.mergeDistance=n.
+   *
+   * @param mergeDistance in bytes; 0 turns merged reads off
+   * @param maxBatchBytes maximum size in bytes of a merged read
+   */
+  public static void setMergedReads(int mergeDistance, int maxBatchBytes) {
+    GribDataReader.mergeDistance = Math.max(mergeDistance, 0);
+    GribDataReader.maxBatchBytes = Math.max(maxBatchBytes, 0);
+  }
+
+  /**
+   * Unpack records concurrently, while the next records are being read.
+   * Off by default; can also be turned on with -Dunidata.grib.read.parallel.threads=n.
+   * All GribDataReaders share one pool of nthreads threads.
+   * The previous pool is not shut down, since reads in progress may still be using it; its threads exit once idle.
+   *
+   * @param nthreads number of unpacking threads; 0 turns parallel unpacking off
+   */
+  public static synchronized void setParallelReads(int nthreads) {
+    parallelPool = (nthreads > 0) ? new ForkJoinPool(nthreads) : null;
+  }
+
   protected final GribCollectionImmutable gribCollection;
   private final GribCollectionImmutable.VariableIndex vindex;
   private List<DataRecord> records = new ArrayList<>();
@@ -241,6 +288,7 @@ public abstract class GribDataReader {
   private void read(DataReceiverIF dataReceiver) throws IOException {
     Collections.sort(records);
 
+    GribReadPlanner planner = makePlanner(dataReceiver);
     int currFile = -1;
     RandomAccessFile rafData = null;
     try {
@@ -255,8 +303,7 @@ public abstract class GribDataReader {
         }
 
         if (dr.record.fileno != currFile) {
-          if (rafData != null) rafData.close();
-          rafData = gribCollection.getDataRaf(dr.record.fileno);
+          rafData = planner.nextFile(gribCollection.getDataRaf(dr.record.fileno));
           currFile = dr.record.fileno;
         }
 
@@ -270,16 +317,19 @@ public abstract class GribDataReader {
           show(rafData, dr.record.pos + dr.record.drsOffset);
         }
 
-        float[] data = readData(rafData, dr);
-        GdsHorizCoordSys hcs = vindex.group.getGdsHorizCoordSys();
-        dataReceiver.addData(data, dr.resultIndex, hcs.nx);
+        planner.add(dr);
       }
+      planner.finish();
 
     } finally {
-      if (rafData != null) rafData.close();  // make sure its closed even on exception
+      planner.cancel();  // make sure the files are closed even on exception
     }
   }
 
+  private GribReadPlanner makePlanner(DataReceiverIF dataReceiver) {
+    return new GribReadPlanner(this, dataReceiver, gribCollection.isGrib1, mergeDistance, maxBatchBytes, parallelPool);
+  }
+
   private void show(SubsetParams validation) {
     if (validation == null) return;
     System.out.printf("Coords wanted%n %s", validation);
@@ -288,6 +338,7 @@ public abstract class GribDataReader {
   private void readPartitioned(DataReceiverIF dataReceiver) throws IOException {
     Collections.sort(records);
 
+    GribReadPlanner planner = makePlanner(dataReceiver);
     PartitionCollectionImmutable.DataRecord lastRecord = null;
     RandomAccessFile rafData = null;
     try {
@@ -302,8 +353,7 @@ public abstract class GribDataReader {
         }
 
         if ((rafData == null) || !drp.usesSameFile(lastRecord)) {
-          if (rafData != null) rafData.close();
-          rafData = drp.usePartition.getRaf(drp.partno, dr.record.fileno);
+          rafData = planner.nextFile(drp.usePartition.getRaf(drp.partno, dr.record.fileno));
         }
         lastRecord = drp;
 
@@ -316,13 +366,12 @@ public abstract class GribDataReader {
           show(rafData, dr.record.pos + dr.record.drsOffset);
         }
 
-        float[] data = readData(rafData, dr);
-        GdsHorizCoordSys hcs = dr.hcs;
-        dataReceiver.addData(data, dr.resultIndex, hcs.nx);
+        planner.add(dr);
       }
+      planner.finish();
 
     } finally {
-      if (rafData != null) rafData.close();  // make sure its closed even on exception
+      planner.cancel();  // make sure the files are closed even on exception
     }
   }
 
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+
+package ucar.nc2.grib.collection;
+
+import com.google.protobuf.CodedInputStream;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Memory maps the GRIB collection index (ncx4) files.
+ * The index message and the record tables are then decoded straight from the mapped pages:
+ * no heap copy of the index, and no RandomAccessFile to acquire when a variable's records are first needed.
+ * Record tables decoded from a mapped index are only softly reachable, since decoding them again is cheap,
+ * so the heap used by open collections stays bounded.
+ * A mapping is kept until its collection is closed, or the index is deleted or rewritten.
+ * <p>
+ * Off by default: on Windows a mapped file cannot be replaced until the mapping is garbage collected,
+ * which gets in the way of the TDM rewriting the indexes.
+ * Turn on with setMemoryMapped(true), or -Dunidata.grib.index.mmap=true.
+ *
+ * @since 10/17/2026
+ */
+public class GribIndexMapper {
+  static final String MEMORY_MAPPED = "unidata.grib.index.mmap";
+
+  private static volatile boolean memoryMapped = Boolean.getBoolean(MEMORY_MAPPED);
+  private static final ConcurrentHashMap<String, Mapping> mappings = new ConcurrentHashMap<>();
+
+  private static class Mapping {
+    final long length, lastModified;
+    final MappedByteBuffer buffer;
+
+    Mapping(long length, long lastModified, MappedByteBuffer buffer) {
+      this.length = length;
+      this.lastModified = lastModified;
+      this.buffer = buffer;
+    }
+  }
+
+  /**
+   * Memory map the index files opened from now on.
+   *
+   * @param b true to memory map, false to read them with RandomAccessFile (default)
+   */
+  public static void setMemoryMapped(boolean b) {
+    memoryMapped = b;
+    if (!b) mappings.clear();
+  }
+
+  public static boolean isMemoryMapped() {
+    return memoryMapped;
+  }
+
+  /**
+   * Get the whole index file as a read-only buffer, mapping it if needed.
+   * A file that changed since it was mapped is mapped again.
+   *
+   * @param indexFilename full path of the index file
+   * @return a buffer of its own (position and limit), or null if memory mapping is off
+   */
+  static ByteBuffer getBuffer(String indexFilename) throws IOException {
+    if (!memoryMapped || indexFilename == null) return null;
+
+    File file = new File(indexFilename);
+    long length = file.length();
+    long lastModified = file.lastModified();
+    Mapping mapping = mappings.get(indexFilename);
+    if (mapping == null || mapping.length != length || mapping.lastModified != lastModified) {
+      if (length == 0 || length > Integer.MAX_VALUE) return null;
+      try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+        mapping = new Mapping(length, lastModified, channel.map(FileChannel.MapMode.READ_ONLY, 0, length));
+      }
+      mappings.put(indexFilename, mapping);
+    }
+    return mapping.buffer.duplicate();
+  }
+
+  /**
+   * A protobuf input stream on a section of a mapped index.
+   *
+   * @param buffer from getBuffer()
+   * @param pos    start of the section
+   * @param len    length of the section
+   */
+  static CodedInputStream getInputStream(ByteBuffer buffer, long pos, int len) throws IOException {
+    if (pos < 0 || pos + len > buffer.capacity())
+      throw new IOException("Index section " + pos + " + " + len + " is outside of the index, length= " + buffer.capacity());
+    buffer.limit((int) pos + len);
+    buffer.position((int) pos);
+    CodedInputStream result = CodedInputStream.newInstance(buffer.slice());
+    result.setSizeLimit(Integer.MAX_VALUE);
+    return result;
+  }
+
+  static boolean isMapped(String indexFilename) {
+    return mappings.containsKey(indexFilename);
+  }
+
+  /**
+   * Forget the mapping of an index file, when it is rewritten or its collection is closed.
+   * The pages are unmapped when the buffers are garbage collected.
+   */
+  static void remove(String indexFilename) {
+    if (indexFilename != null)
+      mappings.remove(indexFilename);
+  }
+}
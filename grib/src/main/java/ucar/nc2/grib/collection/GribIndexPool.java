@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+package ucar.nc2.grib.collection;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * A bounded pool of threads for building GRIB collection indexes, and the indexing metrics.
+ * When it is on, GribCdmIndex builds the children of a partition concurrently, and the collection builders
+ * read or create the gbx9 index of each file concurrently. A partition's ncx4 is still written by one thread,
+ * after all of its children are done.
+ * Off by default; can also be turned on with -Dunidata.grib.index.parallel.threads=n.
+ * <p>
+ * Tasks start nested tasks (a partition indexes its children, a collection scans its files). The pool is a
+ * ForkJoinPool, so a task waiting for its children helps to run them, rather than holding on to a thread.
+ *
+ * @since 10/17/2026
+ */
+public class GribIndexPool {
+  static private final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(GribIndexPool.class);
+
+  static final String PARALLEL_THREADS = "unidata.grib.index.parallel.threads";
+  static private volatile ForkJoinPool pool = null;
+
+  static {
+    String nthreads = System.getProperty(PARALLEL_THREADS);
+    if (nthreads != null) {
+      try {
+        setNThreads(Integer.parseInt(nthreads));
+      } catch (NumberFormatException e) {
+        logger.warn("Illegal value for {} = {}", PARALLEL_THREADS, nthreads);
+      }
+    }
+  }
+
+  /**
+   * Index GRIB collections concurrently. All collections share one pool of nthreads threads.
+   * The previous pool is not shut down, since indexing in progress may still be using it; its threads exit once idle.
+   *
+   * @param nthreads number of threads; 1 or less means index in the calling thread (default)
+   */
+  public static synchronized void setNThreads(int nthreads) {
+    pool = (nthreads > 1) ? new ForkJoinPool(nthreads) : null;
+  }
+
+  public static int getNThreads() {
+    ForkJoinPool p = pool;
+    return (p == null) ? 1 : p.getParallelism();
+  }
+
+  /////////////////////////////////////////////////////////////////////////
+  // metrics
+
+  static private final AtomicLong filesScanned = new AtomicLong();
+  static private final AtomicLong recordsScanned = new AtomicLong();
+  static private final AtomicLong filesFailed = new AtomicLong();
+  static private final AtomicLong collectionsWritten = new AtomicLong();
+  static private final AtomicLong partitionsWritten = new AtomicLong();
+  static private final AtomicLong partitionsFailed = new AtomicLong();
+  static private final AtomicInteger filesInProgress = new AtomicInteger();
+  static private volatile long since = System.currentTimeMillis();
+
+  static void fileScanned(int nrecords) {
+    filesScanned.incrementAndGet();
+    recordsScanned.addAndGet(nrecords);
+  }
+
+  static void fileFailed() {
+    filesFailed.incrementAndGet();
+  }
+
+  static void collectionWritten() {
+    collectionsWritten.incrementAndGet();
+  }
+
+  static void partitionWritten() {
+    partitionsWritten.incrementAndGet();
+  }
+
+  static void partitionFailed() {
+    partitionsFailed.incrementAndGet();
+  }
+
+  /**
+   * A snapshot of the indexing metrics, since startup or the last resetStats().
+   */
+  public static class Stats {
+    public final long filesScanned, recordsScanned, filesFailed;
+    public final long collectionsWritten, partitionsWritten, partitionsFailed;
+    public final int filesInProgress, nthreads;
+    public final long msecs;
+
+    private Stats() {
+      this.filesScanned = GribIndexPool.filesScanned.get();
+      this.recordsScanned = GribIndexPool.recordsScanned.get();
+      this.filesFailed = GribIndexPool.filesFailed.get();
+      this.collectionsWritten = GribIndexPool.collectionsWritten.get();
+      this.partitionsWritten = GribIndexPool.partitionsWritten.get();
+      this.partitionsFailed = GribIndexPool.partitionsFailed.get();
+      this.filesInProgress = GribIndexPool.filesInProgress.get();
+      this.nthreads = getNThreads();
+      this.msecs = Math.max(1, System.currentTimeMillis() - since);
+    }
+
+    public double getFilesPerSecond() {
+      return 1000.0 * filesScanned / msecs;
+    }
+
+    public double getRecordsPerSecond() {
+      return 1000.0 * recordsScanned / msecs;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("nthreads=%d files=%d (%.1f/sec) records=%d (%.0f/sec) failed=%d inProgress=%d ncx collections=%d partitions=%d failed=%d",
+              nthreads, filesScanned, getFilesPerSecond(), recordsScanned, getRecordsPerSecond(), filesFailed, filesInProgress,
+              collectionsWritten, partitionsWritten, partitionsFailed);
+    }
+  }
+
+  public static Stats getStats() {
+    return new Stats();
+  }
+
+  public static void resetStats() {
+    filesScanned.set(0);
+    recordsScanned.set(0);
+    filesFailed.set(0);
+    collectionsWritten.set(0);
+    partitionsWritten.set(0);
+    partitionsFailed.set(0);
+    since = System.currentTimeMillis();
+  }
+
+  /////////////////////////////////////////////////////////////////////////
+  // running tasks
+
+  interface Scan<T, R> {
+    R scan(T item) throws IOException;
+  }
+
+  /**
+   * The result of scanning one item.
+   */
+  static class Scanned<T, R> {
+    final T item;
+    private R result;
+    private IOException failure;
+
+    Scanned(T item) {
+      this.item = item;
+    }
+
+    /**
+     * @return what scan() returned for item
+     * @throws IOException what scan() threw for item
+     */
+    R get() throws IOException {
+      if (failure != null) throw failure;
+      return result;
+    }
+  }
+
+  /**
+   * Run action on each item, concurrently if the pool is on, and return when all are done.
+   * The action should handle its own failures; a RuntimeException is passed on to the caller.
+   */
+  static <T> void forEach(Iterable<? extends T> items, Consumer<? super T> action) {
+    ForkJoinPool p = pool;
+    List<ForkJoinTask<?>> tasks = new ArrayList<>();
+    for (T item : items) {
+      if (p == null)
+        action.accept(item);
+      else
+        tasks.add(ForkJoinTask.adapt(() -> action.accept(item)));
+    }
+    if (tasks.isEmpty())
+      return;
+    if (ForkJoinTask.getPool() == p)
+      ForkJoinTask.invokeAll(tasks);
+    else
+      p.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+  }
+
+  /**
+   * Scan the items ahead of the caller, concurrently if the pool is on, and return the results in the order of the
+   * items. At most two items per thread are scanned ahead. Closing it cancels the scans that have not started.
+   */
+  static <T, R> ScanAhead<T, R> scanAhead(Iterator<? extends T> items, Scan<T, R> scan) {
+    return new ScanAhead<>(items, scan);
+  }
+
+  static class ScanAhead<T, R> implements Iterator<Scanned<T, R>>, AutoCloseable {
+    private final Iterator<? extends T> items;
+    private final Scan<T, R> scan;
+    private final ForkJoinPool p = pool;
+    private final boolean inPool = (p != null) && (ForkJoinTask.getPool() == p);
+    private final int window = (p == null) ? 0 : 2 * p.getParallelism();
+    private final ArrayDeque<ForkJoinTask<Scanned<T, R>>> pending = new ArrayDeque<>();
+
+    private ScanAhead(Iterator<? extends T> items, Scan<T, R> scan) {
+      this.items = items;
+      this.scan = scan;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return !pending.isEmpty() || items.hasNext();
+    }
+
+    @Override
+    public Scanned<T, R> next() {
+      if (p == null)
+        return GribIndexPool.scan(items.next(), scan);
+      while (items.hasNext() && pending.size() < window) {
+        T item = items.next();
+        ForkJoinTask<Scanned<T, R>> task = ForkJoinTask.adapt(() -> GribIndexPool.scan(item, scan));
+        pending.add(inPool ? task.fork() : p.submit(task));
+      }
+      if (pending.isEmpty())
+        throw new NoSuchElementException();
+      return pending.remove().join();
+    }
+
+    @Override
+    public void close() {
+      for (ForkJoinTask<?> task : pending)
+        task.cancel(false);
+      pending.clear();
+    }
+  }
+
+  private static <T, R> Scanned<T, R> scan(T item, Scan<T, R> scan) {
+    Scanned<T, R> s = new Scanned<>(item);
+    filesInProgress.incrementAndGet();
+    try {
+      s.result = scan.scan(item);
+    } catch (IOException ioe) {
+      s.failure = ioe;
+    } finally {
+      filesInProgress.decrementAndGet();
+    }
+    return s;
+  }
+}
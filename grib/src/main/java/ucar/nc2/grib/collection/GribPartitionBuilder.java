@@ -450,6 +450,7 @@ abstract class GribPartitionBuilder {
     File idxFile = GribIndexCache.getFileOrCache(partitionManager.getIndexFilename(GribCdmIndex.NCX_SUFFIX));
     if (idxFile.exists()) {
       RandomAccessFile.eject(idxFile.getPath());
+      GribIndexMapper.remove(idxFile.getPath());
       if (!idxFile.delete())
         logger.error("gc2tp cant delete " + idxFile.getPath());
     }
@@ -0,0 +1,330 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+
+package ucar.nc2.grib.collection;
+
+import com.google.common.base.Throwables;
+import ucar.nc2.grib.grib1.Grib1SectionIndicator;
+import ucar.nc2.grib.grib2.Grib2SectionIndicator;
+import ucar.unidata.io.RandomAccessFile;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads the DataRecords of one GribDataReader request, one data file at a time.
+ * <ol>
+ * <li>The records of a file (sorted by position) are split into batches: a record whose message starts within
+ *   mergeDistance bytes of the previous one joins its batch, as long as the batch stays under maxBatchBytes.</li>
+ * <li>Each batch of more than one record is read with one seek and one read into a byte array. Its records are
+ *   unpacked from a view of that array that keeps the file's offsets, so the unpacking code is unchanged. If
+ *   unpacking ever wants bytes outside of the batch, the record is re-read from the file.</li>
+ * <li>If an ExecutorService is given, the records are unpacked in parallel while the next batches are being read.
+ *   Then every record is read as part of a batch, since only the calling thread touches the file.</li>
+ * </ol>
+ * The unpacked data goes straight into the DataReceiverIF, one call at a time.
+ * The planner owns the RandomAccessFiles passed to nextFile(), and closes them when their records are done.
+ * Not thread-safe: use one planner per request, from one thread.
+ *
+ * @since 10/17/2026
+ */
+class GribReadPlanner {
+  private final GribDataReader reader;
+  private final GribDataReader.DataReceiverIF dataReceiver;
+  private final boolean isGrib1;
+  private final int mergeDistance;
+  private final int maxBatchBytes;
+  private final ExecutorService pool; // may be null
+  private final long maxBytesInFlight;
+
+  private final ArrayDeque<Batch> inFlight = new ArrayDeque<>(); // only when pool != null
+  private long bytesInFlight;
+
+  private RafUse current;                                         // the file being added to
+  private List<GribDataReader.DataRecord> pending = new ArrayList<>(); // records to read from current
+
+  /**
+   * Constructor.
+   *
+   * @param reader        does the unpacking
+   * @param dataReceiver  send unpacked data here
+   * @param isGrib1       GRIB-1 or GRIB-2
+   * @param mergeDistance read records together if their starting positions are within this many bytes; 0 = dont merge
+   * @param maxBatchBytes maximum bytes in a merged read (not counting the last record of a batch)
+   * @param pool          unpack in these threads; if null, unpack in the calling thread
+   */
+  GribReadPlanner(GribDataReader reader, GribDataReader.DataReceiverIF dataReceiver, boolean isGrib1,
+                  int mergeDistance, int maxBatchBytes, ExecutorService pool) {
+    this.reader = reader;
+    this.dataReceiver = dataReceiver;
+    this.isGrib1 = isGrib1;
+    this.mergeDistance = mergeDistance;
+    this.maxBatchBytes = maxBatchBytes;
+    this.pool = pool;
+    int nthreads = (pool instanceof ForkJoinPool) ? ((ForkJoinPool) pool).getParallelism() : Runtime.getRuntime().availableProcessors();
+    this.maxBytesInFlight = Math.max(maxBatchBytes, 1000 * 1000) * (long) (nthreads + 1);
+  }
+
+  /**
+   * Start adding records from another file. The records of the previous file are read now.
+   * The planner closes the file when its records are done, or in cancel().
+   *
+   * @param raf the data file
+   * @return raf
+   */
+  RandomAccessFile nextFile(RandomAccessFile raf) throws IOException {
+    RafUse prev = current;
+    List<GribDataReader.DataRecord> prevRecords = pending;
+    current = new RafUse(raf);
+    pending = new ArrayList<>();
+    read(prev, prevRecords);
+    return raf;
+  }
+
+  /**
+   * Add a record to read from the current file. Records must be added in order of position.
+   */
+  void add(GribDataReader.DataRecord dr) {
+    pending.add(dr);
+  }
+
+  /**
+   * Read the records of the last file, and wait until all records have been unpacked.
+   */
+  void finish() throws IOException {
+    RafUse last = current;
+    current = null;
+    read(last, pending);
+    while (!inFlight.isEmpty())
+      waitFor(inFlight.peekFirst());
+  }
+
+  /**
+   * Cancel anything not yet unpacked, and close the files, eg after an exception. Safe to call after finish().
+   */
+  void cancel() {
+    if (current != null) {
+      try {
+        current.done();
+      } catch (IOException ioe) {
+        // ok
+      }
+      current = null;
+    }
+
+    for (Batch batch : inFlight) {
+      for (Future<?> f : batch.futures) {
+        if (f.cancel(false)) { // never ran, so give back its use of the file
+          try {
+            batch.rafUse.done();
+          } catch (IOException ioe) {
+            // ok
+          }
+        }
+      }
+    }
+    inFlight.clear();
+    bytesInFlight = 0;
+  }
+
+  ////////////////////////////////////////////////////////////////////////////
+
+  private void read(RafUse rafUse, List<GribDataReader.DataRecord> records) throws IOException {
+    if (rafUse == null) return;
+    try {
+      for (Batch batch : plan(records))
+        read(rafUse, batch);
+    } finally {
+      rafUse.done(); // the reading thread's share
+    }
+  }
+
+  List<Batch> plan(List<GribDataReader.DataRecord> records) {
+    List<Batch> result = new ArrayList<>();
+    Batch current = null;
+    for (GribDataReader.DataRecord dr : records) {
+      long pos = dr.record.pos;
+      if (current != null && mergeDistance > 0 && pos - current.lastPos <= mergeDistance && pos - current.start <= maxBatchBytes) {
+        current.add(dr);
+      } else {
+        current = new Batch(dr);
+        result.add(current);
+      }
+    }
+    return result;
+  }
+
+  private void read(RafUse rafUse, Batch batch) throws IOException {
+    if (pool == null && batch.records.size() == 1) {
+      GribDataReader.DataRecord dr = batch.records.get(0);
+      addData(dr, reader.readData(rafUse.raf, dr));
+      return;
+    }
+
+    // one read for the whole batch, through the last record's message
+    RandomAccessFile raf = rafUse.raf;
+    byte[] bytes;
+    synchronized (raf) {
+      long end = batch.lastPos + messageLength(raf, batch.lastPos);
+      bytes = new byte[(int) (end - batch.start)];
+      raf.seek(batch.start);
+      raf.readFully(bytes);
+    }
+
+    if (pool == null) {
+      for (GribDataReader.DataRecord dr : batch.records)
+        addData(dr, unpack(rafUse, bytes, batch.start, dr));
+      return;
+    }
+
+    // wait for older batches, to bound the memory used
+    while (!inFlight.isEmpty() && bytesInFlight + bytes.length > maxBytesInFlight)
+      waitFor(inFlight.peekFirst());
+
+    batch.nbytes = bytes.length;
+    batch.rafUse = rafUse;
+    for (GribDataReader.DataRecord dr : batch.records) {
+      rafUse.acquire();
+      try {
+        batch.futures.add(pool.submit(() -> {
+          try {
+            addData(dr, unpack(rafUse, bytes, batch.start, dr));
+          } finally {
+            rafUse.done();
+          }
+          return null;
+        }));
+      } catch (RejectedExecutionException e) {
+        rafUse.done();
+        throw new IOException("GribReadPlanner pool was shut down", e);
+      }
+    }
+    inFlight.addLast(batch);
+    bytesInFlight += batch.nbytes;
+  }
+
+  private long messageLength(RandomAccessFile raf, long pos) throws IOException {
+    raf.seek(pos);
+    try {
+      return isGrib1 ? new Grib1SectionIndicator(raf).getMessageLength() : new Grib2SectionIndicator(raf).getMessageLength();
+    } catch (IllegalArgumentException e) {
+      throw new IOException("No GRIB message at " + pos + " in " + raf.getLocation(), e);
+    }
+  }
+
+  private float[] unpack(RafUse rafUse, byte[] bytes, long start, GribDataReader.DataRecord dr) throws IOException {
+    try {
+      return reader.readData(new BatchRaf(rafUse.raf.getLocation(), bytes, start), dr);
+    } catch (OutsideOfBatchException e) {
+      synchronized (rafUse.raf) {
+        return reader.readData(rafUse.raf, dr);
+      }
+    }
+  }
+
+  private void addData(GribDataReader.DataRecord dr, float[] data) throws IOException {
+    synchronized (dataReceiver) {
+      dataReceiver.addData(data, dr.resultIndex, dr.hcs.nx);
+    }
+  }
+
+  // batch must be the first in flight; it is removed when all of its records are done
+  private void waitFor(Batch batch) throws IOException {
+    try {
+      for (Future<?> f : batch.futures)
+        f.get();
+      inFlight.removeFirst();
+      bytesInFlight -= batch.nbytes;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("GribReadPlanner interrupted");
+    } catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause(), IOException.class);
+      throw new IOException(e.getCause());
+    }
+  }
+
+  ////////////////////////////////////////////////////////////////////////////
+
+  static class Batch {
+    final long start;
+    long lastPos;
+    final List<GribDataReader.DataRecord> records = new ArrayList<>();
+    final List<Future<?>> futures = new ArrayList<>();
+    RafUse rafUse;
+    int nbytes;
+
+    Batch(GribDataReader.DataRecord dr) {
+      this.start = dr.record.pos;
+      add(dr);
+    }
+
+    void add(GribDataReader.DataRecord dr) {
+      records.add(dr);
+      lastPos = dr.record.pos;
+    }
+  }
+
+  // Closes the file when the reading thread and all of the unpacking tasks are done with it.
+  private static class RafUse {
+    final RandomAccessFile raf;
+    final AtomicInteger count = new AtomicInteger(1);
+
+    RafUse(RandomAccessFile raf) {
+      this.raf = raf;
+    }
+
+    void acquire() {
+      count.incrementAndGet();
+    }
+
+    void done() throws IOException {
+      if (count.decrementAndGet() == 0 && raf != null)
+        raf.close();
+    }
+  }
+
+  private static class OutsideOfBatchException extends IOException {
+    OutsideOfBatchException(long pos) {
+      super("read at " + pos + " is outside of the batch");
+    }
+  }
+
+  /**
+   * A read-only view of the bytes at [start, start + bytes.length) of a file, using the file's offsets.
+   * The bytes are used directly as the buffer, so they are never read from the file again.
+   */
+  private static class BatchRaf extends RandomAccessFile {
+
+    BatchRaf(String location, byte[] bytes, long start) {
+      super(1);
+      this.location = location;
+      this.buffer = bytes;
+      this.bufferStart = start;
+      this.dataSize = bytes.length;
+      this.dataEnd = start + bytes.length;
+      this.filePosition = start;
+      this.endOfFile = false;
+    }
+
+    @Override
+    protected void readBuffer(long pos) throws IOException {
+      throw new OutsideOfBatchException(pos); // dont refill: the buffer is shared
+    }
+
+    @Override
+    protected int read_(long pos, byte[] b, int offset, int len) throws IOException {
+      throw new OutsideOfBatchException(pos);
+    }
+
+    @Override
+    public long length() {
+      return dataEnd;
+    }
+  }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+
+package ucar.nc2.grib.grib2;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Decodes GRIB-2 data representation template 5.42: CCSDS 121.0-B lossless compression (adaptive Rice coding),
+ * as written by the libaec library. This is a pure Java decoder, it does not need libaec.
+ * <p>
+ * The data section is a sequence of reference sample intervals (RSI) of referenceSampleInterval blocks,
+ * each of blockSize samples. Each block starts with an option id, followed by its coded samples:
+ * zero blocks, second extension, split samples with k = id - 1, or uncompressed samples.
+ * When the preprocessor is used, the first block of each RSI starts with a reference sample,
+ * and the samples are mapped differences from the previous one.
+ * Thread-safe.
+ *
+ * @see "CCSDS 121.0-B-2 Lossless Data Compression, https://public.ccsds.org/Pubs/121x0b2ec1.pdf"
+ * @see "https://gitlab.dkrz.de/k202009/libaec"
+ * @since 10/17/2026
+ */
+public class Grib2CcsdsDecoder implements Grib2DataDecoder {
+  // the compressionOptionsMask flags, same as libaec
+  public static final int AEC_DATA_SIGNED = 1;
+  public static final int AEC_DATA_3BYTE = 2;   // only affects the byte layout of libaec's output
+  public static final int AEC_DATA_MSB = 4;     // only affects the byte layout of libaec's output
+  public static final int AEC_DATA_PREPROCESS = 8;
+  public static final int AEC_RESTRICTED = 16;
+  public static final int AEC_PAD_RSI = 32;
+
+  private static final int ROS = 5; // "remainder of segment" in a zero block fundamental sequence
+
+  // second extension: the code m is the pair index; seSum[m] = sum of the pair, seStart[m] = first code with that sum
+  private static final int SE_TABLE_SIZE = 91;
+  private static final int[] seSum = new int[SE_TABLE_SIZE];
+  private static final int[] seStart = new int[SE_TABLE_SIZE];
+
+  static {
+    int k = 0;
+    for (int i = 0; i < 13; i++) {
+      int ms = k;
+      for (int j = 0; j <= i; j++) {
+        seSum[k] = i;
+        seStart[k] = ms;
+        k++;
+      }
+    }
+  }
+
+  @Override
+  public boolean canDecode(int dataTemplate) {
+    return dataTemplate == 42;
+  }
+
+  @Override
+  public int[] decode(int dataTemplate, Grib2Drs gdrs, byte[] buf, int nvalues) throws IOException {
+    Grib2Drs.Type42 drs = (Grib2Drs.Type42) gdrs;
+    return decode(buf, nvalues, drs.numberOfBits, drs.compressionOptionsMask, drs.blockSize, drs.referenceSampleInterval);
+  }
+
+  /**
+   * Decode a CCSDS 121.0-B bitstream.
+   *
+   * @param buf       the coded data
+   * @param nvalues   number of samples to decode
+   * @param bps       bits per sample, 1 to 32
+   * @param flags     libaec flags, see AEC_*
+   * @param blockSize samples per block: 8, 16, 32 or 64
+   * @param rsi       blocks per reference sample interval
+   * @return the samples; unsigned unless AEC_DATA_SIGNED is set
+   * @throws IOException if the parameters or the bitstream are not valid
+   */
+  public static int[] decode(byte[] buf, int nvalues, int bps, int flags, int blockSize, int rsi) throws IOException {
+    if (bps < 1 || bps > 32)
+      throw new IOException("CCSDS: illegal bits per sample = " + bps);
+    if (blockSize != 8 && blockSize != 16 && blockSize != 32 && blockSize != 64)
+      throw new IOException("CCSDS: illegal block size = " + blockSize);
+    if (rsi < 1 || rsi > 4096)
+      throw new IOException("CCSDS: illegal reference sample interval = " + rsi);
+
+    boolean signed = (flags & AEC_DATA_SIGNED) != 0;
+    boolean pp = (flags & AEC_DATA_PREPROCESS) != 0;
+    boolean padRsi = (flags & AEC_PAD_RSI) != 0;
+
+    int idLen;
+    if (bps > 16) {
+      idLen = 5;
+    } else if (bps > 8) {
+      idLen = 4;
+    } else if ((flags & AEC_RESTRICTED) != 0) {
+      if (bps > 4)
+        throw new IOException("CCSDS: restricted set of codes needs bits per sample <= 4, not " + bps);
+      idLen = (bps <= 2) ? 1 : 2;
+    } else {
+      idLen = 3;
+    }
+    int idUncompressed = (1 << idLen) - 1;
+
+    // whole blocks, so only zero blocks can run past the end
+    int[] result = new int[(nvalues + blockSize - 1) / blockSize * blockSize];
+    BitInput in = new BitInput(buf);
+
+    int n = 0;
+    while (n < nvalues) {
+      int rsiStart = n;
+
+      for (int b = 0; b < rsi && n < nvalues; ) {
+        int ref = (pp && b == 0) ? 1 : 0;
+        int id = in.bits(idLen);
+
+        if (id == 0) { // low entropy
+          boolean secondExtension = in.bits(1) == 1;
+          if (ref == 1)
+            result[n] = in.bits(bps);
+
+          if (secondExtension) {
+            int i = ref;
+            while (i < blockSize) {
+              int m = in.fs();
+              if (m >= SE_TABLE_SIZE)
+                throw new IOException("CCSDS: illegal second extension code = " + m);
+              int d1 = m - seStart[m];
+              if ((i & 1) == 0) {
+                result[n + i] = seSum[m] - d1;
+                i++;
+              }
+              result[n + i] = d1;
+              i++;
+            }
+            n += blockSize;
+            b++;
+
+          } else {
+            int zeroBlocks = in.fs() + 1;
+            if (zeroBlocks == ROS) {
+              zeroBlocks = Math.min(rsi - b, 64 - (b % 64));
+            } else if (zeroBlocks > ROS) {
+              zeroBlocks--;
+            }
+            int end = Math.min(n + zeroBlocks * blockSize, result.length);
+            Arrays.fill(result, n + ref, end, 0);
+            n = end;
+            b += zeroBlocks;
+          }
+
+        } else if (id == idUncompressed) { // the reference sample is the first one
+          for (int i = 0; i < blockSize; i++)
+            result[n + i] = in.bits(bps);
+          n += blockSize;
+          b++;
+
+        } else { // split: fundamental sequences, then the k least significant bits
+          int k = id - 1;
+          if (ref == 1)
+            result[n] = in.bits(bps);
+          for (int i = ref; i < blockSize; i++)
+            result[n + i] = in.fs() << k;
+          if (k > 0) {
+            for (int i = ref; i < blockSize; i++)
+              result[n + i] |= in.bits(k);
+          }
+          n += blockSize;
+          b++;
+        }
+      }
+
+      if (padRsi)
+        in.align();
+      if (pp)
+        postprocess(result, rsiStart, Math.min(n, nvalues), bps, signed);
+    }
+
+    if (signed && !pp) {
+      int shift = 32 - bps;
+      for (int i = 0; i < nvalues; i++)
+        result[i] = (result[i] << shift) >> shift;
+    }
+
+    return (result.length == nvalues) ? result : Arrays.copyOf(result, nvalues);
+  }
+
+  // Undo the unit delay predictor and the mapping of the prediction errors, for one RSI.
+  // result[start] is the reference sample.
+  private static void postprocess(int[] result, int start, int end, int bps, boolean signed) {
+    long xmin, xmax;
+    long x;
+    if (signed) {
+      xmin = -(1L << (bps - 1));
+      xmax = (1L << (bps - 1)) - 1;
+      int shift = 32 - bps;
+      x = (result[start] << shift) >> shift;
+    } else {
+      xmin = 0;
+      xmax = (1L << bps) - 1;
+      x = result[start] & 0xffffffffL;
+    }
+    result[start] = (int) x;
+
+    for (int i = start + 1; i < end; i++) {
+      long d = result[i] & 0xffffffffL;
+      long below = x - xmin;
+      long above = xmax - x;
+      long theta = Math.min(below, above);
+      if (d <= 2 * theta) {
+        x += ((d & 1) == 0) ? d / 2 : -(d + 1) / 2;
+      } else if (theta == below) {
+        x = xmin + d;
+      } else {
+        x = xmax - d;
+      }
+      result[i] = (int) x;
+    }
+  }
+
+  // Reads big-endian bit fields from a byte array.
+  private static class BitInput {
+    private final byte[] buf;
+    private int pos;     // next byte to load
+    private long acc;    // the low nbits of acc are the next bits
+    private int nbits;
+
+    BitInput(byte[] buf) {
+      this.buf = buf;
+    }
+
+    private void load() throws IOException {
+      if (pos >= buf.length)
+        throw new IOException("CCSDS: read past the end of the data, " + buf.length + " bytes");
+      acc = (acc << 8) | (buf[pos++] & 0xff);
+      nbits += 8;
+    }
+
+    // n = 0 to 32
+    int bits(int n) throws IOException {
+      while (nbits < n)
+        load();
+      nbits -= n;
+      return (int) ((acc >>> nbits) & ((1L << n) - 1));
+    }
+
+    // a fundamental sequence code: the number of 0 bits before a 1
+    int fs() throws IOException {
+      int count = 0;
+      while (true) {
+        if (nbits == 0)
+          load();
+        long v = acc & ((1L << nbits) - 1);
+        if (v == 0) {
+          count += nbits;
+          nbits = 0;
+        } else {
+          int top = 64 - Long.numberOfLeadingZeros(v); // 1 based position of the first 1 bit
+          count += nbits - top;
+          nbits = top - 1;
+          return count;
+        }
+      }
+    }
+
+    // skip to the next byte
+    void align() {
+      nbits -= nbits % 8;
+    }
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+
+package ucar.nc2.grib.grib2;
+
+import java.io.IOException;
+
+/**
+ * Decodes the data section (Section 7) of a GRIB-2 record whose values are packed with a compression codec,
+ * eg JPEG 2000 (template 5.40) or CCSDS/AEC (template 5.42), into the scaled integers X2 of regulation 92.9.4.
+ * Grib2DataReader2 then applies the reference value, scale factors and bitmap.
+ * <p>
+ * Implementations are found with java.util.ServiceLoader, or added with Grib2DataReader2.registerDecoder(),
+ * and are tried before the built-in decoders. They must be thread-safe.
+ *
+ * @since 10/17/2026
+ */
+public interface Grib2DataDecoder {
+
+  /**
+   * @param dataTemplate data representation template number (Code table 5.0)
+   * @return true if this decoder can decode data with this template
+   */
+  boolean canDecode(int dataTemplate);
+
+  /**
+   * Decode the packed values.
+   *
+   * @param dataTemplate data representation template number (Code table 5.0)
+   * @param gdrs         the data representation section template, numberOfBits > 0
+   * @param buf          the data section, after its first 5 bytes (length and section number)
+   * @param nvalues      number of values packed in the data section: all points, or the ones present in the bitmap
+   * @return the scaled integer values, usually nvalues of them
+   * @throws IOException if the data cant be decoded
+   */
+  int[] decode(int dataTemplate, Grib2Drs gdrs, byte[] buf, int nvalues) throws IOException;
+}
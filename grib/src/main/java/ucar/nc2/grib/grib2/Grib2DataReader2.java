@@ -18,6 +18,10 @@ import java.io.InputStream;
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.util.Arrays;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Reads the data from one grib2 record.
@@ -38,6 +42,35 @@ public class Grib2DataReader2 {
     }
   }
 
+  // decoders for compressed data, tried in order
+  private static final List<Grib2DataDecoder> decoders = new CopyOnWriteArrayList<>();
+  static {
+    try {
+      for (Grib2DataDecoder decoder : ServiceLoader.load(Grib2DataDecoder.class))
+        decoders.add(decoder);
+    } catch (ServiceConfigurationError e) {
+      log.warn("Failed to load a Grib2DataDecoder", e);
+    }
+    decoders.add(new Grib2Jpeg2000Decoder());
+    decoders.add(new Grib2CcsdsDecoder());
+  }
+
+  /**
+   * Add a decoder for compressed data. It is tried before the ones already registered.
+   *
+   * @param decoder decodes one or more data representation templates
+   */
+  public static void registerDecoder(Grib2DataDecoder decoder) {
+    decoders.add(0, decoder);
+  }
+
+  static Grib2DataDecoder getDecoder(int dataTemplate) throws IOException {
+    for (Grib2DataDecoder decoder : decoders) {
+      if (decoder.canDecode(dataTemplate)) return decoder;
+    }
+    throw new IOException("No decoder for DRS type = " + dataTemplate);
+  }
+
   ///////////////////////////////////////////////
 
   private final int dataTemplate;
@@ -70,6 +103,7 @@ public class Grib2DataReader2 {
     4: Grid point data - IEEE floating point data
    40: Grid point data - JPEG 2000 code stream format
    41: Grid point data - Portable Network Graphics (PNG)
+   42: Grid point and spectral data - CCSDS recommended lossless compression
    50: Spectral data - simple packing
    51: Spherical harmonics data - complex packing
    61: Grid point data - simple packing with logarithm pre-processing
@@ -107,6 +141,9 @@ public class Grib2DataReader2 {
       case 41:
         data = getData41(raf, (Grib2Drs.Type0) gdrs);
         break;
+      case 42:
+        data = getData42(raf, (Grib2Drs.Type42) gdrs);
+        break;
       case 50002:
         data = getData50002(raf, (Grib2Drs.Type50002) gdrs);
         break;
@@ -706,11 +743,19 @@ public class Grib2DataReader2 {
 
   // Grid point data - JPEG 2000 code stream format
   public float[] getData40(RandomAccessFile raf, Grib2Drs.Type40 gdrs) throws IOException {
-    // 6-xx  jpeg2000 data block to decode
+    gdrs.hasSignedProblem = false;
+    return getDataDecoded(raf, gdrs);
+  }
+
+  // Grid point and spectral data - CCSDS recommended lossless compression
+  public float[] getData42(RandomAccessFile raf, Grib2Drs.Type42 gdrs) throws IOException {
+    return getDataDecoded(raf, gdrs);
+  }
 
+  // the data section is decoded by a Grib2DataDecoder
+  private float[] getDataDecoded(RandomAccessFile raf, Grib2Drs.Type0 gdrs) throws IOException {
     // dataPoints are number of points encoded, it could be less than the
     // totalNPoints in the grid record if bitMap is used, otherwise equal
-    //int dataPoints = drs.getDataPoints();
 
     int nb = gdrs.numberOfBits;
     int D = gdrs.decimalScaleFactor;
@@ -720,65 +765,48 @@ public class Grib2DataReader2 {
     float EE = (float) java.lang.Math.pow( 2.0, (double) E);
     float ref_val = R / DD;
 
-    Grib2JpegDecoder g2j = null;
-    // try {
-      if (nb != 0) {  // there's data to decode
-        g2j = new Grib2JpegDecoder(nb, false);
-        byte[] buf = new byte[dataLength - 5];
-        raf.readFully(buf);
-        g2j.decode(buf);
-        gdrs.hasSignedProblem = g2j.hasSignedProblem();
-      }
+    float[] result = new float[totalNPoints];
 
-      float[] result = new float[totalNPoints];
+    // no data to decode, set to reference value
+    if (nb == 0) {
+      for (int i = 0; i < dataNPoints; i++)
+        result[i] = ref_val;
+      return result;
+    }
 
-      // no data to decode, set to reference value
-      if (nb == 0) {
-        for (int i = 0; i < dataNPoints; i++)
-          result[i] = ref_val;
-        return result;
-      }
+    byte[] buf = new byte[dataLength - 5];
+    raf.readFully(buf);
+    int[] idata = getDecoder(dataTemplate).decode(dataTemplate, gdrs, buf, dataNPoints);
 
-      int[] idata = g2j.getGdata();
-      if (bitmap == null) { // must be one decoded value in idata for every expected data point
-        if (idata.length != dataNPoints) {
-          log.debug("Number of points in the data record {} != {} expected from GDS", idata.length, dataNPoints);
-          throw new IllegalStateException("Number of points in the data record {} != expected from GDS");
-        }
+    if (bitmap == null) { // must be one decoded value in idata for every expected data point
+      if (idata.length != dataNPoints) {
+        log.debug("Number of points in the data record {} != {} expected from GDS", idata.length, dataNPoints);
+        throw new IllegalStateException("Number of points in the data record {} != expected from GDS");
+      }
 
-        for (int i = 0; i < dataNPoints; i++) {
-          // Y * 10^D = R + (X1 + X2) * 2^E ; // regulation 92.9.4
-          // Y = (R + ( 0 + X2) * EE)/DD ;
-          result[i] = (R + idata[i] * EE) / DD;
-        }
-        return result;
-
-      } else {  // use bitmap to skip missing values
-        for (int i = 0, j = 0; i < totalNPoints; i++) {
-          if ((bitmap[i / 8] & GribNumbers.bitmask[i % 8]) != 0) {
-            if (j >= idata.length) {
-              System.out.printf("HEY jj2000 data count %d < bitmask count %d, i=%d, totalNPoints=%d%n", idata.length, j, i, totalNPoints);
-              break;
-            }
-            int indata = idata[j];
-            result[i] = (R + indata * EE) / DD;
-            j++;
-          } else {
-            result[i] = staticMissingValue;
-          }
-        }
+      for (int i = 0; i < dataNPoints; i++) {
+        // Y * 10^D = R + (X1 + X2) * 2^E ; // regulation 92.9.4
+        // Y = (R + ( 0 + X2) * EE)/DD ;
+        result[i] = (R + idata[i] * EE) / DD;
       }
       return result;
 
-    /* } catch (NullPointerException npe) {
-
-      log.error("Grib2DataReader2.jpeg2000Unpacking: bit rate too small nb =" + nb + " for file" + raf.getLocation());
-      float[] data = new float[dataNPoints];
-      for (int i = 0; i < dataNPoints; i++) {
-        data[i] = staticMissingValue;  // LOOK ??
+    } else {  // use bitmap to skip missing values
+      for (int i = 0, j = 0; i < totalNPoints; i++) {
+        if ((bitmap[i / 8] & GribNumbers.bitmask[i % 8]) != 0) {
+          if (j >= idata.length) {
+            log.warn("Template {} data count {} < bitmask count {}, i={}, totalNPoints={}", dataTemplate, idata.length, j, i, totalNPoints);
+            break;
+          }
+          int indata = idata[j];
+          result[i] = (R + indata * EE) / DD;
+          j++;
+        } else {
+          result[i] = staticMissingValue;
+        }
       }
-      return data;
-    } */
+    }
+    return result;
   }
 
     // Grid point data - JPEG 2000 code stream format
@@ -30,6 +30,8 @@ public abstract class Grib2Drs {
         return new Type3(raf);
       case 40:
         return new Type40(raf);
+      case 42:
+        return new Type42(raf);
       //case 51:    //
       //  return new Type51(raf);
       case 50002: // ECMWF's second order packing
@@ -390,6 +392,69 @@ public abstract class Grib2Drs {
     }
   }
 
+  /*
+  Data representation template 5.42 – Grid point and spectral data – CCSDS recommended lossless compression
+  Octet No. Contents
+  12–15 Reference value (R) (IEEE 32-bit floating-point value)
+  16–17 Binary scale factor (E)
+  18–19 Decimal scale factor (D)
+  20    Number of bits required to hold the resulting scaled and referenced data values (see Note 2)
+  21    Type of original field values (see Code table 5.1)
+  22    CCSDS compression options mask (see Note 3)
+  23    Block size
+  24–25 Reference sample interval
+  Notes:
+  (2) The intent is to specify the width of the integer values to be compressed, ie the bits per sample of CCSDS 121.0-B.
+  (3) The mask is the flags of the libaec library: signed, 3 byte, msb, preprocess, restricted, pad rsi.
+   */
+
+  public static class Type42 extends Type0 {
+    public int compressionOptionsMask, blockSize, referenceSampleInterval;
+
+    Type42(RandomAccessFile raf) throws IOException {
+      super(raf);
+      this.compressionOptionsMask = raf.read();
+      this.blockSize = raf.read();
+      this.referenceSampleInterval = GribNumbers.uint2(raf);
+    }
+
+    @Override
+    public String toString() {
+      final StringBuilder sb = new StringBuilder();
+      sb.append(super.toString());
+      sb.append("\nType42");
+      sb.append("{compressionOptionsMask=").append(compressionOptionsMask);
+      sb.append(", blockSize=").append(blockSize);
+      sb.append(", referenceSampleInterval=").append(referenceSampleInterval);
+      sb.append('}');
+      return sb.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      if (!super.equals(o)) return false;
+
+      Type42 type42 = (Type42) o;
+
+      if (compressionOptionsMask != type42.compressionOptionsMask) return false;
+      if (blockSize != type42.blockSize) return false;
+      if (referenceSampleInterval != type42.referenceSampleInterval) return false;
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      int result = super.hashCode();
+      result = 31 * result + compressionOptionsMask;
+      result = 31 * result + blockSize;
+      result = 31 * result + referenceSampleInterval;
+      return result;
+    }
+  }
+
   // pull request #52 "lost-carrier" jkaehler@meteomatics.com
   public static class Type50002 extends Grib2Drs {
 	    public float referenceValue;
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+
+package ucar.nc2.grib.grib2;
+
+import com.google.common.base.Throwables;
+import ucar.jpeg.jj2000.j2k.codestream.HeaderInfo;
+import ucar.jpeg.jj2000.j2k.codestream.reader.BitstreamReaderAgent;
+import ucar.jpeg.jj2000.j2k.codestream.reader.HeaderDecoder;
+import ucar.jpeg.jj2000.j2k.decoder.DecoderSpecs;
+import ucar.jpeg.jj2000.j2k.entropy.decoder.EntropyDecoder;
+import ucar.jpeg.jj2000.j2k.fileformat.reader.FileFormatReader;
+import ucar.jpeg.jj2000.j2k.image.BlkImgDataSrc;
+import ucar.jpeg.jj2000.j2k.image.Coord;
+import ucar.jpeg.jj2000.j2k.image.DataBlkInt;
+import ucar.jpeg.jj2000.j2k.image.ImgDataConverter;
+import ucar.jpeg.jj2000.j2k.image.invcomptransf.InvCompTransf;
+import ucar.jpeg.jj2000.j2k.io.RandomAccessIO;
+import ucar.jpeg.jj2000.j2k.quantization.dequantizer.Dequantizer;
+import ucar.jpeg.jj2000.j2k.roi.ROIDeScaler;
+import ucar.jpeg.jj2000.j2k.util.ISRandomAccessIO;
+import ucar.jpeg.jj2000.j2k.util.ParameterList;
+import ucar.jpeg.jj2000.j2k.wavelet.synthesis.InverseWT;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Decodes GRIB-2 data representation template 5.40 (JPEG 2000 code stream) with jj2000.
+ * Replaces Grib2JpegDecoder in Grib2DataReader2:
+ * <ul>
+ * <li>the default jj2000 parameters are computed once, not for every record;</li>
+ * <li>the decoded samples are copied straight into the result, and each tile goes to its place in the grid
+ * (Grib2JpegDecoder only returns the last tile);</li>
+ * <li>the tiles of a multi-tile code stream can be decoded in parallel, see setParallelTiles().</li>
+ * </ul>
+ * Thread-safe: each call to decode() builds its own decoding chain.
+ *
+ * @since 10/17/2026
+ */
+public class Grib2Jpeg2000Decoder implements Grib2DataDecoder {
+  static private final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(Grib2Jpeg2000Decoder.class);
+
+  static final String PARALLEL_THREADS = "unidata.grib.jpeg2000.parallel.threads";
+
+  private static final ParameterList defaults = new ParameterList();
+  private static volatile ExecutorService tilePool; // null = decode tiles in the calling thread
+
+  static {
+    String[][] param = Grib2JpegDecoder.getAllParameters();
+    for (int i = param.length - 1; i >= 0; i--) {
+      if (param[i][3] != null)
+        defaults.put(param[i][0], param[i][3]);
+    }
+
+    String nthreads = System.getProperty(PARALLEL_THREADS);
+    if (nthreads != null) {
+      try {
+        setParallelTiles(Integer.parseInt(nthreads));
+      } catch (NumberFormatException e) {
+        logger.warn("Illegal value for {} = {}", PARALLEL_THREADS, nthreads);
+      }
+    }
+  }
+
+  /**
+   * Decode the tiles of a multi-tile code stream in parallel.
+   * Most GRIB producers write a single tile, which is always decoded in the calling thread.
+   * The previous pool is not shut down, since decodes in progress may still be using it; its threads exit once idle.
+   *
+   * @param nthreads number of threads; 0 or less means decode the tiles serially (default)
+   */
+  public static synchronized void setParallelTiles(int nthreads) {
+    tilePool = (nthreads > 0) ? new ForkJoinPool(nthreads) : null;
+  }
+
+  ///////////////////////////////////////////////
+
+  @Override
+  public boolean canDecode(int dataTemplate) {
+    return dataTemplate == 40;
+  }
+
+  @Override
+  public int[] decode(int dataTemplate, Grib2Drs gdrs, byte[] buf, int nvalues) throws IOException {
+    int nb = ((Grib2Drs.Type0) gdrs).numberOfBits;
+    Chain chain = new Chain(buf, nb);
+
+    // the decoded component 0, in raster order
+    int width = chain.image.getCompImgWidth(0);
+    int height = chain.image.getCompImgHeight(0);
+    int[] result = new int[width * height];
+
+    Coord ntiles = chain.image.getNumTiles(null);
+    int n = ntiles.x * ntiles.y;
+    ExecutorService pool = tilePool;
+    if (pool == null || n == 1) {
+      for (int t = 0; t < n; t++)
+        chain.decodeTile(t % ntiles.x, t / ntiles.x, result, width);
+
+    } else {
+      // one chain for each task; the tiles are split evenly among the tasks
+      int ntasks = Math.min(n, (pool instanceof ForkJoinPool) ? ((ForkJoinPool) pool).getParallelism() : 2);
+      List<Future<?>> futures = new ArrayList<>();
+      for (int task = 0; task < ntasks; task++) {
+        final int first = task;
+        futures.add(pool.submit(() -> {
+          Chain taskChain = (first == 0) ? chain : new Chain(buf, nb);
+          for (int t = first; t < n; t += ntasks)
+            taskChain.decodeTile(t % ntiles.x, t / ntiles.x, result, width);
+          return null;
+        }));
+      }
+      try {
+        for (Future<?> f : futures)
+          f.get();
+      } catch (InterruptedException e) {
+        for (Future<?> f : futures)
+          f.cancel(true);
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Grib2Jpeg2000Decoder interrupted");
+      } catch (ExecutionException e) {
+        Throwables.propagateIfPossible(e.getCause(), IOException.class);
+        throw new IOException(e.getCause());
+      }
+    }
+
+    // unsigned data has been level shifted
+    if (!chain.hd.isOriginalSigned(0)) {
+      int depth = chain.depth[0];
+      if (depth != nb && gdrs instanceof Grib2Drs.Type40)
+        ((Grib2Drs.Type40) gdrs).hasSignedProblem = true;
+      int levShift = 1 << (depth - 1);
+      for (int i = 0; i < result.length; i++)
+        result[i] += levShift;
+    }
+
+    return result;
+  }
+
+  // The jj2000 decoding chain, as in Grib2JpegDecoder.decode(), without the color space mapping.
+  private static class Chain {
+    final HeaderDecoder hd;
+    final int[] depth;
+    final BlkImgDataSrc image;
+    final int imgUlx, imgUly; // the image origin, in component 0 coordinates
+    DataBlkInt db = new DataBlkInt();
+
+    Chain(byte[] buf, int nb) throws IOException {
+      try {
+        ParameterList pl = new ParameterList(defaults);
+        pl.put("rate", Integer.toString(nb));
+        pl.put("verbose", "off");
+        pl.put("debug", "on");
+
+        RandomAccessIO in = new ISRandomAccessIO(new ByteArrayInputStream(buf), buf.length, 1, buf.length);
+        FileFormatReader ff = new FileFormatReader(in);
+        ff.readFileFormat();
+        if (ff.JP2FFUsed)
+          in.seek(ff.getFirstCodeStreamPos());
+
+        HeaderInfo hi = new HeaderInfo();
+        hd = new HeaderDecoder(in, pl, hi);
+        DecoderSpecs decSpec = hd.getDecoderSpecs();
+        depth = new int[hd.getNumComps()];
+        for (int i = 0; i < depth.length; i++)
+          depth[i] = hd.getOriginalBitDepth(i);
+
+        BitstreamReaderAgent breader = BitstreamReaderAgent.createInstance(in, hd, pl, decSpec, false, hi);
+        EntropyDecoder entdec = hd.createEntropyDecoder(breader, pl);
+        ROIDeScaler roids = hd.createROIDeScaler(entdec, pl, decSpec);
+        Dequantizer deq = hd.createDequantizer(roids, depth, decSpec);
+        InverseWT invWT = InverseWT.createInstance(deq, decSpec);
+        invWT.setImgResLevel(breader.getImgRes());
+        ImgDataConverter converter = new ImgDataConverter(invWT, 0);
+        image = new InvCompTransf(converter, decSpec, depth, pl);
+
+        imgUlx = (int) Math.ceil(image.getImgULX() / (double) image.getCompSubsX(0));
+        imgUly = (int) Math.ceil(image.getImgULY() / (double) image.getCompSubsY(0));
+
+      } catch (RuntimeException e) { // jj2000 reports most problems with runtime exceptions
+        throw new IOException("JPEG 2000 decoding failed: " + e.getMessage(), e);
+      }
+    }
+
+    // decode one tile of component 0 into result, which has width columns
+    void decodeTile(int x, int y, int[] result, int width) throws IOException {
+      try {
+        image.setTile(x, y);
+        int tIdx = image.getTileIdx();
+        int tw = image.getTileCompWidth(tIdx, 0);
+        int th = image.getTileCompHeight(tIdx, 0);
+        int tx = image.getCompULX(0) - imgUlx;
+        int ty = image.getCompULY(0) - imgUly;
+
+        db.ulx = 0;
+        db.uly = 0;
+        db.w = tw;
+        db.h = th;
+        do {
+          db = (DataBlkInt) image.getInternCompData(db, 0);
+        } while (db.progressive);
+
+        int[] data = db.getDataInt();
+        for (int row = 0; row < th; row++)
+          System.arraycopy(data, db.offset + row * db.scanw, result, (ty + row) * width + tx, tw);
+
+      } catch (RuntimeException e) {
+        throw new IOException("JPEG 2000 decoding failed: " + e.getMessage(), e);
+      }
+    }
+  }
+}
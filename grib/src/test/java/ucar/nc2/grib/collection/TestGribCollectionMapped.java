@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+package ucar.nc2.grib.collection;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import thredds.featurecollection.FeatureCollectionConfig;
+import thredds.filesystem.MFileOS;
+import thredds.inventory.CollectionUpdateType;
+import ucar.coord.SparseArray;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Formatter;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Test reading the records of a GRIB collection from a memory mapped ncx4.
+ *
+ * @since 10/17/2026
+ */
+public class TestGribCollectionMapped {
+  private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @After
+  public void tearDown() {
+    GribIndexMapper.setMemoryMapped(false);
+  }
+
+  @Test
+  public void testMappedRecords() throws IOException {
+    File data = tempFolder.newFile("rap-native.grib2");
+    Files.copy(Paths.get("../grib/src/test/data/rap-native.grib2"), data.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+    // the records as read with RandomAccessFile; this also writes the index
+    List<String> expected;
+    try (GribCollectionImmutable gc = open(data, CollectionUpdateType.always)) {
+      expected = readRecords(gc);
+    }
+    Assert.assertFalse(expected.isEmpty());
+
+    GribIndexMapper.setMemoryMapped(true);
+    GribCollectionImmutable gc = open(data, CollectionUpdateType.nocheck);
+    String indexFilename = gc.getLocation();
+    try {
+      Assert.assertEquals(expected, readRecords(gc));
+      Assert.assertTrue(GribIndexMapper.isMapped(indexFilename));
+
+      for (GribCollectionImmutable.VariableIndex vi : getVariables(gc)) {
+        SparseArray<GribCollectionImmutable.Record> sa = vi.getSparseArray();
+        List<GribCollectionImmutable.Record> content = sa.getContent();
+        Assert.assertTrue(content instanceof RandomAccess);
+        Assert.assertEquals(vi.getNrecords(), content.size());
+        Assert.assertEquals(sa.countNotMissing(), content.size());
+
+        // dropped records are read again from the mapped index
+        vi.clearSoftRecords();
+        SparseArray<GribCollectionImmutable.Record> again = vi.getSparseArray();
+        Assert.assertNotSame(sa, again);
+        Assert.assertEquals(toStrings(content), toStrings(again.getContent()));
+        for (int i = 0; i < again.getTotalSize(); i++)
+          Assert.assertEquals(String.valueOf(sa.getContent(i)), String.valueOf(vi.getRecordAt(i)));
+      }
+    } finally {
+      gc.close();
+    }
+    Assert.assertFalse(GribIndexMapper.isMapped(indexFilename));
+  }
+
+  private GribCollectionImmutable open(File data, CollectionUpdateType updateType) throws IOException {
+    GribCollectionImmutable gc = GribCdmIndex.openGribCollectionFromDataFile(false, new MFileOS(data), updateType,
+            new FeatureCollectionConfig(), new Formatter(), logger);
+    Assert.assertNotNull(gc);
+    return gc;
+  }
+
+  private List<GribCollectionImmutable.VariableIndex> getVariables(GribCollectionImmutable gc) {
+    List<GribCollectionImmutable.VariableIndex> result = new ArrayList<>();
+    for (GribCollectionImmutable.Dataset ds : gc.getDatasets())
+      for (GribCollectionImmutable.GroupGC group : ds.getGroups())
+        result.addAll(group.getVariables());
+    return result;
+  }
+
+  private List<String> readRecords(GribCollectionImmutable gc) throws IOException {
+    List<String> result = new ArrayList<>();
+    for (GribCollectionImmutable.VariableIndex vi : getVariables(gc)) {
+      vi.readRecords();
+      result.add(vi.makeVariableName());
+      result.addAll(toStrings(vi.getSparseArray().getContent()));
+    }
+    return result;
+  }
+
+  private List<String> toStrings(List<GribCollectionImmutable.Record> records) {
+    List<String> result = new ArrayList<>();
+    for (GribCollectionImmutable.Record record : records)
+      result.add(record.toString());
+    return result;
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+package ucar.nc2.grib.collection;
+
+import com.google.protobuf.CodedInputStream;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+/**
+ * Test GribIndexMapper on a small file.
+ *
+ * @since 10/17/2026
+ */
+public class TestGribIndexMapper {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @After
+  public void tearDown() {
+    GribIndexMapper.setMemoryMapped(false);
+  }
+
+  @Test
+  public void testOff() throws IOException {
+    File file = tempFolder.newFile("off.ncx4");
+    Files.write(file.toPath(), new byte[]{1, 2, 3});
+    Assert.assertNull(GribIndexMapper.getBuffer(file.getPath()));
+  }
+
+  @Test
+  public void testMapped() throws IOException {
+    GribIndexMapper.setMemoryMapped(true);
+    File file = tempFolder.newFile("test.ncx4");
+    Files.write(file.toPath(), new byte[]{9, 9, (byte) 0xac, 0x02, 7});
+
+    ByteBuffer buffer = GribIndexMapper.getBuffer(file.getPath());
+    Assert.assertNotNull(buffer);
+    Assert.assertEquals(5, buffer.capacity());
+
+    CodedInputStream in = GribIndexMapper.getInputStream(buffer, 2, 2);
+    Assert.assertEquals(300, in.readRawVarint32());
+    Assert.assertTrue(in.isAtEnd());
+
+    // each caller gets its own position
+    ByteBuffer other = GribIndexMapper.getBuffer(file.getPath());
+    Assert.assertEquals(0, other.position());
+    Assert.assertEquals(9, other.get(0));
+
+    // the file is mapped again when it changes
+    Files.write(file.toPath(), new byte[]{1, 2, 3, 4, 5, 6});
+    buffer = GribIndexMapper.getBuffer(file.getPath());
+    Assert.assertEquals(6, buffer.capacity());
+    Assert.assertEquals(1, buffer.get(0));
+  }
+
+  @Test(expected = IOException.class)
+  public void testOutside() throws IOException {
+    GribIndexMapper.setMemoryMapped(true);
+    File file = tempFolder.newFile("short.ncx4");
+    Files.write(file.toPath(), new byte[]{1, 2, 3});
+    GribIndexMapper.getInputStream(GribIndexMapper.getBuffer(file.getPath()), 2, 2);
+  }
+}
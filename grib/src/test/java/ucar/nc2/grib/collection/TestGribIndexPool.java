@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+package ucar.nc2.grib.collection;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import thredds.featurecollection.FeatureCollectionConfig;
+import thredds.featurecollection.FeatureCollectionType;
+import thredds.inventory.CollectionUpdateType;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test GribIndexPool: scanned results come back in order, nested tasks finish on a small pool,
+ * and a collection indexed in parallel gets the same indexes as one indexed serially.
+ *
+ * @since 10/17/2026
+ */
+public class TestGribIndexPool {
+  private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @After
+  public void serial() {
+    GribIndexPool.setNThreads(1);
+  }
+
+  @Test
+  public void testScanAheadSerial() throws IOException {
+    GribIndexPool.setNThreads(1);
+    checkScanAhead();
+  }
+
+  @Test
+  public void testScanAheadParallel() throws IOException {
+    GribIndexPool.setNThreads(4);
+    checkScanAhead();
+  }
+
+  private void checkScanAhead() throws IOException {
+    List<Integer> items = new ArrayList<>();
+    for (int i = 0; i < 200; i++)
+      items.add(i);
+    Random random = new Random(25);
+    int[] delays = new int[items.size()];
+    for (int i = 0; i < delays.length; i++)
+      delays[i] = random.nextInt(3);
+
+    int expect = 0;
+    try (GribIndexPool.ScanAhead<Integer, String> scans = GribIndexPool.scanAhead(items.iterator(), i -> {
+      sleep(delays[i]);
+      if (i % 10 == 7) throw new IOException("bad " + i);
+      return "file" + i;
+    })) {
+      while (scans.hasNext()) {
+        GribIndexPool.Scanned<Integer, String> scanned = scans.next();
+        Assert.assertEquals(expect, (int) scanned.item);
+        try {
+          Assert.assertEquals("file" + expect, scanned.get());
+          Assert.assertTrue(expect % 10 != 7);
+        } catch (IOException ioe) {
+          Assert.assertEquals("bad " + expect, ioe.getMessage());
+        }
+        expect++;
+      }
+    }
+    Assert.assertEquals(items.size(), expect);
+  }
+
+  @Test
+  public void testNested() throws IOException {
+    GribIndexPool.setNThreads(2);
+    Set<String> threads = ConcurrentHashMap.newKeySet();
+    AtomicInteger leaves = new AtomicInteger();
+    List<Integer> parts = Arrays.asList(0, 1, 2, 3, 4, 5);
+
+    // partitions of partitions of collections, each scanning its files
+    GribIndexPool.forEach(parts, p -> GribIndexPool.forEach(parts, q -> {
+      List<Integer> files = Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7);
+      try (GribIndexPool.ScanAhead<Integer, Integer> scans = GribIndexPool.scanAhead(files.iterator(), f -> {
+        threads.add(Thread.currentThread().getName());
+        sleep(1);
+        return f;
+      })) {
+        int n = 0;
+        while (scans.hasNext())
+          Assert.assertEquals(n++, (int) scans.next().get());
+        Assert.assertEquals(files.size(), n);
+        leaves.incrementAndGet();
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+    }));
+
+    Assert.assertEquals(parts.size() * parts.size(), leaves.get());
+    Assert.assertTrue(threads.toString(), threads.size() > 1);
+  }
+
+  @Test
+  public void testIndexSerialAndParallel() throws IOException {
+    File dir = tempFolder.newFolder("parallel");
+    for (String name : new String[]{"cosmo-eu.grib2", "rap-native.grib2", "MRMS_LowLevelCompositeReflectivity_00.50_20141207-072038.grib2"})
+      Files.copy(Paths.get("../grib/src/test/data", name), new File(dir, name).toPath());
+    FeatureCollectionConfig config = new FeatureCollectionConfig("TestGribIndexPool", "test/parallel", FeatureCollectionType.GRIB2,
+            dir.getPath() + "/.*grib2$", null, null, null, "file", null);
+    String partitionIndex = "TestGribIndexPool.ncx4";
+
+    GribIndexPool.setNThreads(1);
+    Map<String, byte[]> serial = makeIndexes(config, dir);
+    List<String> serialPartition = showPartition(new File(dir, partitionIndex), config);
+
+    GribIndexPool.setNThreads(4);
+    Map<String, byte[]> parallel = makeIndexes(config, dir);
+    List<String> parallelPartition = showPartition(new File(dir, partitionIndex), config);
+
+    // the gbx9 and the ncx4 of each file are the same
+    Assert.assertTrue(serial.containsKey(partitionIndex));
+    Assert.assertTrue(serial.size() > 1);
+    Assert.assertEquals(serial.keySet(), parallel.keySet());
+    for (String name : serial.keySet())
+      if (!name.equals(partitionIndex))
+        Assert.assertArrayEquals(name, serial.get(name), parallel.get(name));
+
+    // the partition ncx4 holds the last modified time of each ncx4, so compare what it contains
+    Assert.assertEquals(serial.get(partitionIndex).length, parallel.get(partitionIndex).length);
+    Assert.assertEquals(serialPartition, parallelPartition);
+  }
+
+  // write the indexes from scratch, return their contents
+  private Map<String, byte[]> makeIndexes(FeatureCollectionConfig config, File dir) throws IOException {
+    File[] old = dir.listFiles((d, name) -> name.endsWith(".gbx9") || name.endsWith(".ncx4"));
+    if (old != null)
+      for (File f : old) {
+        ucar.unidata.io.RandomAccessFile.eject(f.getPath());
+        Assert.assertTrue(f.getPath(), f.delete());
+      }
+
+    GribCdmIndex.updateGribCollection(config, CollectionUpdateType.always, logger);
+
+    Map<String, byte[]> result = new TreeMap<>();
+    File[] made = dir.listFiles((d, name) -> name.endsWith(".gbx9") || name.endsWith(".ncx4"));
+    if (made != null)
+      for (File f : made)
+        result.put(f.getName(), Files.readAllBytes(f.toPath()));
+    return result;
+  }
+
+  // the partitions, and the variables of each group
+  private List<String> showPartition(File index, FeatureCollectionConfig config) throws IOException {
+    List<String> result = new ArrayList<>();
+    try (GribCollectionImmutable gc = GribCdmIndex.openCdmIndex(index.getPath(), config, false, logger)) {
+      Assert.assertTrue(gc instanceof PartitionCollectionImmutable);
+      for (PartitionCollectionImmutable.Partition p : ((PartitionCollectionImmutable) gc).getPartitionsSorted())
+        result.add(p.getName());
+      for (GribCollectionImmutable.Dataset ds : gc.getDatasets())
+        for (GribCollectionImmutable.GroupGC group : ds.getGroups()) {
+          result.add(ds.getType() + " " + group.getId());
+          for (GribCollectionImmutable.VariableIndex vi : group.getVariables())
+            result.add(vi.makeVariableName() + " " + vi.getNrecords() + " " + vi.getNdups() + " " + vi.getNmissing());
+        }
+    }
+    return result;
+  }
+
+  private static void sleep(int msecs) {
+    try {
+      Thread.sleep(msecs);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
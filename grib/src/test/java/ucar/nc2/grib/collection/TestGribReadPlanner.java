@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+package ucar.nc2.grib.collection;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import ucar.ma2.Array;
+import ucar.ma2.Range;
+import ucar.nc2.grib.GdsHorizCoordSys;
+import ucar.unidata.geoloc.projection.LatLonProjection;
+import ucar.unidata.io.RandomAccessFile;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test GribReadPlanner on a file of fake GRIB-2 messages: an Indicator section followed by 4 floats.
+ *
+ * @since 10/17/2026
+ */
+public class TestGribReadPlanner {
+  private static final int NRECORDS = 50;
+  private static final int MSG_LEN = 100;
+  private static final ExecutorService pool = new ForkJoinPool(4);
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @AfterClass
+  static public void shutdown() {
+    pool.shutdown();
+  }
+
+  private final GdsHorizCoordSys hcs = new GdsHorizCoordSys("test", 0, 4, 0, new LatLonProjection(), 0, 1, 0, 1, 2, 2, null);
+
+  // unpack the 4 floats after the Indicator section. The last record reads past its message, as if its length were wrong.
+  private final GribDataReader reader = new GribDataReader(null, null) {
+    protected float[] readData(RandomAccessFile rafData, DataRecord dr) throws IOException {
+      boolean last = dr.record.pos == (NRECORDS - 1) * MSG_LEN;
+      rafData.seek(dr.record.pos + (last ? MSG_LEN : 16));
+      float[] result = new float[4];
+      rafData.readFloat(result, 0, 4);
+      return result;
+    }
+
+    protected void show(RandomAccessFile rafData, long dataPos) {
+    }
+  };
+
+  private File makeFile() throws IOException {
+    File file = tempFolder.newFile("fake.grib2");
+    try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+      for (int i = 0; i < NRECORDS; i++) {
+        out.writeBytes("GRIB");
+        out.write(new byte[]{0, 0, 0, 2}); // discipline, edition
+        out.writeLong(MSG_LEN);
+        for (int j = 0; j < 4; j++)
+          out.writeFloat(i * 10 + j);
+        out.write(new byte[MSG_LEN - 32]);
+      }
+      for (int j = 0; j < 4; j++) // trailing bytes, only reachable by the last record
+        out.writeFloat(-j);
+    }
+    return file;
+  }
+
+  private List<GribDataReader.DataRecord> makeRecords(int stride) {
+    List<GribDataReader.DataRecord> result = new ArrayList<>();
+    for (int i = 0; i < NRECORDS; i += stride)
+      result.add(new GribDataReader.DataRecord(result.size(), new GribCollectionImmutable.Record(0, i * MSG_LEN, 0, 0), hcs));
+    return result;
+  }
+
+  private final AtomicInteger closed = new AtomicInteger(); // files are closed by the unpacking threads
+
+  private Array read(File file, int stride, int mergeDistance, ExecutorService pool) throws IOException {
+    List<GribDataReader.DataRecord> records = makeRecords(stride);
+    GribDataReader.DataReceiver receiver = new GribDataReader.DataReceiver(new int[]{records.size(), 2, 2}, new Range(2), new Range(2));
+    GribReadPlanner planner = new GribReadPlanner(reader, receiver, false, mergeDistance, 10 * MSG_LEN, pool);
+
+    // split the records over 2 opens of the same file
+    try {
+      for (int i = 0; i < records.size(); i++) {
+        if (i == 0 || i == records.size() / 2) {
+          planner.nextFile(new RandomAccessFile(file.getPath(), "r") {
+            public synchronized void close() throws IOException {
+              closed.incrementAndGet();
+              super.close();
+            }
+          });
+        }
+        planner.add(records.get(i));
+      }
+      planner.finish();
+    } finally {
+      planner.cancel();
+    }
+    return receiver.getArray();
+  }
+
+  @Test
+  public void testPlan() {
+    GribReadPlanner planner = new GribReadPlanner(reader, null, false, 2 * MSG_LEN, 10 * MSG_LEN, null);
+    List<GribReadPlanner.Batch> batches = planner.plan(makeRecords(1));
+    Assert.assertEquals(5, batches.size()); // limited by maxBatchBytes
+    Assert.assertEquals(11, batches.get(0).records.size());
+
+    batches = planner.plan(makeRecords(3)); // too far apart
+    Assert.assertEquals(17, batches.size());
+
+    planner = new GribReadPlanner(reader, null, false, 0, 10 * MSG_LEN, null);
+    Assert.assertEquals(NRECORDS, planner.plan(makeRecords(1)).size());
+  }
+
+  @Test
+  public void testSameData() throws IOException {
+    File file = makeFile();
+    for (int stride : new int[]{1, 2, 7}) {
+      Array expected = read(file, stride, 0, null);
+      int nrecords = (NRECORDS + stride - 1) / stride;
+      Assert.assertEquals(nrecords * 4, expected.getSize());
+      Assert.assertEquals(10 * stride + 3, expected.getFloat(7), 0.0);
+      if ((NRECORDS - 1) % stride == 0)
+        Assert.assertEquals(-3, expected.getFloat(nrecords * 4 - 1), 0.0);
+
+      compare(expected, read(file, stride, 2 * MSG_LEN, null));
+      compare(expected, read(file, stride, 20 * MSG_LEN, null));
+      compare(expected, read(file, stride, 0, pool));
+      compare(expected, read(file, stride, 2 * MSG_LEN, pool));
+    }
+    Assert.assertEquals(3 * 5 * 2, closed.get());
+  }
+
+  private void compare(Array expected, Array result) {
+    Assert.assertArrayEquals((float[]) expected.getStorage(), (float[]) result.getStorage(), 0.0f);
+  }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+package ucar.nc2.grib.grib2;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static ucar.nc2.grib.grib2.Grib2CcsdsDecoder.*;
+
+/**
+ * Test Grib2CcsdsDecoder (template 5.42) on hand made bitstreams, and on the output of a simple encoder.
+ *
+ * @since 10/17/2026
+ */
+public class TestGrib2CcsdsDecoder {
+
+  @Test
+  public void testSplitAndUncompressed() throws IOException {
+    BitWriter bits = new BitWriter();
+    bits.write(2, 3); // split, k = 1
+    int[] block1 = {0, 1, 2, 3, 4, 5, 6, 7};
+    for (int v : block1) bits.writeFs(v >> 1);
+    for (int v : block1) bits.write(v & 1, 1);
+    bits.write(7, 3); // uncompressed
+    int[] block2 = {200, 0, 255, 17, 3, 99, 128, 1};
+    for (int v : block2) bits.write(v, 8);
+
+    int[] result = Grib2CcsdsDecoder.decode(bits.toByteArray(), 16, 8, 0, 8, 2);
+    Assert.assertArrayEquals(concat(block1, block2), result);
+  }
+
+  @Test
+  public void testZeroBlocks() throws IOException {
+    BitWriter bits = new BitWriter();
+    bits.write(0, 3);  // low entropy
+    bits.write(0, 1);  // zero block
+    bits.writeFs(1);   // 2 blocks
+    bits.write(1, 3);  // split, k = 0
+    int[] block3 = {1, 0, 2, 0, 3, 0, 4, 5};
+    for (int v : block3) bits.writeFs(v);
+    bits.write(0, 3);
+    bits.write(0, 1);
+    bits.writeFs(4);   // ROS: the rest of the RSI, 1 block
+
+    int[] result = Grib2CcsdsDecoder.decode(bits.toByteArray(), 32, 8, 0, 8, 4);
+    Assert.assertArrayEquals(concat(new int[16], block3, new int[8]), result);
+  }
+
+  @Test
+  public void testSecondExtension() throws IOException {
+    int[] block = {1, 0, 0, 2, 3, 3, 0, 0};
+    BitWriter bits = new BitWriter();
+    bits.write(0, 3); // low entropy
+    bits.write(1, 1); // second extension
+    for (int i = 0; i < block.length; i += 2) {
+      int sum = block[i] + block[i + 1];
+      bits.writeFs(sum * (sum + 1) / 2 + block[i + 1]);
+    }
+
+    int[] result = Grib2CcsdsDecoder.decode(bits.toByteArray(), 8, 8, 0, 8, 1);
+    Assert.assertArrayEquals(block, result);
+  }
+
+  @Test
+  public void testSigned() throws IOException {
+    int[] block = {-128, -1, 0, 1, 127, -50, 50, -2};
+    BitWriter bits = new BitWriter();
+    bits.write(7, 3); // uncompressed
+    for (int v : block) bits.write(v & 0xff, 8);
+
+    int[] result = Grib2CcsdsDecoder.decode(bits.toByteArray(), 8, 8, AEC_DATA_SIGNED, 8, 1);
+    Assert.assertArrayEquals(block, result);
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    Random r = new Random(17);
+    int[] flagsList = {AEC_DATA_PREPROCESS, AEC_DATA_PREPROCESS | AEC_PAD_RSI,
+            AEC_DATA_PREPROCESS | AEC_DATA_SIGNED, 0};
+
+    for (int bps : new int[]{4, 12, 24}) {
+      for (int flags : flagsList) {
+        boolean signed = (flags & AEC_DATA_SIGNED) != 0;
+        long xmin = signed ? -(1L << (bps - 1)) : 0;
+        long xmax = signed ? (1L << (bps - 1)) - 1 : (1L << bps) - 1;
+
+        // a random walk, with jumps to the ends of the range
+        int[] data = new int[1001];
+        long x = (xmin + xmax) / 2;
+        for (int i = 0; i < data.length; i++) {
+          int step = r.nextInt(20);
+          if (step == 0) x = xmin;
+          else if (step == 1) x = xmax;
+          else x = Math.max(xmin, Math.min(xmax, x + r.nextInt(9) - 4));
+          data[i] = (int) x;
+        }
+
+        for (int blockSize : new int[]{8, 16, 64}) {
+          byte[] coded = encode(data, bps, flags, blockSize, 3);
+          int[] result = Grib2CcsdsDecoder.decode(coded, data.length, bps, flags, blockSize, 3);
+          Assert.assertArrayEquals("bps=" + bps + " flags=" + flags + " blockSize=" + blockSize, data, result);
+        }
+      }
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testTruncated() throws IOException {
+    BitWriter bits = new BitWriter();
+    bits.write(7, 3);
+    bits.write(1, 8);
+    Grib2CcsdsDecoder.decode(bits.toByteArray(), 8, 8, 0, 8, 1);
+  }
+
+  ////////////////////////////////////////////////////////////////
+
+  // the split sample and uncompressed options only
+  private static byte[] encode(int[] data, int bps, int flags, int blockSize, int rsi) {
+    boolean signed = (flags & AEC_DATA_SIGNED) != 0;
+    boolean pp = (flags & AEC_DATA_PREPROCESS) != 0;
+    long xmin = signed ? -(1L << (bps - 1)) : 0;
+    long xmax = signed ? (1L << (bps - 1)) - 1 : (1L << bps) - 1;
+    int idLen = bps > 16 ? 5 : (bps > 8 ? 4 : 3);
+    int mask = (bps == 32) ? -1 : (1 << bps) - 1;
+
+    BitWriter bits = new BitWriter();
+    int[] block = new int[blockSize];
+    int rsiSize = blockSize * rsi;
+    for (int rsiStart = 0; rsiStart < data.length; rsiStart += rsiSize) {
+      int rsiEnd = Math.min(rsiStart + rsiSize, data.length);
+      for (int start = rsiStart; start < rsiEnd; start += blockSize) {
+        int ref = (pp && start == rsiStart) ? 1 : 0;
+        for (int i = 0; i < blockSize; i++) {
+          int pos = start + i;
+          if (pos >= rsiEnd) block[i] = 0;
+          else if (!pp || i < ref) block[i] = data[pos] & mask;
+          else block[i] = map(data[pos], data[pos - 1], xmin, xmax);
+        }
+
+        int k = bestK(block, ref, bps, (1 << idLen) - 2);
+        if (k < 0) {
+          bits.write((1 << idLen) - 1, idLen);
+          for (int v : block) bits.write(v, bps);
+        } else {
+          bits.write(k + 1, idLen);
+          if (ref == 1) bits.write(block[0], bps);
+          for (int i = ref; i < blockSize; i++) bits.writeFs(block[i] >>> k);
+          for (int i = ref; i < blockSize; i++) bits.write(block[i], k);
+        }
+      }
+      if ((flags & AEC_PAD_RSI) != 0) bits.align();
+    }
+    return bits.toByteArray();
+  }
+
+  // -1 = uncompressed
+  private static int bestK(int[] block, int ref, int bps, int nk) {
+    int best = -1;
+    long bestSize = (long) block.length * bps;
+    for (int k = 0; k < nk; k++) {
+      long size = (long) (block.length - ref) * (k + 1);
+      for (int i = ref; i < block.length; i++) size += block[i] >>> k;
+      if (size < bestSize) {
+        bestSize = size;
+        best = k;
+      }
+    }
+    return best;
+  }
+
+  private static int map(long value, long prev, long xmin, long xmax) {
+    long delta = value - prev;
+    long theta = Math.min(prev - xmin, xmax - prev);
+    if (delta >= 0 && delta <= theta) return (int) (2 * delta);
+    if (delta < 0 && -delta <= theta) return (int) (-2 * delta - 1);
+    return (int) (theta + Math.abs(delta));
+  }
+
+  private static int[] concat(int[]... arrays) {
+    int n = 0;
+    for (int[] a : arrays) n += a.length;
+    int[] result = new int[n];
+    int pos = 0;
+    for (int[] a : arrays) {
+      System.arraycopy(a, 0, result, pos, a.length);
+      pos += a.length;
+    }
+    return result;
+  }
+
+  private static class BitWriter {
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private int current;
+    private int nbits;
+
+    void write(int value, int width) {
+      for (int b = width - 1; b >= 0; b--) {
+        current = (current << 1) | ((value >>> b) & 1);
+        if (++nbits == 8) {
+          out.write(current);
+          current = 0;
+          nbits = 0;
+        }
+      }
+    }
+
+    void writeFs(int n) {
+      for (int i = 0; i < n; i++) write(0, 1);
+      write(1, 1);
+    }
+
+    void align() {
+      if (nbits > 0) write(0, 8 - nbits);
+    }
+
+    byte[] toByteArray() {
+      align();
+      return out.toByteArray();
+    }
+  }
+}
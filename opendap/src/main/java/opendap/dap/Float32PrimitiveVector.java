@@ -186,9 +186,7 @@ public class Float32PrimitiveVector extends PrimitiveVector
      *                     exception.
      */
     public void externalize(DataOutputStream sink) throws IOException {
-        for (int i = 0; i < vals.length; i++) {
-            sink.writeFloat(vals[i]);
-        }
+        XdrBlockWriter.writeFloats(sink, vals, 0, vals.length - 1, 1);
     }
 
     /**
@@ -201,8 +199,7 @@ public class Float32PrimitiveVector extends PrimitiveVector
      * @throws IOException thrown on any <code>OutputStream</code> exception.
      */
     public void externalize(DataOutputStream sink, int start, int stop, int stride) throws IOException {
-        for (int i = start; i <= stop; i += stride)
-            sink.writeFloat(vals[i]);
+        XdrBlockWriter.writeFloats(sink, vals, start, stop, stride);
     }
 
 
@@ -183,9 +183,7 @@ public class Int32PrimitiveVector extends PrimitiveVector
      *                     exception.
      */
     public void externalize(DataOutputStream sink) throws IOException {
-        for (int i = 0; i < vals.length; i++) {
-            sink.writeInt(vals[i]);
-        }
+        XdrBlockWriter.writeInts(sink, vals, 0, vals.length - 1, 1);
     }
 
     /**
@@ -198,8 +196,7 @@ public class Int32PrimitiveVector extends PrimitiveVector
      * @throws IOException thrown on any <code>OutputStream</code> exception.
      */
     public void externalize(DataOutputStream sink, int start, int stop, int stride) throws IOException {
-        for (int i = start; i <= stop; i += stride)
-            sink.writeInt(vals[i]);
+        XdrBlockWriter.writeInts(sink, vals, start, stop, stride);
     }
 
     /**
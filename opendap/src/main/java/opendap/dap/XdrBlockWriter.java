@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+package opendap.dap;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Writes primitive arrays as XDR (big-endian) values, converting a block of values at a time into a byte array
+ * and writing the block with a single <code>write</code>, instead of one <code>writeXXX</code> call per value.
+ * The bytes written are the same as <code>DataOutputStream.writeFloat</code>, etc.
+ * The values written are vals[i] for i = start, start+stride, ... , i &lt;= stop.
+ *
+ * @since 10/17/2026
+ */
+final class XdrBlockWriter {
+    static final int BLOCK_SIZE = 64 * 1024; // bytes
+
+    private XdrBlockWriter() {
+    }
+
+    static void writeFloats(DataOutputStream sink, float[] vals, int start, int stop, int stride) throws IOException {
+        int n = count(start, stop, stride);
+        byte[] buf = new byte[4 * Math.min(n, BLOCK_SIZE / 4)];
+        int i = start;
+        while (n > 0) {
+            int m = Math.min(n, buf.length / 4);
+            for (int k = 0, p = 0; k < m; k++, i += stride, p += 4)
+                putInt(buf, p, Float.floatToIntBits(vals[i]));
+            sink.write(buf, 0, 4 * m);
+            n -= m;
+        }
+    }
+
+    static void writeDoubles(DataOutputStream sink, double[] vals, int start, int stop, int stride) throws IOException {
+        int n = count(start, stop, stride);
+        byte[] buf = new byte[8 * Math.min(n, BLOCK_SIZE / 8)];
+        int i = start;
+        while (n > 0) {
+            int m = Math.min(n, buf.length / 8);
+            for (int k = 0, p = 0; k < m; k++, i += stride, p += 8) {
+                long bits = Double.doubleToLongBits(vals[i]);
+                putInt(buf, p, (int) (bits >>> 32));
+                putInt(buf, p + 4, (int) bits);
+            }
+            sink.write(buf, 0, 8 * m);
+            n -= m;
+        }
+    }
+
+    static void writeInts(DataOutputStream sink, int[] vals, int start, int stop, int stride) throws IOException {
+        int n = count(start, stop, stride);
+        byte[] buf = new byte[4 * Math.min(n, BLOCK_SIZE / 4)];
+        int i = start;
+        while (n > 0) {
+            int m = Math.min(n, buf.length / 4);
+            for (int k = 0, p = 0; k < m; k++, i += stride, p += 4)
+                putInt(buf, p, vals[i]);
+            sink.write(buf, 0, 4 * m);
+            n -= m;
+        }
+    }
+
+    // XDR has no 16 bit integers: each short is written as a (sign extended) 32 bit int
+    static void writeShorts(DataOutputStream sink, short[] vals, int start, int stop, int stride) throws IOException {
+        int n = count(start, stop, stride);
+        byte[] buf = new byte[4 * Math.min(n, BLOCK_SIZE / 4)];
+        int i = start;
+        while (n > 0) {
+            int m = Math.min(n, buf.length / 4);
+            for (int k = 0, p = 0; k < m; k++, i += stride, p += 4)
+                putInt(buf, p, vals[i]);
+            sink.write(buf, 0, 4 * m);
+            n -= m;
+        }
+    }
+
+    private static int count(int start, int stop, int stride) {
+        return (stop < start) ? 0 : 1 + (stop - start) / stride;
+    }
+
+    private static void putInt(byte[] buf, int p, int v) {
+        buf[p] = (byte) (v >>> 24);
+        buf[p + 1] = (byte) (v >>> 16);
+        buf[p + 2] = (byte) (v >>> 8);
+        buf[p + 3] = (byte) v;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+
+package opendap.test;
+
+import opendap.dap.*;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * The block writes of the primitive vectors must give the same bytes as writing one value at a time.
+ */
+public class TestExternalize
+{
+    static final int N = 50000; // more than one block
+
+    interface Writer
+    {
+        void write(DataOutputStream out, int i) throws IOException;
+    }
+
+    interface Subset
+    {
+        void externalize(DataOutputStream sink, int start, int stop, int stride) throws IOException;
+    }
+
+    @Test
+    public void testFloat32() throws IOException
+    {
+        Random r = new Random(20);
+        float[] vals = new float[N];
+        for(int i = 0; i < N; i++)
+            vals[i] = r.nextFloat() * 1000 - 500;
+        vals[1] = Float.NaN;
+        vals[2] = Float.intBitsToFloat(0x7f800123); // a NaN that writeFloat() makes canonical
+        vals[3] = Float.NEGATIVE_INFINITY;
+        vals[4] = -0.0f;
+
+        Float32PrimitiveVector pv = new Float32PrimitiveVector(new DFloat32());
+        pv.setInternalStorage(vals);
+        check(pv, pv::externalize, N, (out, i) -> out.writeFloat(vals[i]));
+    }
+
+    @Test
+    public void testFloat64() throws IOException
+    {
+        Random r = new Random(20);
+        double[] vals = new double[N];
+        for(int i = 0; i < N; i++)
+            vals[i] = r.nextGaussian() * 1.0e10;
+        vals[1] = Double.NaN;
+        vals[2] = Double.longBitsToDouble(0x7ff0000000000123L);
+        vals[3] = Double.MIN_VALUE;
+
+        Float64PrimitiveVector pv = new Float64PrimitiveVector(new DFloat64());
+        pv.setInternalStorage(vals);
+        check(pv, pv::externalize, N, (out, i) -> out.writeDouble(vals[i]));
+    }
+
+    @Test
+    public void testInt32() throws IOException
+    {
+        Random r = new Random(20);
+        int[] vals = new int[N];
+        for(int i = 0; i < N; i++)
+            vals[i] = r.nextInt();
+
+        Int32PrimitiveVector pv = new Int32PrimitiveVector(new DInt32());
+        pv.setInternalStorage(vals);
+        check(pv, pv::externalize, N, (out, i) -> out.writeInt(vals[i]));
+    }
+
+    @Test
+    public void testInt16() throws IOException
+    {
+        short[] vals = new short[N];
+        for(int i = 0; i < N; i++)
+            vals[i] = (short) (i * 7);
+
+        Int16PrimitiveVector pv = new Int16PrimitiveVector(new DInt16());
+        pv.setInternalStorage(vals);
+        check(pv, pv::externalize, N, (out, i) -> out.writeInt((int) vals[i]));
+
+        UInt16PrimitiveVector upv = new UInt16PrimitiveVector(new DUInt16());
+        upv.setInternalStorage(vals);
+        check(upv, upv::externalize, N, (out, i) -> out.writeInt((int) vals[i]));
+    }
+
+    // whole vector, then some start/stop/stride subsets
+    private void check(PrimitiveVector pv, Subset subset, int n, Writer writer) throws IOException
+    {
+        ByteArrayOutputStream got = new ByteArrayOutputStream();
+        pv.externalize(new DataOutputStream(got));
+        Assert.assertArrayEquals(expected(0, n - 1, 1, writer), got.toByteArray());
+
+        int[][] subsets = {{0, n - 1, 3}, {17, n - 2, 1}, {5, 5, 1}, {100, 20000, 999}, {3, n - 1, n}, {10, 9, 1}};
+        for(int[] s : subsets) {
+            got = new ByteArrayOutputStream();
+            subset.externalize(new DataOutputStream(got), s[0], s[1], s[2]);
+            Assert.assertArrayEquals(s[0] + ":" + s[1] + ":" + s[2], expected(s[0], s[1], s[2], writer), got.toByteArray());
+        }
+    }
+
+    private byte[] expected(int start, int stop, int stride, Writer writer) throws IOException
+    {
+        ByteArrayOutputStream want = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(want);
+        for(int i = start; i <= stop; i += stride)
+            writer.write(out, i);
+        out.flush();
+        return want.toByteArray();
+    }
+}
@@ -8,7 +8,6 @@ import thredds.client.catalog.Dataset;
 import thredds.server.catalog.tracker.DataRootExt;
 import thredds.server.catalog.tracker.DataRootTracker;
 import ucar.nc2.util.AliasTranslator;
-import ucar.unidata.util.StringUtil2;
 
 import javax.annotation.Nonnull;
 import java.io.File;
@@ -17,7 +16,8 @@ import java.util.*;
 
 /**
  * Find the dataRoot path from the request, by getting the longest match.
- * Use a TreeSet for minimum in-memory use.
+ * Use a radix trie of the paths, so the time to find a match depends on the length of the request path,
+ * not on the number of dataRoots.
  * Keep the objects in a seperate map that could be off-heap and persistent.
  *
  * @author caron
@@ -26,24 +26,15 @@ import java.util.*;
 public class DataRootPathMatcher {
   static private final Logger logger = LoggerFactory.getLogger(DataRootPathMatcher.class);
   static private org.slf4j.Logger logCatalogInit = org.slf4j.LoggerFactory.getLogger("catalogInit");
-  static private final boolean debug = false;
   static private final String ERROR = "*** ERROR: ";
   static private boolean skipTestDataDir = true;
 
-  private static class PathComparator implements Comparator<String> {
-    public int compare(String s1, String s2) {
-      int compare = s2.compareTo( s1); // reverse sort
-      if (debug) System.out.println(" compare "+s1+" to "+s2+" = "+compare);
-      return compare;
-    }
-  }
-
   /////////////////////////////////////////////////////////////////////////////////////////
 
   private ConfigCatalogCache ccc;
   private DataRootTracker tracker;
 
-  private final TreeSet<String> treeSet = new TreeSet<>( new PathComparator());    // this should be in-memory for speed
+  private final PathTrie trie = new PathTrie();                          // this should be in-memory for speed
   private final Map<String, DataRootExt> map = new HashMap<>();         // this could be turned into an off-heap cache if needed, with persistence.
 
   public DataRootPathMatcher(ConfigCatalogCache ccc, DataRootTracker tracker) {
@@ -61,7 +52,7 @@ public class DataRootPathMatcher {
    */
   private boolean put(DataRootExt dateRootExt) {
     map.put(dateRootExt.getPath(), dateRootExt);
-    return treeSet.add(dateRootExt.getPath());
+    return trie.add(dateRootExt.getPath());
   }
 
   /**
@@ -70,7 +61,7 @@ public class DataRootPathMatcher {
    * @return true if already contains the key
    */
   public boolean contains(String  path) {
-    return treeSet.contains(path);
+    return trie.contains(path);
   }
 
   public DataRootExt get(String  path) {
@@ -91,23 +82,7 @@ public class DataRootPathMatcher {
    * @return the value whose key is the longest that matches path, or null if none
    */
   public String findLongestPathMatch( String reqPath) {
-    SortedSet<String> tail = treeSet.tailSet(reqPath);
-    if (tail.isEmpty()) return null;
-    String after = tail.first();
-    if (reqPath.startsWith( after)) // common case
-      return tail.first();
-
-    // have to check more, until no common starting chars
-    for (String key : tail) {
-      if (reqPath.startsWith(key))
-        return key;
-
-      // terminate when there's no match at all.
-      if (StringUtil2.match(reqPath, key) == 0)
-        break;
-    }
-
-    return null;
+    return trie.findLongestPrefix(reqPath);
   }
 
   /**
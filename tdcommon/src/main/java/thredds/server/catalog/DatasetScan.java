@@ -32,6 +32,8 @@
 
 package thredds.server.catalog;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import thredds.client.catalog.*;
 import thredds.client.catalog.builder.AccessBuilder;
 import thredds.client.catalog.builder.CatalogBuilder;
@@ -60,6 +62,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 /**
  * DatasetScan
@@ -85,6 +88,43 @@ public class DatasetScan extends CatalogRef {
     allowedServices = _allowedServices;
   }
 
+  // cache of sorted directory listings; weight is number of files
+  static private volatile long listingMaxAge = 60 * 1000; // msecs
+  static private volatile Cache<ListingKey, Listing> listingCache = makeListingCache(250 * 1000, listingMaxAge);
+  static private volatile int maxDatasets = 0; // max datasets in one directory catalog; 0 = no limit
+
+  /**
+   * Set the size of the directory listing cache.
+   * A listing is rescanned when the directory has been modified, or when it is older than maxAgeSecs, so that
+   * changes to the files themselves (size, last modified) are seen.
+   *
+   * @param maxFiles   maximum total number of files in the cached listings; 0 = no cache
+   * @param maxAgeSecs maximum age of a cached listing, in seconds
+   */
+  static public synchronized void setListingCache(long maxFiles, long maxAgeSecs) {
+    listingMaxAge = maxAgeSecs * 1000;
+    listingCache = (maxFiles > 0) ? makeListingCache(maxFiles, listingMaxAge) : null;
+  }
+
+  /**
+   * Set the maximum number of datasets in a directory catalog. Larger directories are split into pages,
+   * each with a catalogRef to the next page.
+   *
+   * @param max maximum number of datasets; 0 = no limit
+   */
+  static public synchronized void setMaxDatasets(int max) {
+    maxDatasets = Math.max(0, max);
+  }
+
+  // the keys hold on to their DatasetScan, so stale listings must expire even if they are never looked up again
+  static private Cache<ListingKey, Listing> makeListingCache(long maxFiles, long maxAgeMsecs) {
+    return CacheBuilder.newBuilder()
+            .maximumWeight(maxFiles)
+            .weigher((ListingKey key, Listing listing) -> 1 + listing.files.size() + listing.dirs.size())
+            .expireAfterWrite(maxAgeMsecs, TimeUnit.MILLISECONDS)
+            .build();
+  }
+
   private final DatasetScanConfig config;
   private final AddTimeCoverageEnhancer addTimeCoverage;
   private final List<RegExpNamer> namers;
@@ -168,6 +208,20 @@ public class DatasetScan extends CatalogRef {
    * @return the catalog for this path or null if build unsuccessful.
    */
   public CatalogBuilder makeCatalogForDirectory(String orgPath, URI baseURI) throws IOException {
+    return makeCatalogForDirectory(orgPath, baseURI, 0, 0);
+  }
+
+  /**
+   * Build one page of the catalog for the given path.
+   * If there are more datasets after this page, a catalogRef to the next page is added.
+   *
+   * @param orgPath the part of the baseURI that is the path
+   * @param baseURI the base URL for the catalog, used to resolve relative URLs.
+   * @param offset  skip this many datasets
+   * @param limit   maximum number of datasets, limited by setMaxDatasets(); 0 = no limit
+   * @return the catalog for this path or null if build unsuccessful.
+   */
+  public CatalogBuilder makeCatalogForDirectory(String orgPath, URI baseURI, int offset, int limit) throws IOException {
 
     // Get the dataset location.
     String dataDirReletive = translatePathToReletiveLocation(orgPath, config.path);
@@ -229,11 +283,18 @@ public class DatasetScan extends CatalogRef {
     // scan and sort the directory
     List<MFile> mfiles = getSortedFiles(p, config.getSortFilesAscending());
 
-    if (config.addLatest != null && config.addLatest.latestOnTop)
+    // the page of mfiles to use
+    int max = maxDatasets;
+    if (max > 0)
+      limit = (limit > 0) ? Math.min(limit, max) : max;
+    int start = Math.min(Math.max(offset, 0), mfiles.size());
+    int end = (limit > 0) ? (int) Math.min((long) start + limit, mfiles.size()) : mfiles.size();
+
+    if (config.addLatest != null && config.addLatest.latestOnTop && start == 0)
       top.addDataset(makeLatestProxy(top, parentId));
 
     // create Datasets
-    for (MFile mfile : mfiles) {
+    for (MFile mfile : mfiles.subList(start, end)) {
       DatasetBuilder ds;
 
       if (mfile.isDirectory()) {
@@ -267,39 +328,122 @@ public class DatasetScan extends CatalogRef {
       ds.put(Dataset.Id, parentId + mfile.getName());
     }
 
-    if (config.addLatest != null && !config.addLatest.latestOnTop)
+    if (config.addLatest != null && !config.addLatest.latestOnTop && end == mfiles.size())
       top.addDataset(makeLatestProxy(top, parentId));
 
+    // link to the next page
+    if (end < mfiles.size()) {
+      CatalogRefBuilder next = new CatalogRefBuilder(top);
+      next.setTitle("More datasets (" + (end + 1) + " to " + Math.min(end + limit, mfiles.size()) + " of " + mfiles.size() + ")");
+      next.setHref("catalog.xml?offset=" + end + "&limit=" + limit);
+      top.addDataset(next);
+    }
+
     // make the catalog
     return catBuilder;
   }
 
   ///////////////////////
-  // Scan and sort
+  // Scan and sort, using the listing cache
 
-  private List<MFile> getSortedFiles(Path p, final boolean isSortIncreasing) throws IOException {
+  // a listing is not trusted if the directory was modified this close to the scan, because of mtime resolution
+  static private final long MTIME_SLACK = 2000; // msecs
 
-    // scan the directory
-    List<MFile> mfiles = new ArrayList<>();
-    try (DatasetScanMFileIterator iter = new DatasetScanMFileIterator(p)) {
-      while (iter.hasNext())
-        mfiles.add(iter.next());
+  private static class ListingKey {
+    final DatasetScan dscan;  // the filters depend on the DatasetScan
+    final Path dir;
+
+    ListingKey(DatasetScan dscan, Path dir) {
+      this.dscan = dscan;
+      this.dir = dir;
     }
 
-    // sort them
-    Collections.sort(mfiles, new Comparator<MFile>() {
-      public int compare(MFile o1, MFile o2) {
-        if (o1.isDirectory() != o2.isDirectory())
-          return o1.isDirectory() ? 1 : -1;
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof ListingKey)) return false;
+      ListingKey that = (ListingKey) o;
+      return dscan == that.dscan && dir.equals(that.dir);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(dscan) + dir.hashCode();
+    }
+  }
+
+  // the filtered files and subdirectories of a directory, each sorted by increasing name
+  private static class Listing {
+    final long dirModified; // msecs
+    final long scanned;     // msecs
+    final List<MFile> files;
+    final List<MFile> dirs;
+
+    Listing(long dirModified, long scanned, List<MFile> files, List<MFile> dirs) {
+      this.dirModified = dirModified;
+      this.scanned = scanned;
+      this.files = files;
+      this.dirs = dirs;
+    }
+
+    boolean isValid(long dirModifiedNow, long now) {
+      return dirModifiedNow == dirModified && scanned - dirModified > MTIME_SLACK && now - scanned < listingMaxAge;
+    }
+  }
 
-        if (isSortIncreasing)
-          return o1.getName().compareTo(o2.getName());
+  // files first, then directories, each sorted by name
+  private List<MFile> getSortedFiles(Path p, final boolean isSortIncreasing) throws IOException {
+    final Listing listing = getListing(p);
+    final int nfiles = listing.files.size();
+    final int ndirs = listing.dirs.size();
+
+    return new AbstractList<MFile>() {
+      public MFile get(int index) {
+        if (index < nfiles)
+          return listing.files.get(isSortIncreasing ? index : nfiles - 1 - index);
+        index -= nfiles;
+        return listing.dirs.get(isSortIncreasing ? index : ndirs - 1 - index);
+      }
+
+      public int size() {
+        return nfiles + ndirs;
+      }
+    };
+  }
+
+  private Listing getListing(Path p) throws IOException {
+    long dirModified = Files.getLastModifiedTime(p).toMillis(); // before the scan, so a change during the scan is seen next time
+    Cache<ListingKey, Listing> cache = listingCache;
+    ListingKey key = new ListingKey(this, p);
+    if (cache != null) {
+      Listing listing = cache.getIfPresent(key);
+      if (listing != null && listing.isValid(dirModified, System.currentTimeMillis()))
+        return listing;
+    }
+
+    // scan the directory
+    long scanned = System.currentTimeMillis();
+    List<MFile> files = new ArrayList<>();
+    List<MFile> dirs = new ArrayList<>();
+    try (DatasetScanMFileIterator iter = new DatasetScanMFileIterator(p)) {
+      while (iter.hasNext()) {
+        MFile mfile = iter.next();
+        if (mfile.isDirectory())
+          dirs.add(mfile);
         else
-          return o2.getName().compareTo(o1.getName());
+          files.add(mfile);
       }
-    });
+    }
 
-    return mfiles;
+    // sort them
+    Comparator<MFile> byName = Comparator.comparing(MFile::getName);
+    files.sort(byName);
+    dirs.sort(byName);
+
+    Listing listing = new Listing(dirModified, scanned, files, dirs);
+    if (cache != null)
+      cache.put(key, listing);
+    return listing;
   }
 
   private class DatasetScanMFileIterator implements CloseableIterator<MFile> {
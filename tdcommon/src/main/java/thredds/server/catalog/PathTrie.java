@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+package thredds.server.catalog;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.Arrays;
+
+/**
+ * A radix trie of dataRoot paths, to find the longest path that is a prefix of a request path.
+ * Each edge is labelled with a string, usually one or more path segments, and nodes with a single child are merged
+ * into their parent, so the trie has at most 2n nodes for n paths.
+ * Finding the longest prefix looks at each char of the request path at most once, independent of the number of paths.
+ * Matching is by characters, as with String.startsWith(), so "myworld" is a prefix of "myworldly".
+ *
+ * @since 10/17/2026
+ */
+@NotThreadSafe
+class PathTrie {
+  private static final char[] NO_CHARS = new char[0];
+  private static final Node[] NO_NODES = new Node[0];
+
+  private static class Node {
+    String label;                  // the chars on the edge from the parent to this node
+    String path;                   // non-null if a path ends at this node
+    char[] firsts = NO_CHARS;      // first char of each child's label, sorted
+    Node[] children = NO_NODES;    // in the same order as firsts
+
+    Node(String label, String path) {
+      this.label = label;
+      this.path = path;
+    }
+
+    int find(char c) {
+      return Arrays.binarySearch(firsts, c);
+    }
+
+    void insert(int idx, Node child) {
+      int n = children.length;
+      char[] newFirsts = new char[n + 1];
+      Node[] newChildren = new Node[n + 1];
+      System.arraycopy(firsts, 0, newFirsts, 0, idx);
+      System.arraycopy(children, 0, newChildren, 0, idx);
+      newFirsts[idx] = child.label.charAt(0);
+      newChildren[idx] = child;
+      System.arraycopy(firsts, idx, newFirsts, idx + 1, n - idx);
+      System.arraycopy(children, idx, newChildren, idx + 1, n - idx);
+      firsts = newFirsts;
+      children = newChildren;
+    }
+  }
+
+  private final Node root = new Node("", null);
+  private int size;
+
+  /**
+   * Add a path.
+   * @return true if not already there
+   */
+  boolean add(String path) {
+    Node node = root;
+    int pos = 0;
+    while (true) {
+      if (pos == path.length()) {
+        if (node.path != null) return false;
+        node.path = path;
+        size++;
+        return true;
+      }
+
+      int idx = node.find(path.charAt(pos));
+      if (idx < 0) {
+        node.insert(-idx - 1, new Node(path.substring(pos), path));
+        size++;
+        return true;
+      }
+
+      Node child = node.children[idx];
+      int common = commonLength(child.label, path, pos);
+      if (common < child.label.length()) {
+        // split the edge: node -> mid -> child
+        Node mid = new Node(child.label.substring(0, common), null);
+        child.label = child.label.substring(common);
+        mid.insert(0, child);
+        node.children[idx] = mid;
+        child = mid;
+      }
+      node = child;
+      pos += common;
+    }
+  }
+
+  boolean contains(String path) {
+    Node node = root;
+    int pos = 0;
+    while (pos < path.length()) {
+      int idx = node.find(path.charAt(pos));
+      if (idx < 0) return false;
+      node = node.children[idx];
+      if (!path.startsWith(node.label, pos)) return false;
+      pos += node.label.length();
+    }
+    return node.path != null;
+  }
+
+  /**
+   * Find the longest path that reqPath starts with.
+   * @return the path, or null if none
+   */
+  String findLongestPrefix(String reqPath) {
+    Node node = root;
+    String result = root.path;
+    int pos = 0;
+    while (pos < reqPath.length()) {
+      int idx = node.find(reqPath.charAt(pos));
+      if (idx < 0) break;
+      node = node.children[idx];
+      if (!reqPath.startsWith(node.label, pos)) break;
+      pos += node.label.length();
+      if (node.path != null) result = node.path;
+    }
+    return result;
+  }
+
+  int size() {
+    return size;
+  }
+
+  // number of chars that label and path.substring(pos) have in common at the start
+  private static int commonLength(String label, String path, int pos) {
+    int n = Math.min(label.length(), path.length() - pos);
+    int i = 0;
+    while (i < n && label.charAt(i) == path.charAt(pos + i))
+      i++;
+    return i;
+  }
+}
@@ -27,6 +27,7 @@ import ucar.httpservices.HTTPSession;
 import ucar.nc2.constants.CDM;
 import ucar.nc2.grib.GribIndexCache;
 import ucar.nc2.grib.collection.GribCdmIndex;
+import ucar.nc2.grib.collection.GribIndexPool;
 import ucar.nc2.time.CalendarDate;
 import ucar.nc2.util.AliasTranslator;
 import ucar.nc2.util.DiskCache2;
@@ -41,6 +42,8 @@ import java.nio.file.Paths;
 import java.util.*;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -111,6 +114,30 @@ public class Tdm {
     tdmLogger.info(" TDM nthreads= {}", n);
   }
 
+  // threads for indexing within a collection, shared by all collections
+  public void setIndexThreads(int n) {
+    GribIndexPool.setNThreads(n);
+    tdmLogger.info(" TDM indexThreads= {}", n);
+    if (progress == null) { // report progress while indexing
+      progress = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "TdmProgress");
+        t.setDaemon(true);
+        return t;
+      });
+      progress.scheduleAtFixedRate(this::reportProgress, 1, 1, TimeUnit.MINUTES);
+    }
+  }
+
+  private ScheduledExecutorService progress;
+  private long lastFilesScanned = -1;
+
+  private void reportProgress() {
+    GribIndexPool.Stats stats = GribIndexPool.getStats();
+    if (stats.filesScanned == lastFilesScanned && stats.filesInProgress == 0) return; // idle
+    lastFilesScanned = stats.filesScanned;
+    tdmLogger.info("indexing progress: {}", stats);
+  }
+
   public void setForceOnStartup(boolean forceOnStartup) {
     this.forceOnStartup = forceOnStartup;
   }
@@ -308,6 +335,7 @@ public class Tdm {
         long took = System.currentTimeMillis() - start;
         tdmLogger.debug("{} done {}: changed {} took {} ms", taskNo, config.collectionName, changed, took);
         System.out.printf("%s: %s changed %s took %d msecs%n", CalendarDate.present(), config.collectionName, changed, took);
+        tdmLogger.debug("{} indexing {}", taskNo, GribIndexPool.getStats());
 
         if (debugTasks) {
           System.out.printf("executor=%s%n", executor);
@@ -425,6 +453,9 @@ public class Tdm {
     @Parameter(names = {"-nthreads"}, description = "number of threads", required = false)
     public int nthreads = 1;
 
+    @Parameter(names = {"-indexThreads"}, description = "number of threads for indexing the files and partitions of a collection", required = false)
+    public int indexThreads = 1;
+
     @Parameter(names = {"-showOnly"}, description = "show collections and exit", required = false)
     public boolean showOnly;
 
@@ -495,6 +526,9 @@ public class Tdm {
         if (cmdLine.nthreads != 0)
           app.setNThreads(cmdLine.nthreads);
 
+        if (cmdLine.indexThreads > 1)
+          app.setIndexThreads(cmdLine.indexThreads);
+
         if (cmdLine.showOnly)
           app.setShowOnly(true);
 
@@ -65,6 +65,20 @@ public class CatalogManager {
    * @return the requested Catalog, or null if catalog does not exist or is not allowed.
    */
   public Catalog getCatalog(String path, URI baseURI) throws IOException {
+    return getCatalog(path, baseURI, 0, 0);
+  }
+
+  /**
+   * Same as getCatalog(path, baseURI), but a DatasetScan directory catalog only has the datasets
+   * in [offset, offset + limit), and a catalogRef to the next page if there are more.
+   *
+   * @param path    the path for the requested catalog.
+   * @param baseURI the base URI for the catalog, used to resolve relative URLs.
+   * @param offset  skip this many datasets
+   * @param limit   maximum number of datasets; 0 = no limit
+   * @return the requested Catalog, or null if catalog does not exist or is not allowed.
+   */
+  public Catalog getCatalog(String path, URI baseURI, int offset, int limit) throws IOException {
     if (path == null)
       return null;
 
@@ -73,7 +87,7 @@ public class CatalogManager {
       workPath = workPath.substring(1);
 
     // Check if its a CatalogBuilder or ConfigCatalog
-    Object dyno = makeDynamicCatalog(workPath, baseURI);
+    Object dyno = makeDynamicCatalog(workPath, baseURI, offset, limit);
     if (dyno != null) {
       CatalogBuilder catBuilder;
       if (dyno instanceof CatalogBuilder) {
@@ -95,7 +109,7 @@ public class CatalogManager {
   }
 
   // barfola on the return type
-  private Object makeDynamicCatalog(String path, URI baseURI) throws IOException {
+  private Object makeDynamicCatalog(String path, URI baseURI, int offset, int limit) throws IOException {
     boolean isLatest = path.endsWith("/latest.xml");
 
     // strip off the filename
@@ -127,7 +141,7 @@ public class CatalogManager {
       if (isLatest)
         cat = dscan.makeCatalogForLatest(workPath, baseURI);
       else
-        cat = dscan.makeCatalogForDirectory(workPath, baseURI);
+        cat = dscan.makeCatalogForDirectory(workPath, baseURI, offset, limit);
 
       if (null == cat)
         log.error("makeDynamicCatalog(): DatasetScan.makeCatalogForDirectory failed = " + workPath);
@@ -161,6 +161,14 @@ public class ConfigCatalogHtmlWriter {
     return (sb.toString());
   }
 
+  // replace the xml extension of a catalogRef href with html, keeping the query (eg the next page of a DatasetScan)
+  static String makeHtmlHref(String href) {
+    int query = href.indexOf('?');
+    String path = (query < 0) ? href : href.substring(0, query);
+    int pos = path.lastIndexOf('.');
+    return path.substring(0, pos) + ".html" + ((query < 0) ? "" : href.substring(query));
+  }
+
   private boolean doDatasets(Catalog cat, List<Dataset> datasets, StringBuilder sb, boolean shade, int level, boolean isLocalCatalog) {
     //URI catURI = cat.getBaseURI();
     String catHtml;
@@ -225,12 +233,10 @@ public class ConfigCatalogHtmlWriter {
             if (useRemoteCatalogService) {
               href = tdsContext.getContextPath() + "/remoteCatalogService?catalog=" + href;
             } else {
-              int pos = href.lastIndexOf('.');
-              href = href.substring(0, pos) + ".html";
+              href = makeHtmlHref(href);
             }
           } else {
-            int pos = href.lastIndexOf('.');
-            href = href.substring(0, pos) + ".html";
+            href = makeHtmlHref(href);
           }
 
         } catch (URISyntaxException e) {
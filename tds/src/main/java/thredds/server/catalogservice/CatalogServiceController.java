@@ -54,7 +54,10 @@ public class CatalogServiceController {
     String baseUriString = request.getRequestURL().toString();
     try {
       baseUri = new URI(baseUriString);
-      catalog = catalogManager.getCatalog(catalogPath, baseUri);
+      if (params.dataset != null)
+        catalog = catalogManager.getCatalog(catalogPath, baseUri); // need all the datasets to find it
+      else
+        catalog = catalogManager.getCatalog(catalogPath, baseUri, params.offset, params.limit);
 
     } catch (URISyntaxException e) {
       String msg = "Bad URI syntax [" + baseUriString + "]: " + e.getMessage();
@@ -27,6 +27,7 @@ public class CdmRemoteQueryBean {
   private String req;
   private String var;
   private int deflate = -1;
+  private String compress; // none, deflate, lz4, shuffle_deflate, shuffle_lz4
 
   // type of compression
   private NcStreamCompression compressType = NcStreamCompression.none(); // default
@@ -67,9 +68,22 @@ public class CdmRemoteQueryBean {
   }
 
   public void setDeflate(int level) {
+    deflate = level;
     compressType = NcStreamCompression.deflate(level);
   }
 
+  public String getCompress() {
+    return compress;
+  }
+
+  public void setCompress(String compress) {
+    this.compress = compress;
+  }
+
+  void setCompression(NcStreamCompression compressType) {
+    this.compressType = compressType;
+  }
+
   private List<String> errs;
   public void addError(String mess) {
     if (errs == null) errs = new ArrayList<>();
@@ -7,6 +7,7 @@ package thredds.server.cdmremote;
 import org.springframework.validation.Errors;
 import org.springframework.validation.ValidationUtils;
 import org.springframework.validation.Validator;
+import ucar.nc2.stream.NcStreamCompression;
 
 /**
  * CdmRemoteQueryBean Validator
@@ -40,8 +41,12 @@ public class CdmRemoteQueryBeanValidator implements Validator {
     else reqType = CdmRemoteQueryBean.RequestType.data; // default
     bean.setReqType(reqType);
 
+    // the client asks for a compression, an unknown one gets the default. the Data message says which was used.
     int deflateLevel = bean.getDeflate();
-    if (deflateLevel >= 0)
+    NcStreamCompression compression = (bean.getCompress() == null) ? null : NcStreamCompression.fromName(bean.getCompress(), deflateLevel);
+    if (compression != null)
+      bean.setCompression(compression);
+    else if (deflateLevel >= 0)
       bean.setDeflate(deflateLevel);
   }
 
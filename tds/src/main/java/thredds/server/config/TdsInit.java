@@ -5,6 +5,7 @@
 
 package thredds.server.config;
 
+import dap4.servlet.DapCache;
 import org.slf4j.Logger;
 import org.slf4j.MDC;
 import org.springframework.beans.factory.DisposableBean;
@@ -30,6 +31,7 @@ import ucar.nc2.NetcdfFile;
 import ucar.nc2.dataset.NetcdfDataset;
 import ucar.nc2.grib.GribIndexCache;
 import ucar.nc2.grib.collection.GribCdmIndex;
+import ucar.nc2.grib.collection.GribIndexMapper;
 import ucar.nc2.jni.netcdf.Nc4Iosp;
 import ucar.nc2.ncml.Aggregation;
 import ucar.nc2.stream.CdmRemote;
@@ -38,6 +40,7 @@ import ucar.nc2.util.DebugFlagsImpl;
 import ucar.nc2.util.DiskCache;
 import ucar.nc2.util.DiskCache2;
 import ucar.nc2.util.cache.FileCache;
+import ucar.nc2.util.cache.FileCacheStriped;
 import ucar.unidata.io.RandomAccessFile;
 import ucar.util.prefs.PreferencesExt;
 import ucar.util.prefs.XMLStore;
@@ -49,6 +52,7 @@ import java.util.Map;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * A Singleton class to initialize and shutdown the CDM/TDS
@@ -87,6 +91,7 @@ public class TdsInit implements ApplicationListener<ContextRefreshedEvent>, Disp
   @Autowired
   @Qualifier("fcTriggerExecutor")
   private ExecutorService executor;  // need this so we can shut it down
+  private ForkJoinPool aggReadPool;  // ditto
 
   @Autowired
   private AllowedServices allowedServices;
@@ -276,6 +281,14 @@ public class TdsInit implements ApplicationListener<ContextRefreshedEvent>, Disp
     Aggregation.setTypicalDatasetMode(typicalDataset);
     startupLog.info("TdsInit: Aggregation.setTypicalDatasetMode= " + typicalDataset);
 
+    // read the nested datasets of outer dimension aggregations in parallel
+    int aggReadThreads = ThreddsConfig.getInt("Aggregation.readThreads", 0);
+    if (aggReadThreads > 1) {
+      aggReadPool = new ForkJoinPool(aggReadThreads);
+      Aggregation.setExecutor(aggReadPool);
+      startupLog.info("TdsInit: Aggregation.readThreads= " + aggReadThreads);
+    }
+
     ////////////////////////////////////////////////////////////////
     // Disk Caching
     String dir;
@@ -319,6 +332,11 @@ public class TdsInit implements ApplicationListener<ContextRefreshedEvent>, Disp
     gribCache.setNeverUseCache(gribIndexNeverUse);
     GribIndexCache.setDiskCache2(gribCache);
     startupLog.info("TdsInit: GribIndex=" + gribCache);
+    boolean gribIndexMapped = ThreddsConfig.getBoolean("GribIndex.memoryMapped", false);
+    if (gribIndexMapped) {
+      GribIndexMapper.setMemoryMapped(true);
+      startupLog.info("TdsInit: GribIndex memoryMapped");
+    }
 
     // LOOK just create the diskCache here and send it in
     ncssDiskCache.init();
@@ -361,14 +379,16 @@ public class TdsInit implements ApplicationListener<ContextRefreshedEvent>, Disp
     ///////////////////////////////////////////////
     // Object caching
     int min, max, secs;
+    boolean striped = ThreddsConfig.getBoolean("FileCache.striped", false); // use FileCacheStriped instead of FileCache
 
     // RandomAccessFile: default is allow 400 - 500 open files, cleanup every 11 minutes
     min = ThreddsConfig.getInt("RandomAccessFile.minFiles", 400);
     max = ThreddsConfig.getInt("RandomAccessFile.maxFiles", 500);
     secs = ThreddsConfig.getSeconds("RandomAccessFile.scour", 11 * 60);
     if (max > 0) {
-      RandomAccessFile.setGlobalFileCache(new FileCache("RandomAccessFile", min, max, -1, secs));
-      startupLog.info("TdsInit: RandomAccessFile.initPartitionCache= [" + min + "," + max + "] scour = " + secs);
+      RandomAccessFile.setGlobalFileCache(striped ? new FileCacheStriped("RandomAccessFile", min, max, -1, secs) :
+              new FileCache("RandomAccessFile", min, max, -1, secs));
+      startupLog.info("TdsInit: RandomAccessFile.initPartitionCache= [" + min + "," + max + "] scour = " + secs + " striped = " + striped);
     }
 
     // NetcdfFileCache : default is allow 100 - 150 open files, cleanup every 12 minutes
@@ -376,8 +396,11 @@ public class TdsInit implements ApplicationListener<ContextRefreshedEvent>, Disp
     max = ThreddsConfig.getInt("NetcdfFileCache.maxFiles", 150);
     secs = ThreddsConfig.getSeconds("NetcdfFileCache.scour", 12 * 60);
     if (max > 0) {
-      NetcdfDataset.initNetcdfFileCache(min, max, secs);
-      startupLog.info("TdsInit: NetcdfDataset.initNetcdfFileCache= [" + min + "," + max + "] scour = " + secs);
+      if (striped)
+        NetcdfDataset.setNetcdfFileCache(new FileCacheStriped("NetcdfFileCache", min, max, -1, secs));
+      else
+        NetcdfDataset.initNetcdfFileCache(min, max, secs);
+      startupLog.info("TdsInit: NetcdfDataset.initNetcdfFileCache= [" + min + "," + max + "] scour = " + secs + " striped = " + striped);
     }
 
     // GribCollection partitions: default is allow 100 - 150 objects, cleanup every 13 minutes
@@ -385,10 +408,27 @@ public class TdsInit implements ApplicationListener<ContextRefreshedEvent>, Disp
     max = ThreddsConfig.getInt("TimePartition.maxFiles", 150);
     secs = ThreddsConfig.getSeconds("TimePartition.scour", 13 * 60);
     if (max > 0) {
-      GribCdmIndex.initDefaultCollectionCache(min, max, secs);
-      startupLog.info("TdsInit: GribCdmIndex.initDefaultCollectionCache= [" + min + "," + max + "] scour = " + secs);
+      if (striped)
+        GribCdmIndex.setGribCollectionCache(new FileCacheStriped("DefaultGribCollectionCache", min, max, -1, secs));
+      else
+        GribCdmIndex.initDefaultCollectionCache(min, max, secs);
+      startupLog.info("TdsInit: GribCdmIndex.initDefaultCollectionCache= [" + min + "," + max + "] scour = " + secs + " striped = " + striped);
     }
 
+    // DatasetScan directory listings: default is cache up to 250K files, rescan after a minute; no paging
+    long maxCachedFiles = ThreddsConfig.getLong("DatasetScan.listingCacheFiles", 250 * 1000);
+    secs = ThreddsConfig.getSeconds("DatasetScan.listingCacheAge", 60);
+    DatasetScan.setListingCache(maxCachedFiles, secs);
+    max = ThreddsConfig.getInt("DatasetScan.maxDatasets", 0);
+    DatasetScan.setMaxDatasets(max);
+    startupLog.info("TdsInit: DatasetScan.setListingCache= " + maxCachedFiles + " age = " + secs + " maxDatasets = " + max);
+
+    // DAP4 DSP cache: default is allow 100 open datasets, no time limit
+    max = ThreddsConfig.getInt("Dap4Cache.maxFiles", 100);
+    secs = ThreddsConfig.getSeconds("Dap4Cache.ttl", 0);
+    DapCache.setCacheLimits(max, secs);
+    startupLog.info("TdsInit: DapCache.setCacheLimits= " + max + " ttl = " + secs);
+
     //RandomAccessFile.enableDefaultGlobalFileCache();
     //RandomAccessFile.setDebugLeaks(true);
 
@@ -444,9 +484,14 @@ public class TdsInit implements ApplicationListener<ContextRefreshedEvent>, Disp
     if (cdmDiskCacheTimer != null)
       cdmDiskCacheTimer.cancel();
     FileCache.shutdown();              // this handles background threads for all instances of FileCache
+    FileCacheStriped.shutdown();       // this handles background threads for all instances of FileCacheStriped
     DiskCache2.exit();                // this handles background threads for all instances of DiskCache2
     thredds.inventory.bdb.MetadataManager.closeAll();
     executor.shutdownNow();
+    if (aggReadPool != null) {
+      Aggregation.setExecutor(null);
+      aggReadPool.shutdownNow();
+    }
 
     /* try {
       catalogWatcher.close();
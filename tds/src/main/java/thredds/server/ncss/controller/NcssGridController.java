@@ -109,9 +109,6 @@ public class NcssGridController extends AbstractNcssController {
                 "Grid requests with vertCoord must have variables with same vertical levels.");
       }
 
-    String responseFile = getResponseFileName(datasetPath, version);
-    File netcdfResult = makeCFNetcdfFile(gcd, responseFile, params, version);
-
     // filename download attachment
     String suffix = version.getSuffix();
     int pos = datasetPath.lastIndexOf("/");
@@ -125,6 +122,19 @@ public class NcssGridController extends AbstractNcssController {
     httpHeaders.set(ContentType.HEADER, sf.getMimeType());
     httpHeaders.set(Constants.Content_Disposition, Constants.setContentDispositionValue(filename));
 
+    SubsetParams subset = params.makeSubset(gcd);
+    if (version == NetcdfFileWriter.Version.netcdf3 && ThreddsConfig.getBoolean("NetcdfSubsetService.streamNetcdf3", false)) {
+      long estimatedSize = estimateSize(gcd, params, subset);
+      checkFileDownloadSize(estimatedSize, version);
+      if (estimatedSize < Integer.MAX_VALUE) { // classic format only; large files go through the disk cache
+        streamCFNetcdf3(res, gcd, params, subset, httpHeaders);
+        return;
+      }
+    }
+
+    String responseFile = getResponseFileName(datasetPath, version);
+    File netcdfResult = makeCFNetcdfFile(gcd, responseFile, params, subset, version);
+
     // set content length
     httpHeaders.set(Constants.Content_Length, Constants.getContentLengthValue(netcdfResult));
 
@@ -136,25 +146,29 @@ public class NcssGridController extends AbstractNcssController {
     res.setStatus(HttpServletResponse.SC_OK);
   }
 
+  // write the netcdf-3 file directly to the response, no temporary file
+  private void streamCFNetcdf3(HttpServletResponse res, CoverageCollection gcd, NcssGridParamsBean params,
+          SubsetParams subset, HttpHeaders httpHeaders) throws InvalidRangeException, IOException {
+    Optional<Long> sizeo = CFGridCoverageWriter2.writeStream(gcd, params.getVar(), subset, params.isAddLatLon(),
+            res.getOutputStream(), length -> {
+              httpHeaders.set(Constants.Content_Length, Long.toString(length));
+              setResponseHeaders(res, httpHeaders);
+            });
+    if (!sizeo.isPresent())  // nothing has been written
+      throw new InvalidRangeException("Request contains no data: " + sizeo.getErrorMessage());
+
+    res.flushBuffer();
+    res.getOutputStream().close();
+    res.setStatus(HttpServletResponse.SC_OK);
+  }
+
   private File makeCFNetcdfFile(CoverageCollection gcd, String responseFilename, NcssGridParamsBean params,
-          NetcdfFileWriter.Version version) throws InvalidRangeException, IOException {
-    SubsetParams subset = params.makeSubset(gcd);
+          SubsetParams subset, NetcdfFileWriter.Version version) throws InvalidRangeException, IOException {
 
     // Test maxFileDownloadSize
     long maxFileDownloadSize = ThreddsConfig.getBytes("NetcdfSubsetService.maxFileDownloadSize", -1L);
     if (maxFileDownloadSize > 0) {
-      Optional<Long> estimatedSizeo = CFGridCoverageWriter2.writeOrTestSize(
-              gcd, params.getVar(), subset, params.isAddLatLon(), true, null);
-      if (!estimatedSizeo.isPresent())
-        throw new InvalidRangeException("Request contains no data: " + estimatedSizeo.getErrorMessage());
-
-      long estimatedSize = estimatedSizeo.get();
-      if (version == NetcdfFileWriter.Version.netcdf4)
-        estimatedSize /= ESTIMATED_COMPRESION_RATE;
-
-      if (estimatedSize > maxFileDownloadSize)
-        throw new RequestTooLargeException(
-                "NCSS response too large = " + estimatedSize + " max = " + maxFileDownloadSize);
+      checkFileDownloadSize(estimateSize(gcd, params, subset), version);
     }
 
     // write the file
@@ -169,6 +183,29 @@ public class NcssGridController extends AbstractNcssController {
     return new File(responseFilename);
   }
 
+  // the total size of the variables in the response, uncompressed
+  private long estimateSize(CoverageCollection gcd, NcssGridParamsBean params, SubsetParams subset)
+          throws InvalidRangeException, IOException {
+    Optional<Long> estimatedSizeo = CFGridCoverageWriter2.writeOrTestSize(
+            gcd, params.getVar(), subset, params.isAddLatLon(), true, null);
+    if (!estimatedSizeo.isPresent())
+      throw new InvalidRangeException("Request contains no data: " + estimatedSizeo.getErrorMessage());
+    return estimatedSizeo.get();
+  }
+
+  private void checkFileDownloadSize(long estimatedSize, NetcdfFileWriter.Version version) {
+    long maxFileDownloadSize = ThreddsConfig.getBytes("NetcdfSubsetService.maxFileDownloadSize", -1L);
+    if (maxFileDownloadSize <= 0)
+      return;
+
+    if (version == NetcdfFileWriter.Version.netcdf4)
+      estimatedSize /= ESTIMATED_COMPRESION_RATE;
+
+    if (estimatedSize > maxFileDownloadSize)
+      throw new RequestTooLargeException(
+              "NCSS response too large = " + estimatedSize + " max = " + maxFileDownloadSize);
+  }
+
   private String getResponseFileName(String requestPathInfo, NetcdfFileWriter.Version version) {
     Random random = new Random(System.currentTimeMillis());
     int randomInt = random.nextInt();
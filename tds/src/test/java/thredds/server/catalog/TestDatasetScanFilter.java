@@ -12,6 +12,7 @@ import org.junit.rules.TemporaryFolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import thredds.client.catalog.Catalog;
+import thredds.client.catalog.CatalogRef;
 import thredds.client.catalog.Dataset;
 import thredds.client.catalog.Service;
 import thredds.client.catalog.builder.CatalogBuilder;
@@ -238,6 +239,100 @@ public class TestDatasetScanFilter {
     assert catb == null;
   }
 
+  @Test
+  public void testPaging() throws IOException {
+    ConfigCatalog cat = TestConfigCatalogBuilder.getFromResource("thredds/server/catalog/TestDatasetScan.xml");
+    DatasetScan dss = (DatasetScan) cat.findDatasetByID("testGridScanReg");
+    String path = "testGridScanReg/testDatafilesInDateTimeNestedDirs/profiles/20131107";
+
+    Dataset root = dss.makeCatalogForDirectory(path, cat.getBaseURI(), 1, 1).makeCatalog().getDatasets().get(0);
+    List<Dataset> datasets = root.getDatasets();
+    Assert.assertEquals(2, datasets.size());
+    Assert.assertEquals("PROFILER_wind_06min_20131107_0008.nc", datasets.get(0).getName());
+    Assert.assertTrue(datasets.get(1) instanceof CatalogRef);
+    Assert.assertEquals("catalog.xml?offset=2&limit=1", ((CatalogRef) datasets.get(1)).getXlinkHref());
+
+    // last page
+    root = dss.makeCatalogForDirectory(path, cat.getBaseURI(), 2, 1).makeCatalog().getDatasets().get(0);
+    datasets = root.getDatasets();
+    Assert.assertEquals(1, datasets.size());
+    Assert.assertEquals("PROFILER_wind_06min_20131107_0014.nc", datasets.get(0).getName());
+
+    root = dss.makeCatalogForDirectory(path, cat.getBaseURI(), 10, 1).makeCatalog().getDatasets().get(0);
+    Assert.assertEquals(0, root.getDatasets().size());
+  }
+
+  @Test
+  public void testListingCacheSeesChanges() throws IOException {
+    ConfigCatalog cat = TestConfigCatalogBuilder.getFromResource("thredds/server/catalog/TestDatasetScan.xml");
+    DatasetScan dss = (DatasetScan) cat.findDatasetByID("testGridScan");
+    File dir = TestFileDirUtils.addDirectory(new File(tmpTestDataDir, "testDatafilesInDateTimeNestedDirs"), "listing");
+    String path = "testGridScan/testDatafilesInDateTimeNestedDirs/listing";
+    try {
+      TestFileDirUtils.addFile(dir, "one.nc");
+      Dataset root = dss.makeCatalogForDirectory(path, cat.getBaseURI()).makeCatalog().getDatasets().get(0);
+      Assert.assertEquals(1, root.getDatasets().size());
+
+      TestFileDirUtils.addFile(dir, "two.nc");
+      root = dss.makeCatalogForDirectory(path, cat.getBaseURI()).makeCatalog().getDatasets().get(0);
+      Assert.assertEquals(2, root.getDatasets().size());
+
+      Assert.assertTrue(new File(dir, "one.nc").delete());
+      root = dss.makeCatalogForDirectory(path, cat.getBaseURI()).makeCatalog().getDatasets().get(0);
+      Assert.assertEquals(1, root.getDatasets().size());
+      Assert.assertEquals("two.nc", root.getDatasets().get(0).getName());
+
+    } finally {
+      File[] files = dir.listFiles();
+      if (files != null)
+        for (File file : files)
+          file.delete();
+      dir.delete();
+    }
+  }
+
+  @Test
+  public void testListingCacheHit() throws IOException {
+    ConfigCatalog cat = TestConfigCatalogBuilder.getFromResource("thredds/server/catalog/TestDatasetScan.xml");
+    DatasetScan dss = (DatasetScan) cat.findDatasetByID("testGridScan");
+    File dir = TestFileDirUtils.addDirectory(new File(tmpTestDataDir, "testDatafilesInDateTimeNestedDirs"), "cached");
+    String path = "testGridScan/testDatafilesInDateTimeNestedDirs/cached";
+    long past = System.currentTimeMillis() - 60 * 1000; // well outside of the mtime slack
+    try {
+      TestFileDirUtils.addFile(dir, "one.nc");
+      Assert.assertTrue(dir.setLastModified(past));
+      Assert.assertEquals(1, countDatasets(dss, path, cat));
+
+      // the directory looks unchanged, so the cached listing is used
+      TestFileDirUtils.addFile(dir, "two.nc");
+      Assert.assertTrue(dir.setLastModified(past));
+      Assert.assertEquals(1, countDatasets(dss, path, cat));
+
+      // a changed directory invalidates it
+      Assert.assertTrue(dir.setLastModified(past + 1000));
+      Assert.assertEquals(2, countDatasets(dss, path, cat));
+
+      // so does its age
+      TestFileDirUtils.addFile(dir, "three.nc");
+      Assert.assertTrue(dir.setLastModified(past + 1000));
+      Assert.assertEquals(2, countDatasets(dss, path, cat));
+      DatasetScan.setListingCache(250 * 1000, 0);
+      Assert.assertEquals(3, countDatasets(dss, path, cat));
+
+    } finally {
+      DatasetScan.setListingCache(250 * 1000, 60);
+      File[] files = dir.listFiles();
+      if (files != null)
+        for (File file : files)
+          file.delete();
+      dir.delete();
+    }
+  }
+
+  private int countDatasets(DatasetScan dss, String path, ConfigCatalog cat) throws IOException {
+    return dss.makeCatalogForDirectory(path, cat.getBaseURI()).makeCatalog().getDatasets().get(0).getDatasets().size();
+  }
+
   @Test
   public void testRegexp() throws IOException {
     testOne("PROFILER_wind_06min_2013110[67]_[0-9]{4}.nc", "PROFILER_wind_06min_20131107_0001.nc", true);
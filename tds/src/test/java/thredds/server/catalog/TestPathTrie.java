@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+package thredds.server.catalog;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Test PathTrie against a brute force longest prefix match.
+ *
+ * @since 10/17/2026
+ */
+public class TestPathTrie {
+
+  @Test
+  public void testPaths() {
+    PathTrie trie = new PathTrie();
+    String[] paths = {"thredds/dods/test/longer", "thredds/dods/test", "thredds/dods/tester", "thredds/dods/short",
+            "actionable", "myworld", "mynot", "ncmodels", "ncmodels/bzipped"};
+    for (String path : paths)
+      Assert.assertTrue(path, trie.add(path));
+    Assert.assertFalse(trie.add("myworld"));
+    Assert.assertEquals(paths.length, trie.size());
+
+    Assert.assertNull(trie.findLongestPrefix("nope"));
+    Assert.assertEquals("thredds/dods/test", trie.findLongestPrefix("thredds/dods/test"));
+    Assert.assertEquals("thredds/dods/test", trie.findLongestPrefix("thredds/dods/test/lo"));
+    Assert.assertEquals("thredds/dods/test/longer", trie.findLongestPrefix("thredds/dods/test/longer/donger"));
+    Assert.assertEquals("thredds/dods/tester", trie.findLongestPrefix("thredds/dods/tester/file.nc"));
+    Assert.assertEquals("myworld", trie.findLongestPrefix("myworldly"));
+    Assert.assertNull(trie.findLongestPrefix("my"));
+    Assert.assertNull(trie.findLongestPrefix("mysnot"));
+    Assert.assertEquals("ncmodels", trie.findLongestPrefix("ncmodels/canonical"));
+    Assert.assertNull(trie.findLongestPrefix(""));
+
+    Assert.assertTrue(trie.contains("thredds/dods/test"));
+    Assert.assertFalse(trie.contains("thredds/dods/tes"));
+    Assert.assertFalse(trie.contains("thredds/dods"));
+  }
+
+  @Test
+  public void testRandom() {
+    Random r = new Random(22);
+    String[] segments = {"a", "ab", "abc", "b", "station", "stations", "2018", "data"};
+    List<String> paths = new ArrayList<>();
+    PathTrie trie = new PathTrie();
+    for (int i = 0; i < 2000; i++) {
+      String path = randomPath(r, segments);
+      if (!paths.contains(path))
+        paths.add(path);
+      trie.add(path);
+    }
+    Assert.assertEquals(paths.size(), trie.size());
+
+    for (int i = 0; i < 5000; i++) {
+      String req = randomPath(r, segments);
+      if (r.nextBoolean()) req += "/file.nc";
+      Assert.assertEquals(req, bruteForce(paths, req), trie.findLongestPrefix(req));
+      Assert.assertEquals(req, paths.contains(req), trie.contains(req));
+    }
+  }
+
+  private String randomPath(Random r, String[] segments) {
+    StringBuilder sb = new StringBuilder();
+    int n = 1 + r.nextInt(4);
+    for (int j = 0; j < n; j++) {
+      if (j > 0) sb.append('/');
+      sb.append(segments[r.nextInt(segments.length)]);
+    }
+    return sb.toString();
+  }
+
+  private String bruteForce(List<String> paths, String req) {
+    String result = null;
+    for (String path : paths) {
+      if (req.startsWith(path) && (result == null || path.length() > result.length()))
+        result = path;
+    }
+    return result;
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 1998-2018 University Corporation for Atmospheric Research/Unidata
+ * See LICENSE for license information.
+ */
+package thredds.server.catalogservice;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import thredds.mock.web.MockTdsContextLoader;
+import thredds.server.catalog.DatasetScan;
+import ucar.unidata.util.test.category.NeedsContentRoot;
+
+/**
+ * The HTML view of a paged DatasetScan catalog links to the next page.
+ *
+ * @since 10/17/2026
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@WebAppConfiguration
+@ContextConfiguration(locations = {"/WEB-INF/applicationContext.xml", "/WEB-INF/spring-servlet.xml"}, loader = MockTdsContextLoader.class)
+@Category(NeedsContentRoot.class)
+public class TestCatalogPagingHtml {
+  static private final String path = "/catalog/scanLocal/catalog.html";
+
+  @Autowired
+  private WebApplicationContext wac;
+
+  private MockMvc mockMvc;
+
+  @Before
+  public void setup() {
+    mockMvc = MockMvcBuilders.webAppContextSetup(wac).build();
+    DatasetScan.setMaxDatasets(2);
+  }
+
+  @After
+  public void tearDown() {
+    DatasetScan.setMaxDatasets(0);
+  }
+
+  @Test
+  public void testNextPageLink() throws Exception {
+    String html = get(MockMvcRequestBuilders.get(path).servletPath(path));
+    Assert.assertTrue(html, html.contains("href='catalog.html?offset=2&amp;limit=2'"));
+
+    // the next page links to the one after it, not back to the first
+    html = get(MockMvcRequestBuilders.get(path).servletPath(path).param("offset", "2").param("limit", "2"));
+    Assert.assertTrue(html, html.contains("href='catalog.html?offset=4&amp;limit=2'"));
+    Assert.assertFalse(html, html.contains("offset=2&amp;"));
+  }
+
+  private String get(RequestBuilder rb) throws Exception {
+    MvcResult result = mockMvc.perform(rb).andReturn();
+    Assert.assertEquals(200, result.getResponse().getStatus());
+    return result.getResponse().getContentAsString();
+  }
+}